@@ -0,0 +1,14 @@
+package com.pm.analyticsservice.aggregate;
+
+import com.pm.analyticsservice.dto.AnalyticsSummaryResponseDTO;
+import com.pm.analyticsservice.eventlog.LogPosition;
+import java.util.Map;
+
+/**
+ * The aggregates as built from every event stored before {@code position}, and the highest offset stored per
+ * partition at that point. Once written, the event log may delete the segments before {@code position}.
+ */
+public record AggregateSnapshot(AnalyticsSummaryResponseDTO aggregates,
+                                LogPosition position,
+                                Map<Integer, Long> highestOffsets) {
+}
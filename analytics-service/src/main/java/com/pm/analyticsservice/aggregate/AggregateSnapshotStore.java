@@ -0,0 +1,46 @@
+package com.pm.analyticsservice.aggregate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the latest {@link AggregateSnapshot} as a JSON file. A snapshot is written to a temporary file, forced
+ * to disk and then moved over the previous one, so a crash leaves either the old or the new snapshot.
+ */
+@Component
+public class AggregateSnapshotStore {
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final Path file;
+
+  public AggregateSnapshotStore(
+      @Value("${analytics.snapshot.file:${analytics.event-log.dir:./data/event-log}/aggregates.json}") Path file) {
+    this.file = file;
+  }
+
+  // Null if no snapshot was written yet
+  public AggregateSnapshot load() throws IOException {
+    if (!Files.exists(file)) {
+      return null;
+    }
+    return objectMapper.readValue(file.toFile(), AggregateSnapshot.class);
+  }
+
+  public void write(AggregateSnapshot snapshot) throws IOException {
+    Path directory = file.toAbsolutePath().getParent();
+    Files.createDirectories(directory);
+    Path temporary = directory.resolve(file.getFileName() + ".tmp");
+    Files.write(temporary, objectMapper.writeValueAsBytes(snapshot));
+    try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+      channel.force(true);
+    }
+    Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+}
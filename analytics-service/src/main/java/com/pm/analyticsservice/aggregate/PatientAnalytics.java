@@ -0,0 +1,59 @@
+package com.pm.analyticsservice.aggregate;
+
+import com.pm.analyticsservice.dto.AnalyticsSummaryResponseDTO;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import patient.events.PatientEvent;
+
+/**
+ * The aggregates computed from patient events. Safe to update and read concurrently. Persisted only as a
+ * {@link #summary()} in an {@link AggregateSnapshot}, from which {@link #restore} picks up again.
+ */
+public class PatientAnalytics {
+
+  static final String PATIENT_CREATED = "PATIENT_CREATED";
+  static final String PATIENT_DELETED = "PATIENT_DELETED";
+
+  private final LongAdder totalEvents = new LongAdder();
+  private final Map<String, LongAdder> eventsByType = new ConcurrentHashMap<>();
+  private final Map<String, LongAdder> registrationsByMonth = new ConcurrentHashMap<>();
+
+  public static PatientAnalytics restore(AnalyticsSummaryResponseDTO summary) {
+    PatientAnalytics restored = new PatientAnalytics();
+    restored.totalEvents.add(summary.totalEvents());
+    summary.eventsByType().forEach((type, count) -> restored.eventsByType.put(type, adder(count)));
+    summary.registrationsByMonth().forEach((month, count) -> restored.registrationsByMonth.put(month, adder(count)));
+    return restored;
+  }
+
+  private static LongAdder adder(long value) {
+    LongAdder adder = new LongAdder();
+    adder.add(value);
+    return adder;
+  }
+
+  public void apply(PatientEvent event) {
+    totalEvents.increment();
+    eventsByType.computeIfAbsent(event.getEventType(), type -> new LongAdder()).increment();
+    if (PATIENT_CREATED.equals(event.getEventType()) && event.getRegisteredDate().length() >= 7) {
+      // yyyy-MM-dd -> yyyy-MM
+      registrationsByMonth.computeIfAbsent(event.getRegisteredDate().substring(0, 7), month -> new LongAdder())
+                          .increment();
+    }
+  }
+
+  public long totalEvents() {
+    return totalEvents.sum();
+  }
+
+  public AnalyticsSummaryResponseDTO summary() {
+    Map<String, Long> byType = new TreeMap<>();
+    eventsByType.forEach((type, count) -> byType.put(type, count.sum()));
+    Map<String, Long> byMonth = new TreeMap<>();
+    registrationsByMonth.forEach((month, count) -> byMonth.put(month, count.sum()));
+    long activePatients = byType.getOrDefault(PATIENT_CREATED, 0L) - byType.getOrDefault(PATIENT_DELETED, 0L);
+    return new AnalyticsSummaryResponseDTO(totalEvents.sum(), activePatients, byType, byMonth);
+  }
+}
@@ -0,0 +1,58 @@
+package com.pm.analyticsservice.aggregate;
+
+import com.pm.analyticsservice.dedup.EventDeduplicator;
+import com.pm.analyticsservice.dedup.LongHashSet;
+import java.util.Map;
+import patient.events.PatientEvent;
+
+/**
+ * Aggregates being rebuilt by a backfill. Each partition is split at {@code endOffsets}: backfill workers apply
+ * everything before the split, the live consumer mirrors everything from it on. The shadow is therefore
+ * complete, with no gap or overlap, as soon as the workers reach the split.
+ * <p>
+ * Duplicates are found by an exact set of every applied event's fingerprint, 8-16 bytes per event. A sliding
+ * window does not fit here: live events carry current timestamps and workers read partitions at different
+ * points in time, so the window would run ahead of the history and stop checking it.
+ */
+public class ShadowAnalytics {
+
+  private final PatientAnalytics analytics = new PatientAnalytics();
+  private final LongHashSet applied = new LongHashSet();
+  private final Map<Integer, Long> endOffsets;
+
+  public ShadowAnalytics(Map<Integer, Long> endOffsets) {
+    this.endOffsets = Map.copyOf(endOffsets);
+  }
+
+  /**
+   * Applies an event unless it is a duplicate. Returns whether it was applied.
+   */
+  public boolean apply(PatientEvent event, int partition, long offset) {
+    long fingerprint = EventDeduplicator.fingerprint(event, partition, offset);
+    // workers and the live consumer apply concurrently
+    synchronized (applied) {
+      if (!applied.add(fingerprint)) {
+        return false;
+      }
+    }
+    analytics.apply(event);
+    return true;
+  }
+
+  // records from the live consumer that the backfill workers will not read
+  public boolean isLiveRecord(int partition, long offset) {
+    return offset >= endOffsets.getOrDefault(partition, 0L);
+  }
+
+  public long endOffset(int partition) {
+    return endOffsets.getOrDefault(partition, 0L);
+  }
+
+  public Map<Integer, Long> endOffsets() {
+    return endOffsets;
+  }
+
+  public PatientAnalytics analytics() {
+    return analytics;
+  }
+}
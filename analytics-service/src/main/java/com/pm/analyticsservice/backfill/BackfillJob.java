@@ -0,0 +1,146 @@
+package com.pm.analyticsservice.backfill;
+
+import com.pm.analyticsservice.aggregate.ShadowAnalytics;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+public class BackfillJob {
+
+  public enum State {
+    RUNNING, SWAPPED, FAILED, CANCELLED
+  }
+
+  private final UUID id = UUID.randomUUID();
+  private final String groupId;
+  private final String startingPoint;
+  private final ShadowAnalytics shadow;
+  private final Map<Integer, PartitionProgress> partitions = new TreeMap<>();
+  private final LongAdder eventsRead = new LongAdder();
+  private final Instant startedAt = Instant.now();
+  private volatile State state = State.RUNNING;
+  private volatile Instant finishedAt;
+  private volatile String error;
+
+  BackfillJob(String groupId, String startingPoint, ShadowAnalytics shadow, Map<Integer, Long> startOffsets) {
+    this.groupId = groupId;
+    this.startingPoint = startingPoint;
+    this.shadow = shadow;
+    startOffsets.forEach((partition, start) ->
+      partitions.put(partition, new PartitionProgress(partition, start, shadow.endOffset(partition))));
+  }
+
+  void advance(int partition, long nextOffset) {
+    partitions.get(partition).position.set(nextOffset);
+    eventsRead.increment();
+  }
+
+  // gaps such as transaction markers can leave the last read offset short of the split
+  void caughtUp(int partition) {
+    PartitionProgress progress = partitions.get(partition);
+    progress.position.accumulateAndGet(progress.endOffset, Math::max);
+  }
+
+  void finish(State finalState, String failure) {
+    this.error = failure;
+    this.finishedAt = Instant.now();
+    this.state = finalState;
+  }
+
+  void cancel() {
+    if (state == State.RUNNING) {
+      finish(State.CANCELLED, null);
+    }
+  }
+
+  public double progress() {
+    long total = 0;
+    long done = 0;
+    for (PartitionProgress partition : partitions.values()) {
+      total += partition.endOffset - partition.startOffset;
+      done += Math.min(partition.position.get(), partition.endOffset) - partition.startOffset;
+    }
+    return total == 0 ? 1.0 : (double) done / total;
+  }
+
+  public double eventsPerSecond() {
+    Instant end = finishedAt != null ? finishedAt : Instant.now();
+    double seconds = Duration.between(startedAt, end).toNanos() / 1e9;
+    return seconds > 0 ? eventsRead.sum() / seconds : 0;
+  }
+
+  public UUID getId() {
+    return id;
+  }
+
+  public String getGroupId() {
+    return groupId;
+  }
+
+  public String getStartingPoint() {
+    return startingPoint;
+  }
+
+  ShadowAnalytics getShadow() {
+    return shadow;
+  }
+
+  public Map<Integer, PartitionProgress> getPartitions() {
+    return partitions;
+  }
+
+  public long getEventsRead() {
+    return eventsRead.sum();
+  }
+
+  public Instant getStartedAt() {
+    return startedAt;
+  }
+
+  public State getState() {
+    return state;
+  }
+
+  public Instant getFinishedAt() {
+    return finishedAt;
+  }
+
+  public String getError() {
+    return error;
+  }
+
+  public static final class PartitionProgress {
+
+    private final int partition;
+    private final long startOffset;
+    private final long endOffset;
+    private final AtomicLong position;
+
+    PartitionProgress(int partition, long startOffset, long endOffset) {
+      this.partition = partition;
+      this.startOffset = startOffset;
+      this.endOffset = endOffset;
+      this.position = new AtomicLong(startOffset);
+    }
+
+    public int getPartition() {
+      return partition;
+    }
+
+    public long getStartOffset() {
+      return startOffset;
+    }
+
+    public long getEndOffset() {
+      return endOffset;
+    }
+
+    public long getPosition() {
+      return position.get();
+    }
+  }
+}
@@ -0,0 +1,236 @@
+package com.pm.analyticsservice.backfill;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.pm.analyticsservice.aggregate.ShadowAnalytics;
+import com.pm.analyticsservice.exception.BackfillAlreadyRunningException;
+import com.pm.analyticsservice.exception.BackfillJobNotFoundException;
+import com.pm.analyticsservice.service.AnalyticsService;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndTimestamp;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.stereotype.Service;
+import patient.events.PatientEvent;
+
+/**
+ * Recomputes the aggregates from Kafka history, starting every partition at a timestamp or offset. Partitions
+ * are read in parallel by consumers with their own group id and manual assignment, so the live listener keeps
+ * its group, offsets and position. Events go into a shadow aggregate set that the live listener also feeds;
+ * once every worker reaches its split offset the shadow is swapped in.
+ */
+@Service
+public class BackfillService {
+
+  private static final Logger log = LoggerFactory.getLogger(BackfillService.class);
+  private static final String TOPIC = "patient";
+  private static final Duration POLL_TIMEOUT = Duration.ofMillis(500);
+  private static final int MAX_RETAINED_JOBS = 20;
+
+  private final ConsumerFactory<String, byte[]> consumerFactory;
+  private final AnalyticsService analyticsService;
+  private final int defaultParallelism;
+  private final int maxPollRecords;
+  private final Map<UUID, BackfillJob> jobs = new ConcurrentHashMap<>();
+  private final AtomicInteger threadCount = new AtomicInteger();
+  private final ExecutorService executor = Executors.newCachedThreadPool(r -> {
+    Thread thread = new Thread(r, "analytics-backfill-" + threadCount.incrementAndGet());
+    thread.setDaemon(true);
+    return thread;
+  });
+  private BackfillJob current;
+
+  public BackfillService(ConsumerFactory<String, byte[]> consumerFactory,
+                         AnalyticsService analyticsService,
+                         @Value("${analytics.backfill.parallelism:4}") int defaultParallelism,
+                         @Value("${analytics.backfill.max-poll-records:2000}") int maxPollRecords) {
+    this.consumerFactory = consumerFactory;
+    this.analyticsService = analyticsService;
+    this.defaultParallelism = defaultParallelism;
+    this.maxPollRecords = maxPollRecords;
+  }
+
+  /**
+   * Starts a backfill from {@code from} or, if it is null, from {@code fromOffset} on every partition
+   * (clamped to what the topic still retains).
+   */
+  public synchronized BackfillJob start(Instant from, Long fromOffset, Integer parallelism) {
+    if ((from == null) == (fromOffset == null)) {
+      throw new IllegalArgumentException("Exactly one of from and fromOffset is required");
+    }
+    if (current != null && current.getState() == BackfillJob.State.RUNNING) {
+      throw new BackfillAlreadyRunningException("Backfill " + current.getId() + " is still running");
+    }
+    String groupId = "analytics-backfill-" + UUID.randomUUID();
+    Map<Integer, Long> startOffsets = new HashMap<>();
+    Map<Integer, Long> endOffsets = new HashMap<>();
+    try (Consumer<String, byte[]> planner = createConsumer(groupId, "planner")) {
+      List<TopicPartition> partitions = planner.partitionsFor(TOPIC).stream()
+                                               .map(info -> new TopicPartition(TOPIC, info.partition()))
+                                               .toList();
+      Map<TopicPartition, Long> ends = planner.endOffsets(partitions);
+      Map<TopicPartition, Long> beginnings = planner.beginningOffsets(partitions);
+      Map<TopicPartition, OffsetAndTimestamp> byTime = Map.of();
+      if (from != null) {
+        Map<TopicPartition, Long> query = new HashMap<>();
+        partitions.forEach(partition -> query.put(partition, from.toEpochMilli()));
+        byTime = planner.offsetsForTimes(query);
+      }
+      for (TopicPartition partition : partitions) {
+        long end = ends.get(partition);
+        long start;
+        if (from != null) {
+          // null when every record in the partition is older than the timestamp
+          OffsetAndTimestamp found = byTime.get(partition);
+          start = found != null ? found.offset() : end;
+        }
+        else {
+          start = Math.min(Math.max(fromOffset, beginnings.get(partition)), end);
+        }
+        startOffsets.put(partition.partition(), start);
+        endOffsets.put(partition.partition(), end);
+      }
+    }
+
+    ShadowAnalytics shadow = analyticsService.startShadow(endOffsets);
+    BackfillJob job = new BackfillJob(groupId, from != null ? from.toString() : "offset " + fromOffset, shadow,
+                                      startOffsets);
+    if (jobs.size() >= MAX_RETAINED_JOBS) {
+      jobs.values().removeIf(existing -> existing.getState() != BackfillJob.State.RUNNING);
+    }
+    jobs.put(job.getId(), job);
+    current = job;
+
+    List<Integer> pending = job.getPartitions().values().stream()
+                               .filter(progress -> progress.getStartOffset() < progress.getEndOffset())
+                               .map(BackfillJob.PartitionProgress::getPartition)
+                               .toList();
+    int workers = Math.max(1, Math.min(parallelism != null ? parallelism : defaultParallelism, pending.size()));
+    List<List<Integer>> assignments = new ArrayList<>();
+    for (int i = 0; i < workers; i++) {
+      assignments.add(new ArrayList<>());
+    }
+    for (int i = 0; i < pending.size(); i++) {
+      assignments.get(i % workers).add(pending.get(i));
+    }
+    CompletableFuture<?>[] tasks = new CompletableFuture<?>[workers];
+    for (int i = 0; i < workers; i++) {
+      List<Integer> assigned = assignments.get(i);
+      String clientSuffix = "worker-" + i;
+      tasks[i] = CompletableFuture.runAsync(() -> readPartitions(job, assigned, clientSuffix), executor);
+    }
+    CompletableFuture.allOf(tasks).whenComplete((ignored, error) -> complete(job, error));
+    log.info("Started backfill {} from {} with {} workers over {} partitions, group {}", job.getId(),
+             job.getStartingPoint(), workers, pending.size(), groupId);
+    return job;
+  }
+
+  public BackfillJob getJob(UUID id) {
+    BackfillJob job = jobs.get(id);
+    if (job == null) {
+      throw new BackfillJobNotFoundException("Backfill job not found with ID: " + id);
+    }
+    return job;
+  }
+
+  public BackfillJob cancel(UUID id) {
+    BackfillJob job = getJob(id);
+    job.cancel();
+    return job;
+  }
+
+  private void readPartitions(BackfillJob job, List<Integer> partitions, String clientSuffix) {
+    if (partitions.isEmpty()) {
+      return;
+    }
+    ShadowAnalytics shadow = job.getShadow();
+    try (Consumer<String, byte[]> consumer = createConsumer(job.getGroupId(), clientSuffix)) {
+      Set<TopicPartition> remaining = new HashSet<>();
+      partitions.forEach(partition -> remaining.add(new TopicPartition(TOPIC, partition)));
+      consumer.assign(remaining);
+      for (TopicPartition partition : remaining) {
+        consumer.seek(partition, job.getPartitions().get(partition.partition()).getStartOffset());
+      }
+      while (!remaining.isEmpty() && job.getState() == BackfillJob.State.RUNNING) {
+        for (ConsumerRecord<String, byte[]> record : consumer.poll(POLL_TIMEOUT)) {
+          // the live listener mirrors everything from the split on
+          if (shadow.isLiveRecord(record.partition(), record.offset())) {
+            continue;
+          }
+          PatientEvent event = parse(record);
+          if (event != null) {
+            shadow.apply(event, record.partition(), record.offset());
+          }
+          job.advance(record.partition(), record.offset() + 1);
+        }
+        remaining.removeIf(partition -> {
+          if (consumer.position(partition) < shadow.endOffset(partition.partition())) {
+            return false;
+          }
+          consumer.pause(List.of(partition));
+          job.caughtUp(partition.partition());
+          return true;
+        });
+      }
+    }
+  }
+
+  private void complete(BackfillJob job, Throwable error) {
+    ShadowAnalytics shadow = job.getShadow();
+    if (job.getState() == BackfillJob.State.CANCELLED) {
+      analyticsService.discardShadow(shadow);
+      log.info("Backfill {} cancelled after {} events", job.getId(), job.getEventsRead());
+      return;
+    }
+    if (error != null) {
+      analyticsService.discardShadow(shadow);
+      Throwable cause = error.getCause() != null ? error.getCause() : error;
+      job.finish(BackfillJob.State.FAILED, cause.getMessage());
+      log.error("Backfill {} failed after {} events", job.getId(), job.getEventsRead(), cause);
+      return;
+    }
+    analyticsService.swapIn(shadow);
+    job.finish(BackfillJob.State.SWAPPED, null);
+    log.info("Backfill {} swapped in after {} events at {} events/s", job.getId(), job.getEventsRead(),
+             Math.round(job.eventsPerSecond()));
+  }
+
+  private Consumer<String, byte[]> createConsumer(String groupId, String clientSuffix) {
+    Properties overrides = new Properties();
+    // positions come from the seek, and nothing is committed so the group leaves no trace on the broker
+    overrides.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+    overrides.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+    overrides.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, String.valueOf(maxPollRecords));
+    return consumerFactory.createConsumer(groupId, "analytics-backfill-", clientSuffix, overrides);
+  }
+
+  private static PatientEvent parse(ConsumerRecord<String, byte[]> record) {
+    try {
+      return PatientEvent.parseFrom(record.value());
+    }
+    catch (InvalidProtocolBufferException e) {
+      log.error("Skipping unreadable event at partition {} offset {}: {}", record.partition(), record.offset(),
+                e.getMessage());
+      return null;
+    }
+  }
+}
@@ -0,0 +1,58 @@
+package com.pm.analyticsservice.controller;
+
+import com.pm.analyticsservice.dedup.EventDeduplicator;
+import com.pm.analyticsservice.dto.AnalyticsSummaryResponseDTO;
+import com.pm.analyticsservice.dto.EventRangeResponseDTO;
+import com.pm.analyticsservice.service.AnalyticsService;
+import com.pm.analyticsservice.stream.AnalyticsStreamService;
+import java.time.Instant;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/analytics")
+public class AnalyticsController {
+
+  private final AnalyticsService analyticsService;
+  private final AnalyticsStreamService analyticsStreamService;
+
+  public AnalyticsController(AnalyticsService analyticsService, AnalyticsStreamService analyticsStreamService) {
+    this.analyticsService = analyticsService;
+    this.analyticsStreamService = analyticsStreamService;
+  }
+
+  @GetMapping("/summary")
+  public ResponseEntity<AnalyticsSummaryResponseDTO> getSummary() {
+    return ResponseEntity.ok().body(analyticsService.getSummary());
+  }
+
+  // aggregates over a time range, computed from the local event log rather than Kafka
+  @GetMapping("/events")
+  public ResponseEntity<EventRangeResponseDTO> getEventsBetween(
+    @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+    @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+    return ResponseEntity.ok().body(analyticsService.getEventsBetween(from, to));
+  }
+
+  @GetMapping("/dedup")
+  public ResponseEntity<EventDeduplicator.Stats> getDeduplicationStats() {
+    return ResponseEntity.ok().body(analyticsService.getDeduplicationStats());
+  }
+
+  // coalesced aggregate updates, replacing dashboard polling of /summary
+  @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public SseEmitter stream() {
+    return analyticsStreamService.subscribe();
+  }
+
+  @GetMapping("/stream/stats")
+  public ResponseEntity<AnalyticsStreamService.Stats> getStreamStats() {
+    return ResponseEntity.ok().body(analyticsStreamService.stats());
+  }
+}
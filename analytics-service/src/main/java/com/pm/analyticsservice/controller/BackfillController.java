@@ -0,0 +1,45 @@
+package com.pm.analyticsservice.controller;
+
+import com.pm.analyticsservice.backfill.BackfillJob;
+import com.pm.analyticsservice.backfill.BackfillService;
+import com.pm.analyticsservice.dto.BackfillJobResponseDTO;
+import com.pm.analyticsservice.dto.BackfillRequestDTO;
+import com.pm.analyticsservice.mapper.BackfillJobMapper;
+import java.util.UUID;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/analytics/backfill")
+public class BackfillController {
+
+  private final BackfillService backfillService;
+
+  public BackfillController(BackfillService backfillService) {
+    this.backfillService = backfillService;
+  }
+
+  // recomputes the aggregates from Kafka history and swaps them in once caught up
+  @PostMapping
+  public ResponseEntity<BackfillJobResponseDTO> startBackfill(@RequestBody BackfillRequestDTO request) {
+    BackfillJob job = backfillService.start(request.from(), request.fromOffset(), request.parallelism());
+    return ResponseEntity.status(HttpStatus.ACCEPTED).body(BackfillJobMapper.toDTO(job));
+  }
+
+  @GetMapping("/{id}")
+  public ResponseEntity<BackfillJobResponseDTO> getBackfill(@PathVariable("id") UUID id) {
+    return ResponseEntity.ok().body(BackfillJobMapper.toDTO(backfillService.getJob(id)));
+  }
+
+  @DeleteMapping("/{id}")
+  public ResponseEntity<BackfillJobResponseDTO> cancelBackfill(@PathVariable("id") UUID id) {
+    return ResponseEntity.ok().body(BackfillJobMapper.toDTO(backfillService.cancel(id)));
+  }
+}
@@ -0,0 +1,133 @@
+package com.pm.analyticsservice.dedup;
+
+import java.time.Duration;
+import java.util.Arrays;
+import patient.events.PatientEvent;
+
+/**
+ * Drops patient events that were already accepted within the last {@code window}, by event time.
+ *
+ * <p>Fingerprints of accepted events are kept in {@code bucketCount} time buckets; a bucket is recycled once
+ * it falls out of the window. Events older than the window are accepted, since nothing is known about them.
+ * Memory is bounded by {@code maxEntries}: past it, the oldest buckets are dropped early, which shortens the
+ * window rather than growing the heap. Each fingerprint takes 8-16 bytes.
+ *
+ * <p>A new event is wrongly dropped only if its 64-bit fingerprint collides with one in the window: with
+ * {@code n} fingerprints held the chance is about {@code n / 2^64}, roughly 1e-13 for two million.
+ */
+public class EventDeduplicator {
+
+  private final long bucketMillis;
+  private final long maxEntries;
+  private final long[] bucketIds;
+  private final LongHashSet[] fingerprints;
+  private long newestBucket = Long.MIN_VALUE;
+  private long entries;
+  private long duplicatesDropped;
+  private long beyondWindow;
+  private long earlyEvictions;
+
+  public EventDeduplicator(Duration window, int bucketCount, long maxEntries) {
+    this.bucketMillis = Math.max(1, window.toMillis() / bucketCount);
+    this.maxEntries = maxEntries;
+    this.bucketIds = new long[bucketCount];
+    this.fingerprints = new LongHashSet[bucketCount];
+    Arrays.fill(bucketIds, Long.MIN_VALUE);
+    for (int i = 0; i < bucketCount; i++) {
+      fingerprints[i] = new LongHashSet();
+    }
+  }
+
+  /**
+   * Whether an event with this fingerprint was accepted within the window. Callers {@link #remember} the
+   * event only once it is stored, so a failed write does not make its redelivery look like a duplicate.
+   */
+  public synchronized boolean isDuplicate(long fingerprint, long timestampMillis) {
+    long bucket = Math.floorDiv(timestampMillis, bucketMillis);
+    long oldestLive = Math.max(newestBucket, bucket) - bucketIds.length + 1;
+    if (bucket < oldestLive) {
+      beyondWindow++;
+      return false;
+    }
+    for (int i = 0; i < bucketIds.length; i++) {
+      if (bucketIds[i] >= oldestLive && fingerprints[i].contains(fingerprint)) {
+        duplicatesDropped++;
+        return true;
+      }
+    }
+    return false;
+  }
+
+  public synchronized void remember(long fingerprint, long timestampMillis) {
+    long bucket = Math.floorDiv(timestampMillis, bucketMillis);
+    newestBucket = Math.max(newestBucket, bucket);
+    if (bucket < newestBucket - bucketIds.length + 1) {
+      return;
+    }
+    int slot = (int) Math.floorMod(bucket, (long) bucketIds.length);
+    if (bucketIds[slot] != bucket) {
+      // the slot still holds a bucket that has left the window
+      entries -= fingerprints[slot].size();
+      fingerprints[slot].clear();
+      bucketIds[slot] = bucket;
+    }
+    if (fingerprints[slot].add(fingerprint)) {
+      entries++;
+    }
+    while (entries > maxEntries && evictOldest(slot)) {
+      earlyEvictions++;
+    }
+  }
+
+  private boolean evictOldest(int keep) {
+    int oldest = -1;
+    for (int i = 0; i < bucketIds.length; i++) {
+      if (i != keep && fingerprints[i].size() > 0 && (oldest < 0 || bucketIds[i] < bucketIds[oldest])) {
+        oldest = i;
+      }
+    }
+    if (oldest < 0) {
+      return false;
+    }
+    entries -= fingerprints[oldest].size();
+    fingerprints[oldest].clear();
+    return true;
+  }
+
+  public synchronized Stats stats() {
+    return new Stats(entries, duplicatesDropped, beyondWindow, earlyEvictions);
+  }
+
+  /**
+   * Identity of an event: patient id plus the producer-assigned event id, which a retried send repeats.
+   * Events from producers that predate event ids fall back to their Kafka position, which still catches
+   * redeliveries.
+   */
+  public static long fingerprint(PatientEvent event, int partition, long offset) {
+    if (event.getEventId().isEmpty()) {
+      return mix(((long) partition << 48) ^ offset ^ 0x5bd1e9955bd1e995L);
+    }
+    long hash = 0xcbf29ce484222325L;
+    hash = fnv1a(hash, event.getPatientId());
+    hash = (hash ^ 0xff) * 0x100000001b3L;
+    hash = fnv1a(hash, event.getEventId());
+    return mix(hash);
+  }
+
+  private static long fnv1a(long hash, String value) {
+    for (int i = 0; i < value.length(); i++) {
+      hash = (hash ^ value.charAt(i)) * 0x100000001b3L;
+    }
+    return hash;
+  }
+
+  // splitmix64 finalizer, so similar ids still spread over all 64 bits
+  private static long mix(long z) {
+    z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+    z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+    return z ^ (z >>> 31);
+  }
+
+  public record Stats(long entries, long duplicatesDropped, long beyondWindow, long earlyEvictions) {
+  }
+}
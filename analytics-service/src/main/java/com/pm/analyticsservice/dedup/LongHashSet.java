@@ -0,0 +1,75 @@
+package com.pm.analyticsservice.dedup;
+
+/**
+ * Open-addressing set of primitive longs, 8 bytes per slot at a load factor of at most 1/2. Zero marks an
+ * empty slot, so a stored 0 is folded onto 1; fingerprints lose one value out of 2^64.
+ */
+public final class LongHashSet {
+
+  private static final int INITIAL_CAPACITY = 16;
+
+  private long[] table = new long[INITIAL_CAPACITY];
+  private int size;
+
+  public boolean contains(long value) {
+    long key = value == 0 ? 1 : value;
+    int mask = table.length - 1;
+    for (int i = spread(key) & mask; ; i = (i + 1) & mask) {
+      long slot = table[i];
+      if (slot == key) {
+        return true;
+      }
+      if (slot == 0) {
+        return false;
+      }
+    }
+  }
+
+  public boolean add(long value) {
+    long key = value == 0 ? 1 : value;
+    if ((size + 1) * 2 > table.length) {
+      resize(table.length * 2);
+    }
+    int mask = table.length - 1;
+    for (int i = spread(key) & mask; ; i = (i + 1) & mask) {
+      long slot = table[i];
+      if (slot == key) {
+        return false;
+      }
+      if (slot == 0) {
+        table[i] = key;
+        size++;
+        return true;
+      }
+    }
+  }
+
+  public int size() {
+    return size;
+  }
+
+  void clear() {
+    // give the memory back rather than keeping the largest table this bucket ever needed
+    table = new long[INITIAL_CAPACITY];
+    size = 0;
+  }
+
+  private void resize(int capacity) {
+    long[] old = table;
+    table = new long[capacity];
+    int mask = capacity - 1;
+    for (long key : old) {
+      if (key != 0) {
+        int i = spread(key) & mask;
+        while (table[i] != 0) {
+          i = (i + 1) & mask;
+        }
+        table[i] = key;
+      }
+    }
+  }
+
+  private static int spread(long key) {
+    return (int) (key ^ (key >>> 32));
+  }
+}
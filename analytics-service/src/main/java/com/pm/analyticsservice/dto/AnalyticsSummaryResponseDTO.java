@@ -0,0 +1,9 @@
+package com.pm.analyticsservice.dto;
+
+import java.util.Map;
+
+public record AnalyticsSummaryResponseDTO(long totalEvents,
+                                          long activePatients,
+                                          Map<String, Long> eventsByType,
+                                          Map<String, Long> registrationsByMonth) {
+}
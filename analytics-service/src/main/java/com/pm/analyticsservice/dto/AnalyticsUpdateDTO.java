@@ -0,0 +1,15 @@
+package com.pm.analyticsservice.dto;
+
+import java.util.Map;
+
+/**
+ * One pushed frame. A full frame carries every count; otherwise the maps hold only the entries that changed
+ * since the last frame this client received, as absolute values.
+ */
+public record AnalyticsUpdateDTO(long sequence,
+                                 boolean full,
+                                 long totalEvents,
+                                 long activePatients,
+                                 Map<String, Long> eventsByType,
+                                 Map<String, Long> registrationsByMonth) {
+}
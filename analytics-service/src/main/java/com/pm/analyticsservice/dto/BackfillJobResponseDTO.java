@@ -0,0 +1,19 @@
+package com.pm.analyticsservice.dto;
+
+import java.util.List;
+
+public record BackfillJobResponseDTO(String id,
+                                     String state,
+                                     String startingPoint,
+                                     String groupId,
+                                     double progress,
+                                     long eventsRead,
+                                     double eventsPerSecond,
+                                     List<Partition> partitions,
+                                     String startedAt,
+                                     String finishedAt,
+                                     String error) {
+
+  public record Partition(int partition, long startOffset, long endOffset, long position) {
+  }
+}
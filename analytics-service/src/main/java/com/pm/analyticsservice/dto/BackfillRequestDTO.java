@@ -0,0 +1,8 @@
+package com.pm.analyticsservice.dto;
+
+import java.time.Instant;
+
+public record BackfillRequestDTO(Instant from,
+                                 Long fromOffset,
+                                 Integer parallelism) {
+}
@@ -0,0 +1,8 @@
+package com.pm.analyticsservice.dto;
+
+public record EventRangeResponseDTO(String from,
+                                    String to,
+                                    AnalyticsSummaryResponseDTO summary,
+                                    long bytesScanned,
+                                    long elapsedMillis) {
+}
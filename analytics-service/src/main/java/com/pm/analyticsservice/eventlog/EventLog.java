@@ -0,0 +1,228 @@
+package com.pm.analyticsservice.eventlog;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Local append-only store of raw patient events, split into memory-mapped segments of {@code segmentBytes}.
+ * The active segment rolls when full; sealed segments are deleted once older than {@code retention} or when
+ * the log exceeds {@code retentionBytes}, but only if they lie before the position of the latest snapshot of
+ * what was built from them (see {@link #snapshotTaken}). Until a snapshot is reported nothing is deleted.
+ * Retention is checked whenever a segment rolls and whenever a snapshot is reported.
+ *
+ * <p>Appends are idempotent per Kafka partition and offset, so records redelivered after a restart are not
+ * stored (or counted) twice. Scans read straight from the page cache without copying.
+ *
+ * <p>Durability: records live in mapped memory and are forced to disk when a segment rolls, on
+ * {@link #flush} and on close. A JVM crash loses nothing, since the pages stay in the OS page cache, but a host
+ * crash can lose the unforced tail of the active segment while the consumer offsets for it are already
+ * committed. Those events are then missing until a backfill replays them.
+ */
+public class EventLog implements Closeable {
+
+  private static final Logger log = LoggerFactory.getLogger(EventLog.class);
+
+  private final Path directory;
+  private final int segmentBytes;
+  private final int indexIntervalBytes;
+  private final Duration retention;
+  private final long retentionBytes;
+  private final List<LogSegment> segments = new CopyOnWriteArrayList<>();
+  private final Map<Integer, Long> highestOffsets = new ConcurrentHashMap<>();
+  private volatile LogSegment active;
+  // segments with a lower id are covered by a snapshot and may be deleted
+  private long snapshotSegment = Long.MIN_VALUE;
+
+  public EventLog(Path directory, int segmentBytes, int indexIntervalBytes, Duration retention,
+                  long retentionBytes) throws IOException {
+    this.directory = directory;
+    this.segmentBytes = segmentBytes;
+    this.indexIntervalBytes = indexIntervalBytes;
+    this.retention = retention;
+    this.retentionBytes = retentionBytes;
+    Files.createDirectories(directory);
+
+    List<Long> ids;
+    try (Stream<Path> files = Files.list(directory)) {
+      ids = files.map(path -> path.getFileName().toString())
+                 .filter(name -> name.endsWith(".log"))
+                 .map(name -> Long.parseLong(name.substring(0, name.length() - 4)))
+                 .sorted()
+                 .toList();
+    }
+    for (int i = 0; i < ids.size(); i++) {
+      segments.add(LogSegment.recover(ids.get(i), directory, segmentBytes, indexIntervalBytes, i == ids.size() - 1,
+                                      (timestamp, partition, offset, payload) -> highestOffsets.merge(partition, offset, Math::max)));
+    }
+    if (segments.isEmpty()) {
+      segments.add(LogSegment.create(0, directory, segmentBytes, indexIntervalBytes));
+    }
+    active = segments.get(segments.size() - 1);
+    log.info("Opened event log in {}: {} segments, {} bytes", directory, segments.size(), sizeBytes());
+  }
+
+  /**
+   * Appends one event. Returns {@code false} without writing if this partition's offset is already stored.
+   */
+  public synchronized boolean append(long timestamp, int partition, long offset, byte[] payload) {
+    Long highest = highestOffsets.get(partition);
+    if (highest != null && offset <= highest) {
+      return false;
+    }
+    write(timestamp, partition, offset, payload);
+    return true;
+  }
+
+  /**
+   * Appends an event that was skipped when its offset came up, such as one that only succeeded on a retry
+   * topic. The offset check cannot apply to it, so the caller is responsible for not storing it twice.
+   */
+  public synchronized void appendOutOfOrder(long timestamp, int partition, long offset, byte[] payload) {
+    write(timestamp, partition, offset, payload);
+  }
+
+  private void write(long timestamp, int partition, long offset, byte[] payload) {
+    if (LogSegment.HEADER_BYTES + payload.length > segmentBytes) {
+      throw new IllegalArgumentException("Event of " + payload.length + " bytes does not fit in a segment");
+    }
+    if (!active.append(timestamp, partition, offset, payload)) {
+      roll();
+      active.append(timestamp, partition, offset, payload);
+    }
+    highestOffsets.merge(partition, offset, Math::max);
+  }
+
+  /**
+   * Visits every stored event with {@code fromMillis <= timestamp < toMillis}, oldest segment first.
+   * Returns the number of bytes read.
+   */
+  public long scan(long fromMillis, long toMillis, RecordVisitor visitor) {
+    long bytes = 0;
+    for (LogSegment segment : segments) {
+      bytes += segment.scan(fromMillis, toMillis, visitor);
+    }
+    return bytes;
+  }
+
+  public long scanAll(RecordVisitor visitor) {
+    return scan(Long.MIN_VALUE, Long.MAX_VALUE, visitor);
+  }
+
+  /**
+   * Visits every event stored from {@code from} on, in the order they were appended. Returns the number of
+   * bytes read.
+   */
+  public long scanFrom(LogPosition from, RecordVisitor visitor) {
+    long bytes = 0;
+    for (LogSegment segment : segments) {
+      if (segment.id() > from.segment()) {
+        bytes += segment.scanFrom(0, visitor);
+      }
+      else if (segment.id() == from.segment()) {
+        bytes += segment.scanFrom(from.position(), visitor);
+      }
+    }
+    return bytes;
+  }
+
+  public long highestOffset(int partition) {
+    return highestOffsets.getOrDefault(partition, -1L);
+  }
+
+  public Map<Integer, Long> highestOffsets() {
+    return Map.copyOf(highestOffsets);
+  }
+
+  /**
+   * Raises the highest stored offsets to those recorded in a snapshot, for partitions whose records have
+   * since been deleted by retention.
+   */
+  public void restoreHighestOffsets(Map<Integer, Long> offsets) {
+    offsets.forEach((partition, offset) -> highestOffsets.merge(partition, offset, Math::max));
+  }
+
+  public synchronized LogPosition endPosition() {
+    return new LogPosition(active.id(), active.sizeBytes());
+  }
+
+  public long activeSegment() {
+    return active.id();
+  }
+
+  // Forces the active segment to disk; sealed segments were forced when they rolled
+  public synchronized void flush() {
+    active.flush();
+  }
+
+  /**
+   * Reports that everything before {@code position} is covered by a durable snapshot, which makes the
+   * segments before it eligible for retention.
+   */
+  public synchronized void snapshotTaken(LogPosition position) {
+    snapshotSegment = Math.max(snapshotSegment, position.segment());
+    try {
+      enforceRetention();
+    }
+    catch (IOException e) {
+      throw new UncheckedIOException("Failed to delete event log segments", e);
+    }
+  }
+
+  public long sizeBytes() {
+    long bytes = 0;
+    for (LogSegment segment : segments) {
+      bytes += segment.sizeBytes();
+    }
+    return bytes;
+  }
+
+  public int segmentCount() {
+    return segments.size();
+  }
+
+  private void roll() {
+    try {
+      active.flush();
+      LogSegment next = LogSegment.create(active.id() + 1, directory, segmentBytes, indexIntervalBytes);
+      segments.add(next);
+      active = next;
+      enforceRetention();
+    }
+    catch (IOException e) {
+      throw new UncheckedIOException("Failed to roll event log segment", e);
+    }
+  }
+
+  private void enforceRetention() throws IOException {
+    long cutoff = System.currentTimeMillis() - retention.toMillis();
+    long bytes = sizeBytes();
+    while (segments.size() > 1) {
+      LogSegment oldest = segments.get(0);
+      if (oldest.id() >= snapshotSegment || oldest.maxTimestamp() >= cutoff && bytes <= retentionBytes) {
+        break;
+      }
+      segments.remove(0);
+      bytes -= oldest.sizeBytes();
+      oldest.delete();
+      log.info("Deleted event log segment {} ({} bytes)", oldest.id(), oldest.sizeBytes());
+    }
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    for (LogSegment segment : segments) {
+      segment.close();
+    }
+  }
+}
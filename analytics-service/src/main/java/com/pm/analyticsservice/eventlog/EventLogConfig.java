@@ -0,0 +1,23 @@
+package com.pm.analyticsservice.eventlog;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+@Configuration
+public class EventLogConfig {
+
+  @Bean(destroyMethod = "close")
+  public EventLog eventLog(@Value("${analytics.event-log.dir:./data/event-log}") Path directory,
+                           @Value("${analytics.event-log.segment-size:128MB}") DataSize segmentSize,
+                           @Value("${analytics.event-log.index-interval:4KB}") DataSize indexInterval,
+                           @Value("${analytics.event-log.retention:30d}") Duration retention,
+                           @Value("${analytics.event-log.retention-size:10GB}") DataSize retentionSize) throws IOException {
+    return new EventLog(directory, Math.toIntExact(segmentSize.toBytes()), Math.toIntExact(indexInterval.toBytes()),
+                        retention, retentionSize.toBytes());
+  }
+}
@@ -0,0 +1,8 @@
+package com.pm.analyticsservice.eventlog;
+
+/**
+ * A point in the event log: byte {@code position} of segment {@code segment}. Everything appended before it
+ * lies in earlier segments or before that byte.
+ */
+public record LogPosition(long segment, int position) {
+}
@@ -0,0 +1,232 @@
+package com.pm.analyticsservice.eventlog;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * One memory-mapped log file plus its sparse time index. Only the owning {@link EventLog} writes; readers
+ * see records up to the published {@code writePosition}.
+ *
+ * <pre>
+ * record: int length | int crc32c | long timestamp | int partition | long offset | payload[length]
+ * index:  long maxTimestampBefore | long position, one entry per indexIntervalBytes of records
+ * </pre>
+ *
+ * The length is written last, so a record is either complete or reads as the end of the segment. An index
+ * entry promises that every record before {@code position} has a timestamp &lt;= {@code maxTimestampBefore},
+ * which lets a range scan skip ahead even when timestamps arrive slightly out of order.
+ */
+final class LogSegment implements Closeable {
+
+  static final int HEADER_BYTES = 4 + 4 + 8 + 4 + 8;
+  private static final int INDEX_ENTRY_BYTES = 16;
+
+  private final long id;
+  private final Path logPath;
+  private final Path indexPath;
+  private final FileChannel logChannel;
+  private final FileChannel indexChannel;
+  private final MappedByteBuffer log;
+  private final MappedByteBuffer index;
+  private final int indexIntervalBytes;
+  private final int maxIndexEntries;
+  private volatile int writePosition;
+  private volatile int indexEntries;
+  private volatile long minTimestamp = Long.MAX_VALUE;
+  private volatile long maxTimestamp = Long.MIN_VALUE;
+  private int bytesSinceIndexEntry;
+
+  private LogSegment(long id, Path directory, int capacity, int indexIntervalBytes) throws IOException {
+    this.id = id;
+    this.logPath = directory.resolve(String.format("%020d.log", id));
+    this.indexPath = directory.resolve(String.format("%020d.index", id));
+    this.indexIntervalBytes = indexIntervalBytes;
+    this.logChannel = FileChannel.open(logPath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    this.indexChannel = FileChannel.open(indexPath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    // an existing segment keeps the size it was created with
+    int size = (int) Math.max(logChannel.size(), capacity);
+    this.log = logChannel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+    this.maxIndexEntries = size / indexIntervalBytes + 1;
+    this.index = indexChannel.map(FileChannel.MapMode.READ_WRITE, 0, (long) maxIndexEntries * INDEX_ENTRY_BYTES);
+  }
+
+  static LogSegment create(long id, Path directory, int capacity, int indexIntervalBytes) throws IOException {
+    return new LogSegment(id, directory, capacity, indexIntervalBytes);
+  }
+
+  /**
+   * Opens an existing segment, validating records from the start. Anything after the first incomplete or
+   * corrupt record (a write torn by a crash) is discarded, and the index is rebuilt from the valid records.
+   * Only the active segment can have a torn tail; sealed ones were forced to disk when they rolled.
+   */
+  static LogSegment recover(long id, Path directory, int capacity, int indexIntervalBytes, boolean active,
+                            RecordVisitor onRecord) throws IOException {
+    LogSegment segment = new LogSegment(id, directory, capacity, indexIntervalBytes);
+    CRC32C crc = new CRC32C();
+    int position = 0;
+    int limit = segment.log.capacity();
+    while (position + HEADER_BYTES <= limit) {
+      int length = segment.log.getInt(position);
+      if (length <= 0 || position + HEADER_BYTES + length > limit) {
+        break;
+      }
+      crc.reset();
+      crc.update(segment.log.slice(position + 8, HEADER_BYTES - 8 + length));
+      if ((int) crc.getValue() != segment.log.getInt(position + 4)) {
+        break;
+      }
+      long timestamp = segment.log.getLong(position + 8);
+      segment.indexIfDue(position);
+      segment.track(timestamp, HEADER_BYTES + length);
+      onRecord.accept(timestamp, segment.log.getInt(position + 16), segment.log.getLong(position + 20),
+                      segment.log.slice(position + HEADER_BYTES, length).asReadOnlyBuffer());
+      position += HEADER_BYTES + length;
+    }
+    if (active) {
+      // clear what a torn write left behind so a later recovery cannot resurrect it; untouched pages stay sparse
+      for (int i = position; i < limit; i++) {
+        if (segment.log.get(i) != 0) {
+          segment.log.put(i, (byte) 0);
+        }
+      }
+    }
+    segment.writePosition = position;
+    return segment;
+  }
+
+  /**
+   * Appends a record, or returns {@code false} if it does not fit and the segment must be rolled.
+   */
+  boolean append(long timestamp, int partition, long offset, byte[] payload) {
+    int position = writePosition;
+    int recordBytes = HEADER_BYTES + payload.length;
+    if (position + recordBytes > log.capacity()) {
+      return false;
+    }
+    indexIfDue(position);
+    log.putLong(position + 8, timestamp);
+    log.putInt(position + 16, partition);
+    log.putLong(position + 20, offset);
+    log.put(position + HEADER_BYTES, payload);
+    CRC32C crc = new CRC32C();
+    crc.update(log.slice(position + 8, recordBytes - 8));
+    log.putInt(position + 4, (int) crc.getValue());
+    log.putInt(position, payload.length);
+    track(timestamp, recordBytes);
+    writePosition = position + recordBytes;
+    return true;
+  }
+
+  private void indexIfDue(int position) {
+    if (bytesSinceIndexEntry >= indexIntervalBytes && indexEntries < maxIndexEntries) {
+      int entry = indexEntries * INDEX_ENTRY_BYTES;
+      index.putLong(entry, maxTimestamp);
+      index.putLong(entry + 8, position);
+      indexEntries++;
+      bytesSinceIndexEntry = 0;
+    }
+  }
+
+  private void track(long timestamp, int recordBytes) {
+    minTimestamp = Math.min(minTimestamp, timestamp);
+    maxTimestamp = Math.max(maxTimestamp, timestamp);
+    bytesSinceIndexEntry += recordBytes;
+  }
+
+  /**
+   * Visits records with {@code fromMillis <= timestamp < toMillis}. Payloads are views into the mapped
+   * file, valid only for the duration of the callback. Returns the number of bytes read.
+   */
+  long scan(long fromMillis, long toMillis, RecordVisitor visitor) {
+    int limit = writePosition;
+    if (limit == 0 || maxTimestamp < fromMillis || minTimestamp >= toMillis) {
+      return 0;
+    }
+    ByteBuffer view = log.duplicate();
+    int position = startPosition(fromMillis);
+    int start = position;
+    while (position < limit) {
+      int length = view.getInt(position);
+      long timestamp = view.getLong(position + 8);
+      if (timestamp >= fromMillis && timestamp < toMillis) {
+        visitor.accept(timestamp, view.getInt(position + 16), view.getLong(position + 20),
+                       view.slice(position + HEADER_BYTES, length).asReadOnlyBuffer());
+      }
+      position += HEADER_BYTES + length;
+    }
+    return position - start;
+  }
+
+  /**
+   * Visits every record from byte {@code from} on, whatever its timestamp. Returns the number of bytes read.
+   */
+  long scanFrom(int from, RecordVisitor visitor) {
+    int limit = writePosition;
+    ByteBuffer view = log.duplicate();
+    int position = from;
+    while (position < limit) {
+      int length = view.getInt(position);
+      visitor.accept(view.getLong(position + 8), view.getInt(position + 16), view.getLong(position + 20),
+                     view.slice(position + HEADER_BYTES, length).asReadOnlyBuffer());
+      position += HEADER_BYTES + length;
+    }
+    return Math.max(0, position - from);
+  }
+
+  // the last index entry whose preceding records are all older than fromMillis
+  private int startPosition(long fromMillis) {
+    int low = 0;
+    int high = indexEntries - 1;
+    int position = 0;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      if (index.getLong(mid * INDEX_ENTRY_BYTES) < fromMillis) {
+        position = (int) index.getLong(mid * INDEX_ENTRY_BYTES + 8);
+        low = mid + 1;
+      }
+      else {
+        high = mid - 1;
+      }
+    }
+    return position;
+  }
+
+  long id() {
+    return id;
+  }
+
+  int sizeBytes() {
+    return writePosition;
+  }
+
+  long maxTimestamp() {
+    return maxTimestamp;
+  }
+
+  void flush() {
+    log.force(0, writePosition);
+    index.force();
+  }
+
+  @Override
+  public void close() throws IOException {
+    flush();
+    logChannel.close();
+    indexChannel.close();
+  }
+
+  void delete() throws IOException {
+    logChannel.close();
+    indexChannel.close();
+    // the mapping stays valid for scans still holding this segment until it is garbage collected
+    Files.deleteIfExists(logPath);
+    Files.deleteIfExists(indexPath);
+  }
+}
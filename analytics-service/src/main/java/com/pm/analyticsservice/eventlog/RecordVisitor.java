@@ -0,0 +1,12 @@
+package com.pm.analyticsservice.eventlog;
+
+import java.nio.ByteBuffer;
+
+@FunctionalInterface
+public interface RecordVisitor {
+
+  /**
+   * @param payload read-only view of the serialized event inside the mapped segment; do not keep it
+   */
+  void accept(long timestamp, int partition, long offset, ByteBuffer payload);
+}
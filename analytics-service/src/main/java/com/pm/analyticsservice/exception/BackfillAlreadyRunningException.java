@@ -0,0 +1,7 @@
+package com.pm.analyticsservice.exception;
+
+public class BackfillAlreadyRunningException extends RuntimeException {
+  public BackfillAlreadyRunningException(String message) {
+    super(message);
+  }
+}
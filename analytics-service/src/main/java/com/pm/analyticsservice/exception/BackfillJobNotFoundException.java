@@ -0,0 +1,7 @@
+package com.pm.analyticsservice.exception;
+
+public class BackfillJobNotFoundException extends RuntimeException {
+  public BackfillJobNotFoundException(String message) {
+    super(message);
+  }
+}
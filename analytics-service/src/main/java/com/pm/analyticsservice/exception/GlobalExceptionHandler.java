@@ -0,0 +1,48 @@
+package com.pm.analyticsservice.exception;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@ControllerAdvice
+public class GlobalExceptionHandler {
+  
+  private static final Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+  
+  @ExceptionHandler(BackfillJobNotFoundException.class)
+  public ResponseEntity<Map<String, String>> handleBackfillJobNotFoundException(BackfillJobNotFoundException ex) {
+    log.warn("Backfill job not found: {}", ex.getMessage());
+    Map<String, String> errors = new HashMap<>();
+    errors.put("error", "Backfill job not found");
+    return ResponseEntity.status(404).body(errors);
+  }
+  
+  @ExceptionHandler(BackfillAlreadyRunningException.class)
+  public ResponseEntity<Map<String, String>> handleBackfillAlreadyRunningException(BackfillAlreadyRunningException ex) {
+    log.warn("Backfill rejected: {}", ex.getMessage());
+    Map<String, String> errors = new HashMap<>();
+    errors.put("error", ex.getMessage());
+    return ResponseEntity.status(409).body(errors);
+  }
+  
+  @ExceptionHandler(TooManySubscribersException.class)
+  public ResponseEntity<Map<String, String>> handleTooManySubscribersException(TooManySubscribersException ex) {
+    log.warn("Stream subscription rejected: {}", ex.getMessage());
+    Map<String, String> errors = new HashMap<>();
+    errors.put("error", ex.getMessage());
+    return ResponseEntity.status(503).body(errors);
+  }
+  
+  @ExceptionHandler(IllegalArgumentException.class)
+  public ResponseEntity<Map<String, String>> handleIllegalArgumentException(IllegalArgumentException ex) {
+    Map<String, String> errors = new HashMap<>();
+    errors.put("error", ex.getMessage());
+    return ResponseEntity.badRequest().body(errors);
+  }
+  
+}
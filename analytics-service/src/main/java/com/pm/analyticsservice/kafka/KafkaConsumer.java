@@ -1,30 +1,135 @@
 package com.pm.analyticsservice.kafka;
 
 import com.google.protobuf.InvalidProtocolBufferException;
+import com.pm.analyticsservice.service.AnalyticsService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.DltHandler;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.RetryableTopic;
+import org.springframework.kafka.retrytopic.TopicSuffixingStrategy;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.retry.annotation.Backoff;
 import org.springframework.stereotype.Service;
 import patient.events.PatientEvent;
 
+/**
+ * Consumes patient events. A failed record is handed to the next retry topic (patient-retry-0, -1, ...) and
+ * the partition moves on, so one bad record never holds up the ones behind it. Records that fail every tier,
+ * or that cannot be parsed at all, end up on patient-dlt with the exception and original position in its
+ * headers.
+ *
+ * <p>Metrics: {@code analytics.events.consumed} per tier and outcome, {@code analytics.events.dead-lettered}
+ * per exception, and {@code analytics.events.lag} per tier: time from the record's Kafka timestamp to its
+ * arrival here, which on the retry tiers includes the back-off.
+ */
 @Service
 public class KafkaConsumer {
   
   private static final Logger log = LoggerFactory.getLogger(KafkaConsumer.class);
+  private static final String TOPIC = "patient";
+  private final AnalyticsService analyticsService;
+  private final MeterRegistry meterRegistry;
+  // per tier, so the hot path does not build and look up a Timer for every record
+  private final Map<String, Timer> lagTimers = new ConcurrentHashMap<>();
   
+  public KafkaConsumer(AnalyticsService analyticsService, MeterRegistry meterRegistry,
+                       @Value("${analytics.retry.attempts:4}") int attempts) {
+    this.analyticsService = analyticsService;
+    this.meterRegistry = meterRegistry;
+    lagTimers.put("main", lagTimer("main"));
+    for (int i = 0; i < attempts - 1; i++) {
+      lagTimers.put("retry-" + i, lagTimer("retry-" + i));
+    }
+  }
+  
+  @RetryableTopic(
+    attempts = "${analytics.retry.attempts:4}",
+    backoff = @Backoff(
+      delayExpression = "${analytics.retry.delay-ms:1000}",
+      multiplierExpression = "${analytics.retry.multiplier:10}",
+      maxDelayExpression = "${analytics.retry.max-delay-ms:60000}"
+    ),
+    // a payload that does not parse will not parse on a retry either
+    exclude = InvalidProtocolBufferException.class,
+    traversingCauses = "true",
+    topicSuffixingStrategy = TopicSuffixingStrategy.SUFFIX_WITH_INDEX_VALUE
+  )
   @KafkaListener(
-    topics = "patient",
+    topics = TOPIC,
     groupId = "analytics-service"
   )
-  public void consumeEvent(byte[] event) {
+  public void consumeEvent(ConsumerRecord<String, byte[]> record) throws InvalidProtocolBufferException {
+    String tier = tier(record.topic());
+    recordLag(tier, record.timestamp());
     try {
-      PatientEvent patientEvent = PatientEvent.parseFrom(event);
-      // Perform analytics business logic here...
-      log.info("Received PATIENT_CREATED event: [PatientId={}, PatientName={}, PatientEmail={} ]",
-        patientEvent.getPatientId(), patientEvent.getName(), patientEvent.getEmail());
+      PatientEvent patientEvent = PatientEvent.parseFrom(record.value());
+      analyticsService.record(record, patientEvent);
+      log.info("Received {} event: [PatientId={}, PatientName={}, PatientEmail={} ]",
+        patientEvent.getEventType(), patientEvent.getPatientId(), patientEvent.getName(), patientEvent.getEmail());
+    }
+    catch (InvalidProtocolBufferException | RuntimeException e) {
+      meterRegistry.counter("analytics.events.consumed", "tier", tier, "outcome", "failure").increment();
+      log.warn("Failed to process patient event from {} partition {} offset {}: {}", record.topic(),
+        record.partition(), record.offset(), e.getMessage());
+      throw e;
     }
-    catch (InvalidProtocolBufferException e) {
-      log.error("Error deserializing patient event: {}", e.getMessage());
+    meterRegistry.counter("analytics.events.consumed", "tier", tier, "outcome", "success").increment();
+  }
+  
+  @DltHandler
+  public void deadLetter(ConsumerRecord<String, byte[]> record) {
+    String exception = header(record, KafkaHeaders.EXCEPTION_CAUSE_FQCN);
+    if (exception == null) {
+      exception = header(record, KafkaHeaders.EXCEPTION_FQCN);
+    }
+    meterRegistry.counter("analytics.events.dead-lettered", "exception", String.valueOf(exception)).increment();
+    log.error("Dead-lettered patient event from {} after {}: {}", originalPosition(record), exception,
+      header(record, KafkaHeaders.EXCEPTION_MESSAGE));
+  }
+  
+  private void recordLag(String tier, long timestamp) {
+    lagTimers.computeIfAbsent(tier, this::lagTimer)
+             // clocks of producer and consumer hosts can disagree by a little
+             .record(Math.max(0, System.currentTimeMillis() - timestamp), TimeUnit.MILLISECONDS);
+  }
+
+  private Timer lagTimer(String tier) {
+    return Timer.builder("analytics.events.lag")
+                .tag("tier", tier)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofMinutes(10))
+                .register(meterRegistry);
+  }
+
+  // "main", "retry-0", "retry-1", ... or "dlt"
+  private static String tier(String topic) {
+    return topic.equals(TOPIC) ? "main" : topic.substring(TOPIC.length() + 1);
+  }
+  
+  private static String header(ConsumerRecord<String, byte[]> record, String name) {
+    Header header = record.headers().lastHeader(name);
+    return header == null ? null : new String(header.value(), StandardCharsets.UTF_8);
+  }
+  
+  private static String originalPosition(ConsumerRecord<String, byte[]> record) {
+    Header partition = record.headers().lastHeader(KafkaHeaders.ORIGINAL_PARTITION);
+    Header offset = record.headers().lastHeader(KafkaHeaders.ORIGINAL_OFFSET);
+    if (partition == null || offset == null) {
+      return "unknown position";
     }
+    return "partition " + ByteBuffer.wrap(partition.value()).getInt() + " offset " + ByteBuffer.wrap(offset.value()).getLong();
   }
 }
@@ -0,0 +1,24 @@
+package com.pm.analyticsservice.mapper;
+
+import com.pm.analyticsservice.backfill.BackfillJob;
+import com.pm.analyticsservice.dto.BackfillJobResponseDTO;
+
+public class BackfillJobMapper {
+  public static BackfillJobResponseDTO toDTO(BackfillJob job) {
+    return new BackfillJobResponseDTO(
+      job.getId().toString(),
+      job.getState().name(),
+      job.getStartingPoint(),
+      job.getGroupId(),
+      job.progress(),
+      job.getEventsRead(),
+      job.eventsPerSecond(),
+      job.getPartitions().values().stream()
+         .map(p -> new BackfillJobResponseDTO.Partition(p.getPartition(), p.getStartOffset(), p.getEndOffset(),
+                                                        p.getPosition()))
+         .toList(),
+      job.getStartedAt().toString(),
+      job.getFinishedAt() == null ? null : job.getFinishedAt().toString(),
+      job.getError());
+  }
+}
@@ -0,0 +1,290 @@
+package com.pm.analyticsservice.service;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.pm.analyticsservice.aggregate.AggregateSnapshot;
+import com.pm.analyticsservice.aggregate.AggregateSnapshotStore;
+import com.pm.analyticsservice.aggregate.PatientAnalytics;
+import com.pm.analyticsservice.aggregate.ShadowAnalytics;
+import com.pm.analyticsservice.dedup.EventDeduplicator;
+import com.pm.analyticsservice.dto.AnalyticsSummaryResponseDTO;
+import com.pm.analyticsservice.dto.EventRangeResponseDTO;
+import com.pm.analyticsservice.eventlog.EventLog;
+import com.pm.analyticsservice.eventlog.LogPosition;
+import com.pm.analyticsservice.eventlog.RecordVisitor;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.stereotype.Service;
+import patient.events.PatientEvent;
+
+@Service
+public class AnalyticsService {
+
+  private static final Logger log = LoggerFactory.getLogger(AnalyticsService.class);
+
+  private final EventLog eventLog;
+  private final AggregateSnapshotStore snapshots;
+  private final EventDeduplicator deduplicator;
+  private final AtomicReference<PatientAnalytics> analytics = new AtomicReference<>(new PatientAnalytics());
+  // serializes live updates with a shadow swap, so no event lands in neither or both aggregate sets
+  private final ReentrantLock applyLock = new ReentrantLock();
+  private volatile ShadowAnalytics shadow;
+  // the segment that was active when the last snapshot was written; guarded by applyLock
+  private long snapshotSegment = -1;
+
+  public AnalyticsService(EventLog eventLog,
+                          AggregateSnapshotStore snapshots,
+                          @Value("${analytics.dedup.window:1h}") Duration dedupWindow,
+                          @Value("${analytics.dedup.buckets:12}") int dedupBuckets,
+                          @Value("${analytics.dedup.max-entries:2000000}") long dedupMaxEntries) {
+    this.eventLog = eventLog;
+    this.snapshots = snapshots;
+    this.deduplicator = new EventDeduplicator(dedupWindow, dedupBuckets, dedupMaxEntries);
+  }
+
+  /**
+   * Restores the aggregates from the latest snapshot and applies the events the local event log stored after
+   * it, then re-seeds the deduplicator with the events still inside its window. Runs before the Kafka listener
+   * starts, so the listener only has to apply what arrived after the last stored offset. The log holds exactly
+   * the events that were counted, which makes snapshot and log together the checkpoint for both the
+   * aggregates and the dedup state.
+   * <p>
+   * A snapshot is written whenever the active segment rolls, on a backfill swap and on shutdown. Retention only
+   * deletes segments a snapshot covers, so history older than the retention window survives a restart.
+   */
+  @PostConstruct
+  public void rebuild() throws IOException {
+    AggregateSnapshot snapshot = snapshots.load();
+    long start = System.nanoTime();
+    PatientAnalytics rebuilt;
+    long bytes;
+    if (snapshot == null) {
+      rebuilt = new PatientAnalytics();
+      bytes = eventLog.scanAll((timestamp, partition, offset, payload) -> {
+        PatientEvent event = parse(payload, partition, offset);
+        if (event != null) {
+          deduplicator.remember(EventDeduplicator.fingerprint(event, partition, offset), timestamp);
+          rebuilt.apply(event);
+        }
+      });
+    }
+    else {
+      rebuilt = PatientAnalytics.restore(snapshot.aggregates());
+      eventLog.restoreHighestOffsets(snapshot.highestOffsets());
+      eventLog.scanAll((timestamp, partition, offset, payload) -> {
+        PatientEvent event = parse(payload, partition, offset);
+        if (event != null) {
+          deduplicator.remember(EventDeduplicator.fingerprint(event, partition, offset), timestamp);
+        }
+      });
+      bytes = eventLog.scanFrom(snapshot.position(), applyTo(rebuilt));
+    }
+    long elapsedNanos = Math.max(System.nanoTime() - start, 1);
+    analytics.set(rebuilt);
+    log.info("Rebuilt analytics from {} ({} bytes of events after it) in {} ms ({} MB/s), {} events, "
+             + "{} event ids in the dedup window", snapshot == null ? "the event log" : "snapshot " + snapshot.position(),
+             bytes, elapsedNanos / 1_000_000, Math.round(bytes / 1e6 / (elapsedNanos / 1e9)), rebuilt.totalEvents(),
+             deduplicator.stats().entries());
+    snapshot();
+  }
+
+  // On shutdown too, so that a clean restart has no events to replay
+  @PreDestroy
+  public void snapshot() {
+    applyLock.lock();
+    try {
+      trySnapshot();
+    }
+    finally {
+      applyLock.unlock();
+    }
+  }
+
+  // Called with the apply lock held. Forces the log first, so the snapshot never points past what is on disk.
+  private void writeSnapshot() throws IOException {
+    eventLog.flush();
+    LogPosition position = eventLog.endPosition();
+    snapshots.write(new AggregateSnapshot(analytics.get().summary(), position, eventLog.highestOffsets()));
+    snapshotSegment = position.segment();
+    eventLog.snapshotTaken(position);
+  }
+
+  // A failed snapshot only delays retention, so it must not fail the record that triggered it
+  private void trySnapshot() {
+    try {
+      writeSnapshot();
+    }
+    catch (IOException | UncheckedIOException e) {
+      log.warn("Failed to write the aggregate snapshot, event log segments are kept until one succeeds: {}",
+               e.getMessage());
+    }
+  }
+
+  /**
+   * Counts a consumed event once. Records from a retry topic carry the position of the original record on the
+   * patient topic, which is what gets stored and deduplicated, so a retried event looks the same as one that
+   * succeeded first time.
+   */
+  public void record(ConsumerRecord<String, byte[]> record, PatientEvent event) {
+    Header originalOffset = record.headers().lastHeader(KafkaHeaders.ORIGINAL_OFFSET);
+    boolean retried = originalOffset != null;
+    int partition = retried ? intHeader(record, KafkaHeaders.ORIGINAL_PARTITION) : record.partition();
+    long offset = retried ? ByteBuffer.wrap(originalOffset.value()).getLong() : record.offset();
+    long timestamp = retried ? longHeader(record, KafkaHeaders.ORIGINAL_TIMESTAMP) : record.timestamp();
+
+    long fingerprint = EventDeduplicator.fingerprint(event, partition, offset);
+    // checked under the lock too: the main and retry-topic listeners run on different threads, and a producer
+    // retry and its retried original must not both pass before either is applied
+    applyLock.lock();
+    try {
+      if (!retried && offset <= eventLog.highestOffset(partition)) {
+        // Kafka redelivered an offset that is already stored
+        return;
+      }
+      if (deduplicator.isDuplicate(fingerprint, timestamp)) {
+        // a producer retry or redelivery of an event that is already counted
+        log.debug("Dropped duplicate {} event for patient {} at offset {}", event.getEventType(),
+                  event.getPatientId(), offset);
+        return;
+      }
+      apply(event, partition, offset);
+      // stored and remembered only once counted: an event whose apply throws goes to the retry topic
+      // without either, so the retry is not mistaken for a duplicate
+      if (retried) {
+        // later offsets of the partition are usually stored already
+        eventLog.appendOutOfOrder(timestamp, partition, offset, record.value());
+      }
+      else {
+        eventLog.append(timestamp, partition, offset, record.value());
+      }
+      deduplicator.remember(fingerprint, timestamp);
+      if (eventLog.activeSegment() != snapshotSegment) {
+        // the log rolled; snapshot before the sealed segment can age out
+        trySnapshot();
+      }
+    }
+    finally {
+      applyLock.unlock();
+    }
+  }
+
+  // Called with the apply lock held
+  void apply(PatientEvent event, int partition, long offset) {
+    analytics.get().apply(event);
+    ShadowAnalytics backfilling = shadow;
+    if (backfilling != null && backfilling.isLiveRecord(partition, offset)) {
+      backfilling.apply(event, partition, offset);
+    }
+  }
+
+  /**
+   * Starts a shadow aggregate set that the live consumer mirrors into. Each partition is split at the later of
+   * {@code logEndOffsets} (read by the backfill planner) and the next offset the live consumer will store,
+   * both taken under the apply lock so that a record the live consumer applied in between is still left
+   * to the backfill.
+   */
+  public ShadowAnalytics startShadow(Map<Integer, Long> logEndOffsets) {
+    applyLock.lock();
+    try {
+      if (shadow != null) {
+        throw new IllegalStateException("A shadow aggregate set is already being built");
+      }
+      Map<Integer, Long> split = new HashMap<>();
+      logEndOffsets.forEach((partition, end) -> split.put(partition, Math.max(end, eventLog.highestOffset(partition) + 1)));
+      shadow = new ShadowAnalytics(split);
+      return shadow;
+    }
+    finally {
+      applyLock.unlock();
+    }
+  }
+
+  /**
+   * Makes a completed shadow the live aggregate set, and snapshots it so that it is also what the next
+   * restart picks up again.
+   */
+  public void swapIn(ShadowAnalytics completed) {
+    applyLock.lock();
+    try {
+      if (shadow != completed) {
+        throw new IllegalStateException("Shadow aggregate set is no longer active");
+      }
+      analytics.set(completed.analytics());
+      shadow = null;
+      trySnapshot();
+    }
+    finally {
+      applyLock.unlock();
+    }
+    log.info("Swapped in backfilled aggregates: {} events", completed.analytics().totalEvents());
+  }
+
+  public void discardShadow(ShadowAnalytics abandoned) {
+    applyLock.lock();
+    try {
+      if (shadow == abandoned) {
+        shadow = null;
+      }
+    }
+    finally {
+      applyLock.unlock();
+    }
+  }
+
+  public EventDeduplicator.Stats getDeduplicationStats() {
+    return deduplicator.stats();
+  }
+
+  public AnalyticsSummaryResponseDTO getSummary() {
+    return analytics.get().summary();
+  }
+
+  public EventRangeResponseDTO getEventsBetween(Instant from, Instant to) {
+    PatientAnalytics range = new PatientAnalytics();
+    long start = System.nanoTime();
+    long bytes = eventLog.scan(from.toEpochMilli(), to.toEpochMilli(), applyTo(range));
+    return new EventRangeResponseDTO(from.toString(), to.toString(), range.summary(), bytes,
+                                     (System.nanoTime() - start) / 1_000_000);
+  }
+
+  private static RecordVisitor applyTo(PatientAnalytics target) {
+    return (timestamp, partition, offset, payload) -> {
+      PatientEvent event = parse(payload, partition, offset);
+      if (event != null) {
+        target.apply(event);
+      }
+    };
+  }
+
+  private static PatientEvent parse(ByteBuffer payload, int partition, long offset) {
+    try {
+      return PatientEvent.parseFrom(payload);
+    }
+    catch (InvalidProtocolBufferException e) {
+      log.error("Skipping unreadable event at partition {} offset {}: {}", partition, offset, e.getMessage());
+      return null;
+    }
+  }
+
+  private static int intHeader(ConsumerRecord<String, byte[]> record, String name) {
+    return ByteBuffer.wrap(record.headers().lastHeader(name).value()).getInt();
+  }
+
+  private static long longHeader(ConsumerRecord<String, byte[]> record, String name) {
+    return ByteBuffer.wrap(record.headers().lastHeader(name).value()).getLong();
+  }
+}
@@ -0,0 +1,229 @@
+package com.pm.analyticsservice.stream;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pm.analyticsservice.dto.AnalyticsSummaryResponseDTO;
+import com.pm.analyticsservice.dto.AnalyticsUpdateDTO;
+import com.pm.analyticsservice.exception.TooManySubscribersException;
+import com.pm.analyticsservice.service.AnalyticsService;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Pushes the aggregates to SSE subscribers. Updates are coalesced: every tick the summary is read once and,
+ * if it changed, becomes the next snapshot, however many events arrived in between.
+ *
+ * <p>Each subscriber has at most one frame in flight. A client still writing when a tick comes skips that
+ * snapshot and later gets the newest one, with the delta taken from the last frame it actually received, so
+ * a slow client costs one pending write rather than a growing queue. Writes run on virtual threads because
+ * a full socket blocks the writer; the connections themselves hold no thread while idle.
+ */
+@Service
+public class AnalyticsStreamService {
+
+  private static final Logger log = LoggerFactory.getLogger(AnalyticsStreamService.class);
+
+  private final AnalyticsService analyticsService;
+  private final ObjectMapper objectMapper;
+  private final long timeoutMillis;
+  private final long heartbeatNanos;
+  private final int maxSubscribers;
+  private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+  private final LongAdder framesSent = new LongAdder();
+  private final LongAdder framesSkipped = new LongAdder();
+  private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+  private final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+    Thread thread = new Thread(r, "analytics-stream");
+    thread.setDaemon(true);
+    return thread;
+  });
+  private volatile Snapshot latest;
+
+  public AnalyticsStreamService(AnalyticsService analyticsService,
+                                ObjectMapper objectMapper,
+                                @Value("${analytics.stream.tick:250ms}") Duration tick,
+                                @Value("${analytics.stream.heartbeat:15s}") Duration heartbeat,
+                                @Value("${analytics.stream.timeout:30m}") Duration timeout,
+                                @Value("${analytics.stream.max-subscribers:5000}") int maxSubscribers) {
+    this.analyticsService = analyticsService;
+    this.objectMapper = objectMapper;
+    this.timeoutMillis = timeout.toMillis();
+    this.heartbeatNanos = heartbeat.toNanos();
+    this.maxSubscribers = maxSubscribers;
+    this.latest = new Snapshot(1, analyticsService.getSummary());
+    ticker.scheduleWithFixedDelay(() -> {
+      try {
+        tick();
+      }
+      catch (RuntimeException e) {
+        log.error("Analytics stream tick failed", e);
+      }
+    }, tick.toMillis(), tick.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  public SseEmitter subscribe() {
+    SseEmitter emitter = new SseEmitter(timeoutMillis);
+    register(emitter);
+    return emitter;
+  }
+
+  void register(SseEmitter emitter) {
+    if (subscribers.size() >= maxSubscribers) {
+      throw new TooManySubscribersException("Analytics stream is at its limit of " + maxSubscribers + " subscribers");
+    }
+    Subscriber subscriber = new Subscriber(emitter);
+    emitter.onCompletion(() -> subscribers.remove(subscriber));
+    emitter.onTimeout(() -> subscribers.remove(subscriber));
+    emitter.onError(error -> subscribers.remove(subscriber));
+    subscribers.add(subscriber);
+    // the full state right away rather than on the next tick
+    dispatch(subscriber);
+  }
+
+  void tick() {
+    AnalyticsSummaryResponseDTO summary = analyticsService.getSummary();
+    Snapshot current = latest;
+    if (!summary.equals(current.summary())) {
+      current = new Snapshot(current.sequence() + 1, summary);
+      latest = current;
+    }
+    long now = System.nanoTime();
+    for (Subscriber subscriber : subscribers) {
+      boolean behind = subscriber.received == null || subscriber.received.sequence() < current.sequence();
+      if (!behind && now - subscriber.lastWriteNanos < heartbeatNanos) {
+        continue;
+      }
+      if (!dispatch(subscriber) && behind) {
+        framesSkipped.increment();
+      }
+    }
+  }
+
+  public Stats stats() {
+    return new Stats(subscribers.size(), latest.sequence(), framesSent.sum(), framesSkipped.sum());
+  }
+
+  private boolean dispatch(Subscriber subscriber) {
+    if (!subscriber.inFlight.compareAndSet(false, true)) {
+      return false;
+    }
+    senders.execute(() -> deliver(subscriber));
+    return true;
+  }
+
+  private void deliver(Subscriber subscriber) {
+    Snapshot target = latest;
+    try {
+      if (subscriber.received != null && subscriber.received.sequence() >= target.sequence()) {
+        // keeps proxies from closing an idle stream and finds clients that went away
+        subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+      }
+      else {
+        subscriber.emitter.send(SseEmitter.event()
+                                          .id(Long.toString(target.sequence()))
+                                          .name("update")
+                                          .data(target.frameFrom(subscriber.received, objectMapper),
+                                                MediaType.APPLICATION_JSON));
+        subscriber.received = target;
+        framesSent.increment();
+      }
+      subscriber.lastWriteNanos = System.nanoTime();
+    }
+    catch (IOException | IllegalStateException e) {
+      // the container completes the emitter after a failed write; stop sending to it now
+      subscribers.remove(subscriber);
+      log.debug("Dropped analytics stream subscriber: {}", e.getMessage());
+    }
+    finally {
+      subscriber.inFlight.set(false);
+    }
+  }
+
+  /**
+   * Entries of {@code after} whose value differs from {@code before}.
+   */
+  static Map<String, Long> changed(Map<String, Long> before, Map<String, Long> after) {
+    Map<String, Long> changed = new TreeMap<>();
+    after.forEach((key, value) -> {
+      if (!value.equals(before.get(key))) {
+        changed.put(key, value);
+      }
+    });
+    return changed;
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    ticker.shutdownNow();
+    subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    senders.shutdownNow();
+  }
+
+  public record Stats(int subscribers, long sequence, long framesSent, long framesSkipped) {
+  }
+
+  private static final class Subscriber {
+
+    private final SseEmitter emitter;
+    private final AtomicBoolean inFlight = new AtomicBoolean();
+    private volatile Snapshot received;
+    private volatile long lastWriteNanos = System.nanoTime();
+
+    private Subscriber(SseEmitter emitter) {
+      this.emitter = emitter;
+    }
+  }
+
+  /**
+   * Frames are serialized once per snapshot and base rather than once per client; within a tick nearly all
+   * clients share the same base.
+   */
+  private record Snapshot(long sequence, AnalyticsSummaryResponseDTO summary, Map<Long, String> frames) {
+
+    Snapshot(long sequence, AnalyticsSummaryResponseDTO summary) {
+      this(sequence, summary, new ConcurrentHashMap<>());
+    }
+
+    String frameFrom(Snapshot base, ObjectMapper objectMapper) {
+      return frames.computeIfAbsent(base == null ? 0 : base.sequence(), ignored -> {
+        try {
+          return objectMapper.writeValueAsString(update(base));
+        }
+        catch (JsonProcessingException e) {
+          throw new UncheckedIOException(e);
+        }
+      });
+    }
+
+    private AnalyticsUpdateDTO update(Snapshot base) {
+      // a backfill swap can remove keys, which a delta cannot express
+      if (base == null
+          || !summary.eventsByType().keySet().containsAll(base.summary().eventsByType().keySet())
+          || !summary.registrationsByMonth().keySet().containsAll(base.summary().registrationsByMonth().keySet())) {
+        return new AnalyticsUpdateDTO(sequence, true, summary.totalEvents(), summary.activePatients(),
+                                      summary.eventsByType(), summary.registrationsByMonth());
+      }
+      return new AnalyticsUpdateDTO(sequence, false, summary.totalEvents(), summary.activePatients(),
+                                    changed(base.summary().eventsByType(), summary.eventsByType()),
+                                    changed(base.summary().registrationsByMonth(), summary.registrationsByMonth()));
+    }
+  }
+}
@@ -0,0 +1,39 @@
+package com.pm.analyticsservice.aggregate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import patient.events.PatientEvent;
+
+class ShadowAnalyticsTest {
+
+  @Test
+  void dropsProducerRetriesInHistoryOlderThanTheLiveWindow() {
+    ShadowAnalytics shadow = new ShadowAnalytics(Map.of(0, 1_000L, 1, 1_000L));
+
+    // the live consumer mirrors a current event before the workers get far into last year's history
+    shadow.apply(event(), 0, 1_000);
+    for (int i = 0; i < 100; i++) {
+      PatientEvent historical = event();
+      shadow.apply(historical, i % 2, i * 2);
+      if (i % 10 == 0) {
+        // a producer retry: same event id, next offset
+        assertFalse(shadow.apply(historical, i % 2, i * 2 + 1));
+      }
+    }
+
+    assertEquals(101, shadow.analytics().totalEvents());
+  }
+
+  private static PatientEvent event() {
+    return PatientEvent.newBuilder()
+                       .setPatientId(UUID.randomUUID().toString())
+                       .setEventId(UUID.randomUUID().toString())
+                       .setEventType("PATIENT_CREATED")
+                       .setRegisteredDate("2025-10-01")
+                       .build();
+  }
+}
@@ -0,0 +1,126 @@
+package com.pm.analyticsservice.backfill;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.pm.analyticsservice.exception.BackfillAlreadyRunningException;
+import com.pm.analyticsservice.service.AnalyticsService;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import patient.events.PatientEvent;
+
+@SpringBootTest(properties = {
+  "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+  "spring.kafka.listener.auto-startup=false"
+})
+@EmbeddedKafka(partitions = 3, topics = "patient")
+class BackfillServiceTest {
+
+  @Autowired
+  private BackfillService backfillService;
+
+  @Autowired
+  private AnalyticsService analyticsService;
+
+  @Autowired
+  private KafkaListenerEndpointRegistry registry;
+
+  @Autowired
+  private EmbeddedKafkaBroker broker;
+
+  @DynamicPropertySource
+  static void eventLogDirectory(DynamicPropertyRegistry properties) throws IOException {
+    String directory = Files.createTempDirectory("backfill-event-log").toString();
+    properties.add("analytics.event-log.dir", () -> directory);
+  }
+
+  @Test
+  void rebuildsHistoryIntoAShadowAndKeepsLiveEventsAfterTheSwap() throws Exception {
+    try (KafkaProducer<String, byte[]> producer = producer()) {
+      // history the live listener never saw, including producer retries of the same event; days older than
+      // the live dedup window, which the shadow must not rely on
+      long historical = System.currentTimeMillis() - Duration.ofDays(3).toMillis();
+      for (int i = 0; i < 60; i++) {
+        PatientEvent event = event("PATIENT_CREATED");
+        producer.send(new ProducerRecord<>("patient", null, historical + i, "p-" + i, event.toByteArray()));
+        if (i % 10 == 0) {
+          producer.send(new ProducerRecord<>("patient", null, historical + i, "p-" + i, event.toByteArray()));
+        }
+      }
+      producer.flush();
+
+      // the live group starts at the log end, so only a backfill can count the history
+      registry.start();
+      for (MessageListenerContainer container : registry.getListenerContainers()) {
+        // retry tier listeners start too, on their own topics
+        if (Arrays.asList(container.getContainerProperties().getTopics()).contains("patient")) {
+          ContainerTestUtils.waitForAssignment(container, 3);
+        }
+      }
+      assertEquals(0, analyticsService.getSummary().totalEvents());
+
+      BackfillJob job = backfillService.start(null, 0L, 2);
+      assertThrows(BackfillAlreadyRunningException.class, () -> backfillService.start(null, 0L, 2));
+      for (int i = 0; i < 5; i++) {
+        producer.send(new ProducerRecord<>("patient", "live-" + i, event("PATIENT_UPDATED").toByteArray()));
+      }
+      producer.flush();
+
+      await(() -> job.getState() != BackfillJob.State.RUNNING);
+      assertEquals(BackfillJob.State.SWAPPED, job.getState(), job.getError());
+      assertEquals(1.0, job.progress());
+      assertTrue(job.getEventsRead() >= 60);
+      await(() -> analyticsService.getSummary().totalEvents() == 65);
+      assertEquals(60L, analyticsService.getSummary().eventsByType().get("PATIENT_CREATED"));
+
+      producer.send(new ProducerRecord<>("patient", "late", event("PATIENT_DELETED").toByteArray())).get();
+      await(() -> analyticsService.getSummary().totalEvents() == 66);
+    }
+    finally {
+      registry.stop();
+    }
+  }
+
+  private KafkaProducer<String, byte[]> producer() {
+    return new KafkaProducer<>(KafkaTestUtils.producerProps(broker), new StringSerializer(), new ByteArraySerializer());
+  }
+
+  private static PatientEvent event(String type) {
+    return PatientEvent.newBuilder()
+                       .setPatientId(UUID.randomUUID().toString())
+                       .setEventId(UUID.randomUUID().toString())
+                       .setEventType(type)
+                       .setRegisteredDate("2025-10-01")
+                       .build();
+  }
+
+  private static void await(BooleanSupplier condition) throws InterruptedException {
+    long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+    while (!condition.getAsBoolean()) {
+      if (System.nanoTime() > deadline) {
+        throw new AssertionError("Condition not met within 30s");
+      }
+      Thread.sleep(50);
+    }
+  }
+}
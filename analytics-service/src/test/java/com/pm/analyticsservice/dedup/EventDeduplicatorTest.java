@@ -0,0 +1,60 @@
+package com.pm.analyticsservice.dedup;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import patient.events.PatientEvent;
+
+class EventDeduplicatorTest {
+
+  private static final long T0 = 1_760_000_000_000L;
+
+  @Test
+  void dropsRetriesOfTheSameEventAtAnyOffset() {
+    EventDeduplicator deduplicator = new EventDeduplicator(Duration.ofMinutes(10), 10, 1_000);
+    PatientEvent event = PatientEvent.newBuilder().setPatientId("p-1").setEventId("e-1").build();
+    long original = EventDeduplicator.fingerprint(event, 0, 10);
+    long retried = EventDeduplicator.fingerprint(event, 0, 11);
+    assertEquals(original, retried);
+
+    assertFalse(deduplicator.isDuplicate(original, T0));
+    deduplicator.remember(original, T0);
+    assertTrue(deduplicator.isDuplicate(retried, T0 + 50));
+
+    long next = EventDeduplicator.fingerprint(event.toBuilder().setEventId("e-2").build(), 0, 12);
+    assertNotEquals(original, next);
+    assertFalse(deduplicator.isDuplicate(next, T0 + 60));
+  }
+
+  @Test
+  void forgetsEventsOnceTheyLeaveTheWindow() {
+    EventDeduplicator deduplicator = new EventDeduplicator(Duration.ofMinutes(10), 10, 1_000);
+    deduplicator.remember(42, T0);
+    deduplicator.remember(43, T0 + Duration.ofMinutes(9).toMillis());
+    assertTrue(deduplicator.isDuplicate(42, T0 + Duration.ofMinutes(9).toMillis()));
+
+    deduplicator.remember(44, T0 + Duration.ofMinutes(11).toMillis());
+    assertFalse(deduplicator.isDuplicate(42, T0 + Duration.ofMinutes(11).toMillis()));
+    assertTrue(deduplicator.isDuplicate(43, T0 + Duration.ofMinutes(11).toMillis()));
+  }
+
+  @Test
+  void staysWithinMaxEntriesByDroppingTheOldestBuckets() {
+    EventDeduplicator deduplicator = new EventDeduplicator(Duration.ofMinutes(10), 10, 100);
+    for (int minute = 0; minute < 5; minute++) {
+      for (int i = 0; i < 40; i++) {
+        deduplicator.remember(minute * 1_000L + i + 1, T0 + Duration.ofMinutes(minute).toMillis());
+      }
+    }
+    EventDeduplicator.Stats stats = deduplicator.stats();
+    assertTrue(stats.entries() <= 100);
+    assertTrue(stats.earlyEvictions() > 0);
+    long now = T0 + Duration.ofMinutes(4).toMillis();
+    assertTrue(deduplicator.isDuplicate(4_001, now));
+    assertFalse(deduplicator.isDuplicate(1, now));
+  }
+}
@@ -0,0 +1,154 @@
+package com.pm.analyticsservice.eventlog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+class EventLogTest {
+
+  private static final long BASE = 1_760_000_000_000L;
+
+  @TempDir
+  Path directory;
+
+  @Test
+  void rollsSegmentsAndScansATimeRange() throws IOException {
+    try (EventLog eventLog = open(Long.MAX_VALUE)) {
+      for (int i = 0; i < 1_000; i++) {
+        assertTrue(eventLog.append(BASE + i, 0, i, payload(i)));
+      }
+      assertTrue(eventLog.segmentCount() > 1);
+
+      List<Long> offsets = new ArrayList<>();
+      long bytesScanned = eventLog.scan(BASE + 300, BASE + 400, (timestamp, partition, offset, payload) -> {
+        assertEquals("event-" + offset, StandardCharsets.UTF_8.decode(payload).toString());
+        offsets.add(offset);
+      });
+
+      assertEquals(100, offsets.size());
+      assertEquals(300L, offsets.get(0));
+      assertEquals(399L, offsets.get(99));
+      // the sparse index and segment time bounds skip most of the log
+      assertTrue(bytesScanned < eventLog.sizeBytes() / 2);
+    }
+  }
+
+  @Test
+  void ignoresOffsetsAlreadyStored() throws IOException {
+    try (EventLog eventLog = open(Long.MAX_VALUE)) {
+      assertTrue(eventLog.append(BASE, 0, 5, payload(5)));
+      assertFalse(eventLog.append(BASE, 0, 5, payload(5)));
+      assertFalse(eventLog.append(BASE, 0, 4, payload(4)));
+      assertTrue(eventLog.append(BASE, 1, 4, payload(4)));
+      assertEquals(2, count(eventLog));
+    }
+  }
+
+  @Test
+  void recoversAfterRestartAndDropsATornRecord() throws IOException {
+    long size;
+    try (EventLog eventLog = open(Long.MAX_VALUE)) {
+      for (int i = 0; i < 10; i++) {
+        eventLog.append(BASE + i, 0, i, payload(i));
+      }
+      size = eventLog.sizeBytes();
+    }
+    // a record whose header made it to disk but whose checksum does not match its body
+    try (FileChannel channel = FileChannel.open(directory.resolve(String.format("%020d.log", 0)), StandardOpenOption.WRITE)) {
+      channel.write(ByteBuffer.allocate(40).putInt(12).putInt(42).putLong(BASE + 10).flip(), size);
+    }
+
+    try (EventLog eventLog = open(Long.MAX_VALUE)) {
+      assertEquals(10, count(eventLog));
+      assertEquals(9, eventLog.highestOffset(0));
+      assertTrue(eventLog.append(BASE + 10, 0, 10, payload(10)));
+    }
+    try (EventLog eventLog = open(Long.MAX_VALUE)) {
+      assertEquals(11, count(eventLog));
+    }
+  }
+
+  @Test
+  void deletesOldestSegmentsBeyondRetentionSize() throws IOException {
+    try (EventLog eventLog = open(8 * 1024)) {
+      for (int i = 0; i < 2_000; i++) {
+        eventLog.append(BASE + i, 0, i, payload(i));
+      }
+      eventLog.snapshotTaken(eventLog.endPosition());
+      assertTrue(eventLog.sizeBytes() <= 8 * 1024 + 4 * 1024);
+      List<Long> offsets = new ArrayList<>();
+      eventLog.scanAll((timestamp, partition, offset, payload) -> offsets.add(offset));
+      assertEquals(1_999L, offsets.get(offsets.size() - 1));
+      assertTrue(offsets.get(0) > 0);
+    }
+  }
+
+  @Test
+  void keepsSegmentsNoSnapshotCoversYet() throws IOException {
+    try (EventLog eventLog = open(8 * 1024)) {
+      for (int i = 0; i < 1_000; i++) {
+        eventLog.append(BASE + i, 0, i, payload(i));
+      }
+      assertEquals(1_000, count(eventLog));
+
+      LogPosition snapshot = eventLog.endPosition();
+      for (int i = 1_000; i < 2_000; i++) {
+        eventLog.append(BASE + i, 0, i, payload(i));
+      }
+      eventLog.snapshotTaken(snapshot);
+      // over the size limit, but the segments from the snapshot's on are still needed
+      assertTrue(eventLog.sizeBytes() > 8 * 1024);
+      List<Long> offsets = new ArrayList<>();
+      eventLog.scanFrom(snapshot, (timestamp, partition, offset, payload) -> offsets.add(offset));
+      assertEquals(1_000, offsets.size());
+      assertEquals(1_000L, offsets.get(0));
+    }
+  }
+
+  @Test
+  @EnabledIfSystemProperty(named = "bench.eventlog.mb", matches = "\\d+")
+  void scanThroughput() throws IOException {
+    long targetBytes = Long.getLong("bench.eventlog.mb") * 1024 * 1024;
+    byte[] payload = new byte[200];
+    try (EventLog eventLog = new EventLog(directory, 128 * 1024 * 1024, 4096, Duration.ofDays(365), Long.MAX_VALUE)) {
+      for (long i = 0; eventLog.sizeBytes() < targetBytes; i++) {
+        eventLog.append(BASE + i, 0, i, payload);
+      }
+      for (int run = 0; run < 3; run++) {
+        AtomicLong records = new AtomicLong();
+        long start = System.nanoTime();
+        long bytes = eventLog.scanAll((timestamp, partition, offset, view) -> records.incrementAndGet());
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("scanned %,d records (%,d MB) at %.2f GB/s%n", records.get(), bytes >> 20, bytes / 1e9 / seconds);
+      }
+    }
+  }
+
+  private EventLog open(long retentionBytes) throws IOException {
+    return new EventLog(directory, 4 * 1024, 256, Duration.ofDays(3650), retentionBytes);
+  }
+
+  private static byte[] payload(long offset) {
+    return ("event-" + offset).getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static long count(EventLog eventLog) {
+    AtomicLong count = new AtomicLong();
+    eventLog.scanAll((timestamp, partition, offset, payload) -> count.incrementAndGet());
+    return count.get();
+  }
+}
@@ -0,0 +1,149 @@
+package com.pm.analyticsservice.kafka;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.doThrow;
+
+import com.pm.analyticsservice.eventlog.EventLog;
+import com.pm.analyticsservice.service.AnalyticsService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.BooleanSupplier;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import patient.events.PatientEvent;
+
+@SpringBootTest(properties = {
+  "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+  "spring.kafka.consumer.auto-offset-reset=earliest",
+  "analytics.retry.delay-ms=1000",
+  "analytics.retry.multiplier=2",
+  // keeps the stream ticker off the spy while it is being stubbed
+  "analytics.stream.tick=1h"
+})
+@EmbeddedKafka(partitions = 1, topics = "patient")
+class KafkaConsumerTest {
+
+  @MockitoSpyBean
+  private AnalyticsService analyticsService;
+
+  @Autowired
+  private EventLog eventLog;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @Autowired
+  private EmbeddedKafkaBroker broker;
+
+  @DynamicPropertySource
+  static void eventLogDirectory(DynamicPropertyRegistry properties) throws IOException {
+    String directory = Files.createTempDirectory("consumer-event-log").toString();
+    properties.add("analytics.event-log.dir", () -> directory);
+  }
+
+  @Test
+  void retriesOnTheSideAndDeadLettersWhatCannotSucceed() throws Exception {
+    // fails on the main topic and the first retry tier, then succeeds
+    doThrow(new IllegalStateException("transient"))
+      .doThrow(new IllegalStateException("transient"))
+      .doCallRealMethod()
+      .when(analyticsService).record(any(), argThat(event -> "flaky".equals(event.getPatientId())));
+
+    try (KafkaProducer<String, byte[]> producer = new KafkaProducer<>(KafkaTestUtils.producerProps(broker),
+                                                                       new StringSerializer(),
+                                                                       new ByteArraySerializer())) {
+      // offset 0: a truncated message, offset 1: the flaky event, offset 2: a healthy one behind it
+      producer.send(new ProducerRecord<>("patient", "bad", new byte[] {0x0a, 0x7f}));
+      producer.send(new ProducerRecord<>("patient", "flaky", event("flaky").toByteArray()));
+      producer.send(new ProducerRecord<>("patient", "healthy", event("healthy").toByteArray())).get();
+    }
+
+    // the healthy event does not wait for the flaky one's retry delays
+    await(() -> analyticsService.getSummary().totalEvents() == 1);
+    assertNull(meterRegistry.find("analytics.events.consumed").tag("tier", "retry-1").counter());
+
+    await(() -> analyticsService.getSummary().totalEvents() == 2);
+    assertEquals(2.0, count("main", "failure"));
+    assertEquals(1.0, count("main", "success"));
+    assertEquals(1.0, count("retry-0", "failure"));
+    assertEquals(1.0, count("retry-1", "success"));
+
+    // stored under its position on the patient topic, not the retry topic's
+    Set<Long> offsets = new TreeSet<>();
+    eventLog.scanAll((timestamp, partition, offset, payload) -> offsets.add(offset));
+    assertEquals(Set.of(1L, 2L), offsets);
+
+    await(() -> meterRegistry.find("analytics.events.dead-lettered").counter() != null);
+    assertEquals("com.google.protobuf.InvalidProtocolBufferException",
+                 meterRegistry.find("analytics.events.dead-lettered").counter().getId().getTag("exception"));
+    // the parse failure skipped the retry tiers
+    assertNull(meterRegistry.find("analytics.events.consumed").tag("tier", "retry-0")
+                            .tag("outcome", "success").counter());
+
+    Map<String, Object> consumerProps = KafkaTestUtils.consumerProps("dlt-inspector", "false", broker);
+    consumerProps.put("auto.offset.reset", "earliest");
+    try (Consumer<String, byte[]> consumer = new DefaultKafkaConsumerFactory<>(consumerProps, new StringDeserializer(),
+                                                                              new ByteArrayDeserializer()).createConsumer()) {
+      consumer.subscribe(List.of("patient-dlt"));
+      ConsumerRecord<String, byte[]> deadLetter = KafkaTestUtils.getSingleRecord(consumer, "patient-dlt");
+      assertEquals("bad", deadLetter.key());
+      assertNotNull(deadLetter.headers().lastHeader(KafkaHeaders.EXCEPTION_STACKTRACE));
+      assertEquals("patient", new String(deadLetter.headers().lastHeader(KafkaHeaders.ORIGINAL_TOPIC).value(),
+                                         StandardCharsets.UTF_8));
+    }
+  }
+
+  private double count(String tier, String outcome) {
+    Counter counter = meterRegistry.find("analytics.events.consumed").tag("tier", tier).tag("outcome", outcome).counter();
+    return counter == null ? 0 : counter.count();
+  }
+
+  private static PatientEvent event(String patientId) {
+    return PatientEvent.newBuilder()
+                       .setPatientId(patientId)
+                       .setEventId(patientId + "-1")
+                       .setEventType("PATIENT_CREATED")
+                       .setRegisteredDate("2025-10-01")
+                       .build();
+  }
+
+  private static void await(BooleanSupplier condition) throws InterruptedException {
+    long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+    while (!condition.getAsBoolean()) {
+      if (System.nanoTime() > deadline) {
+        throw new AssertionError("Condition not met within 30s");
+      }
+      Thread.sleep(50);
+    }
+  }
+}
@@ -0,0 +1,141 @@
+package com.pm.analyticsservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.spy;
+
+import com.pm.analyticsservice.aggregate.AggregateSnapshotStore;
+import com.pm.analyticsservice.dto.AnalyticsSummaryResponseDTO;
+import com.pm.analyticsservice.eventlog.EventLog;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.kafka.support.KafkaHeaders;
+import patient.events.PatientEvent;
+
+class AnalyticsServiceTest {
+
+  private static final long TIMESTAMP = 1_760_000_000_000L;
+
+  @TempDir
+  Path directory;
+
+  @Test
+  void anEventWhoseApplyFailsIsCountedWhenItsRetrySucceeds() throws IOException {
+    PatientEvent event = PatientEvent.newBuilder()
+                                     .setPatientId("p1")
+                                     .setEventId("p1-1")
+                                     .setEventType("PATIENT_CREATED")
+                                     .setRegisteredDate("2025-10-01")
+                                     .build();
+    try (EventLog eventLog = open()) {
+      AnalyticsService analyticsService = spy(service(eventLog));
+      doThrow(new IllegalStateException("apply failed"))
+        .doCallRealMethod()
+        .when(analyticsService).apply(any(), anyInt(), anyLong());
+
+      assertThrows(IllegalStateException.class, () -> analyticsService.record(mainRecord(event, 5), event));
+      assertEquals(0, analyticsService.getSummary().totalEvents());
+      assertEquals(List.of(), storedOffsets(eventLog));
+
+      analyticsService.record(retryRecord(event, 5), event);
+      assertEquals(1, analyticsService.getSummary().totalEvents());
+      assertEquals(List.of(5L), storedOffsets(eventLog));
+
+      // a redelivery of the retry is a duplicate now
+      analyticsService.record(retryRecord(event, 5), event);
+      assertEquals(1, analyticsService.getSummary().totalEvents());
+      assertEquals(List.of(5L), storedOffsets(eventLog));
+    }
+  }
+
+  @Test
+  void keepsHistoryThatRetentionDeletedAcrossARestart() throws IOException {
+    AnalyticsSummaryResponseDTO before;
+    try (EventLog eventLog = open(Duration.ofDays(30))) {
+      AnalyticsService analyticsService = service(eventLog);
+      analyticsService.rebuild();
+      analyticsService.record(mainRecord(1, 0, event(1_000)), event(1_000));
+      for (int offset = 0; offset < 300; offset++) {
+        analyticsService.record(mainRecord(0, offset, event(offset)), event(offset));
+      }
+      before = analyticsService.getSummary();
+      // every event is older than the retention, so only segments after the last snapshot are left
+      assertTrue(storedOffsets(eventLog).get(0) > 0);
+      assertTrue(storedOffsets(eventLog).size() < 300);
+      // no shutdown snapshot, as after a crash: the events after the last one are replayed from the log
+    }
+
+    try (EventLog eventLog = open(Duration.ofDays(30))) {
+      AnalyticsService analyticsService = service(eventLog);
+      analyticsService.rebuild();
+      assertEquals(before, analyticsService.getSummary());
+      assertEquals(301, analyticsService.getSummary().totalEvents());
+
+      // partition 1 has nothing left in the log, its offset comes from the snapshot
+      analyticsService.record(mainRecord(1, 0, event(1_000)), event(1_000));
+      assertEquals(before, analyticsService.getSummary());
+    }
+  }
+
+  private AnalyticsService service(EventLog eventLog) {
+    return new AnalyticsService(eventLog, new AggregateSnapshotStore(directory.resolve("aggregates.json")),
+                                Duration.ofHours(1), 12, 1_000);
+  }
+
+  private EventLog open() throws IOException {
+    return open(Duration.ofDays(3650));
+  }
+
+  private EventLog open(Duration retention) throws IOException {
+    return new EventLog(directory, 4 * 1024, 256, retention, Long.MAX_VALUE);
+  }
+
+  private static PatientEvent event(int n) {
+    return PatientEvent.newBuilder()
+                       .setPatientId("p" + n)
+                       .setEventId("p" + n + "-1")
+                       .setEventType(n % 10 == 9 ? "PATIENT_DELETED" : "PATIENT_CREATED")
+                       .setRegisteredDate("2025-0" + (1 + n % 9) + "-01")
+                       .build();
+  }
+
+  private static List<Long> storedOffsets(EventLog eventLog) {
+    List<Long> offsets = new ArrayList<>();
+    eventLog.scanAll((timestamp, partition, offset, payload) -> offsets.add(offset));
+    return offsets;
+  }
+
+  private static ConsumerRecord<String, byte[]> mainRecord(PatientEvent event, long offset) {
+    return mainRecord(0, offset, event);
+  }
+
+  private static ConsumerRecord<String, byte[]> mainRecord(int partition, long offset, PatientEvent event) {
+    return new ConsumerRecord<>("patient", partition, offset, TIMESTAMP, TimestampType.CREATE_TIME, 0, 0,
+                                event.getPatientId(), event.toByteArray(), new RecordHeaders(), Optional.empty());
+  }
+
+  // as the retry topic delivers it: its own position, with the original one in headers
+  private static ConsumerRecord<String, byte[]> retryRecord(PatientEvent event, long originalOffset) {
+    ConsumerRecord<String, byte[]> record = new ConsumerRecord<>("patient-retry-0", 0, 0, event.getPatientId(),
+                                                                 event.toByteArray());
+    record.headers().add(KafkaHeaders.ORIGINAL_PARTITION, ByteBuffer.allocate(4).putInt(0).array());
+    record.headers().add(KafkaHeaders.ORIGINAL_OFFSET, ByteBuffer.allocate(8).putLong(originalOffset).array());
+    record.headers().add(KafkaHeaders.ORIGINAL_TIMESTAMP, ByteBuffer.allocate(8).putLong(TIMESTAMP).array());
+    return record;
+  }
+}
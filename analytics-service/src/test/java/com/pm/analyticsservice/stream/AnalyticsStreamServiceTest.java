@@ -0,0 +1,182 @@
+package com.pm.analyticsservice.stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pm.analyticsservice.aggregate.AggregateSnapshotStore;
+import com.pm.analyticsservice.dto.AnalyticsSummaryResponseDTO;
+import com.pm.analyticsservice.dto.AnalyticsUpdateDTO;
+import com.pm.analyticsservice.eventlog.EventLog;
+import com.pm.analyticsservice.service.AnalyticsService;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.BooleanSupplier;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import patient.events.PatientEvent;
+
+class AnalyticsStreamServiceTest {
+
+  private static final long T0 = 1_760_000_000_000L;
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  @TempDir
+  Path directory;
+
+  private EventLog eventLog;
+  private AnalyticsService analyticsService;
+  private AnalyticsStreamService streamService;
+  private long offset;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    eventLog = new EventLog(directory, 1024 * 1024, 4096, Duration.ofDays(3650), Long.MAX_VALUE);
+    analyticsService = new AnalyticsService(eventLog, new AggregateSnapshotStore(directory.resolve("aggregates.json")),
+                                            Duration.ofHours(1), 12, 100_000);
+    // ticks are driven by the test
+    streamService = new AnalyticsStreamService(analyticsService, MAPPER, Duration.ofHours(1), Duration.ofHours(1),
+                                               Duration.ofMinutes(1), 10);
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    streamService.shutdown();
+    eventLog.close();
+  }
+
+  @Test
+  void slowClientSkipsIntermediateFramesAndStillConverges() throws Exception {
+    RecordingEmitter fast = new RecordingEmitter(new CountDownLatch(0));
+    CountDownLatch gate = new CountDownLatch(1);
+    RecordingEmitter slow = new RecordingEmitter(gate);
+    streamService.register(fast);
+    streamService.register(slow);
+
+    for (int tick = 0; tick < 50; tick++) {
+      for (int i = 0; i < 200; i++) {
+        record(i % 3 == 0 ? "PATIENT_CREATED" : "PATIENT_UPDATED", "2025-" + (10 + tick % 3) + "-01");
+      }
+      streamService.tick();
+    }
+    gate.countDown();
+    AnalyticsSummaryResponseDTO expected = analyticsService.getSummary();
+    await(() -> {
+      streamService.tick();
+      return fast.lastTotal() == 10_000 && slow.lastTotal() == 10_000;
+    });
+
+    // the slow client got its initial frame and then only the newest state
+    assertTrue(slow.frames.size() <= 3, "slow client frames: " + slow.frames.size());
+    assertTrue(streamService.stats().framesSkipped() > 0);
+    assertEquals(expected.eventsByType(), fast.merged("eventsByType"));
+    assertEquals(expected.eventsByType(), slow.merged("eventsByType"));
+    assertEquals(expected.registrationsByMonth(), slow.merged("registrationsByMonth"));
+  }
+
+  @Test
+  void deltaFramesCarryOnlyChangedEntries() throws Exception {
+    record("PATIENT_CREATED", "2025-10-01");
+    streamService.tick();
+    RecordingEmitter client = new RecordingEmitter(new CountDownLatch(0));
+    streamService.register(client);
+    await(() -> client.frames.size() == 1);
+    assertTrue(client.frames.get(0).full());
+    assertEquals(1, client.frames.get(0).totalEvents());
+
+    record("PATIENT_UPDATED", "");
+    streamService.tick();
+    await(() -> client.frames.size() == 2);
+    AnalyticsUpdateDTO delta = client.frames.get(1);
+    assertFalse(delta.full());
+    assertEquals(Map.of("PATIENT_UPDATED", 1L), delta.eventsByType());
+    assertTrue(delta.registrationsByMonth().isEmpty());
+
+    // nothing changed, so nothing is sent
+    streamService.tick();
+    Thread.sleep(100);
+    assertEquals(2, client.frames.size());
+  }
+
+  private void record(String type, String registeredDate) {
+    PatientEvent event = PatientEvent.newBuilder()
+                                     .setPatientId("p-" + offset)
+                                     .setEventId("e-" + offset)
+                                     .setEventType(type)
+                                     .setRegisteredDate(registeredDate)
+                                     .build();
+    byte[] payload = event.toByteArray();
+    analyticsService.record(new ConsumerRecord<>("patient", 0, offset, T0 + offset, TimestampType.CREATE_TIME, 0,
+                                                 payload.length, null, payload, new RecordHeaders(), Optional.empty()),
+                            event);
+    offset++;
+  }
+
+  private static void await(BooleanSupplier condition) throws InterruptedException {
+    long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+    while (!condition.getAsBoolean()) {
+      if (System.nanoTime() > deadline) {
+        throw new AssertionError("Condition not met within 10s");
+      }
+      Thread.sleep(10);
+    }
+  }
+
+  private static final class RecordingEmitter extends SseEmitter {
+
+    private final CountDownLatch gate;
+    private final List<AnalyticsUpdateDTO> frames = new CopyOnWriteArrayList<>();
+
+    private RecordingEmitter(CountDownLatch gate) {
+      this.gate = gate;
+    }
+
+    @Override
+    public void send(SseEventBuilder builder) throws IOException {
+      try {
+        // stands in for a client whose socket buffer is full
+        gate.await();
+      }
+      catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IOException(e);
+      }
+      for (ResponseBodyEmitter.DataWithMediaType data : builder.build()) {
+        if (data.getData() instanceof String text && text.startsWith("{")) {
+          frames.add(MAPPER.readValue(text, AnalyticsUpdateDTO.class));
+        }
+      }
+    }
+
+    private long lastTotal() {
+      return frames.isEmpty() ? -1 : frames.get(frames.size() - 1).totalEvents();
+    }
+
+    private Map<String, Long> merged(String field) {
+      Map<String, Long> merged = new TreeMap<>();
+      for (AnalyticsUpdateDTO frame : frames) {
+        Map<String, Long> entries = field.equals("eventsByType") ? frame.eventsByType() : frame.registrationsByMonth();
+        if (frame.full()) {
+          merged.clear();
+        }
+        merged.putAll(entries);
+      }
+      return merged;
+    }
+  }
+}
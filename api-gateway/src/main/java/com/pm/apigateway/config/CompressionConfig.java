@@ -0,0 +1,82 @@
+package com.pm.apigateway.config;
+
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelPipeline;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpRequest;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.netty.NettyPipeline;
+import reactor.netty.http.server.compression.DeflateOption;
+import reactor.netty.http.server.compression.GzipOption;
+
+/**
+ * Which response encodings the gateway offers. Whether and above what size it compresses is Spring Boot's
+ * {@code server.compression}. With brotli4j on the classpath Reactor Netty offers br next to gzip and
+ * deflate, and picks whichever the client prefers.
+ */
+@Configuration
+public class CompressionConfig {
+
+  @Bean
+  public WebServerFactoryCustomizer<NettyReactiveWebServerFactory> compressionEncodings(
+      @Value("${gateway.compression.brotli:true}") boolean brotli,
+      @Value("${gateway.compression.gzip-level:6}") int gzipLevel) {
+    return factory -> {
+      if (gzipLevel != 6) {
+        // a named option replaces only the default of its own encoding; br keeps its defaults
+        factory.addServerCustomizers(server -> server.compressOptions(
+            GzipOption.builder().compressionLevel(gzipLevel).build(),
+            DeflateOption.builder().compressionLevel(gzipLevel).build()));
+      }
+      if (!brotli) {
+        // Reactor Netty always offers br when brotli4j loads, so hide it from the compressor instead
+        factory.addServerCustomizers(server -> server.doOnChannelInit((observer, channel, address) -> {
+          ChannelPipeline pipeline = channel.pipeline();
+          if (pipeline.get(NettyPipeline.HttpCodec) != null) {
+            pipeline.addAfter(NettyPipeline.HttpCodec, "gateway.withoutBrotli", WithoutBrotli.INSTANCE);
+          }
+        }));
+      }
+    };
+  }
+
+  /**
+   * Drops br from each request's Accept-Encoding before the compression handler reads it. Upstreams see the
+   * same header, so they do not answer in br either.
+   */
+  @ChannelHandler.Sharable
+  static final class WithoutBrotli extends ChannelInboundHandlerAdapter {
+
+    static final WithoutBrotli INSTANCE = new WithoutBrotli();
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) {
+      if (msg instanceof HttpRequest request) {
+        HttpHeaders headers = request.headers();
+        String accepted = headers.get(HttpHeaderNames.ACCEPT_ENCODING);
+        if (accepted != null) {
+          String withoutBrotli = Arrays.stream(accepted.split(","))
+                                       .map(String::trim)
+                                       .filter(coding -> !coding.split(";", 2)[0].trim().equalsIgnoreCase("br"))
+                                       .collect(Collectors.joining(", "));
+          if (withoutBrotli.isEmpty()) {
+            headers.remove(HttpHeaderNames.ACCEPT_ENCODING);
+          }
+          else {
+            headers.set(HttpHeaderNames.ACCEPT_ENCODING, withoutBrotli);
+          }
+        }
+      }
+      ctx.fireChannelRead(msg);
+    }
+  }
+}
@@ -0,0 +1,58 @@
+package com.pm.apigateway.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.List;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.cloud.gateway.config.HttpClientFactory;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.config.HttpClientSslConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.netty.ConnectionObserver;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+
+/**
+ * Replaces the gateway's HttpClient factory so upstreams can have their own pools, and counts new upstream
+ * connections in {@code gateway.upstream.connections.opened}: with pooling working that count stays flat
+ * under steady load, so its rate is the connection churn.
+ */
+@Configuration
+@EnableConfigurationProperties(UpstreamPoolProperties.class)
+public class UpstreamHttpClientConfig {
+
+  @Bean
+  public HttpClientFactory gatewayHttpClientFactory(HttpClientProperties properties,
+                                                    ServerProperties serverProperties,
+                                                    List<HttpClientCustomizer> customizers,
+                                                    HttpClientSslConfigurer sslConfigurer,
+                                                    UpstreamPoolProperties upstreams) {
+    return new UpstreamHttpClientFactory(properties, serverProperties, sslConfigurer, customizers, upstreams);
+  }
+
+  @Bean
+  public HttpClientCustomizer upstreamConnectionCustomizer(UpstreamPoolProperties upstreams,
+                                                           MeterRegistry meterRegistry) {
+    return httpClient -> {
+      // CONNECTED is only signalled for a new connection; reused ones start at ACQUIRED
+      HttpClient client = httpClient.observe((connection, state) -> {
+        if (state == ConnectionObserver.State.CONNECTED) {
+          Counter.builder("gateway.upstream.connections.opened")
+                 .tag("remote", remote(connection.channel().remoteAddress()))
+                 .register(meterRegistry)
+                 .increment();
+        }
+      });
+      return upstreams.isH2c() ? client.protocol(HttpProtocol.HTTP11, HttpProtocol.H2C) : client;
+    };
+  }
+
+  private static String remote(SocketAddress address) {
+    return address instanceof InetSocketAddress inet ? inet.getHostString() + ":" + inet.getPort() : "unknown";
+  }
+}
@@ -0,0 +1,46 @@
+package com.pm.apigateway.config;
+
+import java.util.List;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.cloud.gateway.config.HttpClientFactory;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.config.HttpClientSslConfigurer;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * The gateway's HttpClient with the configured per-upstream pools layered over the gateway-wide one.
+ */
+class UpstreamHttpClientFactory extends HttpClientFactory {
+
+  private final UpstreamPoolProperties upstreams;
+
+  UpstreamHttpClientFactory(HttpClientProperties properties, ServerProperties serverProperties,
+                            HttpClientSslConfigurer sslConfigurer, List<HttpClientCustomizer> customizers,
+                            UpstreamPoolProperties upstreams) {
+    super(properties, serverProperties, sslConfigurer, customizers);
+    this.upstreams = upstreams;
+  }
+
+  @Override
+  protected ConnectionProvider buildConnectionProvider(HttpClientProperties properties) {
+    ConnectionProvider defaults = super.buildConnectionProvider(properties);
+    // null when pooling is disabled altogether
+    ConnectionProvider.Builder builder = defaults.mutate();
+    if (builder == null || upstreams.getPools().isEmpty()) {
+      return defaults;
+    }
+    for (UpstreamPoolProperties.Pool pool : upstreams.getPools().values()) {
+      builder.forRemoteHost(pool.socketAddress(), spec -> spec
+          .maxConnections(pool.getMaxConnections())
+          .pendingAcquireMaxCount(pool.getPendingAcquireMaxCount())
+          .pendingAcquireTimeout(pool.getPendingAcquireTimeout())
+          .maxIdleTime(pool.getMaxIdleTime())
+          .maxLifeTime(pool.getMaxLifeTime())
+          .evictInBackground(pool.getEvictionInterval())
+          .metrics(properties.getPool().isMetrics()));
+    }
+    defaults.dispose();
+    return builder.build();
+  }
+}
@@ -0,0 +1,114 @@
+package com.pm.apigateway.config;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Connection pools for individual upstreams, keyed by a name of your choice. Upstreams without an entry share
+ * the gateway-wide pool from {@code spring.cloud.gateway.server.webflux.httpclient.pool}.
+ */
+@ConfigurationProperties(prefix = "gateway.upstream")
+public class UpstreamPoolProperties {
+
+  // offer HTTP/2 cleartext via Upgrade; upstreams that do not speak it keep HTTP/1.1
+  private boolean h2c = false;
+
+  private Map<String, Pool> pools = new LinkedHashMap<>();
+
+  public boolean isH2c() {
+    return h2c;
+  }
+
+  public void setH2c(boolean h2c) {
+    this.h2c = h2c;
+  }
+
+  public Map<String, Pool> getPools() {
+    return pools;
+  }
+
+  public void setPools(Map<String, Pool> pools) {
+    this.pools = pools;
+  }
+
+  public static class Pool {
+    // host:port exactly as it appears in the route uri
+    private String address;
+    private int maxConnections = 50;
+    // requests allowed to wait for a connection before new ones fail fast
+    private int pendingAcquireMaxCount = 500;
+    private Duration pendingAcquireTimeout = Duration.ofSeconds(5);
+    // below the upstream's keep-alive timeout, so the gateway closes idle connections first
+    private Duration maxIdleTime = Duration.ofSeconds(30);
+    private Duration maxLifeTime = Duration.ofMinutes(10);
+    private Duration evictionInterval = Duration.ofSeconds(15);
+
+    public InetSocketAddress socketAddress() {
+      int colon = address.lastIndexOf(':');
+      if (colon < 0) {
+        throw new IllegalArgumentException("gateway.upstream.pools address must be host:port, got " + address);
+      }
+      return InetSocketAddress.createUnresolved(address.substring(0, colon),
+                                                Integer.parseInt(address.substring(colon + 1)));
+    }
+
+    public String getAddress() {
+      return address;
+    }
+
+    public void setAddress(String address) {
+      this.address = address;
+    }
+
+    public int getMaxConnections() {
+      return maxConnections;
+    }
+
+    public void setMaxConnections(int maxConnections) {
+      this.maxConnections = maxConnections;
+    }
+
+    public int getPendingAcquireMaxCount() {
+      return pendingAcquireMaxCount;
+    }
+
+    public void setPendingAcquireMaxCount(int pendingAcquireMaxCount) {
+      this.pendingAcquireMaxCount = pendingAcquireMaxCount;
+    }
+
+    public Duration getPendingAcquireTimeout() {
+      return pendingAcquireTimeout;
+    }
+
+    public void setPendingAcquireTimeout(Duration pendingAcquireTimeout) {
+      this.pendingAcquireTimeout = pendingAcquireTimeout;
+    }
+
+    public Duration getMaxIdleTime() {
+      return maxIdleTime;
+    }
+
+    public void setMaxIdleTime(Duration maxIdleTime) {
+      this.maxIdleTime = maxIdleTime;
+    }
+
+    public Duration getMaxLifeTime() {
+      return maxLifeTime;
+    }
+
+    public void setMaxLifeTime(Duration maxLifeTime) {
+      this.maxLifeTime = maxLifeTime;
+    }
+
+    public Duration getEvictionInterval() {
+      return evictionInterval;
+    }
+
+    public void setEvictionInterval(Duration evictionInterval) {
+      this.evictionInterval = evictionInterval;
+    }
+  }
+}
@@ -1,22 +1,48 @@
 package com.pm.apigateway.filter;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.netty.http.client.HttpClient;
 
+/**
+ * Checks the bearer token with auth-service before routing. {@code gateway.jwt.validation} records how long
+ * that check takes, per outcome (valid, rejected by auth-service, or error reaching it), and the same time
+ * goes into the request's slow-request log line. The call shares the gateway's HttpClient, so it uses the
+ * auth-service pool from {@code gateway.upstream.pools}.
+ */
 @Component
 public class JwtValidationGatewayFilterFactory extends AbstractGatewayFilterFactory<Object> {
 
   private final WebClient webClient;
+  private final Timer valid;
+  private final Timer rejected;
+  private final Timer error;
 
   public JwtValidationGatewayFilterFactory(
       WebClient.Builder webClientBuilder,
-      @Value("${auth.service.url}") String authServiceUrl) {
-    this.webClient = webClientBuilder.baseUrl(authServiceUrl).build();
+      HttpClient httpClient,
+      @Value("${auth.service.url}") String authServiceUrl,
+      @Value("${auth.service.validate-timeout:2s}") Duration validateTimeout,
+      MeterRegistry meterRegistry) {
+    this.webClient = webClientBuilder
+        .baseUrl(authServiceUrl)
+        .clientConnector(new ReactorClientHttpConnector(httpClient.responseTimeout(validateTimeout)))
+        .build();
+    this.valid = validationTimer("valid", meterRegistry);
+    this.rejected = validationTimer("rejected", meterRegistry);
+    this.error = validationTimer("error", meterRegistry);
   }
 
   @Override
@@ -30,12 +56,34 @@ public class JwtValidationGatewayFilterFactory extends AbstractGatewayFilterFact
       }
 
       // Create a GET request to the auth service
+      long start = System.nanoTime();
       return webClient.get()
           .uri("/validate")
           .header(HttpHeaders.AUTHORIZATION, token)
           .retrieve()
           .toBodilessEntity()
+          .doOnSuccess(response -> recordValidation(exchange, valid, start))
+          .doOnError(e -> recordValidation(
+              exchange, e instanceof WebClientResponseException.Unauthorized ? rejected : error, start))
           .then(chain.filter(exchange));
     };
   }
+
+  private static void recordValidation(ServerWebExchange exchange, Timer timer, long startNanos) {
+    long nanos = System.nanoTime() - startNanos;
+    timer.record(nanos, TimeUnit.NANOSECONDS);
+    RouteLatencyGlobalFilter.RequestTiming timing = exchange.getAttribute(RouteLatencyGlobalFilter.TIMING_ATTR);
+    if (timing != null) {
+      timing.jwtValidated(nanos);
+    }
+  }
+
+  private static Timer validationTimer(String outcome, MeterRegistry meterRegistry) {
+    return Timer.builder("gateway.jwt.validation")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(meterRegistry);
+  }
 }
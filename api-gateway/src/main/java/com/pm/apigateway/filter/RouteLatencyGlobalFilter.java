@@ -0,0 +1,182 @@
+package com.pm.apigateway.filter;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+import com.pm.apigateway.metrics.SlowRequests;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Times every routed request, including the route's own filters such as JwtValidation, into
+ * {@code gateway.route.latency} tagged with route and status. A request that fails is tagged with the status its
+ * exception maps to, 500 unless it carries one; only a request the client abandoned is tagged CANCELLED.
+ * Requests slower than
+ * {@code gateway.slow-request.threshold} go to {@link SlowRequests} and, for a
+ * {@code gateway.slow-request.log-sample-rate} share of them, to a structured warning.
+ * <p>
+ * Timers are cached per route and status code so the hot path does a map lookup and an array read; the only
+ * per-request object is the {@link RequestTiming}, which doubles as the completion callback.
+ */
+@Component
+public class RouteLatencyGlobalFilter implements GlobalFilter, Ordered {
+
+  static final String TIMING_ATTR = RouteLatencyGlobalFilter.class.getName() + ".timing";
+
+  private static final Logger log = LoggerFactory.getLogger(RouteLatencyGlobalFilter.class);
+  // status codes are three digits; 0 marks a cancelled request
+  private static final int STATUS_SLOTS = 1000;
+
+  private final MeterRegistry meterRegistry;
+  private final SlowRequests slowRequests;
+  private final long slowThresholdNanos;
+  private final double logSampleRate;
+  private final ConcurrentMap<String, AtomicReferenceArray<Timer>> timers = new ConcurrentHashMap<>();
+
+  public RouteLatencyGlobalFilter(
+      MeterRegistry meterRegistry,
+      SlowRequests slowRequests,
+      @Value("${gateway.slow-request.threshold:1s}") Duration slowThreshold,
+      @Value("${gateway.slow-request.log-sample-rate:0.1}") double logSampleRate) {
+    this.meterRegistry = meterRegistry;
+    this.slowRequests = slowRequests;
+    this.slowThresholdNanos = slowThreshold.toNanos();
+    this.logSampleRate = logSampleRate;
+  }
+
+  @Override
+  public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+    Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+    if (route == null) {
+      return chain.filter(exchange);
+    }
+    RequestTiming timing = new RequestTiming(exchange, route.getId(), System.nanoTime());
+    exchange.getAttributes().put(TIMING_ATTR, timing);
+    return chain.filter(exchange).doOnError(timing::failed).doFinally(timing);
+  }
+
+  @Override
+  public int getOrder() {
+    return Ordered.HIGHEST_PRECEDENCE;
+  }
+
+  private Timer timer(String routeId, int status) {
+    AtomicReferenceArray<Timer> byStatus = timers.get(routeId);
+    if (byStatus == null) {
+      byStatus = timers.computeIfAbsent(routeId, id -> new AtomicReferenceArray<>(STATUS_SLOTS));
+    }
+    Timer timer = byStatus.get(status);
+    if (timer == null) {
+      timer = Timer.builder("gateway.route.latency")
+                   .tag("route", routeId)
+                   .tag("status", status == 0 ? "CANCELLED" : Integer.toString(status))
+                   .publishPercentileHistogram()
+                   .minimumExpectedValue(Duration.ofMillis(1))
+                   .maximumExpectedValue(Duration.ofSeconds(30))
+                   .register(meterRegistry);
+      byStatus.set(status, timer);
+    }
+    return timer;
+  }
+
+  private static int status(Throwable error) {
+    if (error instanceof ResponseStatusException e) {
+      return e.getStatusCode().value();
+    }
+    if (error instanceof WebClientResponseException e) {
+      return e.getStatusCode().value();
+    }
+    return 500;
+  }
+
+  private void slow(RequestTiming timing, int status, long nanos) {
+    String method = timing.exchange.getRequest().getMethod().name();
+    String path = timing.exchange.getRequest().getPath().value();
+    slowRequests.record(timing.routeId, method, path, status, nanos);
+    if (ThreadLocalRandom.current().nextDouble() < logSampleRate) {
+      long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+      long jwtMillis = TimeUnit.NANOSECONDS.toMillis(timing.jwtValidationNanos);
+      log.atWarn()
+         .setMessage("Slow request {} {} on {}: {} in {} ms (JWT validation {} ms)")
+         .addArgument(method).addArgument(path).addArgument(timing.routeId).addArgument(status)
+         .addArgument(millis).addArgument(jwtMillis)
+         .addKeyValue("route", timing.routeId)
+         .addKeyValue("method", method)
+         .addKeyValue("path", path)
+         .addKeyValue("status", status)
+         .addKeyValue("durationMs", millis)
+         .addKeyValue("jwtValidationMs", jwtMillis)
+         .log();
+    }
+  }
+
+  /**
+   * Per-request state: when the request started, and how long JwtValidation spent on it, if it ran.
+   */
+  final class RequestTiming implements Consumer<SignalType> {
+
+    private final ServerWebExchange exchange;
+    private final String routeId;
+    private final long startNanos;
+    private long jwtValidationNanos;
+    private Throwable error;
+
+    private RequestTiming(ServerWebExchange exchange, String routeId, long startNanos) {
+      this.exchange = exchange;
+      this.routeId = routeId;
+      this.startNanos = startNanos;
+    }
+
+    void jwtValidated(long nanos) {
+      jwtValidationNanos = nanos;
+    }
+
+    private void failed(Throwable error) {
+      this.error = error;
+    }
+
+    @Override
+    public void accept(SignalType signal) {
+      long nanos = System.nanoTime() - startNanos;
+      int status;
+      if (signal == SignalType.CANCEL) {
+        status = 0;
+      }
+      else if (signal == SignalType.ON_ERROR) {
+        // the error handler has not set the response status yet
+        status = status(error);
+      }
+      else {
+        HttpStatusCode statusCode = exchange.getResponse().getStatusCode();
+        status = statusCode == null ? 200 : statusCode.value();
+      }
+      if (status >= STATUS_SLOTS) {
+        status = 0;
+      }
+      timer(routeId, status).record(nanos, TimeUnit.NANOSECONDS);
+      if (nanos >= slowThresholdNanos) {
+        slow(this, status, nanos);
+      }
+    }
+  }
+}
@@ -0,0 +1,84 @@
+package com.pm.apigateway.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * The N slowest paths seen since startup, by worst latency. Only requests over the slow-request threshold
+ * are offered here, so the lock is off the fast path.
+ * <p>
+ * Paths are kept per route and method with numeric and UUID segments replaced by {@code {id}}, so
+ * {@code GET /api/patients/<uuid>} is one entry however many patients were slow to load, rather than one
+ * per patient crowding every other endpoint out.
+ */
+@Component
+public class SlowRequests {
+
+  private static final Pattern ID_SEGMENT = Pattern.compile(
+      "(?<=/)(\\d+|\\p{XDigit}{8}-\\p{XDigit}{4}-\\p{XDigit}{4}-\\p{XDigit}{4}-\\p{XDigit}{12})(?=/|$)");
+
+  private final int capacity;
+  private final Map<String, Entry> entries = new HashMap<>();
+
+  public SlowRequests(@Value("${gateway.slow-request.top:20}") int capacity) {
+    this.capacity = capacity;
+  }
+
+  public synchronized void record(String routeId, String method, String path, int status, long nanos) {
+    path = ID_SEGMENT.matcher(path).replaceAll("{id}");
+    String key = routeId + " " + method + " " + path;
+    Entry entry = entries.get(key);
+    if (entry == null) {
+      if (entries.size() >= capacity) {
+        Entry fastest = entries.values().stream().min(Comparator.comparingLong(e -> e.maxNanos)).orElseThrow();
+        if (fastest.maxNanos >= nanos) {
+          return;
+        }
+        entries.remove(fastest.key);
+      }
+      entry = new Entry(key, routeId, method, path);
+      entries.put(key, entry);
+    }
+    entry.count++;
+    entry.lastStatus = status;
+    entry.maxNanos = Math.max(entry.maxNanos, nanos);
+  }
+
+  public synchronized List<SlowPath> slowest() {
+    List<SlowPath> slowest = new ArrayList<>(entries.size());
+    for (Entry entry : entries.values()) {
+      slowest.add(new SlowPath(entry.routeId, entry.method, entry.path, entry.count, entry.lastStatus,
+                               TimeUnit.NANOSECONDS.toMillis(entry.maxNanos)));
+    }
+    slowest.sort(Comparator.comparingLong(SlowPath::maxMillis).reversed());
+    return slowest;
+  }
+
+  public record SlowPath(String route, String method, String path, long slowCount, int lastStatus, long maxMillis) {
+  }
+
+  private static final class Entry {
+
+    private final String key;
+    private final String routeId;
+    private final String method;
+    private final String path;
+    private long count;
+    private int lastStatus;
+    private long maxNanos;
+
+    private Entry(String key, String routeId, String method, String path) {
+      this.key = key;
+      this.routeId = routeId;
+      this.method = method;
+      this.path = path;
+    }
+  }
+}
@@ -0,0 +1,25 @@
+package com.pm.apigateway.metrics;
+
+import java.util.List;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code GET /actuator/slowrequests} lists the slowest paths, worst first.
+ */
+@Component
+@Endpoint(id = "slowrequests")
+public class SlowRequestsEndpoint {
+
+  private final SlowRequests slowRequests;
+
+  public SlowRequestsEndpoint(SlowRequests slowRequests) {
+    this.slowRequests = slowRequests;
+  }
+
+  @ReadOperation
+  public List<SlowRequests.SlowPath> slowest() {
+    return slowRequests.slowest();
+  }
+}
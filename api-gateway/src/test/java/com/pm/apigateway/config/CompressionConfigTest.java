@@ -0,0 +1,57 @@
+package com.pm.apigateway.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.boot.web.server.Compression;
+import org.springframework.boot.web.server.WebServer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.HttpHandler;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+
+class CompressionConfigTest {
+
+  private static final byte[] BODY = "{\"patient\":\"x\"}".repeat(500).getBytes(StandardCharsets.UTF_8);
+
+  @ParameterizedTest
+  @CsvSource({
+    "'br, gzip', true, 6, br",
+    "'br, gzip', true, 9, br",
+    "gzip, true, 9, gzip",
+    "'br, gzip', false, 6, gzip",
+    "'br;q=1.0, gzip;q=0.5', false, 9, gzip",
+    "br, false, 6, null"
+  })
+  void offersBrotliOnlyWhenEnabled(String acceptEncoding, boolean brotli, int gzipLevel, String expected) {
+    NettyReactiveWebServerFactory factory = new NettyReactiveWebServerFactory(0);
+    Compression compression = new Compression();
+    compression.setEnabled(true);
+    factory.setCompression(compression);
+    new CompressionConfig().compressionEncodings(brotli, gzipLevel).customize(factory);
+
+    HttpHandler handler = (request, response) -> {
+      response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+      return response.writeWith(Mono.just(DefaultDataBufferFactory.sharedInstance.wrap(BODY)));
+    };
+    WebServer server = factory.getWebServer(handler);
+    server.start();
+    try {
+      String encoding = HttpClient.create()
+                                  .headers(headers -> headers.set("Accept-Encoding", acceptEncoding))
+                                  .get()
+                                  .uri("http://localhost:" + server.getPort() + "/")
+                                  .response()
+                                  .map(response -> String.valueOf(response.responseHeaders().get("Content-Encoding")))
+                                  .block();
+      assertEquals(expected, encoding);
+    }
+    finally {
+      server.stop();
+    }
+  }
+}
@@ -0,0 +1,53 @@
+package com.pm.apigateway.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import reactor.netty.resources.ConnectionProvider;
+
+class UpstreamHttpClientFactoryTest {
+
+  @Test
+  void givesEachConfiguredUpstreamItsOwnLimits() {
+    UpstreamPoolProperties upstreams = new UpstreamPoolProperties();
+    upstreams.getPools().put("patient-service", pool("patient-service:4000", 100));
+    upstreams.getPools().put("auth-service", pool("auth-service:4005", 20));
+
+    ConnectionProvider provider = factory(upstreams).buildConnectionProvider(new HttpClientProperties());
+    try {
+      Map<SocketAddress, Integer> perHost = provider.maxConnectionsPerHost();
+      assertEquals(100, perHost.get(InetSocketAddress.createUnresolved("patient-service", 4000)));
+      assertEquals(20, perHost.get(InetSocketAddress.createUnresolved("auth-service", 4005)));
+    }
+    finally {
+      provider.dispose();
+    }
+  }
+
+  @Test
+  void rejectsAnAddressWithoutAPort() {
+    UpstreamPoolProperties upstreams = new UpstreamPoolProperties();
+    upstreams.getPools().put("patient-service", pool("patient-service", 100));
+
+    assertThrows(IllegalArgumentException.class,
+                 () -> factory(upstreams).buildConnectionProvider(new HttpClientProperties()));
+  }
+
+  private static UpstreamHttpClientFactory factory(UpstreamPoolProperties upstreams) {
+    return new UpstreamHttpClientFactory(new HttpClientProperties(), new ServerProperties(), null, List.of(), upstreams);
+  }
+
+  private static UpstreamPoolProperties.Pool pool(String address, int maxConnections) {
+    UpstreamPoolProperties.Pool pool = new UpstreamPoolProperties.Pool();
+    pool.setAddress(address);
+    pool.setMaxConnections(maxConnections);
+    return pool;
+  }
+}
@@ -0,0 +1,46 @@
+package com.pm.apigateway.config;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.pm.apigateway.ApiGatewayApplication;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.URI;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.context.ConfigurableApplicationContext;
+import reactor.netty.http.client.HttpClient;
+
+// The pools are keyed on the exact host:port, so a route whose uri differs from every address silently
+// falls back to the shared pool
+class UpstreamPoolRoutingTest {
+
+  @ParameterizedTest
+  @ValueSource(strings = {"default", "prod"})
+  void everyRouteUsesAConfiguredPool(String profile) {
+    try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ApiGatewayApplication.class)
+        .profiles(profile)
+        .properties("server.port=0", "management.server.port=0", "auth.service.url=http://unused:1")
+        .run()) {
+      Set<SocketAddress> pooled = context.getBean(HttpClient.class)
+                                         .configuration()
+                                         .connectionProvider()
+                                         .maxConnectionsPerHost()
+                                         .keySet();
+      List<Route> routes = context.getBean(RouteLocator.class).getRoutes().collectList().block();
+
+      assertFalse(routes.isEmpty());
+      for (Route route : routes) {
+        URI uri = route.getUri();
+        SocketAddress address = InetSocketAddress.createUnresolved(uri.getHost(), uri.getPort());
+        assertTrue(pooled.contains(address), route.getId() + " -> " + uri + " has no pool in " + pooled);
+      }
+    }
+  }
+}
@@ -0,0 +1,132 @@
+package com.pm.apigateway.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+import com.pm.apigateway.metrics.SlowRequests;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+class RouteLatencyGlobalFilterTest {
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private final SlowRequests slowRequests = new SlowRequests(2);
+
+  @Test
+  void recordsLatencyPerRouteAndStatus() {
+    RouteLatencyGlobalFilter filter = new RouteLatencyGlobalFilter(registry, slowRequests, Duration.ofSeconds(1), 1.0);
+
+    filter.filter(exchange("patient-service-route", "/api/patients"), respondWith(HttpStatus.OK, Duration.ZERO)).block();
+    filter.filter(exchange("patient-service-route", "/api/patients"), respondWith(HttpStatus.OK, Duration.ZERO)).block();
+    filter.filter(exchange("patient-service-route", "/api/patients/1"), respondWith(HttpStatus.NOT_FOUND, Duration.ZERO))
+          .block();
+
+    Timer ok = registry.get("gateway.route.latency").tag("route", "patient-service-route").tag("status", "200").timer();
+    Timer notFound = registry.get("gateway.route.latency").tag("route", "patient-service-route").tag("status", "404").timer();
+    assertEquals(2, ok.count());
+    assertEquals(1, notFound.count());
+    assertTrue(slowRequests.slowest().isEmpty());
+  }
+
+  @Test
+  void reusesTheTimerForARouteAndStatus() {
+    RouteLatencyGlobalFilter filter = new RouteLatencyGlobalFilter(registry, slowRequests, Duration.ofSeconds(1), 1.0);
+
+    filter.filter(exchange("auth-service-route", "/auth/login"), respondWith(HttpStatus.OK, Duration.ZERO)).block();
+    Timer first = registry.get("gateway.route.latency").timer();
+    filter.filter(exchange("auth-service-route", "/auth/login"), respondWith(HttpStatus.OK, Duration.ZERO)).block();
+
+    assertSame(first, registry.get("gateway.route.latency").timer());
+    assertEquals(1, registry.getMeters().size());
+  }
+
+  @Test
+  void keepsOnlyTheSlowestPaths() {
+    RouteLatencyGlobalFilter filter = new RouteLatencyGlobalFilter(registry, slowRequests, Duration.ofMillis(10), 0.0);
+
+    filter.filter(exchange("patient-service-route", "/api/patients/a"), respondWith(HttpStatus.OK, Duration.ofMillis(20)))
+          .block();
+    filter.filter(exchange("patient-service-route", "/api/patients/b"), respondWith(HttpStatus.OK, Duration.ofMillis(80)))
+          .block();
+    filter.filter(exchange("patient-service-route", "/api/patients/c"), respondWith(HttpStatus.OK, Duration.ofMillis(50)))
+          .block();
+    filter.filter(exchange("patient-service-route", "/api/patients/d"), respondWith(HttpStatus.OK, Duration.ZERO)).block();
+
+    List<SlowRequests.SlowPath> slowest = slowRequests.slowest();
+    assertEquals(List.of("/api/patients/b", "/api/patients/c"), slowest.stream().map(SlowRequests.SlowPath::path).toList());
+    assertEquals("patient-service-route", slowest.get(0).route());
+    assertEquals(1, slowest.get(0).slowCount());
+  }
+
+  @Test
+  void tagsFailedRequestsWithTheStatusOfTheirError() {
+    RouteLatencyGlobalFilter filter = new RouteLatencyGlobalFilter(registry, slowRequests, Duration.ofSeconds(1), 1.0);
+
+    assertThrows(IllegalStateException.class, () -> filter.filter(exchange("patient-service-route", "/api/patients"),
+      exchange -> Mono.error(new IllegalStateException("boom"))).block());
+    assertThrows(ResponseStatusException.class, () -> filter.filter(exchange("patient-service-route", "/api/patients"),
+      exchange -> Mono.error(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE))).block());
+    Disposable abandoned = filter.filter(exchange("patient-service-route", "/api/patients"), exchange -> Mono.never())
+                                 .subscribe();
+    abandoned.dispose();
+
+    assertEquals(1, registry.get("gateway.route.latency").tag("status", "500").timer().count());
+    assertEquals(1, registry.get("gateway.route.latency").tag("status", "503").timer().count());
+    assertEquals(1, registry.get("gateway.route.latency").tag("status", "CANCELLED").timer().count());
+  }
+
+  @Test
+  void groupsSlowRequestsByRouteMethodAndPathWithoutIds() {
+    RouteLatencyGlobalFilter filter = new RouteLatencyGlobalFilter(registry, slowRequests, Duration.ofMillis(10), 0.0);
+
+    for (int i = 0; i < 3; i++) {
+      filter.filter(exchange("patient-service-route", "/api/patients/" + UUID.randomUUID()),
+                    respondWith(HttpStatus.OK, Duration.ofMillis(20))).block();
+    }
+    filter.filter(exchange("patient-service-route", "/api/patients/42/export"),
+                  respondWith(HttpStatus.OK, Duration.ofMillis(20))).block();
+
+    List<SlowRequests.SlowPath> slowest = slowRequests.slowest();
+    assertEquals(2, slowest.size());
+    SlowRequests.SlowPath byId = slowest.stream().filter(p -> p.path().equals("/api/patients/{id}")).findFirst()
+                                        .orElseThrow();
+    assertEquals(3, byId.slowCount());
+    assertEquals("GET", byId.method());
+    assertTrue(slowest.stream().anyMatch(p -> p.path().equals("/api/patients/{id}/export")));
+  }
+
+  private static MockServerWebExchange exchange(String routeId, String path) {
+    MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get(path));
+    exchange.getAttributes().put(GATEWAY_ROUTE_ATTR,
+                                 Route.async().id(routeId).uri("http://localhost:4000").predicate(e -> true).build());
+    return exchange;
+  }
+
+  // completes on the calling thread, so doFinally has run by the time block() returns
+  private static GatewayFilterChain respondWith(HttpStatus status, Duration delay) {
+    return exchange -> Mono.fromRunnable(() -> {
+      try {
+        Thread.sleep(delay);
+      }
+      catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      exchange.getResponse().setStatusCode(status);
+    });
+  }
+}
@@ -1,38 +1,71 @@
 package com.pm.authservice.service;
 
 import com.pm.authservice.dto.LoginRequestDTO;
+import com.pm.authservice.model.User;
 import com.pm.authservice.util.JwtUtil;
 import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
 import java.util.Optional;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+/**
+ * Metrics: {@code auth.login.phase} per phase (user lookup, bcrypt check, token signing) and
+ * {@code auth.validate} per outcome, both as latency histograms.
+ */
 @Service
 public class AuthService {
 
   private final UserService userService;
   private final PasswordEncoder passwordEncoder;
   private final JwtUtil jwtUtil;
+  private final Timer lookupTimer;
+  private final Timer passwordTimer;
+  private final Timer tokenTimer;
+  private final Timer validTimer;
+  private final Timer invalidTimer;
 
-  public AuthService(UserService userService, PasswordEncoder passwordEncoder, JwtUtil jwtUtil) {
+  public AuthService(UserService userService, PasswordEncoder passwordEncoder, JwtUtil jwtUtil,
+                     MeterRegistry meterRegistry) {
     this.userService = userService;
     this.passwordEncoder = passwordEncoder;
     this.jwtUtil = jwtUtil;
+    this.lookupTimer = timer(meterRegistry, "auth.login.phase", "phase", "lookup");
+    this.passwordTimer = timer(meterRegistry, "auth.login.phase", "phase", "password");
+    this.tokenTimer = timer(meterRegistry, "auth.login.phase", "phase", "token");
+    this.validTimer = timer(meterRegistry, "auth.validate", "outcome", "valid");
+    this.invalidTimer = timer(meterRegistry, "auth.validate", "outcome", "invalid");
   }
 
   public Optional<String> authenticate(LoginRequestDTO loginRequestDTO) {
-    return userService
-        .findByEmail(loginRequestDTO.getEmail())
-        .filter(u -> passwordEncoder.matches(loginRequestDTO.getPassword(), u.getPassword()))
-        .map(u -> jwtUtil.generateToken(u.getEmail(), u.getRole()));
+    Optional<User> user = lookupTimer.record(() -> userService.findByEmail(loginRequestDTO.getEmail()));
+    return user
+        .filter(u -> passwordTimer.record(() -> passwordEncoder.matches(loginRequestDTO.getPassword(), u.getPassword())))
+        .map(u -> tokenTimer.record(() -> jwtUtil.generateToken(u.getEmail(), u.getRole())));
   }
 
   public boolean validateToken(String token) {
+    long start = System.nanoTime();
+    boolean valid;
     try {
       jwtUtil.validateToken(token);
-      return true;
+      valid = true;
     } catch (JwtException e) {
-      return false;
+      valid = false;
     }
+    (valid ? validTimer : invalidTimer).record(Duration.ofNanos(System.nanoTime() - start));
+    return valid;
+  }
+
+  private static Timer timer(MeterRegistry meterRegistry, String name, String tag, String value) {
+    return Timer.builder(name)
+                .tag(tag, value)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.of(100, ChronoUnit.MICROS))
+                .maximumExpectedValue(Duration.ofSeconds(5))
+                .register(meterRegistry);
   }
 }
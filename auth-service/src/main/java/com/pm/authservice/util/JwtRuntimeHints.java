@@ -0,0 +1,39 @@
+package com.pm.authservice.util;
+
+import java.util.List;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+/**
+ * jjwt's API module instantiates its implementation classes by name and finds its JSON serializer through
+ * the ServiceLoader, neither of which a native image can see on its own.
+ */
+class JwtRuntimeHints implements RuntimeHintsRegistrar {
+
+  private static final List<String> REFLECTIVE_TYPES = List.of(
+      "io.jsonwebtoken.impl.DefaultClaimsBuilder",
+      "io.jsonwebtoken.impl.DefaultJwtBuilder",
+      "io.jsonwebtoken.impl.DefaultJwtHeaderBuilder",
+      "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+      "io.jsonwebtoken.impl.io.StandardCompressionAlgorithms",
+      "io.jsonwebtoken.impl.security.KeysBridge",
+      "io.jsonwebtoken.impl.security.StandardEncryptionAlgorithms",
+      "io.jsonwebtoken.impl.security.StandardHashAlgorithms",
+      "io.jsonwebtoken.impl.security.StandardKeyAlgorithms",
+      "io.jsonwebtoken.impl.security.StandardKeyOperations",
+      "io.jsonwebtoken.impl.security.StandardSecureDigestAlgorithms",
+      "io.jsonwebtoken.jackson.io.JacksonDeserializer",
+      "io.jsonwebtoken.jackson.io.JacksonSerializer"
+  );
+
+  @Override
+  public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+    for (String type : REFLECTIVE_TYPES) {
+      hints.reflection().registerType(TypeReference.of(type), MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS,
+                                      MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+    }
+    hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.*");
+  }
+}
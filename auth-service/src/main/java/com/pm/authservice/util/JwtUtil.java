@@ -10,9 +10,11 @@ import java.util.Base64;
 import java.util.Date;
 import javax.crypto.SecretKey;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.ImportRuntimeHints;
 import org.springframework.stereotype.Component;
 
 @Component
+@ImportRuntimeHints(JwtRuntimeHints.class)
 public class JwtUtil {
 
   private final Key secretKey;
@@ -0,0 +1,45 @@
+package com.pm.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Cost of a login's password check. auth-service uses the encoder default, strength 10; each step up
+ * doubles the work.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BCryptBenchmark {
+
+  @Param({"4", "10", "12"})
+  private int strength;
+
+  private BCryptPasswordEncoder encoder;
+  private String hash;
+
+  @Setup
+  public void setUp() {
+    encoder = new BCryptPasswordEncoder(strength);
+    hash = encoder.encode("password123");
+  }
+
+  @Benchmark
+  public boolean matches() {
+    return encoder.matches("password123", hash);
+  }
+}
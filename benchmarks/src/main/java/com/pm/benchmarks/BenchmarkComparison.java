@@ -0,0 +1,79 @@
+package com.pm.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compares two JMH JSON result files, benchmark by benchmark:
+ * <pre>
+ * java -cp target/benchmarks.jar com.pm.benchmarks.BenchmarkComparison jmh-results/a1b2c3d.json jmh-results/e4f5a6b.json
+ * </pre>
+ * A change is flagged only when the two scores' error intervals do not overlap. Allocation per operation
+ * comes from the GC profiler and is left blank when a run did not use it.
+ */
+public class BenchmarkComparison {
+
+  private static final String ALLOCATION = "gc.alloc.rate.norm";
+
+  public static void main(String[] args) throws IOException {
+    if (args.length != 2) {
+      System.err.println("usage: BenchmarkComparison <baseline.json> <candidate.json>");
+      System.exit(2);
+    }
+    Map<String, JsonNode> baseline = read(Path.of(args[0]));
+    Map<String, JsonNode> candidate = read(Path.of(args[1]));
+
+    System.out.printf("%-60s %14s %14s %9s %12s %12s%n", "benchmark", "baseline", "candidate", "change", "B/op before", "B/op after");
+    for (Map.Entry<String, JsonNode> entry : candidate.entrySet()) {
+      JsonNode after = entry.getValue().path("primaryMetric");
+      JsonNode before = baseline.containsKey(entry.getKey()) ? baseline.get(entry.getKey()).path("primaryMetric") : null;
+      String unit = after.path("scoreUnit").asText();
+      if (before == null) {
+        System.out.printf("%-60s %14s %14s %9s%n", entry.getKey(), "-", format(after, unit), "new");
+        continue;
+      }
+      double change = (after.path("score").asDouble() - before.path("score").asDouble()) / before.path("score").asDouble();
+      System.out.printf("%-60s %14s %14s %+8.1f%%%s %12s %12s%n", entry.getKey(), format(before, unit), format(after, unit),
+                        change * 100, significant(before, after) ? "*" : " ",
+                        allocation(baseline.get(entry.getKey())), allocation(entry.getValue()));
+    }
+    System.out.println("* error intervals do not overlap");
+  }
+
+  private static Map<String, JsonNode> read(Path file) throws IOException {
+    Map<String, JsonNode> results = new LinkedHashMap<>();
+    for (JsonNode result : new ObjectMapper().readTree(file.toFile())) {
+      StringBuilder key = new StringBuilder(result.path("benchmark").asText().replace("com.pm.benchmarks.", ""));
+      for (Iterator<Map.Entry<String, JsonNode>> params = result.path("params").fields(); params.hasNext(); ) {
+        Map.Entry<String, JsonNode> param = params.next();
+        key.append(':').append(param.getKey()).append('=').append(param.getValue().asText());
+      }
+      results.put(key.toString(), result);
+    }
+    return results;
+  }
+
+  private static boolean significant(JsonNode before, JsonNode after) {
+    double beforeError = finite(before.path("scoreError").asDouble());
+    double afterError = finite(after.path("scoreError").asDouble());
+    return Math.abs(after.path("score").asDouble() - before.path("score").asDouble()) > beforeError + afterError;
+  }
+
+  private static double finite(double value) {
+    return Double.isFinite(value) ? value : 0;
+  }
+
+  private static String format(JsonNode metric, String unit) {
+    return String.format("%.3f %s", metric.path("score").asDouble(), unit.replace("/op", ""));
+  }
+
+  private static String allocation(JsonNode result) {
+    JsonNode allocation = result.path("secondaryMetrics").path(ALLOCATION);
+    return allocation.isMissingNode() ? "" : String.format("%,.0f", allocation.path("score").asDouble());
+  }
+}
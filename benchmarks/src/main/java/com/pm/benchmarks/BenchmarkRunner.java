@@ -0,0 +1,66 @@
+package com.pm.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of benchmarks.jar. Takes the usual JMH command line, but unless told otherwise it adds the GC
+ * profiler and writes JSON results to {@code jmh-results/<label>.json}, where the label is
+ * {@code -Dbench.label} or the current git commit. Compare two runs with {@link BenchmarkComparison}.
+ */
+public class BenchmarkRunner {
+
+  public static void main(String[] args) throws CommandLineOptionException, RunnerException, IOException {
+    CommandLineOptions commandLine = new CommandLineOptions(args);
+    if (commandLine.shouldHelp() || commandLine.shouldList() || commandLine.shouldListProfilers()) {
+      org.openjdk.jmh.Main.main(args);
+      return;
+    }
+
+    ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine);
+    if (commandLine.getProfilers().isEmpty()) {
+      options.addProfiler(GCProfiler.class);
+    }
+    if (!commandLine.getResult().hasValue()) {
+      Path results = Path.of("jmh-results");
+      Files.createDirectories(results);
+      options.result(results.resolve(label() + ".json").toString());
+      if (!commandLine.getResultFormat().hasValue()) {
+        options.resultFormat(ResultFormatType.JSON);
+      }
+    }
+    new Runner(options.build()).run();
+  }
+
+  private static String label() {
+    String label = System.getProperty("bench.label");
+    if (label != null && !label.isBlank()) {
+      return label;
+    }
+    try {
+      Process git = new ProcessBuilder("git", "rev-parse", "--short", "HEAD").redirectErrorStream(true).start();
+      String commit = new String(git.getInputStream().readAllBytes()).trim();
+      if (git.waitFor() == 0 && !commit.isEmpty()) {
+        return commit;
+      }
+    }
+    catch (IOException e) {
+      // not a checkout, or no git on the path
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    return LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+  }
+}
@@ -0,0 +1,155 @@
+package com.pm.benchmarks;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends the same request through the gateway once per Accept-Encoding and reports bytes on the wire and how
+ * many upstream connections the gateway opened meanwhile, from its {@code gateway.upstream.connections.opened}
+ * counter:
+ * <pre>
+ * java -cp target/benchmarks.jar com.pm.benchmarks.GatewayWireComparison \
+ *   --url http://localhost:4004/api/patients --header "Authorization: Bearer $TOKEN" \
+ *   --requests 2000 --concurrency 16 --encodings identity,gzip,br
+ * </pre>
+ * Bodies are counted as received, without decompressing. Header bytes are the status line and headers as
+ * HTTP/1.1 would frame them. {@code --metrics} defaults to /actuator/prometheus on the url's host.
+ */
+public class GatewayWireComparison {
+
+  private static final String OPENED = "gateway_upstream_connections_opened_total";
+
+  public static void main(String[] args) throws Exception {
+    URI url = null;
+    URI metrics = null;
+    List<String[]> headers = new ArrayList<>();
+    List<String> encodings = List.of("identity", "gzip", "br");
+    int requests = 1000;
+    int concurrency = 8;
+    for (int i = 0; i < args.length; i++) {
+      String value = i + 1 < args.length ? args[i + 1] : null;
+      switch (args[i]) {
+        case "--url" -> url = URI.create(value);
+        case "--metrics" -> metrics = URI.create(value);
+        case "--header" -> {
+          int split = value.indexOf(':');
+          headers.add(new String[] {value.substring(0, split).trim(), value.substring(split + 1).trim()});
+        }
+        case "--encodings" -> encodings = List.of(value.split(","));
+        case "--requests" -> requests = Integer.parseInt(value);
+        case "--concurrency" -> concurrency = Integer.parseInt(value);
+        default -> {
+          System.err.println("unknown option " + args[i]);
+          System.exit(2);
+        }
+      }
+      i++;
+    }
+    if (url == null) {
+      System.err.println("usage: GatewayWireComparison --url URL [--header 'Name: value' ...] [--requests 1000] "
+                         + "[--concurrency 8] [--encodings identity,gzip,br] [--metrics URL]");
+      System.exit(2);
+    }
+    if (metrics == null) {
+      metrics = url.resolve("/actuator/prometheus");
+    }
+
+    HttpClient client = HttpClient.newBuilder()
+                                  .version(HttpClient.Version.HTTP_1_1)
+                                  .connectTimeout(Duration.ofSeconds(5))
+                                  .build();
+    System.out.printf("%-10s %10s %8s %14s %14s %10s %12s %10s%n", "encoding", "requests", "errors", "body B/req",
+                      "wire B/req", "vs first", "upstream new", "per 1k");
+    double baseline = 0;
+    for (String encoding : encodings) {
+      long openedBefore = scrapeOpened(client, metrics);
+      Result result = run(client, url, headers, encoding, requests, concurrency);
+      long opened = scrapeOpened(client, metrics) - openedBefore;
+      double wirePerRequest = (double) (result.bodyBytes() + result.headerBytes()) / requests;
+      if (baseline == 0) {
+        baseline = wirePerRequest;
+      }
+      System.out.printf("%-10s %,10d %,8d %,14d %,14d %9.1f%% %,12d %10.1f%s%n", encoding, requests, result.errors(),
+                        result.bodyBytes() / requests, (long) wirePerRequest, 100 * wirePerRequest / baseline, opened,
+                        1000.0 * opened / requests,
+                        result.mismatched() > 0 ? "  (" + result.mismatched() + " not " + encoding + ")" : "");
+    }
+  }
+
+  private static Result run(HttpClient client, URI url, List<String[]> headers, String encoding, int requests,
+                            int concurrency) throws Exception {
+    HttpRequest.Builder builder = HttpRequest.newBuilder(url).timeout(Duration.ofSeconds(30)).GET();
+    headers.forEach(header -> builder.header(header[0], header[1]));
+    if (!encoding.equals("identity")) {
+      builder.header("Accept-Encoding", encoding);
+    }
+    HttpRequest request = builder.build();
+
+    AtomicInteger remaining = new AtomicInteger(requests);
+    AtomicLong bodyBytes = new AtomicLong();
+    AtomicLong headerBytes = new AtomicLong();
+    AtomicInteger errors = new AtomicInteger();
+    AtomicInteger mismatched = new AtomicInteger();
+    try (ExecutorService workers = Executors.newFixedThreadPool(concurrency)) {
+      List<Future<?>> running = new ArrayList<>();
+      for (int worker = 0; worker < concurrency; worker++) {
+        running.add(workers.submit(() -> {
+          while (remaining.getAndDecrement() > 0) {
+            HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() >= 400) {
+              errors.incrementAndGet();
+            }
+            String contentEncoding = response.headers().firstValue("Content-Encoding").orElse("identity");
+            if (!contentEncoding.equalsIgnoreCase(encoding)) {
+              mismatched.incrementAndGet();
+            }
+            bodyBytes.addAndGet(response.body().length);
+            headerBytes.addAndGet(headerBytes(response));
+          }
+          return null;
+        }));
+      }
+      for (Future<?> future : running) {
+        future.get();
+      }
+    }
+    return new Result(bodyBytes.get(), headerBytes.get(), errors.get(), mismatched.get());
+  }
+
+  // "HTTP/1.1 200 OK\r\n", "Name: value\r\n" per header, then the blank line
+  private static long headerBytes(HttpResponse<?> response) {
+    long bytes = 17;
+    for (Map.Entry<String, List<String>> header : response.headers().map().entrySet()) {
+      for (String value : header.getValue()) {
+        bytes += header.getKey().length() + 2 + value.length() + 2;
+      }
+    }
+    return bytes + 2;
+  }
+
+  private static long scrapeOpened(HttpClient client, URI metrics) throws Exception {
+    String body = client.send(HttpRequest.newBuilder(metrics).GET().build(), HttpResponse.BodyHandlers.ofString())
+                        .body();
+    double opened = 0;
+    for (String line : body.split("\n")) {
+      if (line.startsWith(OPENED)) {
+        opened += Double.parseDouble(line.substring(line.lastIndexOf(' ') + 1));
+      }
+    }
+    return (long) opened;
+  }
+
+  private record Result(long bodyBytes, long headerBytes, int errors, int mismatched) {
+  }
+}
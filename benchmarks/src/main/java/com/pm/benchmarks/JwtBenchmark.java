@@ -0,0 +1,45 @@
+package com.pm.benchmarks;
+
+import com.pm.authservice.util.JwtUtil;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+  // same key length as the deployed secret (384 bits, so HS384)
+  private static final String SECRET = "cG9vcmluZGl2aWR1YWxjaGVtaWNhbHJheXNtYWluaG90bmVlZHNjb3BwZXJzcXVhcmU=";
+
+  private JwtUtil jwtUtil;
+  private String token;
+
+  @Setup
+  public void setUp() {
+    jwtUtil = new JwtUtil(SECRET);
+    token = jwtUtil.generateToken("jane.doe@example.com", "ADMIN");
+  }
+
+  @Benchmark
+  public String generateToken() {
+    return jwtUtil.generateToken("jane.doe@example.com", "ADMIN");
+  }
+
+  @Benchmark
+  public void validateToken() {
+    jwtUtil.validateToken(token);
+  }
+}
@@ -0,0 +1,65 @@
+package com.pm.benchmarks;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import patient.events.PatientEvent;
+
+/**
+ * The event patient-service publishes on every write and analytics-service parses on every record.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PatientEventBenchmark {
+
+  private String patientId;
+  private String eventId;
+  private PatientEvent event;
+  private byte[] bytes;
+
+  @Setup
+  public void setUp() {
+    patientId = UUID.randomUUID().toString();
+    eventId = UUID.randomUUID().toString();
+    event = build();
+    bytes = event.toByteArray();
+  }
+
+  @Benchmark
+  public PatientEvent build() {
+    return PatientEvent.newBuilder()
+                       .setPatientId(patientId)
+                       .setName("Jane Doe")
+                       .setEmail("jane.doe@example.com")
+                       .setEventType("PATIENT_CREATED")
+                       .setAddress("12 Main Street, Springfield")
+                       .setDateOfBirth("1985-06-15")
+                       .setRegisteredDate("2024-01-10")
+                       .setEventId(eventId)
+                       .build();
+  }
+
+  @Benchmark
+  public byte[] toByteArray() {
+    return event.toByteArray();
+  }
+
+  @Benchmark
+  public PatientEvent parseFrom() throws InvalidProtocolBufferException {
+    return PatientEvent.parseFrom(bytes);
+  }
+}
@@ -0,0 +1,59 @@
+package com.pm.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pm.patientservice.dto.PatientResponseDTO;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * The body of GET /patients, serialized with the same builder Spring MVC configures its mapper from.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PatientJsonBenchmark {
+
+  @Param({"10", "1000"})
+  private int size;
+
+  private ObjectMapper objectMapper;
+  private List<PatientResponseDTO> patients;
+
+  @Setup
+  public void setUp() {
+    objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    patients = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      PatientResponseDTO patient = new PatientResponseDTO();
+      patient.setId(UUID.randomUUID().toString());
+      patient.setName("Patient " + i);
+      patient.setEmail("patient" + i + "@example.com");
+      patient.setAddress(i + " Main Street, Springfield");
+      patient.setDateOfBirth("1985-06-15");
+      patients.add(patient);
+    }
+  }
+
+  @Benchmark
+  public byte[] writeList() throws JsonProcessingException {
+    return objectMapper.writeValueAsBytes(patients);
+  }
+}
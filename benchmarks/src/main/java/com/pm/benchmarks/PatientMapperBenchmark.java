@@ -0,0 +1,59 @@
+package com.pm.benchmarks;
+
+import com.pm.patientservice.dto.PatientRequestDTO;
+import com.pm.patientservice.dto.PatientResponseDTO;
+import com.pm.patientservice.mapper.PatientMapper;
+import com.pm.patientservice.model.Patient;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PatientMapperBenchmark {
+
+  private Patient patient;
+  private PatientRequestDTO request;
+
+  @Setup
+  public void setUp() {
+    patient = new Patient();
+    patient.setId(UUID.randomUUID());
+    patient.setName("Jane Doe");
+    patient.setEmail("jane.doe@example.com");
+    patient.setAddress("12 Main Street, Springfield");
+    patient.setDateOfBirth(LocalDate.of(1985, 6, 15));
+    patient.setRegisteredDate(LocalDate.of(2024, 1, 10));
+
+    request = new PatientRequestDTO();
+    request.setName("Jane Doe");
+    request.setEmail("jane.doe@example.com");
+    request.setAddress("12 Main Street, Springfield");
+    request.setDateOfBirth("1985-06-15");
+    request.setRegisteredDate("2024-01-10");
+  }
+
+  @Benchmark
+  public PatientResponseDTO toDTO() {
+    return PatientMapper.toDTO(patient);
+  }
+
+  @Benchmark
+  public Patient toModel() {
+    return PatientMapper.toModel(request);
+  }
+}
@@ -0,0 +1,167 @@
+package com.pm.benchmarks;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Starts each variant of a service several times and compares time to "Started ... in" and resident memory
+ * once started:
+ * <pre>
+ * java -cp target/benchmarks.jar com.pm.benchmarks.StartupComparison --runs 5 \
+ *   --variant "jar=java -jar app.jar" \
+ *   --variant "aot-cds=java -XX:SharedArchiveFile=app.jsa -Dspring.aot.enabled=true -jar app.jar" \
+ *   --variant "native=./patient-service"
+ * </pre>
+ * Commands run through {@code sh -c} in {@code --dir} (default: the current directory), one at a time, so
+ * they may reuse the same ports, and may start with VAR=value environment settings. Wall time is measured from launch, so it includes JVM startup that the
+ * "process running for" figure misses. RSS is read from /proc {@code --settle} seconds (default 2) after
+ * the line appears, so this runs on Linux only.
+ */
+public class StartupComparison {
+
+  private static final Pattern STARTED =
+      Pattern.compile("Started \\S+ in ([\\d.]+) seconds \\(process running for ([\\d.]+)\\)");
+
+  public static void main(String[] args) throws Exception {
+    Map<String, String> variants = new LinkedHashMap<>();
+    int runs = 5;
+    Path dir = Path.of(".");
+    Duration settle = Duration.ofSeconds(2);
+    Duration timeout = Duration.ofMinutes(2);
+    for (int i = 0; i < args.length; i++) {
+      String value = i + 1 < args.length ? args[i + 1] : null;
+      switch (args[i]) {
+        case "--variant" -> {
+          int split = value.indexOf('=');
+          variants.put(value.substring(0, split), value.substring(split + 1));
+        }
+        case "--runs" -> runs = Integer.parseInt(value);
+        case "--dir" -> dir = Path.of(value);
+        case "--settle" -> settle = Duration.ofSeconds(Long.parseLong(value));
+        case "--timeout" -> timeout = Duration.ofSeconds(Long.parseLong(value));
+        default -> {
+          System.err.println("unknown option " + args[i]);
+          System.exit(2);
+        }
+      }
+      i++;
+    }
+    if (variants.isEmpty()) {
+      System.err.println("usage: StartupComparison [--runs 5] [--dir .] [--settle 2] [--timeout 120] --variant name=command ...");
+      System.exit(2);
+    }
+
+    Map<String, List<Run>> results = new LinkedHashMap<>();
+    for (Map.Entry<String, String> variant : variants.entrySet()) {
+      List<Run> variantRuns = new ArrayList<>();
+      for (int run = 1; run <= runs; run++) {
+        Run result = start(variant.getValue(), dir, settle, timeout);
+        System.out.printf("%-12s run %d: %,6d ms to started (%.2f s reported), %,d MiB RSS%n", variant.getKey(), run,
+                          result.wallMillis(), result.reportedSeconds(), result.rssKib() / 1024);
+        variantRuns.add(result);
+      }
+      results.put(variant.getKey(), variantRuns);
+    }
+
+    System.out.printf("%n%-12s %14s %14s %14s %12s%n", "variant", "median ms", "min ms", "reported s", "RSS MiB");
+    for (Map.Entry<String, List<Run>> entry : results.entrySet()) {
+      List<Run> variantRuns = entry.getValue();
+      System.out.printf("%-12s %,14d %,14d %14.2f %,12d%n", entry.getKey(),
+                        median(variantRuns.stream().mapToLong(Run::wallMillis).toArray()),
+                        variantRuns.stream().mapToLong(Run::wallMillis).min().orElse(0),
+                        median(variantRuns.stream().mapToLong(run -> (long) (run.reportedSeconds() * 1000)).toArray()) / 1000.0,
+                        median(variantRuns.stream().mapToLong(Run::rssKib).toArray()) / 1024);
+    }
+  }
+
+  private static Run start(String command, Path dir, Duration settle, Duration timeout) throws Exception {
+    long launched = System.nanoTime();
+    // exec env, so the measured pid is the service and not the shell, and VAR=value prefixes still work
+    Process process = new ProcessBuilder("sh", "-c", "exec env " + command)
+        .directory(dir.toFile())
+        .redirectErrorStream(true)
+        .start();
+    try {
+      CompletableFuture<Double> started = CompletableFuture.supplyAsync(() -> awaitStarted(process));
+      double reported;
+      try {
+        reported = started.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+      }
+      catch (TimeoutException e) {
+        throw new IllegalStateException("no \"Started\" line within " + timeout + ": " + command);
+      }
+      long wallMillis = (System.nanoTime() - launched) / 1_000_000;
+      Thread.sleep(settle.toMillis());
+      return new Run(wallMillis, reported, rssKib(process.pid()));
+    }
+    finally {
+      process.destroy();
+      if (!process.waitFor(30, TimeUnit.SECONDS)) {
+        process.destroyForcibly().waitFor();
+      }
+    }
+  }
+
+  // reads the output until the Spring Boot "Started" line, then keeps draining it so the service never blocks
+  private static double awaitStarted(Process process) {
+    BufferedReader output = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+    try {
+      String line;
+      while ((line = output.readLine()) != null) {
+        Matcher matcher = STARTED.matcher(line);
+        if (matcher.find()) {
+          Thread.ofVirtual().start(() -> drain(output));
+          return Double.parseDouble(matcher.group(1));
+        }
+      }
+    }
+    catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+    throw new IllegalStateException("process exited before starting");
+  }
+
+  private static void drain(BufferedReader output) {
+    try {
+      while (output.readLine() != null) {
+        // discard
+      }
+    }
+    catch (IOException ignored) {
+      // the process was stopped
+    }
+  }
+
+  private static long rssKib(long pid) throws IOException {
+    for (String line : Files.readAllLines(Path.of("/proc", Long.toString(pid), "status"))) {
+      if (line.startsWith("VmRSS:")) {
+        return Long.parseLong(line.replaceAll("\\D", ""));
+      }
+    }
+    return -1;
+  }
+
+  private static long median(long[] values) {
+    long[] sorted = values.clone();
+    Arrays.sort(sorted);
+    return sorted[sorted.length / 2];
+  }
+
+  private record Run(long wallMillis, double reportedSeconds, long rssKib) {
+  }
+}
@@ -0,0 +1,7 @@
+package com.pm.billingservice.exception;
+
+public class InvoiceRunNotFoundException extends RuntimeException {
+  public InvoiceRunNotFoundException(String message) {
+    super(message);
+  }
+}
@@ -2,30 +2,63 @@ package com.pm.billingservice.grpc;
 
 import billing.BillingResponse;
 import billing.BillingServiceGrpc.BillingServiceImplBase;
+import com.pm.billingservice.logging.LogRateLimiter;
+import com.pm.billingservice.service.BillingAccountService;
+import io.grpc.Status;
 import io.grpc.stub.StreamObserver;
+import java.util.concurrent.TimeUnit;
 import net.devh.boot.grpc.server.service.GrpcService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 
 @GrpcService
 public class BillingGrpcService extends BillingServiceImplBase {
-  
+
   private static final Logger log = LoggerFactory.getLogger(BillingGrpcService.class);
-  
+  private final BillingAccountService billingAccountService;
+  private final LogRateLimiter requestLogLimiter;
+
+  public BillingGrpcService(BillingAccountService billingAccountService,
+                            @Value("${billing.grpc.request-log-per-second:10}") int requestLogPerSecond) {
+    this.billingAccountService = billingAccountService;
+    this.requestLogLimiter = new LogRateLimiter(requestLogPerSecond, 1, TimeUnit.SECONDS);
+  }
+
   @Override
   public void createBillingAccount(billing.BillingRequest billingRequest,
                                    StreamObserver<billing.BillingResponse> responseObserver) {
-    
-    log.info("createBillingAccount request received: {}", billingRequest.toString());
-    
-    // Business logic - e.g save to database, perform calculations, etc.
-    
-    BillingResponse response = BillingResponse.newBuilder()
-                                              .setAccountId("12345")
-                                              .setStatus("ACTIVE")
-                                              .build();
-    responseObserver.onNext(response);
-    responseObserver.onCompleted();
-    
+
+    // full requests carry the patient's name and email and are costly to render, so only at DEBUG
+    if (log.isDebugEnabled()) {
+      log.debug("createBillingAccount request received: {}", billingRequest);
+    }
+    else {
+      long suppressed = requestLogLimiter.tryAcquire();
+      if (suppressed >= 0) {
+        log.info("createBillingAccount request received for patient {} ({} similar messages suppressed)",
+                 billingRequest.getPatientId(), suppressed);
+      }
+    }
+
+    // The call completes once the batch holding the account has been committed; no gRPC thread waits for it
+    billingAccountService.getOrCreateAccount(billingRequest.getPatientId(), billingRequest.getName(),
+                                             billingRequest.getEmail())
+                         .whenComplete((account, error) -> {
+                           if (error != null) {
+                             log.error("Failed to create billing account for patient {}: {}",
+                                       billingRequest.getPatientId(), error.getMessage());
+                             responseObserver.onError(Status.UNAVAILABLE.withDescription(error.getMessage())
+                                                                        .asRuntimeException());
+                             return;
+                           }
+                           BillingResponse response = BillingResponse.newBuilder()
+                                                                     .setAccountId(account.getId().toString())
+                                                                     .setStatus(account.getStatus())
+                                                                     .build();
+                           responseObserver.onNext(response);
+                           responseObserver.onCompleted();
+                         });
+
   }
 }
@@ -0,0 +1,71 @@
+package com.pm.billingservice.grpc;
+
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import net.devh.boot.grpc.server.serverfactory.GrpcServerConfigurer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Server settings the starter does not expose as grpc.server.* properties. Keepalive and message size
+ * limits are plain starter properties and live in application.yml.
+ */
+@Configuration
+public class GrpcServerConfig implements DisposableBean {
+
+  private static final Logger log = LoggerFactory.getLogger(GrpcServerConfig.class);
+
+  private final String executorType;
+  private final int boundedThreads;
+  private final int maxConcurrentCallsPerConnection;
+  private final DataSize flowControlWindow;
+  private ExecutorService executor;
+
+  public GrpcServerConfig(@Value("${billing.grpc.executor:default}") String executorType,
+                          @Value("${billing.grpc.bounded-threads:0}") int boundedThreads,
+                          @Value("${billing.grpc.max-concurrent-calls-per-connection:200}") int maxConcurrentCallsPerConnection,
+                          @Value("${billing.grpc.flow-control-window:1MB}") DataSize flowControlWindow) {
+    this.executorType = executorType;
+    this.boundedThreads = boundedThreads > 0 ? boundedThreads : 2 * Runtime.getRuntime().availableProcessors();
+    this.maxConcurrentCallsPerConnection = maxConcurrentCallsPerConnection;
+    this.flowControlWindow = flowControlWindow;
+  }
+
+  @Bean
+  public GrpcServerConfigurer grpcServerConfigurer() {
+    return serverBuilder -> {
+      // "default" keeps gRPC's unbounded cached pool
+      switch (executorType) {
+        case "default" -> executor = null;
+        case "bounded" -> executor = Executors.newFixedThreadPool(boundedThreads,
+          Thread.ofPlatform().name("grpc-server-", 0).daemon().factory());
+        case "virtual" -> executor = Executors.newThreadPerTaskExecutor(
+          Thread.ofVirtual().name("grpc-server-virtual-", 0).factory());
+        default -> throw new IllegalArgumentException("Unknown billing.grpc.executor: " + executorType);
+      }
+      if (executor != null) {
+        serverBuilder.executor(executor);
+      }
+      if (serverBuilder instanceof NettyServerBuilder nettyServerBuilder) {
+        // caps HTTP/2 streams per client connection; excess calls wait in the client instead of piling up here
+        nettyServerBuilder.maxConcurrentCallsPerConnection(maxConcurrentCallsPerConnection);
+        nettyServerBuilder.flowControlWindow((int) flowControlWindow.toBytes());
+      }
+      log.info("gRPC server executor: {}, max concurrent calls per connection: {}", executorType,
+               maxConcurrentCallsPerConnection);
+    };
+  }
+
+  @Override
+  public void destroy() {
+    if (executor != null) {
+      executor.shutdown();
+    }
+  }
+}
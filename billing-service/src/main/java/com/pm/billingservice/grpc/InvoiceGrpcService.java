@@ -0,0 +1,81 @@
+package com.pm.billingservice.grpc;
+
+import billing.GetInvoiceRunRequest;
+import billing.InvoiceRunStatus;
+import billing.InvoiceServiceGrpc.InvoiceServiceImplBase;
+import billing.StartInvoiceRunRequest;
+import com.pm.billingservice.exception.InvoiceRunNotFoundException;
+import com.pm.billingservice.service.InvoiceRunProgress;
+import com.pm.billingservice.service.InvoiceRunService;
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.UUID;
+import net.devh.boot.grpc.server.service.GrpcService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+@GrpcService
+public class InvoiceGrpcService extends InvoiceServiceImplBase {
+
+  private static final Logger log = LoggerFactory.getLogger(InvoiceGrpcService.class);
+  private final InvoiceRunService invoiceRunService;
+
+  public InvoiceGrpcService(InvoiceRunService invoiceRunService) {
+    this.invoiceRunService = invoiceRunService;
+  }
+
+  @Override
+  public void startInvoiceRun(StartInvoiceRunRequest request, StreamObserver<InvoiceRunStatus> responseObserver) {
+    YearMonth period;
+    try {
+      period = YearMonth.parse(request.getPeriod());
+    }
+    catch (DateTimeParseException e) {
+      responseObserver.onError(Status.INVALID_ARGUMENT.withDescription("period must be yyyy-MM")
+                                                      .asRuntimeException());
+      return;
+    }
+    log.info("startInvoiceRun request received for {}", period);
+
+    InvoiceRunProgress progress;
+    try {
+      progress = invoiceRunService.startRun(period, request.getParallelism());
+    }
+    catch (IllegalArgumentException e) {
+      responseObserver.onError(Status.INVALID_ARGUMENT.withDescription(e.getMessage()).asRuntimeException());
+      return;
+    }
+    responseObserver.onNext(toStatus(progress));
+    responseObserver.onCompleted();
+  }
+
+  @Override
+  public void getInvoiceRun(GetInvoiceRunRequest request, StreamObserver<InvoiceRunStatus> responseObserver) {
+    try {
+      responseObserver.onNext(toStatus(invoiceRunService.getProgress(UUID.fromString(request.getRunId()))));
+      responseObserver.onCompleted();
+    }
+    catch (IllegalArgumentException e) {
+      responseObserver.onError(Status.INVALID_ARGUMENT.withDescription("runId must be a UUID").asRuntimeException());
+    }
+    catch (InvoiceRunNotFoundException e) {
+      responseObserver.onError(Status.NOT_FOUND.withDescription(e.getMessage()).asRuntimeException());
+    }
+  }
+
+  private static InvoiceRunStatus toStatus(InvoiceRunProgress progress) {
+    return InvoiceRunStatus.newBuilder()
+                           .setRunId(progress.run().getId().toString())
+                           .setPeriod(progress.run().getPeriod())
+                           .setStatus(progress.run().getStatus().name())
+                           .setTotalAccounts(progress.run().getTotalAccounts())
+                           .setProcessedAccounts(progress.processedAccounts())
+                           .setInvoicesWritten(progress.invoicesWritten())
+                           .setPartitions(progress.partitions())
+                           .setCompletedPartitions(progress.completedPartitions())
+                           .setAccountsPerSecond(progress.accountsPerSecond())
+                           .build();
+  }
+}
@@ -0,0 +1,41 @@
+package com.pm.billingservice.logging;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lets at most {@code permits} log lines through per window, so a per-call log statement cannot
+ * dominate a busy server. Callers report how many lines were dropped since the last one that got through.
+ */
+public class LogRateLimiter {
+
+  private final int permits;
+  private final long windowNanos;
+  private long windowStart = System.nanoTime();
+  private int used;
+  private long suppressed;
+
+  public LogRateLimiter(int permits, long window, TimeUnit unit) {
+    this.permits = permits;
+    this.windowNanos = unit.toNanos(window);
+  }
+
+  /**
+   * Returns the number of lines suppressed since the last permitted one, or {@code -1} if this line
+   * should be suppressed.
+   */
+  public synchronized long tryAcquire() {
+    long now = System.nanoTime();
+    if (now - windowStart >= windowNanos) {
+      windowStart = now;
+      used = 0;
+    }
+    if (used >= permits) {
+      suppressed++;
+      return -1;
+    }
+    used++;
+    long dropped = suppressed;
+    suppressed = 0;
+    return dropped;
+  }
+}
@@ -0,0 +1,81 @@
+package com.pm.billingservice.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import java.time.Instant;
+import java.util.UUID;
+
+@Entity
+public class BillingAccount {
+  
+  @Id
+  @GeneratedValue(strategy = GenerationType.AUTO)
+  private UUID id;
+  
+  // one account per patient; the unique constraint is the last line of defence against duplicates
+  @Column(unique = true, nullable = false)
+  private String patientId;
+  
+  @Column(nullable = false)
+  private String name;
+  
+  @Column(nullable = false)
+  private String email;
+  
+  @Column(nullable = false)
+  private String status;
+  
+  @Column(nullable = false)
+  private Instant createdAt;
+  
+  public UUID getId() {
+    return id;
+  }
+  
+  public void setId(UUID id) {
+    this.id = id;
+  }
+  
+  public String getPatientId() {
+    return patientId;
+  }
+  
+  public void setPatientId(String patientId) {
+    this.patientId = patientId;
+  }
+  
+  public String getName() {
+    return name;
+  }
+  
+  public void setName(String name) {
+    this.name = name;
+  }
+  
+  public String getEmail() {
+    return email;
+  }
+  
+  public void setEmail(String email) {
+    this.email = email;
+  }
+  
+  public String getStatus() {
+    return status;
+  }
+  
+  public void setStatus(String status) {
+    this.status = status;
+  }
+  
+  public Instant getCreatedAt() {
+    return createdAt;
+  }
+  
+  public void setCreatedAt(Instant createdAt) {
+    this.createdAt = createdAt;
+  }
+}
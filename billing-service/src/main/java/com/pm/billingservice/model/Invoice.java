@@ -0,0 +1,71 @@
+package com.pm.billingservice.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+// rows are bulk-inserted by InvoiceRunService; the entity mainly defines the schema
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(columnNames = {"account_id", "period"}))
+public class Invoice {
+
+  @Id
+  private UUID id;
+
+  @Column(nullable = false)
+  private UUID accountId;
+
+  @Column(nullable = false, length = 7)
+  private String period;
+
+  @Column(nullable = false, precision = 12, scale = 2)
+  private BigDecimal amount;
+
+  @Column(nullable = false)
+  private Instant issuedAt;
+
+  public UUID getId() {
+    return id;
+  }
+
+  public void setId(UUID id) {
+    this.id = id;
+  }
+
+  public UUID getAccountId() {
+    return accountId;
+  }
+
+  public void setAccountId(UUID accountId) {
+    this.accountId = accountId;
+  }
+
+  public String getPeriod() {
+    return period;
+  }
+
+  public void setPeriod(String period) {
+    this.period = period;
+  }
+
+  public BigDecimal getAmount() {
+    return amount;
+  }
+
+  public void setAmount(BigDecimal amount) {
+    this.amount = amount;
+  }
+
+  public Instant getIssuedAt() {
+    return issuedAt;
+  }
+
+  public void setIssuedAt(Instant issuedAt) {
+    this.issuedAt = issuedAt;
+  }
+}
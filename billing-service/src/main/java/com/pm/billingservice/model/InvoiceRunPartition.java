@@ -0,0 +1,116 @@
+package com.pm.billingservice.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import java.util.UUID;
+
+/**
+ * A slice of the account id space processed by one worker. {@code lastAccountId} is the checkpoint: it
+ * is advanced in the same transaction that writes the invoices for the chunk, so a restarted run
+ * continues after it without skipping or duplicating invoices.
+ */
+@Entity
+public class InvoiceRunPartition {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.AUTO)
+  private UUID id;
+
+  @Column(nullable = false)
+  private UUID runId;
+
+  @Column(nullable = false)
+  private int partitionIndex;
+
+  // inclusive; null means unbounded
+  private UUID lowerBound;
+
+  // exclusive; null means unbounded
+  private UUID upperBound;
+
+  private UUID lastAccountId;
+
+  @Column(nullable = false)
+  private long processedAccounts;
+
+  @Column(nullable = false)
+  private long invoicesWritten;
+
+  @Column(nullable = false)
+  private boolean completed;
+
+  public UUID getId() {
+    return id;
+  }
+
+  public void setId(UUID id) {
+    this.id = id;
+  }
+
+  public UUID getRunId() {
+    return runId;
+  }
+
+  public void setRunId(UUID runId) {
+    this.runId = runId;
+  }
+
+  public int getPartitionIndex() {
+    return partitionIndex;
+  }
+
+  public void setPartitionIndex(int partitionIndex) {
+    this.partitionIndex = partitionIndex;
+  }
+
+  public UUID getLowerBound() {
+    return lowerBound;
+  }
+
+  public void setLowerBound(UUID lowerBound) {
+    this.lowerBound = lowerBound;
+  }
+
+  public UUID getUpperBound() {
+    return upperBound;
+  }
+
+  public void setUpperBound(UUID upperBound) {
+    this.upperBound = upperBound;
+  }
+
+  public UUID getLastAccountId() {
+    return lastAccountId;
+  }
+
+  public void setLastAccountId(UUID lastAccountId) {
+    this.lastAccountId = lastAccountId;
+  }
+
+  public long getProcessedAccounts() {
+    return processedAccounts;
+  }
+
+  public void setProcessedAccounts(long processedAccounts) {
+    this.processedAccounts = processedAccounts;
+  }
+
+  public long getInvoicesWritten() {
+    return invoicesWritten;
+  }
+
+  public void setInvoicesWritten(long invoicesWritten) {
+    this.invoicesWritten = invoicesWritten;
+  }
+
+  public boolean isCompleted() {
+    return completed;
+  }
+
+  public void setCompleted(boolean completed) {
+    this.completed = completed;
+  }
+}
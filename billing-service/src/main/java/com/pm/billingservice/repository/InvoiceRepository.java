@@ -0,0 +1,13 @@
+package com.pm.billingservice.repository;
+
+import com.pm.billingservice.model.Invoice;
+import java.util.UUID;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface InvoiceRepository extends JpaRepository<Invoice, UUID> {
+  
+  long countByPeriod(String period);
+  
+}
@@ -0,0 +1,14 @@
+package com.pm.billingservice.repository;
+
+import com.pm.billingservice.model.InvoiceRunPartition;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface InvoiceRunPartitionRepository extends JpaRepository<InvoiceRunPartition, UUID> {
+  
+  List<InvoiceRunPartition> findByRunIdOrderByPartitionIndex(UUID runId);
+  
+}
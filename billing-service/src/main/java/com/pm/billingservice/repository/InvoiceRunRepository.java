@@ -0,0 +1,17 @@
+package com.pm.billingservice.repository;
+
+import com.pm.billingservice.model.InvoiceRun;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface InvoiceRunRepository extends JpaRepository<InvoiceRun, UUID> {
+  
+  Optional<InvoiceRun> findByPeriod(String period);
+  
+  List<InvoiceRun> findByStatus(InvoiceRun.Status status);
+  
+}
@@ -0,0 +1,164 @@
+package com.pm.billingservice.service;
+
+import com.pm.billingservice.model.BillingAccount;
+import com.pm.billingservice.repository.BillingAccountRepository;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Groups account inserts into one transaction per batch. A batch takes everything queued while the
+ * previous one was committing, up to {@code maxBatchSize}, and may linger up to {@code maxDelayMillis}
+ * for more; every caller's future completes only after the batch committed.
+ */
+@Component
+public class BillingAccountBatchWriter implements AutoCloseable {
+
+  private static final Logger log = LoggerFactory.getLogger(BillingAccountBatchWriter.class);
+
+  private final BillingAccountRepository billingAccountRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final int maxBatchSize;
+  private final long maxDelayNanos;
+  private final BlockingQueue<PendingAccount> queue;
+  private final Thread flusher;
+  private volatile boolean running = true;
+
+  public BillingAccountBatchWriter(BillingAccountRepository billingAccountRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${billing.writer.max-batch-size:200}") int maxBatchSize,
+                                   @Value("${billing.writer.max-delay-ms:0}") long maxDelayMillis,
+                                   @Value("${billing.writer.queue-capacity:10000}") int queueCapacity) {
+    this.billingAccountRepository = billingAccountRepository;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.maxBatchSize = maxBatchSize;
+    this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+    this.queue = new LinkedBlockingQueue<>(queueCapacity);
+    this.flusher = new Thread(this::run, "billing-account-writer");
+    this.flusher.setDaemon(true);
+    this.flusher.start();
+  }
+
+  public CompletableFuture<BillingAccount> submit(BillingAccount account) {
+    PendingAccount pending = new PendingAccount(account, new CompletableFuture<>());
+    if (!running || !queue.offer(pending)) {
+      pending.future.completeExceptionally(new IllegalStateException("Billing account writer is overloaded"));
+    }
+    return pending.future;
+  }
+
+  private void run() {
+    List<PendingAccount> batch = new ArrayList<>(maxBatchSize);
+    while (running || !queue.isEmpty()) {
+      try {
+        PendingAccount first = queue.poll(100, TimeUnit.MILLISECONDS);
+        if (first == null) {
+          continue;
+        }
+        batch.add(first);
+        // whatever queued up while the previous batch was committing goes into this one
+        queue.drainTo(batch, maxBatchSize - batch.size());
+        long deadline = System.nanoTime() + maxDelayNanos;
+        while (batch.size() < maxBatchSize && maxDelayNanos > 0) {
+          long remaining = deadline - System.nanoTime();
+          PendingAccount next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+          if (next == null) {
+            break;
+          }
+          batch.add(next);
+        }
+        flush(batch);
+      }
+      catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+      finally {
+        batch.clear();
+      }
+    }
+  }
+
+  private void flush(List<PendingAccount> batch) {
+    try {
+      Map<String, BillingAccount> saved = transactionTemplate.execute(status -> insertMissing(batch));
+      complete(batch, saved);
+    }
+    catch (DataIntegrityViolationException e) {
+      // another instance created one of these accounts between our lookup and insert; retry one by one
+      log.warn("Batch of {} billing accounts hit a duplicate, retrying individually", batch.size());
+      for (PendingAccount pending : batch) {
+        try {
+          complete(List.of(pending), transactionTemplate.execute(status -> insertMissing(List.of(pending))));
+        }
+        catch (RuntimeException single) {
+          pending.future.completeExceptionally(single);
+        }
+      }
+    }
+    catch (RuntimeException e) {
+      log.error("Failed to write batch of {} billing accounts: {}", batch.size(), e.getMessage());
+      batch.forEach(pending -> pending.future.completeExceptionally(e));
+    }
+  }
+
+  private Map<String, BillingAccount> insertMissing(List<PendingAccount> batch) {
+    Map<String, BillingAccount> accounts = new HashMap<>();
+    for (PendingAccount pending : batch) {
+      accounts.put(pending.account.getPatientId(), null);
+    }
+    billingAccountRepository.findByPatientIdIn(accounts.keySet())
+                            .forEach(existing -> accounts.put(existing.getPatientId(), existing));
+    List<BillingAccount> missing = new ArrayList<>();
+    for (PendingAccount pending : batch) {
+      if (accounts.get(pending.account.getPatientId()) == null) {
+        BillingAccount account = newAccount(pending.account);
+        accounts.put(account.getPatientId(), account);
+        missing.add(account);
+      }
+    }
+    billingAccountRepository.saveAll(missing);
+    billingAccountRepository.flush();
+    return accounts;
+  }
+
+  // A fresh entity per attempt: a failed saveAll has already given the entities it was passed an id, and
+  // saving one of those again would merge a row that does not exist rather than insert it.
+  private static BillingAccount newAccount(BillingAccount requested) {
+    BillingAccount account = new BillingAccount();
+    account.setPatientId(requested.getPatientId());
+    account.setName(requested.getName());
+    account.setEmail(requested.getEmail());
+    account.setStatus(requested.getStatus());
+    account.setCreatedAt(Instant.now());
+    return account;
+  }
+
+  private void complete(List<PendingAccount> batch, Map<String, BillingAccount> accounts) {
+    for (PendingAccount pending : batch) {
+      pending.future.complete(accounts.get(pending.account.getPatientId()));
+    }
+  }
+
+  @Override
+  public void close() throws InterruptedException {
+    running = false;
+    flusher.join(TimeUnit.SECONDS.toMillis(10));
+  }
+
+  private record PendingAccount(BillingAccount account, CompletableFuture<BillingAccount> future) {
+  }
+}
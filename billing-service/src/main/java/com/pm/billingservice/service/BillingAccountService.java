@@ -0,0 +1,59 @@
+package com.pm.billingservice.service;
+
+import com.pm.billingservice.model.BillingAccount;
+import com.pm.billingservice.repository.BillingAccountRepository;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.stereotype.Service;
+
+@Service
+public class BillingAccountService {
+
+  private final BillingAccountRepository billingAccountRepository;
+  private final BillingAccountBatchWriter batchWriter;
+  // requests for a patient whose account is still waiting in a batch share that batch's result
+  private final Map<String, CompletableFuture<BillingAccount>> inFlight = new ConcurrentHashMap<>();
+
+  public BillingAccountService(BillingAccountRepository billingAccountRepository,
+                               BillingAccountBatchWriter batchWriter) {
+    this.billingAccountRepository = billingAccountRepository;
+    this.batchWriter = batchWriter;
+  }
+
+  /**
+   * Returns the patient's existing account, or creates one. Repeating the call (a retry from
+   * patient-service, a redelivered request...) never creates a second account.
+   */
+  public CompletableFuture<BillingAccount> getOrCreateAccount(String patientId, String name, String email) {
+    CompletableFuture<BillingAccount> pending = inFlight.get(patientId);
+    if (pending != null) {
+      return pending;
+    }
+    Optional<BillingAccount> existing = billingAccountRepository.findByPatientId(patientId);
+    if (existing.isPresent()) {
+      return CompletableFuture.completedFuture(existing.get());
+    }
+
+    CompletableFuture<BillingAccount> created = new CompletableFuture<>();
+    CompletableFuture<BillingAccount> raced = inFlight.putIfAbsent(patientId, created);
+    if (raced != null) {
+      return raced;
+    }
+    BillingAccount account = new BillingAccount();
+    account.setPatientId(patientId);
+    account.setName(name);
+    account.setEmail(email);
+    account.setStatus("ACTIVE");
+    batchWriter.submit(account).whenComplete((saved, error) -> {
+      inFlight.remove(patientId);
+      if (error != null) {
+        created.completeExceptionally(error);
+      } else {
+        created.complete(saved);
+      }
+    });
+    return created;
+  }
+}
@@ -0,0 +1,44 @@
+package com.pm.billingservice.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Charges the monthly fee to every active account, prorated by day for accounts opened during the
+ * period. Pure function of its inputs so invoice workers can call it concurrently.
+ */
+@Component
+public class InvoiceCalculator {
+
+  private final BigDecimal monthlyFee;
+
+  public InvoiceCalculator(@Value("${billing.invoice.monthly-fee:25.00}") BigDecimal monthlyFee) {
+    this.monthlyFee = monthlyFee;
+  }
+
+  /**
+   * Returns the amount to invoice, or {@code null} when the account owes nothing for the period.
+   */
+  public BigDecimal charge(String status, Instant createdAt, YearMonth period) {
+    if (!"ACTIVE".equals(status)) {
+      return null;
+    }
+    LocalDate opened = LocalDate.ofInstant(createdAt, ZoneOffset.UTC);
+    if (opened.isAfter(period.atEndOfMonth())) {
+      return null;
+    }
+    if (opened.isBefore(period.atDay(1))) {
+      return monthlyFee;
+    }
+    int daysInMonth = period.lengthOfMonth();
+    int billedDays = daysInMonth - opened.getDayOfMonth() + 1;
+    return monthlyFee.multiply(BigDecimal.valueOf(billedDays))
+                     .divide(BigDecimal.valueOf(daysInMonth), 2, RoundingMode.HALF_EVEN);
+  }
+}
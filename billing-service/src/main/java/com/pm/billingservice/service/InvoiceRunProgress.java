@@ -0,0 +1,15 @@
+package com.pm.billingservice.service;
+
+import com.pm.billingservice.model.InvoiceRun;
+import java.time.Duration;
+import java.time.Instant;
+
+public record InvoiceRunProgress(InvoiceRun run, int partitions, int completedPartitions,
+                                 long processedAccounts, long invoicesWritten) {
+
+  public double accountsPerSecond() {
+    Instant end = run.getFinishedAt() != null ? run.getFinishedAt() : Instant.now();
+    double seconds = Duration.between(run.getStartedAt(), end).toNanos() / 1e9;
+    return seconds > 0 ? processedAccounts / seconds : 0;
+  }
+}
@@ -0,0 +1,265 @@
+package com.pm.billingservice.service;
+
+import com.pm.billingservice.exception.InvoiceRunNotFoundException;
+import com.pm.billingservice.model.InvoiceRun;
+import com.pm.billingservice.model.InvoiceRunPartition;
+import com.pm.billingservice.repository.InvoiceRunPartitionRepository;
+import com.pm.billingservice.repository.InvoiceRunRepository;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Runs the monthly invoice run. The account id space is split into {@code parallelism * partitionsPerWorker}
+ * ranges that a fixed pool of workers pulls from, so a slow range does not hold up the others. Each worker
+ * walks its range in id order, {@code chunkSize} accounts at a time, and writes the chunk's invoices and its
+ * checkpoint in one transaction. Runs left RUNNING by a crash are resumed from their checkpoints on startup.
+ */
+@Service
+public class InvoiceRunService implements AutoCloseable {
+
+  private static final Logger log = LoggerFactory.getLogger(InvoiceRunService.class);
+
+  private static final String INSERT_INVOICE =
+    "insert into invoice (id, account_id, period, amount, issued_at) values (?, ?, ?, ?, ?)";
+  private static final String ADVANCE_CHECKPOINT =
+    "update invoice_run_partition set last_account_id = ?, processed_accounts = processed_accounts + ?, "
+      + "invoices_written = invoices_written + ? where id = ?";
+  private static final String COMPLETE_PARTITION = "update invoice_run_partition set completed = true where id = ?";
+
+  private final InvoiceRunRepository runRepository;
+  private final InvoiceRunPartitionRepository partitionRepository;
+  private final InvoiceCalculator invoiceCalculator;
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final int defaultParallelism;
+  private final int maxParallelism;
+  private final int partitionsPerWorker;
+  private final int chunkSize;
+  private final Map<UUID, ExecutorService> activeRuns = new ConcurrentHashMap<>();
+
+  public InvoiceRunService(InvoiceRunRepository runRepository,
+                           InvoiceRunPartitionRepository partitionRepository,
+                           InvoiceCalculator invoiceCalculator,
+                           JdbcTemplate jdbcTemplate,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${billing.invoice.parallelism:0}") int parallelism,
+                           @Value("${billing.invoice.max-parallelism:64}") int maxParallelism,
+                           @Value("${billing.invoice.partitions-per-worker:4}") int partitionsPerWorker,
+                           @Value("${billing.invoice.chunk-size:1000}") int chunkSize) {
+    this.runRepository = runRepository;
+    this.partitionRepository = partitionRepository;
+    this.invoiceCalculator = invoiceCalculator;
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.maxParallelism = maxParallelism;
+    this.defaultParallelism = Math.min(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors(),
+                                       maxParallelism);
+    this.partitionsPerWorker = partitionsPerWorker;
+    this.chunkSize = chunkSize;
+  }
+
+  /**
+   * Starts the run for {@code period}. A period is invoiced at most once: a completed run is returned as
+   * is, and an unfinished one is resumed from its checkpoints. A {@code parallelism} of 0 uses the configured
+   * default; anything below 0 or above {@code billing.invoice.max-parallelism} is rejected, since it sizes both
+   * the thread pool and the number of partition rows.
+   */
+  public synchronized InvoiceRunProgress startRun(YearMonth period, int parallelism) {
+    if (parallelism < 0 || parallelism > maxParallelism) {
+      throw new IllegalArgumentException("parallelism must be between 0 and " + maxParallelism);
+    }
+    int workers = parallelism > 0 ? parallelism : defaultParallelism;
+    InvoiceRun run = runRepository.findByPeriod(period.toString()).orElse(null);
+    if (run == null) {
+      run = transactionTemplate.execute(status -> createRun(period, workers));
+      launch(run);
+    } else if (run.getStatus() != InvoiceRun.Status.COMPLETED && !activeRuns.containsKey(run.getId())) {
+      log.info("Resuming invoice run {} for {}", run.getId(), run.getPeriod());
+      run.setStatus(InvoiceRun.Status.RUNNING);
+      run.setParallelism(workers);
+      run.setFinishedAt(null);
+      launch(runRepository.save(run));
+    }
+    return getProgress(run.getId());
+  }
+
+  public InvoiceRunProgress getProgress(UUID runId) {
+    InvoiceRun run = runRepository.findById(runId).orElseThrow(
+      () -> new InvoiceRunNotFoundException("Invoice run not found with ID: " + runId));
+    List<InvoiceRunPartition> partitions = partitionRepository.findByRunIdOrderByPartitionIndex(runId);
+    int completed = 0;
+    long processed = 0;
+    long invoices = 0;
+    for (InvoiceRunPartition partition : partitions) {
+      completed += partition.isCompleted() ? 1 : 0;
+      processed += partition.getProcessedAccounts();
+      invoices += partition.getInvoicesWritten();
+    }
+    return new InvoiceRunProgress(run, partitions.size(), completed, processed, invoices);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public synchronized void resumeInterruptedRuns() {
+    for (InvoiceRun run : runRepository.findByStatus(InvoiceRun.Status.RUNNING)) {
+      if (!activeRuns.containsKey(run.getId())) {
+        log.info("Resuming interrupted invoice run {} for {}", run.getId(), run.getPeriod());
+        launch(run);
+      }
+    }
+  }
+
+  private InvoiceRun createRun(YearMonth period, int workers) {
+    InvoiceRun run = new InvoiceRun();
+    run.setPeriod(period.toString());
+    run.setStatus(InvoiceRun.Status.RUNNING);
+    run.setParallelism(workers);
+    run.setTotalAccounts(jdbcTemplate.queryForObject("select count(*) from billing_account", Long.class));
+    run.setStartedAt(Instant.now());
+    run = runRepository.save(run);
+
+    int count = workers * partitionsPerWorker;
+    List<InvoiceRunPartition> partitions = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      InvoiceRunPartition partition = new InvoiceRunPartition();
+      partition.setRunId(run.getId());
+      partition.setPartitionIndex(i);
+      partition.setLowerBound(i == 0 ? null : boundary(i, count));
+      partition.setUpperBound(i == count - 1 ? null : boundary(i + 1, count));
+      partitions.add(partition);
+    }
+    partitionRepository.saveAll(partitions);
+    log.info("Created invoice run {} for {}: {} accounts in {} partitions", run.getId(), period,
+             run.getTotalAccounts(), count);
+    return run;
+  }
+
+  // splits on the high 64 bits; Postgres and H2 both order uuids as unsigned big-endian bytes
+  static UUID boundary(int index, int count) {
+    BigInteger high = BigInteger.ONE.shiftLeft(64).multiply(BigInteger.valueOf(index)).divide(BigInteger.valueOf(count));
+    return new UUID(high.longValue(), 0L);
+  }
+
+  private void launch(InvoiceRun run) {
+    UUID runId = run.getId();
+    YearMonth period = YearMonth.parse(run.getPeriod());
+    ExecutorService workers = Executors.newFixedThreadPool(run.getParallelism(),
+      Thread.ofPlatform().name("invoice-run-" + run.getPeriod() + "-", 0).daemon().factory());
+    activeRuns.put(runId, workers);
+
+    List<CompletableFuture<Void>> tasks = new ArrayList<>();
+    for (InvoiceRunPartition partition : partitionRepository.findByRunIdOrderByPartitionIndex(runId)) {
+      if (!partition.isCompleted()) {
+        tasks.add(CompletableFuture.runAsync(() -> processPartition(partition, period), workers));
+      }
+    }
+    CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new))
+                     .whenComplete((ignored, error) -> finish(runId, error));
+  }
+
+  private void processPartition(InvoiceRunPartition partition, YearMonth period) {
+    UUID cursor = partition.getLastAccountId();
+    OffsetDateTime issuedAt = OffsetDateTime.now(ZoneOffset.UTC);
+    while (!Thread.currentThread().isInterrupted()) {
+      List<AccountRow> accounts = fetchChunk(partition, cursor);
+      if (accounts.isEmpty()) {
+        jdbcTemplate.update(COMPLETE_PARTITION, partition.getId());
+        return;
+      }
+      List<Object[]> invoices = new ArrayList<>(accounts.size());
+      for (AccountRow account : accounts) {
+        BigDecimal amount = invoiceCalculator.charge(account.status(), account.createdAt(), period);
+        if (amount != null) {
+          invoices.add(new Object[]{UUID.randomUUID(), account.id(), period.toString(), amount, issuedAt});
+        }
+      }
+      UUID last = accounts.get(accounts.size() - 1).id();
+      transactionTemplate.executeWithoutResult(status -> {
+        if (!invoices.isEmpty()) {
+          jdbcTemplate.batchUpdate(INSERT_INVOICE, invoices);
+        }
+        jdbcTemplate.update(ADVANCE_CHECKPOINT, last, accounts.size(), invoices.size(), partition.getId());
+      });
+      cursor = last;
+    }
+  }
+
+  private List<AccountRow> fetchChunk(InvoiceRunPartition partition, UUID cursor) {
+    StringBuilder sql = new StringBuilder("select id, status, created_at from billing_account where 1 = 1");
+    List<Object> args = new ArrayList<>(3);
+    if (cursor != null) {
+      sql.append(" and id > ?");
+      args.add(cursor);
+    } else if (partition.getLowerBound() != null) {
+      sql.append(" and id >= ?");
+      args.add(partition.getLowerBound());
+    }
+    if (partition.getUpperBound() != null) {
+      sql.append(" and id < ?");
+      args.add(partition.getUpperBound());
+    }
+    sql.append(" order by id limit ?");
+    args.add(chunkSize);
+    return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> new AccountRow(
+      rs.getObject("id", UUID.class),
+      rs.getString("status"),
+      rs.getObject("created_at", OffsetDateTime.class).toInstant()), args.toArray());
+  }
+
+  private void finish(UUID runId, Throwable error) {
+    ExecutorService workers = activeRuns.remove(runId);
+    if (workers != null) {
+      workers.shutdown();
+    }
+    InvoiceRunProgress progress = getProgress(runId);
+    InvoiceRun run = progress.run();
+    if (error != null) {
+      log.error("Invoice run {} for {} failed: {}", runId, run.getPeriod(), error.getMessage());
+      run.setStatus(InvoiceRun.Status.FAILED);
+    } else if (progress.completedPartitions() == progress.partitions()) {
+      run.setStatus(InvoiceRun.Status.COMPLETED);
+    } else {
+      // interrupted by shutdown; stays RUNNING so the next start resumes it
+      return;
+    }
+    run.setFinishedAt(Instant.now());
+    runRepository.save(run);
+    log.info("Invoice run {} for {} {}: {} accounts, {} invoices, {} accounts/s", runId, run.getPeriod(),
+             run.getStatus(), progress.processedAccounts(), progress.invoicesWritten(),
+             Math.round(progress.accountsPerSecond()));
+  }
+
+  @Override
+  public void close() throws InterruptedException {
+    for (ExecutorService workers : activeRuns.values()) {
+      workers.shutdownNow();
+    }
+    for (ExecutorService workers : activeRuns.values()) {
+      workers.awaitTermination(10, TimeUnit.SECONDS);
+    }
+  }
+
+  private record AccountRow(UUID id, String status, Instant createdAt) {
+  }
+}
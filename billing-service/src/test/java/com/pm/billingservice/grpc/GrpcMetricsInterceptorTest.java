@@ -0,0 +1,75 @@
+package com.pm.billingservice.grpc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import billing.GetInvoiceRunRequest;
+import billing.InvoiceRunStatus;
+import billing.InvoiceServiceGrpc;
+import billing.InvoiceServiceGrpc.InvoiceServiceImplBase;
+import billing.StartInvoiceRunRequest;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.ServerInterceptors;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class GrpcMetricsInterceptorTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private Server server;
+  private ManagedChannel channel;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    InvoiceServiceImplBase service = new InvoiceServiceImplBase() {
+      @Override
+      public void startInvoiceRun(StartInvoiceRunRequest request, StreamObserver<InvoiceRunStatus> responseObserver) {
+        responseObserver.onNext(InvoiceRunStatus.newBuilder().setPeriod(request.getPeriod()).build());
+        responseObserver.onCompleted();
+      }
+
+      @Override
+      public void getInvoiceRun(GetInvoiceRunRequest request, StreamObserver<InvoiceRunStatus> responseObserver) {
+        responseObserver.onError(Status.NOT_FOUND.asRuntimeException());
+      }
+    };
+    String name = InProcessServerBuilder.generateName();
+    server = InProcessServerBuilder.forName(name)
+                                   .addService(ServerInterceptors.intercept(service, new GrpcMetricsInterceptor(meterRegistry)))
+                                   .build()
+                                   .start();
+    channel = InProcessChannelBuilder.forName(name).build();
+  }
+
+  @AfterEach
+  void tearDown() {
+    channel.shutdownNow();
+    server.shutdownNow();
+  }
+
+  @Test
+  void recordsLatencyPerMethodAndStatus() {
+    InvoiceServiceGrpc.InvoiceServiceBlockingStub stub = InvoiceServiceGrpc.newBlockingStub(channel);
+    stub.startInvoiceRun(StartInvoiceRunRequest.newBuilder().setPeriod("2026-09").build());
+    stub.startInvoiceRun(StartInvoiceRunRequest.newBuilder().setPeriod("2026-10").build());
+    assertThrows(StatusRuntimeException.class, () -> stub.getInvoiceRun(GetInvoiceRunRequest.getDefaultInstance()));
+
+    assertEquals(2, meterRegistry.get("grpc.server.calls")
+                                 .tags("method", "InvoiceService/StartInvoiceRun", "status", "OK")
+                                 .timer().count());
+    assertEquals(1, meterRegistry.get("grpc.server.calls")
+                                 .tags("method", "InvoiceService/GetInvoiceRun", "status", "NOT_FOUND")
+                                 .timer().count());
+    assertEquals(0, meterRegistry.get("grpc.server.calls.active")
+                                 .tag("method", "InvoiceService/StartInvoiceRun")
+                                 .gauge().value());
+  }
+}
@@ -0,0 +1,23 @@
+package com.pm.billingservice.logging;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class LogRateLimiterTest {
+
+  @Test
+  void suppressesBeyondPermitsAndReportsTheCountOnceTheWindowRolls() throws Exception {
+    LogRateLimiter limiter = new LogRateLimiter(2, 50, TimeUnit.MILLISECONDS);
+
+    assertEquals(0, limiter.tryAcquire());
+    assertEquals(0, limiter.tryAcquire());
+    assertEquals(-1, limiter.tryAcquire());
+    assertEquals(-1, limiter.tryAcquire());
+
+    Thread.sleep(60);
+    assertEquals(2, limiter.tryAcquire());
+    assertEquals(0, limiter.tryAcquire());
+  }
+}
@@ -0,0 +1,75 @@
+package com.pm.billingservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+import com.pm.billingservice.model.BillingAccount;
+import com.pm.billingservice.repository.BillingAccountRepository;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+@SpringBootTest(properties = {
+  "spring.datasource.url=jdbc:h2:mem:billing-test;DB_CLOSE_DELAY=-1",
+  "grpc.server.port=-1",
+  "billing.writer.max-delay-ms=200"
+})
+class BillingAccountBatchWriterTest {
+
+  @Autowired
+  private BillingAccountBatchWriter batchWriter;
+
+  @MockitoSpyBean
+  private BillingAccountRepository billingAccountRepository;
+
+  @BeforeEach
+  void setUp() {
+    billingAccountRepository.deleteAllInBatch();
+  }
+
+  @Test
+  void aDuplicateInABatchOnlyFailsOverToTheExistingAccount() {
+    BillingAccount existing = billingAccountRepository.save(account(UUID.randomUUID().toString()));
+    // the batch's lookup misses it, as if another instance inserted it between lookup and insert
+    AtomicBoolean hidden = new AtomicBoolean();
+    doAnswer(invocation -> {
+      Collection<String> patientIds = invocation.getArgument(0);
+      return hidden.compareAndSet(false, true)
+          ? List.of()
+          : billingAccountRepository.findAll().stream().filter(a -> patientIds.contains(a.getPatientId())).toList();
+    }).when(billingAccountRepository).findByPatientIdIn(any());
+
+    List<CompletableFuture<BillingAccount>> others = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      others.add(batchWriter.submit(account(UUID.randomUUID().toString())));
+    }
+    CompletableFuture<BillingAccount> duplicate = batchWriter.submit(account(existing.getPatientId()));
+
+    for (CompletableFuture<BillingAccount> other : others) {
+      BillingAccount saved = other.join();
+      assertEquals(saved.getId(), billingAccountRepository.findByPatientId(saved.getPatientId()).orElseThrow().getId());
+    }
+    assertEquals(existing.getId(), duplicate.join().getId());
+    assertEquals(6, billingAccountRepository.count());
+  }
+
+  private static BillingAccount account(String patientId) {
+    BillingAccount account = new BillingAccount();
+    account.setPatientId(patientId);
+    account.setName("Patient");
+    account.setEmail("p@example.com");
+    account.setStatus("ACTIVE");
+    account.setCreatedAt(Instant.now());
+    return account;
+  }
+}
@@ -0,0 +1,88 @@
+package com.pm.billingservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.pm.billingservice.model.BillingAccount;
+import com.pm.billingservice.repository.BillingAccountRepository;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(properties = {
+  "spring.datasource.url=jdbc:h2:mem:billing-test;DB_CLOSE_DELAY=-1",
+  "grpc.server.port=-1"
+})
+class BillingAccountServiceTest {
+
+  private static final int CALLERS = 16;
+
+  @Autowired
+  private BillingAccountService billingAccountService;
+
+  @Autowired
+  private BillingAccountRepository billingAccountRepository;
+
+  @BeforeEach
+  void setUp() {
+    billingAccountRepository.deleteAllInBatch();
+  }
+
+  @Test
+  void repeatedRequestsReturnTheSameAccount() throws Exception {
+    String patientId = UUID.randomUUID().toString();
+    List<CompletableFuture<BillingAccount>> futures = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      futures.add(billingAccountService.getOrCreateAccount(patientId, "John Doe", "john@example.com"));
+    }
+    Set<UUID> ids = futures.stream().map(CompletableFuture::join).map(BillingAccount::getId).collect(Collectors.toSet());
+    BillingAccount again = billingAccountService.getOrCreateAccount(patientId, "John Doe", "john@example.com").get();
+
+    assertEquals(1, ids.size());
+    assertEquals(ids.iterator().next(), again.getId());
+    assertEquals(1, billingAccountRepository.count());
+  }
+
+  @Test
+  void concurrentCallersEachGetTheirOwnAccount() {
+    createConcurrently(50);
+    assertEquals(CALLERS * 50, billingAccountRepository.count());
+  }
+
+  @Test
+  @EnabledIfSystemProperty(named = "bench.billing.accounts", matches = "\\d+")
+  void accountsPerSecondUnderConcurrentCallers() {
+    int accountsPerCaller = Integer.getInteger("bench.billing.accounts");
+    long start = System.nanoTime();
+    createConcurrently(accountsPerCaller);
+    double seconds = (System.nanoTime() - start) / 1e9;
+
+    System.out.printf("Created %,d billing accounts with %d concurrent callers: %,.0f accounts/s%n",
+      CALLERS * accountsPerCaller, CALLERS, CALLERS * accountsPerCaller / seconds);
+    assertEquals(CALLERS * accountsPerCaller, billingAccountRepository.count());
+  }
+
+  private void createConcurrently(int accountsPerCaller) {
+    ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+    List<CompletableFuture<Void>> done = new ArrayList<>();
+    for (int caller = 0; caller < CALLERS; caller++) {
+      done.add(CompletableFuture.runAsync(() -> {
+        // each caller behaves like a blocking gRPC client: one outstanding request at a time
+        for (int i = 0; i < accountsPerCaller; i++) {
+          billingAccountService.getOrCreateAccount(UUID.randomUUID().toString(), "Patient", "p@example.com").join();
+        }
+      }, callers));
+    }
+    CompletableFuture.allOf(done.toArray(CompletableFuture[]::new)).join();
+    callers.shutdown();
+  }
+}
@@ -0,0 +1,33 @@
+package com.pm.billingservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.YearMonth;
+import org.junit.jupiter.api.Test;
+
+class InvoiceCalculatorTest {
+
+  private final InvoiceCalculator calculator = new InvoiceCalculator(new BigDecimal("30.00"));
+  private final YearMonth september = YearMonth.of(2026, 9);
+
+  @Test
+  void chargesFullFeeForAccountsOpenedBeforeThePeriod() {
+    assertEquals(new BigDecimal("30.00"), calculator.charge("ACTIVE", Instant.parse("2026-03-14T10:00:00Z"), september));
+  }
+
+  @Test
+  void proratesAccountsOpenedDuringThePeriod() {
+    // 21 of 30 days, opening day included
+    assertEquals(new BigDecimal("21.00"), calculator.charge("ACTIVE", Instant.parse("2026-09-10T23:59:00Z"), september));
+    assertEquals(new BigDecimal("1.00"), calculator.charge("ACTIVE", Instant.parse("2026-09-30T00:00:00Z"), september));
+  }
+
+  @Test
+  void skipsInactiveAndFutureAccounts() {
+    assertNull(calculator.charge("INACTIVE", Instant.parse("2026-03-14T10:00:00Z"), september));
+    assertNull(calculator.charge("ACTIVE", Instant.parse("2026-10-01T00:00:00Z"), september));
+  }
+}
@@ -0,0 +1,179 @@
+package com.pm.billingservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import billing.InvoiceRunStatus;
+import billing.StartInvoiceRunRequest;
+import com.pm.billingservice.grpc.InvoiceGrpcService;
+import com.pm.billingservice.model.InvoiceRun;
+import com.pm.billingservice.model.InvoiceRunPartition;
+import com.pm.billingservice.repository.InvoiceRunPartitionRepository;
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@SpringBootTest(properties = {
+  "spring.datasource.url=jdbc:h2:mem:billing-test;DB_CLOSE_DELAY=-1",
+  "grpc.server.port=-1"
+})
+class InvoiceRunServiceTest {
+
+  private static final YearMonth PERIOD = YearMonth.of(2026, 9);
+
+  @Autowired
+  private InvoiceRunService invoiceRunService;
+
+  @Autowired
+  private InvoiceGrpcService invoiceGrpcService;
+
+  @Autowired
+  private InvoiceRunPartitionRepository partitionRepository;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @BeforeEach
+  void setUp() {
+    jdbcTemplate.update("delete from invoice");
+    jdbcTemplate.update("delete from invoice_run_partition");
+    jdbcTemplate.update("delete from invoice_run");
+    jdbcTemplate.update("delete from billing_account");
+  }
+
+  @Test
+  void invoicesEveryActiveAccountOncePerPeriod() throws Exception {
+    insertAccounts(3_000, "ACTIVE", PERIOD.atDay(1).minusMonths(2));
+    insertAccounts(200, "INACTIVE", PERIOD.atDay(1).minusMonths(2));
+    insertAccounts(100, "ACTIVE", PERIOD.plusMonths(1).atDay(3));
+
+    InvoiceRunProgress started = invoiceRunService.startRun(PERIOD, 4);
+    InvoiceRunProgress finished = awaitRun(started.run().getId());
+
+    assertEquals(InvoiceRun.Status.COMPLETED, finished.run().getStatus());
+    assertEquals(3_300, finished.processedAccounts());
+    assertEquals(3_000, finished.invoicesWritten());
+    assertEquals(3_000, invoiceCount());
+
+    // starting the period again must not invoice anyone twice
+    InvoiceRunProgress again = invoiceRunService.startRun(PERIOD, 4);
+    assertEquals(started.run().getId(), again.run().getId());
+    assertEquals(3_000, invoiceCount());
+  }
+
+  @Test
+  void rejectsParallelismAboveTheConfiguredMaximum() {
+    insertAccounts(10, "ACTIVE", PERIOD.atDay(1).minusMonths(2));
+
+    assertThrows(IllegalArgumentException.class, () -> invoiceRunService.startRun(PERIOD, 65));
+    assertThrows(IllegalArgumentException.class, () -> invoiceRunService.startRun(PERIOD, -1));
+
+    AtomicReference<Throwable> error = new AtomicReference<>();
+    invoiceGrpcService.startInvoiceRun(
+      StartInvoiceRunRequest.newBuilder().setPeriod(PERIOD.toString()).setParallelism(Integer.MAX_VALUE).build(),
+      new StreamObserver<>() {
+        @Override
+        public void onNext(InvoiceRunStatus value) {
+        }
+
+        @Override
+        public void onError(Throwable t) {
+          error.set(t);
+        }
+
+        @Override
+        public void onCompleted() {
+        }
+      });
+    assertEquals(Status.Code.INVALID_ARGUMENT, Status.fromThrowable(error.get()).getCode());
+    assertEquals(0, jdbcTemplate.queryForObject("select count(*) from invoice_run", Integer.class));
+  }
+
+  @Test
+  void resumesFromCheckpointsAfterCrash() throws Exception {
+    insertAccounts(3_000, "ACTIVE", PERIOD.atDay(1).minusMonths(2));
+    UUID runId = invoiceRunService.startRun(PERIOD, 2).run().getId();
+    awaitRun(runId);
+
+    // roll half the partitions back to a mid-range checkpoint, as if the process died there
+    List<InvoiceRunPartition> partitions = partitionRepository.findByRunIdOrderByPartitionIndex(runId);
+    for (InvoiceRunPartition partition : partitions.subList(0, partitions.size() / 2)) {
+      List<UUID> ids = accountIdsIn(partition);
+      UUID checkpoint = ids.get(ids.size() / 2);
+      int lost = jdbcTemplate.update("delete from invoice where account_id > ?" + (partition.getUpperBound() != null ? " and account_id < ?" : ""),
+                                     partition.getUpperBound() != null ? new Object[]{checkpoint, partition.getUpperBound()} : new Object[]{checkpoint});
+      jdbcTemplate.update("update invoice_run_partition set last_account_id = ?, completed = false, "
+                            + "processed_accounts = processed_accounts - ?, invoices_written = invoices_written - ? where id = ?",
+                          checkpoint, lost, lost, partition.getId());
+    }
+    jdbcTemplate.update("update invoice_run set status = 'RUNNING', finished_at = null where id = ?", runId);
+    assertTrue(invoiceCount() < 3_000);
+
+    invoiceRunService.resumeInterruptedRuns();
+    InvoiceRunProgress resumed = awaitRun(runId);
+
+    assertEquals(InvoiceRun.Status.COMPLETED, resumed.run().getStatus());
+    assertEquals(3_000, resumed.processedAccounts());
+    assertEquals(3_000, invoiceCount());
+    assertEquals(3_000, jdbcTemplate.queryForObject("select count(distinct account_id) from invoice", Long.class));
+  }
+
+  @Test
+  @EnabledIfSystemProperty(named = "bench.invoice.accounts", matches = "\\d+")
+  void accountsPerSecondByParallelism() throws Exception {
+    insertAccounts(Integer.getInteger("bench.invoice.accounts"), "ACTIVE", PERIOD.atDay(1).minusMonths(2));
+    int cores = Runtime.getRuntime().availableProcessors();
+    YearMonth period = PERIOD;
+    for (int workers = 1; workers <= cores; workers *= 2) {
+      InvoiceRunProgress progress = awaitRun(invoiceRunService.startRun(period, workers).run().getId());
+      System.out.printf("parallelism %d: %,.0f accounts/s%n", workers, progress.accountsPerSecond());
+      period = period.minusMonths(1);
+    }
+  }
+
+  private InvoiceRunProgress awaitRun(UUID runId) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 60_000;
+    InvoiceRunProgress progress = invoiceRunService.getProgress(runId);
+    while (progress.run().getStatus() == InvoiceRun.Status.RUNNING && System.currentTimeMillis() < deadline) {
+      Thread.sleep(20);
+      progress = invoiceRunService.getProgress(runId);
+    }
+    return progress;
+  }
+
+  private void insertAccounts(int count, String status, LocalDate createdOn) {
+    OffsetDateTime createdAt = createdOn.atStartOfDay().atOffset(ZoneOffset.UTC);
+    List<Object[]> rows = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      rows.add(new Object[]{UUID.randomUUID(), UUID.randomUUID().toString(), "Patient", "p@example.com", status, createdAt});
+    }
+    jdbcTemplate.batchUpdate(
+      "insert into billing_account (id, patient_id, name, email, status, created_at) values (?, ?, ?, ?, ?, ?)", rows);
+  }
+
+  private List<UUID> accountIdsIn(InvoiceRunPartition partition) {
+    String sql = "select id from billing_account where 1 = 1"
+      + (partition.getLowerBound() != null ? " and id >= '" + partition.getLowerBound() + "'" : "")
+      + (partition.getUpperBound() != null ? " and id < '" + partition.getUpperBound() + "'" : "")
+      + " order by id";
+    return jdbcTemplate.queryForList(sql, UUID.class);
+  }
+
+  private long invoiceCount() {
+    return jdbcTemplate.queryForObject("select count(*) from invoice", Long.class);
+  }
+}
@@ -12,21 +12,30 @@ import software.amazon.awscdk.RemovalPolicy;
 import software.amazon.awscdk.Stack;
 import software.amazon.awscdk.StackProps;
 import software.amazon.awscdk.Token;
+import software.amazon.awscdk.services.applicationautoscaling.AdjustmentType;
+import software.amazon.awscdk.services.applicationautoscaling.BasicStepScalingPolicyProps;
+import software.amazon.awscdk.services.applicationautoscaling.EnableScalingProps;
+import software.amazon.awscdk.services.applicationautoscaling.ScalingInterval;
+import software.amazon.awscdk.services.cloudwatch.MetricOptions;
 import software.amazon.awscdk.services.ec2.ISubnet;
 import software.amazon.awscdk.services.ec2.InstanceClass;
 import software.amazon.awscdk.services.ec2.InstanceSize;
 import software.amazon.awscdk.services.ec2.InstanceType;
 import software.amazon.awscdk.services.ec2.Vpc;
 import software.amazon.awscdk.services.ecs.AwsLogDriverProps;
+import software.amazon.awscdk.services.ecs.BaseService;
 import software.amazon.awscdk.services.ecs.CloudMapNamespaceOptions;
 import software.amazon.awscdk.services.ecs.Cluster;
 import software.amazon.awscdk.services.ecs.ContainerDefinitionOptions;
 import software.amazon.awscdk.services.ecs.ContainerImage;
+import software.amazon.awscdk.services.ecs.CpuUtilizationScalingProps;
 import software.amazon.awscdk.services.ecs.FargateService;
 import software.amazon.awscdk.services.ecs.FargateTaskDefinition;
 import software.amazon.awscdk.services.ecs.LogDriver;
 import software.amazon.awscdk.services.ecs.PortMapping;
 import software.amazon.awscdk.services.ecs.Protocol;
+import software.amazon.awscdk.services.ecs.RequestCountScalingProps;
+import software.amazon.awscdk.services.ecs.ScalableTaskCount;
 import software.amazon.awscdk.services.ecs.patterns.ApplicationLoadBalancedFargateService;
 import software.amazon.awscdk.services.logs.LogGroup;
 import software.amazon.awscdk.services.logs.RetentionDays;
@@ -40,6 +49,8 @@ import software.amazon.awscdk.services.route53.CfnHealthCheck;
 
 public class LocalStack extends Stack {
 
+  private static final String KAFKA_CLUSTER_NAME = "kafka-cluster";
+
   private final Vpc vpc;
   private final Cluster ecsCluster;
 
@@ -85,17 +96,33 @@ public class LocalStack extends Stack {
 
     FargateService patientService = createFargateService("PatientService",
         "patient-service",
-        List.of(4000),
+        List.of(4000, 9002),
         patientServiceDb,
         Map.of("BILLING_SERVICE_ADDRESS", "host.docker.internal",
-            "BILLING_SERVICE_PORT", "9001"));
+            "BILLING_SERVICE_GRPC_PORT", "9001"));
     patientService.getNode().addDependency(patientServiceDb);
     patientService.getNode().addDependency(patientDBHealthCheck);
     patientService.getNode().addDependency(billingService);
     patientService.getNode().addDependency(mskCluster);
 
-    createApiGatewayService();
-
+    ApplicationLoadBalancedFargateService apiGateway = createApiGatewayService();
+
+    ServiceScaling gatewayScaling = new ServiceScaling(1, 4, 60, 500, 60, 300).withContext(this, "api-gateway");
+    autoScale(apiGateway.getService(), gatewayScaling)
+        .scaleOnRequestCount("RequestCountScaling", RequestCountScalingProps.builder()
+            .requestsPerTarget(gatewayScaling.requestsPerTarget())
+            .targetGroup(apiGateway.getTargetGroup())
+            .scaleOutCooldown(Duration.seconds(gatewayScaling.scaleOutCooldownSeconds()))
+            .scaleInCooldown(Duration.seconds(gatewayScaling.scaleInCooldownSeconds()))
+            .build());
+
+    // only the gateway sits behind a load balancer, so the internal services have no per-target request count
+    autoScale(patientService, new ServiceScaling(1, 4, 60, 0, 60, 300).withContext(this, "patient-service"));
+    autoScale(authService, new ServiceScaling(1, 3, 60, 0, 60, 300).withContext(this, "auth-service"));
+    autoScale(billingService, new ServiceScaling(1, 3, 60, 0, 60, 300).withContext(this, "billing-service"));
+    // analytics-service stays at its single task: its aggregates and event log are local to the task and fed by
+    // the partitions its consumer group assigns it, so a second task would split the counts between them and a
+    // scale-in would hand partitions to a task that never saw their history
   }
 
   private Vpc createVpc() {
@@ -134,7 +161,7 @@ public class LocalStack extends Stack {
 
   private CfnCluster createMskCluster() {
     return CfnCluster.Builder.create(this, "MskCluster")
-        .clusterName("kafka-cluster")
+        .clusterName(KAFKA_CLUSTER_NAME)
         .kafkaVersion("2.8.0")
         .numberOfBrokerNodes(1)
         .brokerNodeGroupInfo(CfnCluster.BrokerNodeGroupInfoProperty.builder()
@@ -206,7 +233,7 @@ public class LocalStack extends Stack {
           db.getSecret().secretValueFromJson("password").toString());
       enVars.put("SPRING_JPA_HIBERNATE_DDL_AUTO", "update");
       enVars.put("SPRING_SQL_INIT_MODE", "always");
-      enVars.put("SPRING_DATASOURCE_HIKARY_INITIALIZATION_FAIL_TIMEOUT", "60000");
+      enVars.put("SPRING_DATASOURCE_HIKARI_INITIALIZATION_FAIL_TIMEOUT", "60000");
     }
 
     containerOptions.environment(enVars);
@@ -221,7 +248,38 @@ public class LocalStack extends Stack {
         .build();
   }
 
-  private void createApiGatewayService() {
+  /**
+   * Target tracking keeps average CPU near the configured target; the step policy on top adds tasks in one
+   * go when CPU spikes faster than target tracking's three-minute alarm reacts.
+   */
+  private ScalableTaskCount autoScale(BaseService service, ServiceScaling scaling) {
+    String id = service.getNode().getId();
+    ScalableTaskCount taskCount = service.autoScaleTaskCount(EnableScalingProps.builder()
+        .minCapacity(scaling.minCapacity())
+        .maxCapacity(scaling.maxCapacity())
+        .build());
+
+    taskCount.scaleOnCpuUtilization(id + "CpuScaling", CpuUtilizationScalingProps.builder()
+        .targetUtilizationPercent(scaling.cpuTargetPercent())
+        .scaleOutCooldown(Duration.seconds(scaling.scaleOutCooldownSeconds()))
+        .scaleInCooldown(Duration.seconds(scaling.scaleInCooldownSeconds()))
+        .build());
+
+    taskCount.scaleOnMetric(id + "CpuBurstScaling", BasicStepScalingPolicyProps.builder()
+        .metric(service.metricCpuUtilization(MetricOptions.builder()
+            .period(Duration.minutes(1))
+            .build()))
+        .scalingSteps(List.of(
+            ScalingInterval.builder().upper(85).change(0).build(),
+            ScalingInterval.builder().lower(85).change(2).build()))
+        .adjustmentType(AdjustmentType.CHANGE_IN_CAPACITY)
+        .cooldown(Duration.seconds(scaling.scaleOutCooldownSeconds()))
+        .build());
+
+    return taskCount;
+  }
+
+  private ApplicationLoadBalancedFargateService createApiGatewayService() {
     FargateTaskDefinition taskDefinition = FargateTaskDefinition.Builder
         .create(this, "APIGatewayTaskDefinition")
         .cpu(256)
@@ -252,16 +310,14 @@ public class LocalStack extends Stack {
 
     taskDefinition.addContainer("APIGatewayContainer", containerOptions);
 
-    ApplicationLoadBalancedFargateService apiGateway =
-        ApplicationLoadBalancedFargateService.Builder
-            .create(this, "APIGatewayService")
-            .cluster(ecsCluster)
-            .serviceName("api-gateway")
-            .taskDefinition(taskDefinition)
-            .desiredCount(1)
-            .healthCheckGracePeriod(Duration.seconds(60))
-            .build();
-
+    return ApplicationLoadBalancedFargateService.Builder
+        .create(this, "APIGatewayService")
+        .cluster(ecsCluster)
+        .serviceName("api-gateway")
+        .taskDefinition(taskDefinition)
+        .desiredCount(1)
+        .healthCheckGracePeriod(Duration.seconds(60))
+        .build();
   }
 
   public static void main(String[] args) {
@@ -0,0 +1,48 @@
+package com.pm.stack;
+
+import software.constructs.Construct;
+
+/**
+ * Task count bounds, targets and cooldowns for one ECS service. Every field can be overridden through CDK
+ * context as {@code scaling.<service>.<field>}, e.g. {@code scaling.patient-service.maxCapacity=6}, which the
+ * App picks up from {@code cdk.json} or the {@code CDK_CONTEXT_JSON} environment variable.
+ */
+public record ServiceScaling(int minCapacity,
+                             int maxCapacity,
+                             int cpuTargetPercent,
+                             int requestsPerTarget,
+                             int scaleOutCooldownSeconds,
+                             int scaleInCooldownSeconds) {
+
+  public ServiceScaling {
+    if (minCapacity < 1 || maxCapacity < minCapacity) {
+      throw new IllegalArgumentException(
+          "expected 1 <= minCapacity <= maxCapacity, got " + minCapacity + ".." + maxCapacity);
+    }
+    if (cpuTargetPercent < 1 || cpuTargetPercent > 100) {
+      throw new IllegalArgumentException("cpuTargetPercent must be 1-100, got " + cpuTargetPercent);
+    }
+    if (requestsPerTarget < 0 || scaleOutCooldownSeconds < 0 || scaleInCooldownSeconds < 0) {
+      throw new IllegalArgumentException("requestsPerTarget and cooldowns must not be negative");
+    }
+  }
+
+  public ServiceScaling withContext(Construct scope, String service) {
+    return new ServiceScaling(
+        context(scope, service, "minCapacity", minCapacity),
+        context(scope, service, "maxCapacity", maxCapacity),
+        context(scope, service, "cpuTargetPercent", cpuTargetPercent),
+        context(scope, service, "requestsPerTarget", requestsPerTarget),
+        context(scope, service, "scaleOutCooldownSeconds", scaleOutCooldownSeconds),
+        context(scope, service, "scaleInCooldownSeconds", scaleInCooldownSeconds));
+  }
+
+  private static int context(Construct scope, String service, String field, int fallback) {
+    Object value = scope.getNode().tryGetContext("scaling." + service + "." + field);
+    if (value == null) {
+      return fallback;
+    }
+    // context from the command line arrives as a string, from cdk.json as a number
+    return value instanceof Number number ? number.intValue() : Integer.parseInt(value.toString().trim());
+  }
+}
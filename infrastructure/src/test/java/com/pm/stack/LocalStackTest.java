@@ -0,0 +1,88 @@
+package com.pm.stack;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import software.amazon.awscdk.App;
+import software.amazon.awscdk.AppProps;
+import software.amazon.awscdk.BootstraplessSynthesizer;
+import software.amazon.awscdk.StackProps;
+import software.amazon.awscdk.assertions.Match;
+import software.amazon.awscdk.assertions.Template;
+
+class LocalStackTest {
+
+  @Test
+  void everyStatelessServiceGetsAScalableTarget() {
+    Template template = synth(Map.of());
+
+    template.resourceCountIs("AWS::ApplicationAutoScaling::ScalableTarget", 4);
+    template.hasResourceProperties("AWS::ApplicationAutoScaling::ScalableTarget", Map.of(
+        "MinCapacity", 1,
+        "MaxCapacity", 4,
+        "ScalableDimension", "ecs:service:DesiredCount"));
+  }
+
+  @Test
+  void scalesOnCpuEverywhereAndOnRequestCountAtTheGateway() {
+    Template template = synth(Map.of());
+
+    template.resourcePropertiesCountIs("AWS::ApplicationAutoScaling::ScalingPolicy", Map.of(
+        "TargetTrackingScalingPolicyConfiguration", Match.objectLike(Map.of(
+            "PredefinedMetricSpecification", Map.of("PredefinedMetricType", "ECSServiceAverageCPUUtilization")))), 4);
+    template.hasResourceProperties("AWS::ApplicationAutoScaling::ScalingPolicy", Map.of(
+        "TargetTrackingScalingPolicyConfiguration", Match.objectLike(Map.of(
+            "PredefinedMetricSpecification", Match.objectLike(Map.of("PredefinedMetricType", "ALBRequestCountPerTarget")),
+            "TargetValue", 500,
+            "ScaleInCooldown", 300,
+            "ScaleOutCooldown", 60))));
+    template.resourcePropertiesCountIs("AWS::CloudWatch::Alarm", Map.of(
+        "Namespace", "AWS/ECS",
+        "MetricName", "CPUUtilization",
+        "ComparisonOperator", "GreaterThanOrEqualToThreshold",
+        "Threshold", 85), 4);
+  }
+
+  @Test
+  void runsAnalyticsAsASingleTask() {
+    Template template = synth(Map.of());
+
+    // no desired count means ECS's default of one
+    template.hasResourceProperties("AWS::ECS::Service", Map.of(
+        "ServiceName", "analytics-service",
+        "DesiredCount", Match.absent()));
+    template.findResources("AWS::ApplicationAutoScaling::ScalableTarget").values().forEach(target ->
+        assertFalse(target.toString().contains("AnalyticsService"), target.toString()));
+    template.resourcePropertiesCountIs("AWS::CloudWatch::Alarm", Map.of("Namespace", "AWS/Kafka"), 0);
+  }
+
+  @Test
+  void takesBoundsAndCooldownsFromContext() {
+    Template template = synth(Map.of(
+        "scaling.auth-service.minCapacity", "2",
+        "scaling.auth-service.maxCapacity", 8,
+        "scaling.auth-service.scaleInCooldownSeconds", "600"));
+
+    template.hasResourceProperties("AWS::ApplicationAutoScaling::ScalableTarget", Map.of(
+        "MinCapacity", 2,
+        "MaxCapacity", 8));
+    template.hasResourceProperties("AWS::ApplicationAutoScaling::ScalingPolicy", Map.of(
+        "PolicyName", Match.stringLikeRegexp("AuthServiceCpuScaling"),
+        "TargetTrackingScalingPolicyConfiguration", Match.objectLike(Map.of("ScaleInCooldown", 600))));
+  }
+
+  @Test
+  void rejectsBoundsThatCannotBeSatisfied() {
+    assertThrows(IllegalArgumentException.class,
+                 () -> synth(Map.of("scaling.billing-service.minCapacity", 5)));
+  }
+
+  private static Template synth(Map<String, Object> context) {
+    App app = new App(AppProps.builder().context(context).build());
+    LocalStack stack = new LocalStack(app, "localstack",
+        StackProps.builder().synthesizer(new BootstraplessSynthesizer()).build());
+    return Template.fromStack(stack);
+  }
+}
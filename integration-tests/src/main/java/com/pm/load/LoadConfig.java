@@ -0,0 +1,88 @@
+package com.pm.load;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Load generator settings, from {@code --name value} (or {@code --name=value}) arguments.
+ */
+public record LoadConfig(URI baseUrl,
+                         String email,
+                         String password,
+                         RampProfile profile,
+                         OperationMix mix,
+                         boolean poissonArrivals,
+                         int seedPatients,
+                         int maxInFlight,
+                         Duration timeout,
+                         Path reportDirectory,
+                         boolean standIns,
+                         Duration billingDelay) {
+
+  private static final Map<String, String> DEFAULTS = Map.ofEntries(
+    Map.entry("base-url", "http://localhost:4004"),
+    Map.entry("email", "testuser@test.com"),
+    Map.entry("password", "password123"),
+    Map.entry("profile", "ramp:1-50@10s+constant:50@60s"),
+    Map.entry("mix", "list:60,create:15,update:15,delete:5,login:5"),
+    Map.entry("arrivals", "poisson"),
+    Map.entry("seed-patients", "100"),
+    Map.entry("max-in-flight", "2000"),
+    Map.entry("timeout", "10s"),
+    Map.entry("report-dir", "target/load-reports"),
+    Map.entry("stand-ins", "false"),
+    Map.entry("billing-delay", "0ms")
+  );
+
+  public static LoadConfig parse(String[] args) {
+    Map<String, String> values = new HashMap<>(DEFAULTS);
+    for (int i = 0; i < args.length; i++) {
+      if (!args[i].startsWith("--")) {
+        throw new IllegalArgumentException("Expected --<option> but got '" + args[i] + "'");
+      }
+      String name = args[i].substring(2);
+      String value;
+      int equals = name.indexOf('=');
+      if (equals >= 0) {
+        value = name.substring(equals + 1);
+        name = name.substring(0, equals);
+      }
+      else if (i + 1 < args.length && !args[i + 1].startsWith("--")) {
+        value = args[++i];
+      }
+      else {
+        // bare flag
+        value = "true";
+      }
+      if (!DEFAULTS.containsKey(name)) {
+        throw new IllegalArgumentException("Unknown option --" + name + "; known options: " + Set.copyOf(DEFAULTS.keySet()));
+      }
+      values.put(name, value);
+    }
+
+    String arrivals = values.get("arrivals");
+    if (!arrivals.equals("poisson") && !arrivals.equals("uniform")) {
+      throw new IllegalArgumentException("--arrivals must be poisson or uniform");
+    }
+    return new LoadConfig(URI.create(values.get("base-url")),
+                          values.get("email"),
+                          values.get("password"),
+                          RampProfile.parse(values.get("profile")),
+                          OperationMix.parse(values.get("mix")),
+                          arrivals.equals("poisson"),
+                          Integer.parseInt(values.get("seed-patients")),
+                          Integer.parseInt(values.get("max-in-flight")),
+                          duration(values.get("timeout")),
+                          Path.of(values.get("report-dir")),
+                          Boolean.parseBoolean(values.get("stand-ins")),
+                          values.get("billing-delay").matches("0+(ms|s)?") ? Duration.ZERO : duration(values.get("billing-delay")));
+  }
+
+  private static Duration duration(String value) {
+    return Duration.ofNanos((long) (RampProfile.parseSeconds(value) * 1e9));
+  }
+}
@@ -0,0 +1,130 @@
+package com.pm.load;
+
+import com.pm.load.standin.StandIns;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load against the gateway: requests arrive on a schedule set by the ramp profile whether or not
+ * earlier ones have finished, as they would from independent users. Each arrival runs on its own virtual
+ * thread and picks an operation from the mix. Latency is measured from when a request was due, so a stall
+ * shows up in the percentiles instead of silently lowering the request rate (coordinated omission).
+ * <pre>
+ * mvn compile exec:java -Dexec.args="--profile ramp:1-200@1m+constant:200@2m --mix list:80,create:10,update:10"
+ * </pre>
+ * See {@link LoadConfig} for all options. Reports go to {@code target/load-reports}.
+ */
+public class LoadGenerator {
+
+  private static final long SAMPLE_INTERVAL_MILLIS = 1000;
+
+  private final LoadConfig config;
+  private final PatientApiClient client;
+  private final LoadStats stats = new LoadStats();
+  private final AtomicLong inFlight = new AtomicLong();
+
+  public LoadGenerator(LoadConfig config) {
+    this.config = config;
+    this.client = new PatientApiClient(config.baseUrl(), config.email(), config.password(), config.timeout());
+  }
+
+  public LoadStats run() throws IOException, InterruptedException {
+    client.authenticate();
+    client.seed(config.seedPatients());
+
+    RampProfile profile = config.profile();
+    long startNanos = System.nanoTime();
+    ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+    sampler.scheduleAtFixedRate(() -> {
+      double seconds = (System.nanoTime() - startNanos) / 1e9;
+      LoadStats.TimelinePoint point = stats.sample(seconds, profile.rate(seconds), inFlight.get());
+      System.out.printf("%6.1fs  target %7.1f/s  done %7.1f/s  p99 %8.1f ms  in flight %5d  errors %d%n",
+                        point.seconds(), point.targetRate(), point.throughput(), point.p99Millis(), point.inFlight(),
+                        point.errors());
+    }, SAMPLE_INTERVAL_MILLIS, SAMPLE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+
+    try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+      double due = 0;
+      while (true) {
+        double arrivals = config.poissonArrivals() ? -Math.log(1 - ThreadLocalRandom.current().nextDouble()) : 1;
+        due = profile.advance(due, arrivals);
+        if (Double.isInfinite(due)) {
+          break;
+        }
+        long dueNanos = startNanos + (long) (due * 1e9);
+        parkUntil(dueNanos);
+        if (inFlight.get() >= config.maxInFlight()) {
+          // the client is saturated; counted and reported rather than silently waited out
+          stats.drop();
+          continue;
+        }
+        Operation operation = config.mix().pick();
+        inFlight.incrementAndGet();
+        workers.execute(() -> execute(operation, dueNanos));
+      }
+      workers.shutdown();
+      if (!workers.awaitTermination(config.timeout().toMillis() + 5_000, TimeUnit.MILLISECONDS)) {
+        workers.shutdownNow();
+      }
+    }
+    finally {
+      sampler.shutdownNow();
+    }
+    double seconds = (System.nanoTime() - startNanos) / 1e9;
+    stats.sample(seconds, 0, inFlight.get());
+    return stats;
+  }
+
+  private void execute(Operation operation, long dueNanos) {
+    long sentNanos = System.nanoTime();
+    try {
+      int status = client.call(operation);
+      if (status == PatientApiClient.SKIPPED) {
+        stats.get(operation).skip();
+      }
+      else {
+        stats.get(operation).record(dueNanos, sentNanos, System.nanoTime(), status / 100 == 2);
+      }
+    }
+    catch (IOException e) {
+      stats.get(operation).record(dueNanos, sentNanos, System.nanoTime(), false);
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    finally {
+      inFlight.decrementAndGet();
+    }
+  }
+
+  private static void parkUntil(long nanos) {
+    for (long remaining = nanos - System.nanoTime(); remaining > 0; remaining = nanos - System.nanoTime()) {
+      LockSupport.parkNanos(remaining);
+    }
+  }
+
+  public static void main(String[] args) throws IOException, InterruptedException {
+    LoadConfig config = LoadConfig.parse(args);
+    System.out.printf("Load against %s: profile %s over %ds, mix %s, %s arrivals%n", config.baseUrl(), config.profile().phases(),
+                      config.profile().duration().toSeconds(), config.mix(), config.poissonArrivals() ? "poisson" : "uniform");
+
+    StandIns standIns = config.standIns() ? StandIns.start(config.billingDelay()) : null;
+    try {
+      LoadStats stats = new LoadGenerator(config).run();
+      Path report = new LoadReport(config, stats).write(config.reportDirectory());
+      System.out.println("Report written to " + report.toAbsolutePath());
+    }
+    finally {
+      if (standIns != null) {
+        standIns.close();
+      }
+    }
+  }
+}
@@ -0,0 +1,199 @@
+package com.pm.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Writes a run as JSON (for comparing runs), a self-contained HTML page, and one {@code .hgrm} percentile
+ * distribution per operation, the format HdrHistogram's plotter reads.
+ */
+public class LoadReport {
+
+  private static final double[] PERCENTILES = {50, 90, 99, 99.9, 99.99};
+
+  private final LoadConfig config;
+  private final LoadStats stats;
+
+  public LoadReport(LoadConfig config, LoadStats stats) {
+    this.config = config;
+    this.stats = stats;
+  }
+
+  /**
+   * Writes the report files and returns the HTML page.
+   */
+  public Path write(Path directory) throws IOException {
+    Files.createDirectories(directory);
+    String name = "load-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+    Map<String, Object> summary = summary();
+
+    new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(directory.resolve(name + ".json").toFile(), summary);
+    for (Map.Entry<Operation, OperationStats> entry : stats.operations().entrySet()) {
+      Histogram histogram = entry.getValue().responseTimes();
+      if (histogram.getTotalCount() > 0) {
+        Files.writeString(directory.resolve(name + "-" + entry.getKey().name().toLowerCase() + ".hgrm"), distribution(histogram));
+      }
+    }
+    Path html = directory.resolve(name + ".html");
+    Files.writeString(html, html(summary));
+    return html;
+  }
+
+  Map<String, Object> summary() {
+    List<LoadStats.TimelinePoint> timeline = stats.timeline();
+    double seconds = timeline.isEmpty() ? 0 : timeline.getLast().seconds();
+
+    Map<String, Object> settings = new LinkedHashMap<>();
+    settings.put("baseUrl", config.baseUrl().toString());
+    settings.put("profile", config.profile().phases());
+    settings.put("mix", config.mix().toString());
+    settings.put("arrivals", config.poissonArrivals() ? "poisson" : "uniform");
+    settings.put("maxInFlight", config.maxInFlight());
+
+    Map<String, Object> operations = new LinkedHashMap<>();
+    for (Map.Entry<Operation, OperationStats> entry : stats.operations().entrySet()) {
+      OperationStats operation = entry.getValue();
+      if (operation.responseTimes().getTotalCount() == 0 && operation.skipped() == 0) {
+        continue;
+      }
+      Map<String, Object> values = new LinkedHashMap<>();
+      values.put("count", operation.responseTimes().getTotalCount());
+      values.put("errors", operation.errors());
+      values.put("skipped", operation.skipped());
+      values.put("throughput", seconds > 0 ? operation.responseTimes().getTotalCount() / seconds : 0);
+      values.put("responseTimeMillis", percentiles(operation.responseTimes()));
+      values.put("serviceTimeMillis", percentiles(operation.serviceTimes()));
+      operations.put(entry.getKey().name().toLowerCase(), values);
+    }
+
+    Map<String, Object> summary = new LinkedHashMap<>();
+    summary.put("startedAt", LocalDateTime.now().minusNanos((long) (seconds * 1e9)).toString());
+    summary.put("durationSeconds", seconds);
+    summary.put("settings", settings);
+    summary.put("dropped", stats.dropped());
+    summary.put("operations", operations);
+    summary.put("timeline", timeline);
+    return summary;
+  }
+
+  private static Map<String, Double> percentiles(Histogram histogram) {
+    Map<String, Double> values = new LinkedHashMap<>();
+    for (double percentile : PERCENTILES) {
+      values.put("p" + format(percentile), LoadStats.millis(histogram, percentile));
+    }
+    values.put("max", histogram.getMaxValue() / 1000.0);
+    values.put("mean", histogram.getTotalCount() == 0 ? 0 : histogram.getMean() / 1000.0);
+    return values;
+  }
+
+  private static String distribution(Histogram histogram) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (PrintStream out = new PrintStream(bytes, true, StandardCharsets.UTF_8)) {
+      // microseconds in, milliseconds out
+      histogram.outputPercentileDistribution(out, 1000.0);
+    }
+    return bytes.toString(StandardCharsets.UTF_8);
+  }
+
+  @SuppressWarnings("unchecked")
+  private String html(Map<String, Object> summary) {
+    StringBuilder html = new StringBuilder();
+    html.append("<!DOCTYPE html><html><head><meta charset=\"utf-8\"><title>Load report</title><style>")
+        .append("body{font-family:sans-serif;margin:2em}table{border-collapse:collapse;margin-bottom:2em}")
+        .append("td,th{border:1px solid #ccc;padding:4px 8px;text-align:right}th:first-child,td:first-child{text-align:left}")
+        .append("svg{border:1px solid #ccc;margin-bottom:2em}</style></head><body>")
+        .append("<h1>Load report</h1><p>")
+        .append(escape(String.valueOf(((Map<String, Object>) summary.get("settings")))))
+        .append("</p><p>Duration ").append(format((double) summary.get("durationSeconds"))).append(" s, ")
+        .append(summary.get("dropped")).append(" arrivals dropped at the in-flight limit.</p>");
+
+    html.append("<h2>Response time (ms, from when each request was due)</h2>");
+    table(html, (Map<String, Map<String, Object>>) summary.get("operations"), "responseTimeMillis");
+    html.append("<h2>Service time (ms, from when each request was sent)</h2>");
+    table(html, (Map<String, Map<String, Object>>) summary.get("operations"), "serviceTimeMillis");
+
+    List<LoadStats.TimelinePoint> timeline = stats.timeline();
+    html.append("<h2>Throughput (req/s): target in grey, completed in blue</h2>");
+    chart(html, timeline, LoadStats.TimelinePoint::targetRate, LoadStats.TimelinePoint::throughput);
+    html.append("<h2>p99 response time (ms) per interval</h2>");
+    chart(html, timeline, null, LoadStats.TimelinePoint::p99Millis);
+    return html.append("</body></html>").toString();
+  }
+
+  private static void table(StringBuilder html, Map<String, Map<String, Object>> operations, String key) {
+    html.append("<table><tr><th>operation</th><th>count</th><th>errors</th><th>skipped</th><th>req/s</th>");
+    for (double percentile : PERCENTILES) {
+      html.append("<th>p").append(format(percentile)).append("</th>");
+    }
+    html.append("<th>max</th></tr>");
+    for (Map.Entry<String, Map<String, Object>> entry : operations.entrySet()) {
+      Map<String, Object> values = entry.getValue();
+      @SuppressWarnings("unchecked")
+      Map<String, Double> latencies = (Map<String, Double>) values.get(key);
+      html.append("<tr><td>").append(entry.getKey()).append("</td><td>").append(values.get("count"))
+          .append("</td><td>").append(values.get("errors")).append("</td><td>").append(values.get("skipped"))
+          .append("</td><td>").append(format((double) values.get("throughput"))).append("</td>");
+      for (double percentile : PERCENTILES) {
+        html.append("<td>").append(format(latencies.get("p" + format(percentile)))).append("</td>");
+      }
+      html.append("<td>").append(format(latencies.get("max"))).append("</td></tr>");
+    }
+    html.append("</table>");
+  }
+
+  private static void chart(StringBuilder html, List<LoadStats.TimelinePoint> timeline,
+                            ToDoubleFunction<LoadStats.TimelinePoint> reference, ToDoubleFunction<LoadStats.TimelinePoint> value) {
+    int width = 900;
+    int height = 240;
+    double maxSeconds = timeline.isEmpty() ? 1 : Math.max(1, timeline.getLast().seconds());
+    double maxValue = 1;
+    for (LoadStats.TimelinePoint point : timeline) {
+      maxValue = Math.max(maxValue, value.applyAsDouble(point));
+      if (reference != null) {
+        maxValue = Math.max(maxValue, reference.applyAsDouble(point));
+      }
+    }
+    html.append("<svg width=\"").append(width).append("\" height=\"").append(height + 20).append("\">")
+        .append("<text x=\"4\" y=\"14\" font-size=\"12\">").append(format(maxValue)).append("</text>")
+        .append("<text x=\"").append(width - 60).append("\" y=\"").append(height + 16).append("\" font-size=\"12\">")
+        .append(format(maxSeconds)).append(" s</text>");
+    if (reference != null) {
+      polyline(html, timeline, reference, maxSeconds, maxValue, width, height, "#999");
+    }
+    polyline(html, timeline, value, maxSeconds, maxValue, width, height, "#1f6feb");
+    html.append("</svg>");
+  }
+
+  private static void polyline(StringBuilder html, List<LoadStats.TimelinePoint> timeline, ToDoubleFunction<LoadStats.TimelinePoint> value,
+                               double maxSeconds, double maxValue, int width, int height, String colour) {
+    html.append("<polyline fill=\"none\" stroke-width=\"2\" stroke=\"").append(colour).append("\" points=\"");
+    for (LoadStats.TimelinePoint point : timeline) {
+      html.append(format(point.seconds() / maxSeconds * width)).append(',')
+          .append(format(height - value.applyAsDouble(point) / maxValue * (height - 20))).append(' ');
+    }
+    html.append("\"/>");
+  }
+
+  private static String format(double value) {
+    String text = String.format(Locale.ROOT, "%.2f", value);
+    return text.contains(".") ? text.replaceAll("0+$", "").replaceAll("\\.$", "") : text;
+  }
+
+  private static String escape(String text) {
+    return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+  }
+}
@@ -0,0 +1,80 @@
+package com.pm.load;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Statistics of a run: per-operation latencies plus a once-per-interval timeline across all operations.
+ */
+public class LoadStats {
+
+  private final Map<Operation, OperationStats> operations = new EnumMap<>(Operation.class);
+  private final List<TimelinePoint> timeline = Collections.synchronizedList(new ArrayList<>());
+  private final LongAdder dropped = new LongAdder();
+  private final Histogram interval = new Histogram(OperationStats.HIGHEST_MICROS, 3);
+  private double lastSampleSeconds;
+  private long errorsAtLastSample;
+
+  /**
+   * One interval of the run. Throughput counts completed requests; latencies are response times in ms.
+   */
+  public record TimelinePoint(double seconds, double targetRate, double throughput, long errors, long inFlight,
+                              double p50Millis, double p99Millis, double maxMillis) {
+  }
+
+  public LoadStats() {
+    for (Operation operation : Operation.values()) {
+      operations.put(operation, new OperationStats());
+    }
+  }
+
+  public OperationStats get(Operation operation) {
+    return operations.get(operation);
+  }
+
+  public Map<Operation, OperationStats> operations() {
+    return operations;
+  }
+
+  void drop() {
+    dropped.increment();
+  }
+
+  public long dropped() {
+    return dropped.sum();
+  }
+
+  /**
+   * Closes the interval ending {@code seconds} into the run and adds it to the timeline.
+   */
+  synchronized TimelinePoint sample(double seconds, double targetRate, long inFlight) {
+    interval.reset();
+    long errors = 0;
+    for (OperationStats stats : operations.values()) {
+      interval.add(stats.sample());
+      errors += stats.errors();
+    }
+    long intervalErrors = errors - errorsAtLastSample;
+    errorsAtLastSample = errors;
+
+    double length = Math.max(1e-9, seconds - lastSampleSeconds);
+    lastSampleSeconds = seconds;
+    TimelinePoint point = new TimelinePoint(seconds, targetRate, interval.getTotalCount() / length, intervalErrors, inFlight,
+                                            millis(interval, 50), millis(interval, 99), interval.getMaxValue() / 1000.0);
+    timeline.add(point);
+    return point;
+  }
+
+  public List<TimelinePoint> timeline() {
+    return List.copyOf(timeline);
+  }
+
+  static double millis(Histogram histogram, double percentile) {
+    return histogram.getTotalCount() == 0 ? 0 : histogram.getValueAtPercentile(percentile) / 1000.0;
+  }
+}
@@ -0,0 +1,12 @@
+package com.pm.load;
+
+/**
+ * What one arrival does against the gateway.
+ */
+public enum Operation {
+  LOGIN,
+  LIST,
+  CREATE,
+  UPDATE,
+  DELETE
+}
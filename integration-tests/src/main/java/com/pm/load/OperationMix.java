@@ -0,0 +1,57 @@
+package com.pm.load;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Relative weights of the operations, written as {@code list:60,create:15,update:15,delete:5,login:5}.
+ */
+public record OperationMix(Map<Operation, Integer> weights) {
+
+  public OperationMix {
+    weights = Map.copyOf(weights);
+    if (weights.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+      throw new IllegalArgumentException("The operation mix needs at least one positive weight");
+    }
+  }
+
+  public static OperationMix parse(String spec) {
+    Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+    for (String entry : spec.split(",")) {
+      String[] nameAndWeight = entry.trim().split(":", 2);
+      if (nameAndWeight.length != 2) {
+        throw new IllegalArgumentException("Expected <operation>:<weight> but got '" + entry + "'");
+      }
+      int weight = Integer.parseInt(nameAndWeight[1].trim());
+      if (weight < 0) {
+        throw new IllegalArgumentException("Weights cannot be negative: " + entry);
+      }
+      weights.merge(Operation.valueOf(nameAndWeight[0].trim().toUpperCase()), weight, Integer::sum);
+    }
+    return new OperationMix(weights);
+  }
+
+  public Operation pick() {
+    int total = weights.values().stream().mapToInt(Integer::intValue).sum();
+    int roll = ThreadLocalRandom.current().nextInt(total);
+    for (Operation operation : Operation.values()) {
+      roll -= weights.getOrDefault(operation, 0);
+      if (roll < 0) {
+        return operation;
+      }
+    }
+    throw new IllegalStateException("unreachable");
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder spec = new StringBuilder();
+    for (Operation operation : Operation.values()) {
+      if (weights.getOrDefault(operation, 0) > 0) {
+        spec.append(spec.isEmpty() ? "" : ",").append(operation.name().toLowerCase()).append(':').append(weights.get(operation));
+      }
+    }
+    return spec.toString();
+  }
+}
@@ -0,0 +1,68 @@
+package com.pm.load;
+
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Latencies of one operation, in microseconds. Response time runs from when the request was due under the
+ * arrival schedule, so time spent queued behind a slow system is counted rather than omitted; service
+ * time runs from when it was actually sent. A large gap between the two means the generator or the client
+ * pool fell behind.
+ */
+public class OperationStats {
+
+  static final long HIGHEST_MICROS = 3_600_000_000L;
+
+  private final Recorder responseTimes = new Recorder(HIGHEST_MICROS, 3);
+  private final Recorder serviceTimes = new Recorder(HIGHEST_MICROS, 3);
+  private final Histogram totalResponseTimes = new Histogram(HIGHEST_MICROS, 3);
+  private final Histogram totalServiceTimes = new Histogram(HIGHEST_MICROS, 3);
+  private final LongAdder errors = new LongAdder();
+  private final LongAdder skipped = new LongAdder();
+  private Histogram intervalResponseTimes;
+  private Histogram intervalServiceTimes;
+
+  void record(long dueNanos, long sentNanos, long doneNanos, boolean success) {
+    responseTimes.recordValue(micros(doneNanos - dueNanos));
+    serviceTimes.recordValue(micros(doneNanos - sentNanos));
+    if (!success) {
+      errors.increment();
+    }
+  }
+
+  void skip() {
+    skipped.increment();
+  }
+
+  /**
+   * Moves everything recorded since the last call into the totals and returns it.
+   */
+  synchronized Histogram sample() {
+    intervalResponseTimes = responseTimes.getIntervalHistogram(intervalResponseTimes);
+    intervalServiceTimes = serviceTimes.getIntervalHistogram(intervalServiceTimes);
+    totalResponseTimes.add(intervalResponseTimes);
+    totalServiceTimes.add(intervalServiceTimes);
+    return intervalResponseTimes;
+  }
+
+  public Histogram responseTimes() {
+    return totalResponseTimes;
+  }
+
+  public Histogram serviceTimes() {
+    return totalServiceTimes;
+  }
+
+  public long errors() {
+    return errors.sum();
+  }
+
+  public long skipped() {
+    return skipped.sum();
+  }
+
+  private static long micros(long nanos) {
+    return Math.min(HIGHEST_MICROS, Math.max(0, nanos / 1000));
+  }
+}
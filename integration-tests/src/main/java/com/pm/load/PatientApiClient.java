@@ -0,0 +1,142 @@
+package com.pm.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublisher;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The gateway calls behind each {@link Operation}. Patients created during the run are remembered so
+ * updates and deletes always target a patient that exists.
+ */
+public class PatientApiClient {
+
+  /** Status returned when an update or delete found no patient to work on. */
+  public static final int SKIPPED = -1;
+
+  private final HttpClient httpClient;
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final URI baseUrl;
+  private final String email;
+  private final String password;
+  private final Duration timeout;
+  private final ConcurrentLinkedDeque<String> patientIds = new ConcurrentLinkedDeque<>();
+  private final AtomicLong sequence = new AtomicLong();
+  private final String runId = Long.toString(System.currentTimeMillis(), 36);
+  private volatile String token;
+
+  public PatientApiClient(URI baseUrl, String email, String password, Duration timeout) {
+    this.baseUrl = baseUrl;
+    this.email = email;
+    this.password = password;
+    this.timeout = timeout;
+    this.httpClient = HttpClient.newBuilder()
+                                .version(HttpClient.Version.HTTP_1_1)
+                                .connectTimeout(timeout)
+                                .build();
+  }
+
+  /**
+   * Logs in and keeps the token for the patient calls.
+   */
+  public void authenticate() throws IOException, InterruptedException {
+    int status = login();
+    if (status != 200) {
+      throw new IOException("Login as " + email + " failed with HTTP " + status);
+    }
+  }
+
+  public void seed(int patients) throws IOException, InterruptedException {
+    for (int i = 0; i < patients; i++) {
+      int status = create();
+      if (status / 100 != 2) {
+        throw new IOException("Seeding patients failed with HTTP " + status);
+      }
+    }
+  }
+
+  public int call(Operation operation) throws IOException, InterruptedException {
+    return switch (operation) {
+      case LOGIN -> login();
+      case LIST -> send(authorized("/api/patients").GET());
+      case CREATE -> create();
+      case UPDATE -> update();
+      case DELETE -> delete();
+    };
+  }
+
+  private int login() throws IOException, InterruptedException {
+    String body = objectMapper.writeValueAsString(Map.of("email", email, "password", password));
+    var response = httpClient.send(request("/auth/login").POST(BodyPublishers.ofString(body)).build(), BodyHandlers.ofString());
+    if (response.statusCode() == 200) {
+      token = objectMapper.readTree(response.body()).path("token").asText();
+    }
+    return response.statusCode();
+  }
+
+  private int create() throws IOException, InterruptedException {
+    var response = httpClient.send(authorized("/api/patients").POST(patientBody(true)).build(), BodyHandlers.ofString());
+    if (response.statusCode() / 100 == 2) {
+      JsonNode id = objectMapper.readTree(response.body()).path("id");
+      if (id.isTextual()) {
+        patientIds.offerLast(id.asText());
+      }
+    }
+    return response.statusCode();
+  }
+
+  private int update() throws IOException, InterruptedException {
+    String id = patientIds.pollFirst();
+    if (id == null) {
+      return SKIPPED;
+    }
+    try {
+      return send(authorized("/api/patients/" + id).PUT(patientBody(false)));
+    }
+    finally {
+      patientIds.offerLast(id);
+    }
+  }
+
+  private int delete() throws IOException, InterruptedException {
+    String id = patientIds.pollFirst();
+    return id == null ? SKIPPED : send(authorized("/api/patients/" + id).DELETE());
+  }
+
+  private int send(HttpRequest.Builder request) throws IOException, InterruptedException {
+    return httpClient.send(request.build(), BodyHandlers.discarding()).statusCode();
+  }
+
+  private HttpRequest.Builder authorized(String path) {
+    return request(path).header("Authorization", "Bearer " + token);
+  }
+
+  private HttpRequest.Builder request(String path) {
+    return HttpRequest.newBuilder(baseUrl.resolve(path))
+                      .timeout(timeout)
+                      .header("Content-Type", "application/json");
+  }
+
+  private BodyPublisher patientBody(boolean create) throws IOException {
+    long n = sequence.incrementAndGet();
+    Map<String, String> patient = new LinkedHashMap<>();
+    patient.put("name", "Load Patient " + n);
+    patient.put("email", "load-" + runId + "-" + n + "@example.com");
+    patient.put("address", n + " Load Street");
+    patient.put("dateOfBirth", "1990-01-01");
+    if (create) {
+      patient.put("registeredDate", "2024-01-10");
+    }
+    return BodyPublishers.ofString(objectMapper.writeValueAsString(patient));
+  }
+}
@@ -0,0 +1,127 @@
+package com.pm.load;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Target arrival rate over time, as a sequence of linear phases. Written as phases joined by {@code +}:
+ * <pre>
+ * constant:100@60s              100 req/s for a minute
+ * ramp:10-200@2m                10 rising to 200 req/s over two minutes
+ * steps:50,100,200@30s          three 30-second plateaus
+ * ramp:0-100@10s+constant:100@5m
+ * </pre>
+ */
+public record RampProfile(List<Phase> phases) {
+
+  private static final double STEP_SECONDS = 0.001;
+
+  public record Phase(double startRate, double endRate, double seconds) {
+  }
+
+  public RampProfile {
+    phases = List.copyOf(phases);
+    if (phases.isEmpty()) {
+      throw new IllegalArgumentException("A ramp profile needs at least one phase");
+    }
+  }
+
+  public static RampProfile parse(String spec) {
+    List<Phase> phases = new ArrayList<>();
+    for (String part : spec.split("\\+")) {
+      String[] kindAndRest = part.trim().split(":", 2);
+      String[] ratesAndDuration = kindAndRest.length == 2 ? kindAndRest[1].split("@", 2) : new String[0];
+      if (ratesAndDuration.length != 2) {
+        throw new IllegalArgumentException("Expected <kind>:<rates>@<duration> but got '" + part + "'");
+      }
+      String rates = ratesAndDuration[0];
+      double seconds = parseSeconds(ratesAndDuration[1]);
+      switch (kindAndRest[0]) {
+        case "constant" -> phases.add(new Phase(rate(rates), rate(rates), seconds));
+        case "ramp" -> {
+          String[] range = rates.split("-", 2);
+          if (range.length != 2) {
+            throw new IllegalArgumentException("Expected ramp:<from>-<to>@<duration> but got '" + part + "'");
+          }
+          phases.add(new Phase(rate(range[0]), rate(range[1]), seconds));
+        }
+        case "steps" -> {
+          for (String step : rates.split(",")) {
+            phases.add(new Phase(rate(step), rate(step), seconds));
+          }
+        }
+        default -> throw new IllegalArgumentException("Unknown phase kind '" + kindAndRest[0] + "'");
+      }
+    }
+    return new RampProfile(phases);
+  }
+
+  /**
+   * Target rate in requests per second, {@code seconds} into the run. Zero after the last phase.
+   */
+  public double rate(double seconds) {
+    double phaseStart = 0;
+    for (Phase phase : phases) {
+      if (seconds < phaseStart + phase.seconds()) {
+        double progress = (seconds - phaseStart) / phase.seconds();
+        return phase.startRate() + (phase.endRate() - phase.startRate()) * progress;
+      }
+      phaseStart += phase.seconds();
+    }
+    return 0;
+  }
+
+  /**
+   * The time by which {@code arrivals} more requests are due after {@code from}, i.e. where the integral of
+   * the rate from {@code from} reaches {@code arrivals}. Stepping by one each time spaces requests evenly at
+   * the current rate; stepping by exponentially distributed amounts gives Poisson arrivals that follow the
+   * same profile. Returns {@link Double#POSITIVE_INFINITY} when the profile ends first.
+   */
+  public double advance(double from, double arrivals) {
+    double end = duration().toNanos() / 1e9;
+    double remaining = arrivals;
+    for (double t = from; t < end; t += STEP_SECONDS) {
+      double step = Math.min(STEP_SECONDS, end - t);
+      double rate = rate(t + step / 2);
+      if (rate * step >= remaining) {
+        return t + remaining / rate;
+      }
+      remaining -= rate * step;
+    }
+    return Double.POSITIVE_INFINITY;
+  }
+
+  public Duration duration() {
+    return Duration.ofNanos((long) (phases.stream().mapToDouble(Phase::seconds).sum() * 1e9));
+  }
+
+  private static double rate(String value) {
+    double rate = Double.parseDouble(value.trim());
+    if (rate < 0) {
+      throw new IllegalArgumentException("Rates cannot be negative: " + value);
+    }
+    return rate;
+  }
+
+  static double parseSeconds(String value) {
+    String trimmed = value.trim();
+    double amount;
+    if (trimmed.endsWith("ms")) {
+      amount = Double.parseDouble(trimmed.substring(0, trimmed.length() - 2)) / 1000;
+    }
+    else if (trimmed.endsWith("s")) {
+      amount = Double.parseDouble(trimmed.substring(0, trimmed.length() - 1));
+    }
+    else if (trimmed.endsWith("m")) {
+      amount = Double.parseDouble(trimmed.substring(0, trimmed.length() - 1)) * 60;
+    }
+    else {
+      amount = Double.parseDouble(trimmed);
+    }
+    if (amount <= 0) {
+      throw new IllegalArgumentException("Durations must be positive: " + value);
+    }
+    return amount;
+  }
+}
@@ -0,0 +1,61 @@
+package com.pm.load.standin;
+
+import billing.BillingRequest;
+import billing.BillingResponse;
+import billing.BillingServiceGrpc;
+import io.grpc.Server;
+import io.grpc.ServerBuilder;
+import io.grpc.stub.StreamObserver;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Answers patient-service's CreateBillingAccount calls in place of billing-service, after an optional
+ * fixed delay.
+ */
+public class BillingStandIn implements AutoCloseable {
+
+  private final Server server;
+
+  public BillingStandIn(int port, Duration delay) {
+    this.server = ServerBuilder.forPort(port).addService(new BillingService(delay)).build();
+  }
+
+  public BillingStandIn start() throws IOException {
+    server.start();
+    return this;
+  }
+
+  @Override
+  public void close() throws InterruptedException {
+    server.shutdown().awaitTermination(5, TimeUnit.SECONDS);
+  }
+
+  private static final class BillingService extends BillingServiceGrpc.BillingServiceImplBase {
+
+    private final Duration delay;
+
+    private BillingService(Duration delay) {
+      this.delay = delay;
+    }
+
+    @Override
+    public void createBillingAccount(BillingRequest request, StreamObserver<BillingResponse> responseObserver) {
+      if (!delay.isZero()) {
+        try {
+          Thread.sleep(delay);
+        }
+        catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      responseObserver.onNext(BillingResponse.newBuilder()
+                                             .setAccountId(UUID.randomUUID().toString())
+                                             .setStatus("ACTIVE")
+                                             .build());
+      responseObserver.onCompleted();
+    }
+  }
+}
@@ -0,0 +1,31 @@
+package com.pm.load.standin;
+
+import org.springframework.kafka.test.EmbeddedKafkaZKBroker;
+
+/**
+ * A single in-process Kafka broker with the "patient" topic, for patient-service to publish to. The
+ * ZooKeeper-based broker is used because it honours a fixed port; the KRaft one always picks a random one.
+ */
+public class KafkaStandIn implements AutoCloseable {
+
+  private final EmbeddedKafkaZKBroker broker;
+
+  public KafkaStandIn(int port) {
+    this.broker = new EmbeddedKafkaZKBroker(1, false, 1, "patient");
+    broker.kafkaPorts(port);
+  }
+
+  public KafkaStandIn start() {
+    broker.afterPropertiesSet();
+    return this;
+  }
+
+  public String bootstrapServers() {
+    return broker.getBrokersAsString();
+  }
+
+  @Override
+  public void close() {
+    broker.destroy();
+  }
+}
@@ -0,0 +1,82 @@
+package com.pm.load.standin;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Starts the billing, Kafka and trace stand-ins so patient-service can run on one machine without
+ * billing-service, a real broker or a trace collector. Runs until killed:
+ * <pre>
+ * mvn compile exec:java -Dexec.mainClass=com.pm.load.standin.StandIns
+ * </pre>
+ * patient-service then needs {@code SPRING_KAFKA_BOOTSTRAP_SERVERS=localhost:9092} and
+ * {@code BILLING_SERVICE_ADDRESS=localhost}; spans from any service given
+ * {@code MANAGEMENT_OTLP_TRACING_ENDPOINT=http://localhost:4318/v1/traces} land in target/traces.jsonl.
+ */
+public class StandIns implements AutoCloseable {
+
+  public static final int BILLING_PORT = 9001;
+  public static final int KAFKA_PORT = 9092;
+  public static final int OTLP_PORT = 4318;
+  public static final Path TRACE_FILE = Path.of("target", "traces.jsonl");
+
+  private final KafkaStandIn kafka;
+  private final BillingStandIn billing;
+  private final TraceStandIn traces;
+
+  private StandIns(KafkaStandIn kafka, BillingStandIn billing, TraceStandIn traces) {
+    this.kafka = kafka;
+    this.billing = billing;
+    this.traces = traces;
+  }
+
+  public static StandIns start(Duration billingDelay) throws IOException {
+    TraceStandIn traces = new TraceStandIn(OTLP_PORT, TRACE_FILE).start();
+    KafkaStandIn kafka = null;
+    try {
+      kafka = new KafkaStandIn(KAFKA_PORT).start();
+      BillingStandIn billing = new BillingStandIn(BILLING_PORT, billingDelay).start();
+      System.out.printf("Stand-ins up: Kafka at %s, billing gRPC at localhost:%d, OTLP at localhost:%d (spans to %s)%n",
+                        kafka.bootstrapServers(), BILLING_PORT, OTLP_PORT, TRACE_FILE);
+      return new StandIns(kafka, billing, traces);
+    }
+    catch (IOException | RuntimeException e) {
+      if (kafka != null) {
+        kafka.close();
+      }
+      traces.close();
+      throw e;
+    }
+  }
+
+  @Override
+  public void close() throws InterruptedException {
+    try {
+      billing.close();
+    }
+    finally {
+      try {
+        traces.close();
+      }
+      catch (IOException e) {
+        System.err.println("Could not close the trace file: " + e.getMessage());
+      }
+      kafka.close();
+    }
+  }
+
+  public static void main(String[] args) throws IOException, InterruptedException {
+    Duration billingDelay = args.length > 0 ? Duration.ofMillis(Long.parseLong(args[0])) : Duration.ZERO;
+    StandIns standIns = start(billingDelay);
+    Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+      try {
+        standIns.close();
+      }
+      catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }));
+    Thread.currentThread().join();
+  }
+}
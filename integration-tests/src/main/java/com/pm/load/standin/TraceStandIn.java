@@ -0,0 +1,143 @@
+package com.pm.load.standin;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.protobuf.ByteString;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.opentelemetry.proto.collector.trace.v1.ExportTraceServiceRequest;
+import io.opentelemetry.proto.collector.trace.v1.ExportTraceServiceResponse;
+import io.opentelemetry.proto.common.v1.AnyValue;
+import io.opentelemetry.proto.common.v1.KeyValue;
+import io.opentelemetry.proto.trace.v1.ResourceSpans;
+import io.opentelemetry.proto.trace.v1.ScopeSpans;
+import io.opentelemetry.proto.trace.v1.Span;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HexFormat;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Accepts OTLP/HTTP span exports in place of a collector and appends one JSON line per span to a file, so a
+ * local run can be traced without Jaeger or Tempo. Point the services at it with
+ * {@code MANAGEMENT_OTLP_TRACING_ENDPOINT=http://localhost:4318/v1/traces}.
+ */
+public class TraceStandIn implements AutoCloseable {
+
+  private static final ObjectMapper JSON = new ObjectMapper();
+  private static final HexFormat HEX = HexFormat.of();
+
+  private final HttpServer server;
+  private final BufferedWriter out;
+  private long spans;
+
+  public TraceStandIn(int port, Path file) throws IOException {
+    Files.createDirectories(file.toAbsolutePath().getParent());
+    this.out = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                                       StandardOpenOption.APPEND);
+    this.server = HttpServer.create(new InetSocketAddress(port), 0);
+    server.createContext("/v1/traces", this::export);
+  }
+
+  public TraceStandIn start() {
+    server.start();
+    return this;
+  }
+
+  public int port() {
+    return server.getAddress().getPort();
+  }
+
+  public synchronized long spans() {
+    return spans;
+  }
+
+  private void export(HttpExchange exchange) throws IOException {
+    try (exchange) {
+      if (!exchange.getRequestMethod().equals("POST")) {
+        exchange.sendResponseHeaders(405, -1);
+        return;
+      }
+      ExportTraceServiceRequest request;
+      try (InputStream body = body(exchange)) {
+        request = ExportTraceServiceRequest.parseFrom(body);
+      }
+      write(request);
+      byte[] response = ExportTraceServiceResponse.getDefaultInstance().toByteArray();
+      exchange.getResponseHeaders().set("Content-Type", "application/x-protobuf");
+      exchange.sendResponseHeaders(200, response.length == 0 ? -1 : response.length);
+      exchange.getResponseBody().write(response);
+    }
+  }
+
+  private static InputStream body(HttpExchange exchange) throws IOException {
+    InputStream body = exchange.getRequestBody();
+    return "gzip".equalsIgnoreCase(exchange.getRequestHeaders().getFirst("Content-Encoding"))
+        ? new GZIPInputStream(body)
+        : body;
+  }
+
+  private synchronized void write(ExportTraceServiceRequest request) throws IOException {
+    for (ResourceSpans resourceSpans : request.getResourceSpansList()) {
+      String service = resourceSpans.getResource().getAttributesList().stream()
+                                    .filter(attribute -> attribute.getKey().equals("service.name"))
+                                    .map(attribute -> attribute.getValue().getStringValue())
+                                    .findFirst()
+                                    .orElse("unknown");
+      for (ScopeSpans scopeSpans : resourceSpans.getScopeSpansList()) {
+        for (Span span : scopeSpans.getSpansList()) {
+          out.write(JSON.writeValueAsString(toJson(service, span)));
+          out.newLine();
+          spans++;
+        }
+      }
+    }
+    out.flush();
+  }
+
+  private static ObjectNode toJson(String service, Span span) {
+    ObjectNode node = JSON.createObjectNode()
+                          .put("traceId", hex(span.getTraceId()))
+                          .put("spanId", hex(span.getSpanId()))
+                          .put("parentSpanId", hex(span.getParentSpanId()))
+                          .put("service", service)
+                          .put("name", span.getName())
+                          .put("kind", span.getKind().name())
+                          .put("startEpochNanos", span.getStartTimeUnixNano())
+                          .put("durationMicros", (span.getEndTimeUnixNano() - span.getStartTimeUnixNano()) / 1000)
+                          .put("status", span.getStatus().getCode().name());
+    ObjectNode attributes = node.putObject("attributes");
+    for (KeyValue attribute : span.getAttributesList()) {
+      attributes.put(attribute.getKey(), value(attribute.getValue()));
+    }
+    return node;
+  }
+
+  private static String value(AnyValue value) {
+    return switch (value.getValueCase()) {
+      case STRING_VALUE -> value.getStringValue();
+      case BOOL_VALUE -> String.valueOf(value.getBoolValue());
+      case INT_VALUE -> String.valueOf(value.getIntValue());
+      case DOUBLE_VALUE -> String.valueOf(value.getDoubleValue());
+      default -> value.toString().trim();
+    };
+  }
+
+  private static String hex(ByteString bytes) {
+    return HEX.formatHex(bytes.toByteArray());
+  }
+
+  @Override
+  public void close() throws IOException {
+    server.stop(0);
+    synchronized (this) {
+      out.close();
+    }
+  }
+}
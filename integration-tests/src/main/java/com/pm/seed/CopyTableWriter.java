@@ -0,0 +1,55 @@
+package com.pm.seed;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+/**
+ * PostgreSQL {@code COPY ... FROM STDIN} in CSV format: rows stream to the server without per-row statements,
+ * several times faster than even multi-row inserts.
+ */
+public class CopyTableWriter implements TableWriter {
+
+  private static final int FLUSH_BYTES = 1 << 20;
+
+  @Override
+  public void write(Connection connection, SeedTable table, PatientGenerator generator, long from, long to) throws SQLException {
+    String sql = "COPY " + table.table() + " (" + String.join(", ", table.columns()) + ") FROM STDIN WITH (FORMAT csv)";
+    CopyIn copy = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(sql);
+    try {
+      StringBuilder buffer = new StringBuilder(FLUSH_BYTES + 1024);
+      for (long index = from; index < to; index++) {
+        appendRow(buffer, table.values(generator.generate(index)));
+        if (buffer.length() >= FLUSH_BYTES) {
+          flush(copy, buffer);
+        }
+      }
+      flush(copy, buffer);
+      copy.endCopy();
+    }
+    finally {
+      if (copy.isActive()) {
+        copy.cancelCopy();
+      }
+    }
+  }
+
+  static void appendRow(StringBuilder buffer, Object[] values) {
+    for (int i = 0; i < values.length; i++) {
+      if (i > 0) {
+        buffer.append(',');
+      }
+      // every value quoted, quotes doubled; none of the generated values is NULL
+      buffer.append('"').append(values[i].toString().replace("\"", "\"\"")).append('"');
+    }
+    buffer.append('\n');
+  }
+
+  private static void flush(CopyIn copy, StringBuilder buffer) throws SQLException {
+    byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+    copy.writeToCopy(bytes, 0, bytes.length);
+    buffer.setLength(0);
+  }
+}
@@ -0,0 +1,215 @@
+package com.pm.seed;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fills the patient, auth and billing databases with the same synthetic patients, for testing at production
+ * size. Rows {@code [from, rows)} are split into chunks written in parallel, each in its own transaction;
+ * PostgreSQL gets COPY, other databases multi-row inserts.
+ * <pre>
+ * mvn compile exec:java -Dexec.mainClass=com.pm.seed.DatasetSeeder -Dexec.args="--rows 10m \
+ *   --patients-url jdbc:postgresql://localhost:5432/patientdb?user=postgres&amp;password=postgres \
+ *   --auth-url jdbc:postgresql://localhost:5432/authdb?user=postgres&amp;password=postgres \
+ *   --billing-url jdbc:h2:file:../billing-service/data/billing-db;USER=sa"
+ * </pre>
+ * The same {@code --seed} always produces the same rows, so {@code --from 1m --rows 10m} grows a 1M dataset
+ * into the 10M one. Any database URL left out is skipped.
+ */
+public class DatasetSeeder {
+
+  private static final Map<String, String> DEFAULTS = Map.ofEntries(
+    Map.entry("rows", "1m"),
+    Map.entry("from", "0"),
+    Map.entry("seed", "42"),
+    Map.entry("threads", Integer.toString(Runtime.getRuntime().availableProcessors())),
+    Map.entry("chunk-size", "100k"),
+    Map.entry("method", "auto"),
+    Map.entry("rows-per-statement", "500"),
+    Map.entry("patients-url", ""),
+    Map.entry("auth-url", ""),
+    Map.entry("billing-url", "")
+  );
+
+  private final Map<SeedTable, String> urls;
+  private final PatientGenerator generator;
+  private final long from;
+  private final long to;
+  private final int threads;
+  private final long chunkSize;
+  private final String method;
+  private final int rowsPerStatement;
+
+  public DatasetSeeder(Map<SeedTable, String> urls, long seed, long from, long to, int threads, long chunkSize, String method,
+                       int rowsPerStatement) {
+    this.urls = urls;
+    this.generator = new PatientGenerator(seed);
+    this.from = from;
+    this.to = to;
+    this.threads = threads;
+    this.chunkSize = chunkSize;
+    this.method = method;
+    this.rowsPerStatement = rowsPerStatement;
+  }
+
+  public void run() throws SQLException, InterruptedException {
+    Map<SeedTable, AtomicLong> written = new EnumMap<>(SeedTable.class);
+    for (Map.Entry<SeedTable, String> target : urls.entrySet()) {
+      try (Connection connection = DriverManager.getConnection(target.getValue());
+           Statement statement = connection.createStatement()) {
+        statement.execute(target.getKey().ddl());
+      }
+      written.put(target.getKey(), new AtomicLong());
+    }
+
+    long startNanos = System.nanoTime();
+    ExecutorService pool = Executors.newFixedThreadPool(threads);
+    List<Future<?>> chunks = new ArrayList<>();
+    for (long start = from; start < to; start += chunkSize) {
+      long chunkStart = start;
+      long chunkEnd = Math.min(to, chunkStart + chunkSize);
+      for (SeedTable table : urls.keySet()) {
+        chunks.add(pool.submit(() -> {
+          writeChunk(table, chunkStart, chunkEnd);
+          written.get(table).addAndGet(chunkEnd - chunkStart);
+          return null;
+        }));
+      }
+    }
+    pool.shutdown();
+
+    try {
+      while (!pool.awaitTermination(5, TimeUnit.SECONDS)) {
+        printProgress(written, startNanos);
+        for (Future<?> chunk : chunks) {
+          if (chunk.isDone()) {
+            chunk.get();
+          }
+        }
+      }
+      for (Future<?> chunk : chunks) {
+        chunk.get();
+      }
+    }
+    catch (ExecutionException e) {
+      pool.shutdownNow();
+      if (e.getCause() instanceof SQLException sql) {
+        throw sql;
+      }
+      throw new IllegalStateException(e.getCause());
+    }
+    printProgress(written, startNanos);
+
+    for (Map.Entry<SeedTable, String> target : urls.entrySet()) {
+      if (isPostgres(target.getValue())) {
+        try (Connection connection = DriverManager.getConnection(target.getValue());
+             Statement statement = connection.createStatement()) {
+          // fresh statistics, so the first queries against the new rows get sensible plans
+          statement.execute("ANALYZE " + target.getKey().table());
+        }
+      }
+    }
+  }
+
+  private void writeChunk(SeedTable table, long chunkStart, long chunkEnd) throws SQLException {
+    String url = urls.get(table);
+    try (Connection connection = DriverManager.getConnection(url)) {
+      connection.setAutoCommit(false);
+      try {
+        writer(url).write(connection, table, generator, chunkStart, chunkEnd);
+        connection.commit();
+      }
+      catch (SQLException | RuntimeException e) {
+        connection.rollback();
+        throw new SQLException("Writing rows [" + chunkStart + ", " + chunkEnd + ") of " + table.table() + " failed; "
+                               + "earlier chunks are committed", e);
+      }
+    }
+  }
+
+  private TableWriter writer(String url) {
+    boolean copy = switch (method) {
+      case "copy" -> true;
+      case "insert" -> false;
+      default -> isPostgres(url);
+    };
+    return copy ? new CopyTableWriter() : new InsertTableWriter(rowsPerStatement);
+  }
+
+  private void printProgress(Map<SeedTable, AtomicLong> written, long startNanos) {
+    double seconds = (System.nanoTime() - startNanos) / 1e9;
+    StringBuilder line = new StringBuilder(String.format("%7.1fs", seconds));
+    written.forEach((table, rows) -> line.append(String.format("  %s %,d/%,d (%,.0f rows/s)", table.table(), rows.get(),
+                                                               to - from, rows.get() / Math.max(seconds, 1e-9))));
+    System.out.println(line);
+  }
+
+  private static boolean isPostgres(String url) {
+    return url.startsWith("jdbc:postgresql:");
+  }
+
+  static long parseCount(String value) {
+    String trimmed = value.trim().toLowerCase();
+    long multiplier = 1;
+    if (trimmed.endsWith("k")) {
+      multiplier = 1_000;
+    }
+    else if (trimmed.endsWith("m")) {
+      multiplier = 1_000_000;
+    }
+    if (multiplier > 1) {
+      trimmed = trimmed.substring(0, trimmed.length() - 1);
+    }
+    return Math.round(Double.parseDouble(trimmed) * multiplier);
+  }
+
+  public static void main(String[] args) throws SQLException, InterruptedException {
+    Map<String, String> values = new HashMap<>(DEFAULTS);
+    for (int i = 0; i < args.length; i += 2) {
+      String name = args[i].startsWith("--") ? args[i].substring(2) : "";
+      if (!DEFAULTS.containsKey(name) || i + 1 >= args.length) {
+        throw new IllegalArgumentException("Expected --<option> <value> with one of " + DEFAULTS.keySet() + " but got '" + args[i] + "'");
+      }
+      values.put(name, args[i + 1]);
+    }
+    if (!List.of("auto", "copy", "insert").contains(values.get("method"))) {
+      throw new IllegalArgumentException("--method must be auto, copy or insert");
+    }
+
+    Map<SeedTable, String> urls = new EnumMap<>(SeedTable.class);
+    putIfSet(urls, SeedTable.PATIENT, values.get("patients-url"));
+    putIfSet(urls, SeedTable.USERS, values.get("auth-url"));
+    putIfSet(urls, SeedTable.BILLING_ACCOUNT, values.get("billing-url"));
+    if (urls.isEmpty()) {
+      throw new IllegalArgumentException("Nothing to seed: set at least one of --patients-url, --auth-url, --billing-url");
+    }
+
+    new DatasetSeeder(urls,
+                      Long.parseLong(values.get("seed")),
+                      parseCount(values.get("from")),
+                      parseCount(values.get("rows")),
+                      Integer.parseInt(values.get("threads")),
+                      parseCount(values.get("chunk-size")),
+                      values.get("method"),
+                      Integer.parseInt(values.get("rows-per-statement"))).run();
+  }
+
+  private static void putIfSet(Map<SeedTable, String> urls, SeedTable table, String url) {
+    if (!url.isBlank()) {
+      urls.put(table, url);
+    }
+  }
+}
@@ -0,0 +1,100 @@
+package com.pm.seed;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Deterministic patients: row {@code index} depends only on the seed and the index, so any range can be
+ * generated by any thread, in any order, and always comes out the same.
+ *
+ * <p>Emails embed the index and are therefore unique. Patient ids are UUIDv7 whose timestamp counts up with
+ * the index from {@link #ID_EPOCH}, so, as with ids from patient-service, rows inserted in index order append
+ * to the primary key index. Registration dates spread over 2015-2025 and dates of birth over ages 0-95 at
+ * registration.
+ */
+public class PatientGenerator {
+
+  static final Instant ID_EPOCH = Instant.parse("2015-01-01T00:00:00Z");
+  private static final LocalDate FIRST_REGISTRATION = LocalDate.of(2015, 1, 1);
+  private static final int REGISTRATION_DAYS = 11 * 365;
+
+  private static final String[] FIRST_NAMES = {
+    "James", "Mary", "Robert", "Patricia", "John", "Jennifer", "Michael", "Linda", "David", "Elizabeth",
+    "William", "Barbara", "Richard", "Susan", "Joseph", "Jessica", "Thomas", "Sarah", "Charles", "Karen",
+    "Christopher", "Lisa", "Daniel", "Nancy", "Matthew", "Betty", "Anthony", "Sandra", "Mark", "Margaret",
+    "Donald", "Ashley", "Steven", "Kimberly", "Andrew", "Emily", "Paul", "Donna", "Joshua", "Michelle",
+    "Kenneth", "Carol", "Kevin", "Amanda", "Brian", "Melissa", "George", "Deborah", "Timothy", "Stephanie",
+    "Aisha", "Mohammed", "Wei", "Yuki", "Priya", "Carlos", "Sofia", "Olga", "Kwame", "Fatima"
+  };
+  private static final String[] LAST_NAMES = {
+    "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis", "Rodriguez", "Martinez",
+    "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson", "Thomas", "Taylor", "Moore", "Jackson", "Martin",
+    "Lee", "Perez", "Thompson", "White", "Harris", "Sanchez", "Clark", "Ramirez", "Lewis", "Robinson",
+    "Walker", "Young", "Allen", "King", "Wright", "Scott", "Torres", "Nguyen", "Hill", "Flores",
+    "Green", "Adams", "Nelson", "Baker", "Hall", "Rivera", "Campbell", "Mitchell", "Carter", "Roberts",
+    "Khan", "Chen", "Tanaka", "Patel", "Silva", "Rossi", "Ivanova", "Mensah", "Haddad", "O'Brien"
+  };
+  private static final String[] STREETS = {
+    "Main", "Oak", "Pine", "Maple", "Cedar", "Elm", "Washington", "Lake", "Hill", "Park",
+    "Sunset", "River", "Church", "Mill", "Highland", "Spring", "Meadow", "Forest", "Ridge", "Valley"
+  };
+  private static final String[] STREET_SUFFIXES = {"St", "Ave", "Rd", "Blvd", "Ln", "Dr", "Ct", "Way"};
+  private static final String[] CITIES = {
+    "Springfield", "Riverside", "Franklin", "Greenville", "Bristol", "Clinton", "Fairview", "Salem",
+    "Madison", "Georgetown", "Arlington", "Ashland", "Dover", "Oxford", "Jackson", "Burlington"
+  };
+  private static final String[] DOMAINS = {"example.com", "example.org", "example.net", "mail.example.com"};
+
+  private final long seed;
+
+  public PatientGenerator(long seed) {
+    this.seed = seed;
+  }
+
+  public SyntheticPatient generate(long index) {
+    SplittableRandom random = new SplittableRandom(mix(seed ^ mix(index)));
+
+    String first = pick(random, FIRST_NAMES);
+    String last = pick(random, LAST_NAMES);
+    String email = (first + "." + last).toLowerCase(Locale.ROOT).replace("'", "")
+                   + "." + Long.toString(index, 36) + "@" + pick(random, DOMAINS);
+    String address = (1 + random.nextInt(9_999)) + " " + pick(random, STREETS) + " " + pick(random, STREET_SUFFIXES)
+                     + ", " + pick(random, CITIES);
+
+    LocalDate registeredDate = FIRST_REGISTRATION.plusDays(random.nextInt(REGISTRATION_DAYS));
+    LocalDate dateOfBirth = registeredDate.minusYears(random.nextInt(96)).minusDays(random.nextInt(365));
+    Instant registeredAt = registeredDate.atStartOfDay(ZoneOffset.UTC).toInstant().plusSeconds(random.nextInt(86_400));
+
+    return new SyntheticPatient(timeOrderedId(index, random), first + " " + last, email, address, dateOfBirth,
+                                registeredDate, registeredAt, randomId(random), randomId(random));
+  }
+
+  // UUIDv7 layout, one millisecond per index
+  private static UUID timeOrderedId(long index, SplittableRandom random) {
+    long millis = ID_EPOCH.toEpochMilli() + index;
+    long msb = millis << 16 | 0x7000L | random.nextInt(0x1000);
+    long lsb = random.nextLong() & 0x3FFFFFFFFFFFFFFFL | 0x8000000000000000L;
+    return new UUID(msb, lsb);
+  }
+
+  private static UUID randomId(SplittableRandom random) {
+    long msb = random.nextLong() & ~0xF000L | 0x4000L;
+    long lsb = random.nextLong() & 0x3FFFFFFFFFFFFFFFL | 0x8000000000000000L;
+    return new UUID(msb, lsb);
+  }
+
+  private static String pick(SplittableRandom random, String[] values) {
+    return values[random.nextInt(values.length)];
+  }
+
+  // splitmix64 finalizer, so neighbouring indexes get unrelated streams
+  private static long mix(long z) {
+    z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+    z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+    return z ^ (z >>> 31);
+  }
+}
@@ -0,0 +1,77 @@
+package com.pm.seed;
+
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * The tables the seeder fills, one per service database. The DDL matches what each service creates itself
+ * (data.sql or Hibernate), so seeding an empty database works too.
+ */
+public enum SeedTable {
+
+  PATIENT("patient", List.of("id", "name", "email", "address", "date_of_birth", "registered_date"),
+          """
+          CREATE TABLE IF NOT EXISTS patient (
+              id UUID PRIMARY KEY,
+              name VARCHAR(255) NOT NULL,
+              email VARCHAR(255) UNIQUE NOT NULL,
+              address VARCHAR(255) NOT NULL,
+              date_of_birth DATE NOT NULL,
+              registered_date DATE NOT NULL)
+          """),
+
+  USERS("\"users\"", List.of("id", "email", "password", "role"),
+        """
+        CREATE TABLE IF NOT EXISTS "users" (
+            id UUID PRIMARY KEY,
+            email VARCHAR(255) UNIQUE NOT NULL,
+            password VARCHAR(255) NOT NULL,
+            role VARCHAR(50) NOT NULL)
+        """),
+
+  BILLING_ACCOUNT("billing_account", List.of("id", "patient_id", "name", "email", "status", "created_at"),
+                  """
+                  CREATE TABLE IF NOT EXISTS billing_account (
+                      id UUID PRIMARY KEY,
+                      patient_id VARCHAR(255) UNIQUE NOT NULL,
+                      name VARCHAR(255) NOT NULL,
+                      email VARCHAR(255) NOT NULL,
+                      status VARCHAR(255) NOT NULL,
+                      created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL)
+                  """);
+
+  // BCrypt of "password123", the same as the seeded test user; hashing millions of passwords would take hours
+  static final String PASSWORD_HASH = "$2b$12$7hoRZfJrRKD2nIm2vHLs7OBETy.LWenXXMLKf99W8M4PUwO6KB7fu";
+
+  private final String table;
+  private final List<String> columns;
+  private final String ddl;
+
+  SeedTable(String table, List<String> columns, String ddl) {
+    this.table = table;
+    this.columns = columns;
+    this.ddl = ddl;
+  }
+
+  public String table() {
+    return table;
+  }
+
+  public List<String> columns() {
+    return columns;
+  }
+
+  public String ddl() {
+    return ddl;
+  }
+
+  public Object[] values(SyntheticPatient patient) {
+    return switch (this) {
+      case PATIENT -> new Object[] {patient.id(), patient.name(), patient.email(), patient.address(),
+                                    patient.dateOfBirth(), patient.registeredDate()};
+      case USERS -> new Object[] {patient.userId(), patient.email(), PASSWORD_HASH, "USER"};
+      case BILLING_ACCOUNT -> new Object[] {patient.accountId(), patient.id().toString(), patient.name(), patient.email(),
+                                            "ACTIVE", patient.registeredAt().atOffset(ZoneOffset.UTC)};
+    };
+  }
+}
@@ -0,0 +1,19 @@
+package com.pm.seed;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * One generated patient plus the ids of its auth user and billing account.
+ */
+public record SyntheticPatient(UUID id,
+                               String name,
+                               String email,
+                               String address,
+                               LocalDate dateOfBirth,
+                               LocalDate registeredDate,
+                               Instant registeredAt,
+                               UUID userId,
+                               UUID accountId) {
+}
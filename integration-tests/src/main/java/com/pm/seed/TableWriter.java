@@ -0,0 +1,12 @@
+package com.pm.seed;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Writes a range of generated rows into one table over a connection the caller commits.
+ */
+public interface TableWriter {
+
+  void write(Connection connection, SeedTable table, PatientGenerator generator, long from, long to) throws SQLException;
+}
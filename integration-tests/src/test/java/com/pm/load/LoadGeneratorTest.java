@@ -0,0 +1,116 @@
+package com.pm.load;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Runs against an in-JVM stand-in for the gateway, so unlike the other tests here it needs no running stack.
+ */
+class LoadGeneratorTest {
+
+  @TempDir
+  Path reports;
+
+  private HttpServer gateway;
+  private final AtomicBoolean stalled = new AtomicBoolean();
+  private volatile long stallAfterNanos = Long.MAX_VALUE;
+
+  @BeforeEach
+  void startGateway() throws IOException {
+    gateway = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    gateway.createContext("/auth/login", exchange -> respond(exchange, 200, "{\"token\":\"t\"}"));
+    gateway.createContext("/api/patients", exchange -> {
+      // one half-second stall, during which every arrival queues behind it
+      if (System.nanoTime() > stallAfterNanos && stalled.compareAndSet(false, true)) {
+        sleep(500);
+      }
+      respond(exchange, exchange.getRequestMethod().equals("POST") ? 201 : 200,
+              "{\"id\":\"" + UUID.randomUUID() + "\"}");
+    });
+    // a single request thread, like a saturated service
+    gateway.setExecutor(Executors.newSingleThreadExecutor());
+    gateway.start();
+  }
+
+  @AfterEach
+  void stopGateway() {
+    gateway.stop(0);
+  }
+
+  @Test
+  void rampProfileIntegratesToTheExpectedArrivals() {
+    RampProfile profile = RampProfile.parse("ramp:0-100@2s+steps:10,20@1s");
+    assertEquals(4.0, profile.duration().toMillis() / 1000.0);
+    assertEquals(50.0, profile.rate(1.0), 1e-9);
+    assertEquals(20.0, profile.rate(3.5), 1e-9);
+
+    // 100 (ramp) + 10 + 20 arrivals when stepping one at a time
+    int arrivals = 0;
+    for (double t = profile.advance(0, 1); !Double.isInfinite(t); t = profile.advance(t, 1)) {
+      arrivals++;
+    }
+    assertEquals(130, arrivals, 1);
+  }
+
+  @Test
+  void keepsArrivingThroughAStallAndCountsTheQueueing() throws Exception {
+    LoadConfig config = LoadConfig.parse(new String[] {
+      "--base-url", "http://localhost:" + gateway.getAddress().getPort(),
+      "--profile", "constant:100@2s",
+      "--arrivals", "uniform",
+      "--mix", "list:1",
+      "--seed-patients", "0",
+      "--report-dir", reports.toString()
+    });
+    stallAfterNanos = System.nanoTime() + 500_000_000L;
+    LoadStats stats = new LoadGenerator(config).run();
+
+    Histogram responseTimes = stats.get(Operation.LIST).responseTimes();
+    // the open model does not slow down while the service is stuck
+    assertEquals(200, responseTimes.getTotalCount(), 1);
+    assertEquals(0, stats.get(Operation.LIST).errors());
+    assertTrue(responseTimes.getMaxValue() >= 450_000, "max " + responseTimes.getMaxValue());
+    // about a quarter of the requests were due during the stall and waited for it
+    assertTrue(responseTimes.getValueAtPercentile(90) >= 100_000, "p90 " + responseTimes.getValueAtPercentile(90));
+
+    Path html = new LoadReport(config, stats).write(reports);
+    assertTrue(Files.readString(html).contains("<td>list</td>"));
+    try (var files = Files.list(reports)) {
+      assertEquals(3, files.count()); // html, json, list .hgrm
+    }
+  }
+
+  private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+    exchange.getRequestBody().readAllBytes();
+    byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().set("Content-Type", "application/json");
+    exchange.sendResponseHeaders(status, bytes.length);
+    exchange.getResponseBody().write(bytes);
+    exchange.close();
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,88 @@
+package com.pm.load.standin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.protobuf.ByteString;
+import io.opentelemetry.proto.collector.trace.v1.ExportTraceServiceRequest;
+import io.opentelemetry.proto.common.v1.AnyValue;
+import io.opentelemetry.proto.common.v1.KeyValue;
+import io.opentelemetry.proto.resource.v1.Resource;
+import io.opentelemetry.proto.trace.v1.ResourceSpans;
+import io.opentelemetry.proto.trace.v1.ScopeSpans;
+import io.opentelemetry.proto.trace.v1.Span;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HexFormat;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TraceStandInTest {
+
+  @TempDir
+  Path directory;
+
+  @Test
+  void writesOneLinePerExportedSpan() throws Exception {
+    Path file = directory.resolve("traces.jsonl");
+    byte[] traceId = HexFormat.of().parseHex("4bf92f3577b34da6a3ce929d0e0e4736");
+    ExportTraceServiceRequest request = ExportTraceServiceRequest.newBuilder()
+      .addResourceSpans(ResourceSpans.newBuilder()
+        .setResource(Resource.newBuilder().addAttributes(attribute("service.name", "patient-service")))
+        .addScopeSpans(ScopeSpans.newBuilder()
+          .addSpans(span(traceId, "00f067aa0ba902b7", "", "http post /patients", 5_000_000))
+          .addSpans(span(traceId, "1111111111111111", "00f067aa0ba902b7", "BillingService/CreateBillingAccount", 2_000_000))))
+      .build();
+
+    try (TraceStandIn standIn = new TraceStandIn(0, file).start()) {
+      HttpResponse<Void> response = HttpClient.newHttpClient().send(
+        HttpRequest.newBuilder(URI.create("http://localhost:" + standIn.port() + "/v1/traces"))
+                   .header("Content-Type", "application/x-protobuf")
+                   .POST(HttpRequest.BodyPublishers.ofByteArray(request.toByteArray()))
+                   .build(),
+        HttpResponse.BodyHandlers.discarding());
+      assertEquals(200, response.statusCode());
+      assertEquals(2, standIn.spans());
+    }
+
+    ObjectMapper json = new ObjectMapper();
+    List<JsonNode> spans = Files.readAllLines(file).stream().map(line -> {
+      try {
+        return json.readTree(line);
+      }
+      catch (Exception e) {
+        throw new IllegalStateException(e);
+      }
+    }).toList();
+    assertEquals(2, spans.size());
+    JsonNode billing = spans.get(1);
+    assertEquals("4bf92f3577b34da6a3ce929d0e0e4736", billing.get("traceId").asText());
+    assertEquals("00f067aa0ba902b7", billing.get("parentSpanId").asText());
+    assertEquals("patient-service", billing.get("service").asText());
+    assertEquals(2000, billing.get("durationMicros").asLong());
+    assertEquals("OK", billing.get("attributes").get("status").asText());
+  }
+
+  private static Span span(byte[] traceId, String spanId, String parentSpanId, String name, long durationNanos) {
+    long start = 1_700_000_000_000_000_000L;
+    return Span.newBuilder()
+               .setTraceId(ByteString.copyFrom(traceId))
+               .setSpanId(ByteString.copyFrom(HexFormat.of().parseHex(spanId)))
+               .setParentSpanId(ByteString.copyFrom(HexFormat.of().parseHex(parentSpanId)))
+               .setName(name)
+               .setStartTimeUnixNano(start)
+               .setEndTimeUnixNano(start + durationNanos)
+               .addAttributes(attribute("status", "OK"))
+               .build();
+  }
+
+  private static KeyValue attribute(String key, String value) {
+    return KeyValue.newBuilder().setKey(key).setValue(AnyValue.newBuilder().setStringValue(value)).build();
+  }
+}
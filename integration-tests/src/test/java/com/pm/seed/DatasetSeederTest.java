@@ -0,0 +1,86 @@
+package com.pm.seed;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class DatasetSeederTest {
+
+  @Test
+  void generatesTheSameUniquePlausiblePatientsFromASeed() {
+    PatientGenerator generator = new PatientGenerator(7);
+    assertEquals(generator.generate(12_345), new PatientGenerator(7).generate(12_345));
+    assertNotEquals(generator.generate(12_345), new PatientGenerator(8).generate(12_345));
+
+    Set<String> emails = new HashSet<>();
+    Set<UUID> ids = new HashSet<>();
+    UUID previous = null;
+    for (long index = 0; index < 100_000; index++) {
+      SyntheticPatient patient = generator.generate(index);
+      assertTrue(emails.add(patient.email()), patient.email());
+      assertTrue(ids.add(patient.id()));
+      assertTrue(patient.email().matches("[a-z]+\\.[a-z]+\\.[0-9a-z]+@[a-z.]+"), patient.email());
+      assertTrue(!patient.dateOfBirth().isAfter(patient.registeredDate()));
+      // time-ordered ids, so index order is primary key order
+      if (previous != null) {
+        assertTrue(patient.id().getMostSignificantBits() > previous.getMostSignificantBits());
+      }
+      assertEquals(7, patient.id().version());
+      previous = patient.id();
+    }
+  }
+
+  @Test
+  void copyRowsAreQuotedCsv() {
+    StringBuilder row = new StringBuilder();
+    CopyTableWriter.appendRow(row, new Object[] {"Kwame O'Brien", "12 \"Old\" Mill Rd, Salem", 3});
+    assertEquals("\"Kwame O'Brien\",\"12 \"\"Old\"\" Mill Rd, Salem\",\"3\"\n", row.toString());
+  }
+
+  @Test
+  void seedsEveryDatabaseInParallelChunksAndCanGrowARange() throws Exception {
+    Map<SeedTable, String> urls = new EnumMap<>(SeedTable.class);
+    urls.put(SeedTable.PATIENT, "jdbc:h2:mem:seed-patients;DB_CLOSE_DELAY=-1");
+    urls.put(SeedTable.USERS, "jdbc:h2:mem:seed-auth;DB_CLOSE_DELAY=-1");
+    urls.put(SeedTable.BILLING_ACCOUNT, "jdbc:h2:mem:seed-billing;DB_CLOSE_DELAY=-1");
+
+    new DatasetSeeder(urls, 42, 0, 5_000, 3, 1_000, "auto", 300).run();
+    new DatasetSeeder(urls, 42, 5_000, 7_500, 3, 1_000, "auto", 300).run();
+
+    for (String url : urls.values()) {
+      assertEquals(7_500, count(url, "SELECT COUNT(*) FROM " + tableOf(urls, url)));
+    }
+    SyntheticPatient expected = new PatientGenerator(42).generate(6_001);
+    assertEquals(1, count(urls.get(SeedTable.PATIENT),
+                          "SELECT COUNT(*) FROM patient WHERE id = '" + expected.id() + "' AND email = '" + expected.email()
+                          + "' AND date_of_birth = DATE '" + expected.dateOfBirth() + "'"));
+    assertEquals(1, count(urls.get(SeedTable.USERS), "SELECT COUNT(*) FROM \"users\" WHERE email = '" + expected.email() + "'"));
+    assertEquals(1, count(urls.get(SeedTable.BILLING_ACCOUNT),
+                          "SELECT COUNT(*) FROM billing_account WHERE patient_id = '" + expected.id() + "'"));
+  }
+
+  private static String tableOf(Map<SeedTable, String> urls, String url) {
+    return urls.entrySet().stream().filter(entry -> entry.getValue().equals(url)).findFirst().orElseThrow().getKey().table();
+  }
+
+  private static long count(String url, String sql) throws SQLException {
+    try (Connection connection = DriverManager.getConnection(url);
+         Statement statement = connection.createStatement();
+         ResultSet result = statement.executeQuery(sql)) {
+      result.next();
+      return result.getLong(1);
+    }
+  }
+}
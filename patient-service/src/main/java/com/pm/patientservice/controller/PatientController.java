@@ -12,6 +12,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 
@@ -22,6 +23,9 @@ import java.util.UUID;
   description = "API for managing patients"
 )
 public class PatientController {
+  // set when the response was served by the in-memory read model: newest change it is known to contain
+  public static final String WATERMARK_HEADER = "X-Read-Model-Watermark";
+  
   private final PatientService patientService;
   
   public PatientController(PatientService patientService) {
@@ -32,7 +36,22 @@ public class PatientController {
   @Operation(summary = "Get all patients")
   public ResponseEntity<List<PatientResponseDTO>> findAll() {
     List<PatientResponseDTO> patients = patientService.getPatients();
-    return ResponseEntity.ok().body(patients);
+    return okWithWatermark().body(patients);
+  }
+  
+  @GetMapping("/{id}")
+  @Operation(summary = "Get a patient by ID")
+  public ResponseEntity<PatientResponseDTO> findById(@PathVariable("id") UUID id) {
+    PatientResponseDTO patient = patientService.getPatient(id);
+    return okWithWatermark().body(patient);
+  }
+  
+  @GetMapping("/search")
+  @Operation(summary = "Search patients by name or email")
+  public ResponseEntity<List<PatientResponseDTO>> search(@RequestParam("q") String query,
+                                                         @RequestParam(name = "limit", defaultValue = "50") int limit) {
+    List<PatientResponseDTO> patients = patientService.searchPatients(query, Math.min(limit, 500));
+    return okWithWatermark().body(patients);
   }
   
   @PostMapping
@@ -58,4 +77,13 @@ public class PatientController {
     patientService.deletePatient(id);
     return ResponseEntity.noContent().build();
   }
+  
+  private ResponseEntity.BodyBuilder okWithWatermark() {
+    ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+    Instant watermark = patientService.getReadModelWatermark();
+    if (watermark != null) {
+      response.header(WATERMARK_HEADER, watermark.toString());
+    }
+    return response;
+  }
 }
@@ -0,0 +1,60 @@
+package com.pm.patientservice.controller;
+
+import com.pm.patientservice.dto.ExportJobResponseDTO;
+import com.pm.patientservice.export.ExportFormat;
+import com.pm.patientservice.export.ExportJob;
+import com.pm.patientservice.export.PatientExportService;
+import com.pm.patientservice.mapper.ExportJobMapper;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.io.IOException;
+import java.util.UUID;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@RestController
+@RequestMapping("/patients/export")
+@Tag(
+  name = "Patient export",
+  description = "Streaming exports of the full patient table"
+)
+public class PatientExportController {
+  private final PatientExportService patientExportService;
+  
+  public PatientExportController(PatientExportService patientExportService) {
+    this.patientExportService = patientExportService;
+  }
+  
+  @GetMapping
+  @Operation(summary = "Stream all patients as CSV or columnar file")
+  public ResponseEntity<StreamingResponseBody> export(
+    @RequestParam(name = "format", defaultValue = "CSV") ExportFormat format,
+    @RequestParam(name = "gzip", defaultValue = "false") boolean gzip) {
+    ExportJob job = patientExportService.newJob(format, null);
+    StreamingResponseBody body = out -> patientExportService.export(job, gzip, out);
+    String fileName = "patients" + format.getExtension() + (gzip ? ".gz" : "");
+    return ResponseEntity.ok()
+                         .header(HttpHeaders.CONTENT_TYPE, gzip ? "application/gzip" : format.getContentType())
+                         .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                         .header("X-Export-Job-Id", job.getId().toString())
+                         .body(body);
+  }
+  
+  @PostMapping("/jobs")
+  @Operation(summary = "Export all patients to a local file in the background")
+  public ResponseEntity<ExportJobResponseDTO> startExportJob(
+    @RequestParam(name = "format", defaultValue = "CSV") ExportFormat format,
+    @RequestParam(name = "gzip", defaultValue = "true") boolean gzip) throws IOException {
+    ExportJob job = patientExportService.startFileExport(format, gzip);
+    return ResponseEntity.status(HttpStatus.ACCEPTED).body(ExportJobMapper.toDTO(job));
+  }
+  
+  @GetMapping("/jobs/{id}")
+  @Operation(summary = "Get the progress of an export")
+  public ResponseEntity<ExportJobResponseDTO> getExportJob(@PathVariable("id") UUID id) {
+    return ResponseEntity.ok().body(ExportJobMapper.toDTO(patientExportService.getJob(id)));
+  }
+}
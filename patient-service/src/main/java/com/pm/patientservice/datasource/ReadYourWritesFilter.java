@@ -0,0 +1,39 @@
+package com.pm.patientservice.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+// Identifies the client session by X-Session-Id, or by the bearer token the gateway forwards
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+  public static final String SESSION_HEADER = "X-Session-Id";
+
+  private final ReadYourWritesTracker tracker;
+
+  public ReadYourWritesFilter(ReadYourWritesTracker tracker) {
+    this.tracker = tracker;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+    throws ServletException, IOException {
+    String session = request.getHeader(SESSION_HEADER);
+    if (session == null) {
+      String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+      // only a hash is kept; a collision just sends someone else's reads to the primary for a few seconds
+      session = authorization == null ? null : Integer.toHexString(authorization.hashCode());
+    }
+    tracker.bind(session);
+    try {
+      filterChain.doFilter(request, response);
+    }
+    finally {
+      tracker.clear();
+    }
+  }
+}
@@ -0,0 +1,70 @@
+package com.pm.patientservice.datasource;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers which client sessions committed a write recently, so their reads skip the replicas until
+ * replication has had time to catch up. The session is bound to the request thread by
+ * {@link ReadYourWritesFilter}.
+ */
+public class ReadYourWritesTracker {
+
+  private static final int CLEANUP_THRESHOLD = 10_000;
+
+  private final long windowNanos;
+  private final Map<String, Long> lastWriteBySession = new ConcurrentHashMap<>();
+  private final ThreadLocal<Session> currentSession = new ThreadLocal<>();
+
+  public ReadYourWritesTracker(Duration window) {
+    this.windowNanos = window.toNanos();
+  }
+
+  public void bind(String sessionKey) {
+    currentSession.set(new Session(sessionKey));
+  }
+
+  public void clear() {
+    currentSession.remove();
+  }
+
+  public void markWritten() {
+    Session session = currentSession.get();
+    if (session == null) {
+      return;
+    }
+    session.wrote = true;
+    if (session.key != null) {
+      long now = System.nanoTime();
+      lastWriteBySession.put(session.key, now);
+      if (lastWriteBySession.size() > CLEANUP_THRESHOLD) {
+        lastWriteBySession.values().removeIf(writtenAt -> now - writtenAt > windowNanos);
+      }
+    }
+  }
+
+  public boolean mustReadFromPrimary() {
+    Session session = currentSession.get();
+    if (session == null) {
+      return false;
+    }
+    if (session.wrote) {
+      return true;
+    }
+    if (session.key == null) {
+      return false;
+    }
+    Long writtenAt = lastWriteBySession.get(session.key);
+    return writtenAt != null && System.nanoTime() - writtenAt < windowNanos;
+  }
+
+  private static final class Session {
+    private final String key;
+    private boolean wrote;
+
+    private Session(String key) {
+      this.key = key;
+    }
+  }
+}
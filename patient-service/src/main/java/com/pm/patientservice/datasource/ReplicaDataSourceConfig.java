@@ -0,0 +1,71 @@
+package com.pm.patientservice.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * Replaces the auto-configured DataSource with primary + replica pools when
+ * {@code patient.datasource.routing.enabled=true}. Any second database works as a "replica" locally.
+ */
+@Configuration
+@ConditionalOnProperty(
+  name = "patient.datasource.routing.enabled",
+  havingValue = "true"
+)
+@EnableConfigurationProperties({DataSourceProperties.class, ReplicaDataSourceProperties.class})
+public class ReplicaDataSourceConfig {
+
+  @Bean
+  @ConfigurationProperties("spring.datasource.hikari")
+  public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+    HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    dataSource.setPoolName("primary");
+    return dataSource;
+  }
+
+  @Bean
+  public ReadYourWritesTracker readYourWritesTracker(ReplicaDataSourceProperties properties) {
+    return new ReadYourWritesTracker(properties.getReadYourWritesWindow());
+  }
+
+  @Bean
+  public ReadYourWritesFilter readYourWritesFilter(ReadYourWritesTracker tracker) {
+    return new ReadYourWritesFilter(tracker);
+  }
+
+  @Bean
+  public ReplicaRoutingDataSource routingDataSource(HikariDataSource primaryDataSource,
+                                                    ReplicaDataSourceProperties properties,
+                                                    ReadYourWritesTracker tracker) {
+    List<DataSource> replicas = new ArrayList<>();
+    for (ReplicaDataSourceProperties.Replica replica : properties.getReplicas()) {
+      HikariDataSource dataSource = new HikariDataSource();
+      dataSource.setPoolName("replica-" + replicas.size());
+      dataSource.setJdbcUrl(replica.getUrl());
+      dataSource.setUsername(replica.getUsername());
+      dataSource.setPassword(replica.getPassword());
+      dataSource.setMaximumPoolSize(replica.getMaximumPoolSize());
+      dataSource.setReadOnly(true);
+      // a replica that is down at startup must not stop the service, the health check picks it up later
+      dataSource.setInitializationFailTimeout(-1);
+      replicas.add(dataSource);
+    }
+    return new ReplicaRoutingDataSource(primaryDataSource, replicas, tracker, properties.getHealthCheckInterval());
+  }
+
+  @Bean
+  @Primary
+  public DataSource dataSource(ReplicaRoutingDataSource routingDataSource) {
+    return new LazyConnectionDataSourceProxy(routingDataSource);
+  }
+}
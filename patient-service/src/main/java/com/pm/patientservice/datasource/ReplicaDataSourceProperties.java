@@ -0,0 +1,80 @@
+package com.pm.patientservice.datasource;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "patient.datasource")
+public class ReplicaDataSourceProperties {
+  
+  // how long a session keeps reading from the primary after it wrote, should exceed the usual replica lag
+  private Duration readYourWritesWindow = Duration.ofSeconds(5);
+  
+  private Duration healthCheckInterval = Duration.ofSeconds(5);
+  
+  private List<Replica> replicas = new ArrayList<>();
+  
+  public Duration getReadYourWritesWindow() {
+    return readYourWritesWindow;
+  }
+  
+  public void setReadYourWritesWindow(Duration readYourWritesWindow) {
+    this.readYourWritesWindow = readYourWritesWindow;
+  }
+  
+  public Duration getHealthCheckInterval() {
+    return healthCheckInterval;
+  }
+  
+  public void setHealthCheckInterval(Duration healthCheckInterval) {
+    this.healthCheckInterval = healthCheckInterval;
+  }
+  
+  public List<Replica> getReplicas() {
+    return replicas;
+  }
+  
+  public void setReplicas(List<Replica> replicas) {
+    this.replicas = replicas;
+  }
+  
+  public static class Replica {
+    private String url;
+    private String username;
+    private String password;
+    private int maximumPoolSize = 10;
+    
+    public String getUrl() {
+      return url;
+    }
+    
+    public void setUrl(String url) {
+      this.url = url;
+    }
+    
+    public String getUsername() {
+      return username;
+    }
+    
+    public void setUsername(String username) {
+      this.username = username;
+    }
+    
+    public String getPassword() {
+      return password;
+    }
+    
+    public void setPassword(String password) {
+      this.password = password;
+    }
+    
+    public int getMaximumPoolSize() {
+      return maximumPoolSize;
+    }
+    
+    public void setMaximumPoolSize(int maximumPoolSize) {
+      this.maximumPoolSize = maximumPoolSize;
+    }
+  }
+}
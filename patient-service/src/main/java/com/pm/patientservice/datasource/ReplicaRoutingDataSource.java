@@ -0,0 +1,197 @@
+package com.pm.patientservice.datasource;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends read-only transactions to a healthy replica (round robin) and everything else to the primary.
+ * Must sit behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: the
+ * transaction's read-only flag is only set after the transaction manager asked for a connection.
+ * <p>
+ * A read-write transaction counts as a write for {@link ReadYourWritesTracker} only if it committed and ran
+ * a statement other than a SELECT, so a check that must see the primary (existsByEmail) does not pin the
+ * session to the primary as well.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+  private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+  private static final String PRIMARY = "primary";
+
+  private final DataSource primary;
+  private final List<Replica> replicas;
+  private final ReadYourWritesTracker tracker;
+  private final AtomicInteger nextReplica = new AtomicInteger();
+  private final ScheduledExecutorService healthChecker;
+
+  public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicaDataSources,
+                                  ReadYourWritesTracker tracker, Duration healthCheckInterval) {
+    this.primary = primary;
+    this.replicas = replicaDataSources.stream().map(Replica::new).toList();
+    this.tracker = tracker;
+
+    Map<Object, Object> targets = new HashMap<>();
+    targets.put(PRIMARY, primary);
+    for (int i = 0; i < replicas.size(); i++) {
+      targets.put(i, replicas.get(i).dataSource);
+    }
+    setTargetDataSources(targets);
+    setDefaultTargetDataSource(primary);
+
+    this.healthChecker = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread thread = new Thread(r, "replica-health-check");
+      thread.setDaemon(true);
+      return thread;
+    });
+    healthChecker.scheduleWithFixedDelay(this::checkReplicas, healthCheckInterval.toMillis(),
+      healthCheckInterval.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  protected Object determineCurrentLookupKey() {
+    if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+      return PRIMARY;
+    }
+    if (tracker.mustReadFromPrimary()) {
+      return PRIMARY;
+    }
+    for (int attempt = 0; attempt < replicas.size(); attempt++) {
+      int index = Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+      if (replicas.get(index).healthy) {
+        return index;
+      }
+    }
+    return PRIMARY;
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    DataSource target = determineTargetDataSource();
+    if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+      && TransactionSynchronizationManager.isSynchronizationActive()) {
+      return trackingWrites(target.getConnection());
+    }
+    try {
+      return target.getConnection();
+    }
+    catch (SQLException e) {
+      if (target == primary) {
+        throw e;
+      }
+      markUnhealthy(target, e);
+      return primary.getConnection();
+    }
+  }
+
+  // Marks the session written after commit if the connection ran anything but a query
+  private Connection trackingWrites(Connection connection) {
+    WriteTracking tracking = new WriteTracking();
+    TransactionSynchronizationManager.registerSynchronization(tracking);
+    return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+      (proxy, method, args) -> {
+        // prepareStatement and prepareCall see their SQL up front, a plain Statement only when it executes
+        if (method.getName().startsWith("prepare")) {
+          tracking.ran((String) args[0]);
+        }
+        Object result = invoke(connection, method, args);
+        if (result instanceof Statement statement && method.getName().equals("createStatement")) {
+          return Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[] {Statement.class},
+            (statementProxy, statementMethod, statementArgs) -> {
+              if ((statementMethod.getName().startsWith("execute") || statementMethod.getName().equals("addBatch"))
+                && statementArgs != null && statementArgs[0] instanceof String sql) {
+                tracking.ran(sql);
+              }
+              return invoke(statement, statementMethod, statementArgs);
+            });
+        }
+        return result;
+      });
+  }
+
+  private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+    try {
+      return method.invoke(target, args);
+    }
+    catch (InvocationTargetException e) {
+      throw e.getCause();
+    }
+  }
+
+  private void markUnhealthy(DataSource dataSource, SQLException e) {
+    for (Replica replica : replicas) {
+      if (replica.dataSource == dataSource && replica.healthy) {
+        replica.healthy = false;
+        log.warn("Replica marked unhealthy, reading from primary until it recovers: {}", e.getMessage());
+      }
+    }
+  }
+
+  private void checkReplicas() {
+    for (Replica replica : replicas) {
+      boolean healthy;
+      try (Connection connection = replica.dataSource.getConnection()) {
+        healthy = connection.isValid(2);
+      }
+      catch (SQLException e) {
+        healthy = false;
+      }
+      if (healthy != replica.healthy) {
+        log.info("Replica {} is now {}", replicas.indexOf(replica), healthy ? "healthy" : "unhealthy");
+        replica.healthy = healthy;
+      }
+    }
+  }
+
+  @Override
+  public void close() throws Exception {
+    healthChecker.shutdownNow();
+    for (Replica replica : replicas) {
+      if (replica.dataSource instanceof AutoCloseable closeable) {
+        closeable.close();
+      }
+    }
+  }
+
+  private final class WriteTracking implements TransactionSynchronization {
+    private volatile boolean wrote;
+
+    private void ran(String sql) {
+      if (!sql.stripLeading().regionMatches(true, 0, "select", 0, 6)) {
+        wrote = true;
+      }
+    }
+
+    @Override
+    public void afterCommit() {
+      if (wrote) {
+        tracker.markWritten();
+      }
+    }
+  }
+
+  private static final class Replica {
+    private final DataSource dataSource;
+    private volatile boolean healthy = true;
+
+    private Replica(DataSource dataSource) {
+      this.dataSource = dataSource;
+    }
+  }
+}
@@ -0,0 +1,76 @@
+package com.pm.patientservice.dto;
+
+public class ExportJobResponseDTO {
+  private String id;
+  private String status;
+  private String format;
+  private String file;
+  private long rowsWritten;
+  private long totalRows;
+  private long rowsPerSecond;
+  private String error;
+  
+  public String getId() {
+    return id;
+  }
+  
+  public void setId(String id) {
+    this.id = id;
+  }
+  
+  public String getStatus() {
+    return status;
+  }
+  
+  public void setStatus(String status) {
+    this.status = status;
+  }
+  
+  public String getFormat() {
+    return format;
+  }
+  
+  public void setFormat(String format) {
+    this.format = format;
+  }
+  
+  public String getFile() {
+    return file;
+  }
+  
+  public void setFile(String file) {
+    this.file = file;
+  }
+  
+  public long getRowsWritten() {
+    return rowsWritten;
+  }
+  
+  public void setRowsWritten(long rowsWritten) {
+    this.rowsWritten = rowsWritten;
+  }
+  
+  public long getTotalRows() {
+    return totalRows;
+  }
+  
+  public void setTotalRows(long totalRows) {
+    this.totalRows = totalRows;
+  }
+  
+  public long getRowsPerSecond() {
+    return rowsPerSecond;
+  }
+  
+  public void setRowsPerSecond(long rowsPerSecond) {
+    this.rowsPerSecond = rowsPerSecond;
+  }
+  
+  public String getError() {
+    return error;
+  }
+  
+  public void setError(String error) {
+    this.error = error;
+  }
+}
@@ -0,0 +1,123 @@
+package com.pm.patientservice.emailfilter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Instant;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Every email in the patient table, as a Bloom filter: loaded at startup, then kept current from local writes
+ * and the "patient" topic. When it says an email is definitely new the existsByEmail round trip is skipped;
+ * the unique constraint still decides, so an email this instance has not heard of yet costs a failed insert,
+ * never a duplicate.
+ * <p>
+ * Emails of deleted or changed patients stay in the filter and only show up as false positives, which fall
+ * back to the database check. A restart clears them.
+ */
+@Component
+@ConditionalOnProperty(
+  name = "patient.email-filter.enabled",
+  havingValue = "true"
+)
+public class KnownEmails {
+
+  private static final Logger log = LoggerFactory.getLogger(KnownEmails.class);
+  private static final String LOAD_QUERY = "SELECT email FROM patient";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final ScalableBloomFilter filter;
+  private final Instant createdAt = Instant.now();
+  private final Counter skipped;
+  private final Counter taken;
+  private final Counter falsePositives;
+  private final Counter missed;
+  private volatile boolean ready;
+
+  public KnownEmails(DataSource dataSource,
+                     PlatformTransactionManager transactionManager,
+                     MeterRegistry meterRegistry,
+                     @Value("${patient.email-filter.fetch-size:1000}") int fetchSize,
+                     @Value("${patient.email-filter.initial-capacity:100000}") int initialCapacity,
+                     @Value("${patient.email-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+    this.jdbcTemplate = new JdbcTemplate(dataSource);
+    this.jdbcTemplate.setFetchSize(fetchSize);
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.transactionTemplate.setReadOnly(true);
+    this.filter = new ScalableBloomFilter(initialCapacity, falsePositiveRate);
+
+    // skipped is the number of database round trips saved
+    this.skipped = outcome(meterRegistry, "skipped");
+    this.taken = outcome(meterRegistry, "taken");
+    this.falsePositives = outcome(meterRegistry, "false-positive");
+    this.missed = outcome(meterRegistry, "missed");
+    Gauge.builder("patient.email-filter.size", filter, ScalableBloomFilter::size).register(meterRegistry);
+    Gauge.builder("patient.email-filter.bytes", filter, ScalableBloomFilter::bytes)
+         .baseUnit("bytes")
+         .register(meterRegistry);
+    Gauge.builder("patient.email-filter.false-positive-rate", filter,
+                  ScalableBloomFilter::expectedFalsePositiveRate)
+         .register(meterRegistry);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void load() {
+    long start = System.nanoTime();
+    transactionTemplate.executeWithoutResult(status ->
+        jdbcTemplate.query(LOAD_QUERY, rs -> {
+          filter.add(rs.getString(1));
+        }));
+    ready = true;
+    log.info("Email filter loaded {} emails in {} ms ({} KiB, {} stages)", filter.size(),
+      (System.nanoTime() - start) / 1_000_000, filter.bytes() / 1024, filter.stageCount());
+  }
+
+  /**
+   * True only if no patient has this email. Until the load finishes nothing is definitely new.
+   */
+  public boolean isDefinitelyNew(String email) {
+    if (ready && !filter.mightContain(email)) {
+      skipped.increment();
+      return true;
+    }
+    return false;
+  }
+
+  // The outcome of the database check made because isDefinitelyNew said no
+  public void checked(boolean exists) {
+    (exists ? taken : falsePositives).increment();
+  }
+
+  // The unique constraint rejected an email that isDefinitelyNew had passed
+  public void missed() {
+    missed.increment();
+  }
+
+  // Events that arrive before or during the load are added straight away; adding is order-independent
+  public void add(String email) {
+    if (email != null && !email.isEmpty()) {
+      filter.add(email);
+    }
+  }
+
+  Instant getCreatedAt() {
+    return createdAt;
+  }
+
+  private static Counter outcome(MeterRegistry meterRegistry, String outcome) {
+    return Counter.builder("patient.email-filter.checks")
+                  .tag("outcome", outcome)
+                  .register(meterRegistry);
+  }
+}
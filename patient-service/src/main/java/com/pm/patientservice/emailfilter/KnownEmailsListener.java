@@ -0,0 +1,64 @@
+package com.pm.patientservice.emailfilter;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.pm.patientservice.kafka.KafkaProducer;
+import java.util.Map;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.stereotype.Component;
+import patient.events.PatientEvent;
+
+// Emails written by other instances; like the read model, each instance reads every partition by assignment
+@Component
+@ConditionalOnProperty(
+  name = "patient.email-filter.enabled",
+  havingValue = "true"
+)
+public class KnownEmailsListener implements ConsumerSeekAware {
+
+  private static final Logger log = LoggerFactory.getLogger(KnownEmailsListener.class);
+  private final KnownEmails knownEmails;
+  private final long replayMarginMillis;
+
+  public KnownEmailsListener(KnownEmails knownEmails,
+                             @Value("${patient.email-filter.replay-margin-ms:30000}") long replayMarginMillis) {
+    this.knownEmails = knownEmails;
+    this.replayMarginMillis = replayMarginMillis;
+  }
+
+  @Override
+  public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+    // start before the load query, so an email committed between it and this assignment is not missed
+    callback.seekToTimestamp(assignments.keySet(), knownEmails.getCreatedAt().toEpochMilli() - replayMarginMillis);
+  }
+
+  @KafkaListener(
+    groupId = "patient-email-filter",
+    topicPartitions = @org.springframework.kafka.annotation.TopicPartition(
+      topic = "patient",
+      partitions = "#{@patientTopicPartitions.ids()}"
+    ),
+    properties = {
+      "key.deserializer=org.apache.kafka.common.serialization.StringDeserializer",
+      "value.deserializer=org.apache.kafka.common.serialization.ByteArrayDeserializer",
+      "enable.auto.commit=false"
+    }
+  )
+  public void consumeEvent(ConsumerRecord<String, byte[]> record) {
+    try {
+      PatientEvent event = PatientEvent.parseFrom(record.value());
+      if (!KafkaProducer.PATIENT_DELETED.equals(event.getEventType())) {
+        knownEmails.add(event.getEmail());
+      }
+    }
+    catch (InvalidProtocolBufferException e) {
+      log.error("Error deserializing patient event: {}", e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,154 @@
+package com.pm.patientservice.emailfilter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter that grows with its contents. When the newest stage has taken its capacity, a stage twice
+ * as large with half the false-positive rate is added, so the overall rate stays below
+ * {@code falsePositiveRate} however many strings go in (each stage's share halves: p/2 + p/4 + ... < p).
+ * <p>
+ * {@link #mightContain} never misses a string that was added. Strings cannot be removed. Lookups take no
+ * lock and can run alongside {@link #add}.
+ */
+public class ScalableBloomFilter {
+
+  private static final double LN2 = Math.log(2);
+
+  private final double falsePositiveRate;
+  private volatile Stage[] stages;
+  private long size;
+
+  public ScalableBloomFilter(int initialCapacity, double falsePositiveRate) {
+    if (initialCapacity < 1 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+      throw new IllegalArgumentException("initialCapacity must be positive and falsePositiveRate in (0, 1)");
+    }
+    this.falsePositiveRate = falsePositiveRate;
+    this.stages = new Stage[] {new Stage(initialCapacity, falsePositiveRate / 2)};
+  }
+
+  public boolean mightContain(String value) {
+    long h1 = hash(value);
+    long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+    for (Stage stage : stages) {
+      if (stage.mightContain(h1, h2)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  public synchronized void add(String value) {
+    long h1 = hash(value);
+    long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+    Stage[] current = stages;
+    for (Stage stage : current) {
+      if (stage.mightContain(h1, h2)) {
+        return;
+      }
+    }
+    Stage newest = current[current.length - 1];
+    if (newest.count >= newest.capacity) {
+      newest = new Stage(Math.multiplyExact(newest.capacity, 2), newest.falsePositiveRate / 2);
+      Stage[] grown = Arrays.copyOf(current, current.length + 1);
+      grown[current.length] = newest;
+      stages = grown;
+    }
+    newest.add(h1, h2);
+    size++;
+  }
+
+  // Distinct strings added, less the few that were taken for false positives and skipped
+  public synchronized long size() {
+    return size;
+  }
+
+  public int stageCount() {
+    return stages.length;
+  }
+
+  public long bytes() {
+    long bytes = 0;
+    for (Stage stage : stages) {
+      bytes += stage.bits.length() * 8L;
+    }
+    return bytes;
+  }
+
+  // Chance that a string never added is reported as present, given the current contents
+  public synchronized double expectedFalsePositiveRate() {
+    double absentFromAll = 1;
+    for (Stage stage : stages) {
+      absentFromAll *= 1 - stage.expectedFalsePositiveRate();
+    }
+    return 1 - absentFromAll;
+  }
+
+  public double targetFalsePositiveRate() {
+    return falsePositiveRate;
+  }
+
+  // FNV-1a over the UTF-8 bytes, then a 64-bit finalizer so close strings land far apart
+  static long hash(String value) {
+    long hash = 0xCBF29CE484222325L;
+    for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+      hash ^= b & 0xFF;
+      hash *= 0x100000001B3L;
+    }
+    return mix(hash);
+  }
+
+  private static long mix(long z) {
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+
+  private static final class Stage {
+
+    private final int capacity;
+    private final double falsePositiveRate;
+    private final long bitCount;
+    private final int hashCount;
+    private final AtomicLongArray bits;
+    private int count;
+
+    private Stage(int capacity, double falsePositiveRate) {
+      this.capacity = capacity;
+      this.falsePositiveRate = falsePositiveRate;
+      long words = Math.max(1, (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (LN2 * LN2) / 64));
+      this.bitCount = words * 64;
+      this.hashCount = Math.max(1, (int) Math.round((double) bitCount / capacity * LN2));
+      this.bits = new AtomicLongArray(Math.toIntExact(words));
+    }
+
+    // Kirsch-Mitzenmacher: the i-th index is h1 + i * h2, which is as good as k independent hashes
+    private boolean mightContain(long h1, long h2) {
+      long combined = h1;
+      for (int i = 0; i < hashCount; i++) {
+        long index = (combined & Long.MAX_VALUE) % bitCount;
+        if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+          return false;
+        }
+        combined += h2;
+      }
+      return true;
+    }
+
+    private void add(long h1, long h2) {
+      long combined = h1;
+      for (int i = 0; i < hashCount; i++) {
+        long index = (combined & Long.MAX_VALUE) % bitCount;
+        long mask = 1L << index;
+        bits.getAndAccumulate((int) (index >>> 6), mask, (word, bit) -> word | bit);
+        combined += h2;
+      }
+      count++;
+    }
+
+    private double expectedFalsePositiveRate() {
+      return Math.pow(1 - Math.exp(-(double) hashCount * count / bitCount), hashCount);
+    }
+  }
+}
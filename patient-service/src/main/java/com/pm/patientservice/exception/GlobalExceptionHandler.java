@@ -2,6 +2,7 @@ package com.pm.patientservice.exception;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -10,6 +11,7 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import java.util.HashMap;
 import java.util.Map;
 
+// Errors are always JSON, also for clients that asked for protobuf patients
 @ControllerAdvice
 public class GlobalExceptionHandler {
   
@@ -19,7 +21,7 @@ public class GlobalExceptionHandler {
   public ResponseEntity<Map<String, String>> handleValidationException(MethodArgumentNotValidException ex) {
     Map<String, String> errors = new HashMap<>();
     ex.getBindingResult().getFieldErrors().forEach(error -> errors.put(error.getField(), error.getDefaultMessage()));
-    return ResponseEntity.badRequest().body(errors);
+    return ResponseEntity.badRequest().contentType(MediaType.APPLICATION_JSON).body(errors);
   }
   
   @ExceptionHandler(EmailAlreadyExistsException.class)
@@ -27,7 +29,7 @@ public class GlobalExceptionHandler {
     log.warn("Email already exists: {}", ex.getMessage());
     Map<String, String> errors = new HashMap<>();
     errors.put("error", "Email address already exists");
-    return ResponseEntity.badRequest().body(errors);
+    return ResponseEntity.badRequest().contentType(MediaType.APPLICATION_JSON).body(errors);
   }
   
   @ExceptionHandler(PatientNotFoundException.class)
@@ -35,7 +37,15 @@ public class GlobalExceptionHandler {
     log.warn("Patient not found: {}", ex.getMessage());
     Map<String, String> errors = new HashMap<>();
     errors.put("error", "Patient not found");
-    return ResponseEntity.status(404).body(errors);
+    return ResponseEntity.status(404).contentType(MediaType.APPLICATION_JSON).body(errors);
+  }
+  
+  @ExceptionHandler(ExportJobNotFoundException.class)
+  public ResponseEntity<Map<String, String>> handleExportJobNotFoundException(ExportJobNotFoundException ex) {
+    log.warn("Export job not found: {}", ex.getMessage());
+    Map<String, String> errors = new HashMap<>();
+    errors.put("error", "Export job not found");
+    return ResponseEntity.status(404).contentType(MediaType.APPLICATION_JSON).body(errors);
   }
   
 }
@@ -0,0 +1,110 @@
+package com.pm.patientservice.export;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Parquet-style layout without the Hadoop dependencies: rows are buffered into row groups and each
+ * column of a group is written as its own deflate-compressed chunk, so similar values compress together.
+ * <pre>
+ * header:    "PMCOL" version(byte) columnCount(short) [name(UTF) type(byte)]...
+ * row group: rowCount(int) [compressedLength(int) bytes]... one chunk per column
+ * footer:    0(int) totalRows(long)
+ * </pre>
+ * Types: 0 = uuid (16 bytes), 1 = string (length-prefixed UTF-8, -1 for null), 2 = date (epoch day int).
+ */
+public class ColumnarPatientExportWriter implements PatientExportWriter {
+
+  private static final String[] COLUMNS = {"id", "name", "email", "address", "date_of_birth", "registered_date"};
+  private static final byte[] TYPES = {0, 1, 1, 1, 2, 2};
+
+  private final DataOutputStream out;
+  private final int rowGroupSize;
+  private final ByteArrayOutputStream[] buffers = new ByteArrayOutputStream[COLUMNS.length];
+  private final DataOutputStream[] columns = new DataOutputStream[COLUMNS.length];
+  private final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+  private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+  private int rowsInGroup;
+  private long totalRows;
+
+  public ColumnarPatientExportWriter(OutputStream out, int rowGroupSize) throws IOException {
+    this.out = new DataOutputStream(out);
+    this.rowGroupSize = rowGroupSize;
+    for (int i = 0; i < COLUMNS.length; i++) {
+      buffers[i] = new ByteArrayOutputStream();
+      columns[i] = new DataOutputStream(buffers[i]);
+    }
+    this.out.writeBytes("PMCOL");
+    this.out.writeByte(1);
+    this.out.writeShort(COLUMNS.length);
+    for (int i = 0; i < COLUMNS.length; i++) {
+      this.out.writeUTF(COLUMNS[i]);
+      this.out.writeByte(TYPES[i]);
+    }
+  }
+
+  @Override
+  public void write(ResultSet rs) throws SQLException, IOException {
+    UUID id = rs.getObject(1, UUID.class);
+    columns[0].writeLong(id.getMostSignificantBits());
+    columns[0].writeLong(id.getLeastSignificantBits());
+    for (int i = 1; i <= 3; i++) {
+      String value = rs.getString(i + 1);
+      if (value == null) {
+        columns[i].writeInt(-1);
+      } else {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        columns[i].writeInt(bytes.length);
+        columns[i].write(bytes);
+      }
+    }
+    columns[4].writeInt((int) rs.getObject(5, LocalDate.class).toEpochDay());
+    columns[5].writeInt((int) rs.getObject(6, LocalDate.class).toEpochDay());
+
+    totalRows++;
+    if (++rowsInGroup == rowGroupSize) {
+      flushRowGroup();
+    }
+  }
+
+  private void flushRowGroup() throws IOException {
+    if (rowsInGroup == 0) {
+      return;
+    }
+    out.writeInt(rowsInGroup);
+    for (ByteArrayOutputStream buffer : buffers) {
+      compressed.reset();
+      deflater.reset();
+      DeflaterOutputStream deflate = new DeflaterOutputStream(compressed, deflater, 8 * 1024);
+      buffer.writeTo(deflate);
+      deflate.finish();
+      out.writeInt(compressed.size());
+      compressed.writeTo(out);
+      buffer.reset();
+    }
+    rowsInGroup = 0;
+    out.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      flushRowGroup();
+      out.writeInt(0);
+      out.writeLong(totalRows);
+      out.close();
+    }
+    finally {
+      deflater.end();
+    }
+  }
+}
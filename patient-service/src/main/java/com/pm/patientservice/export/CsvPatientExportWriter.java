@@ -0,0 +1,55 @@
+package com.pm.patientservice.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+public class CsvPatientExportWriter implements PatientExportWriter {
+  
+  private final Writer writer;
+  
+  public CsvPatientExportWriter(OutputStream out) throws IOException {
+    this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+    writer.write("id,name,email,address,date_of_birth,registered_date\n");
+  }
+  
+  @Override
+  public void write(ResultSet rs) throws SQLException, IOException {
+    for (int column = 1; column <= 6; column++) {
+      if (column > 1) {
+        writer.write(',');
+      }
+      writeField(rs.getString(column));
+    }
+    writer.write('\n');
+  }
+  
+  // RFC 4180: quote fields containing separators, quotes or line breaks and double the quotes
+  private void writeField(String value) throws IOException {
+    if (value == null) {
+      return;
+    }
+    boolean quote = false;
+    for (int i = 0; i < value.length() && !quote; i++) {
+      char c = value.charAt(i);
+      quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+    }
+    if (!quote) {
+      writer.write(value);
+      return;
+    }
+    writer.write('"');
+    writer.write(value.replace("\"", "\"\""));
+    writer.write('"');
+  }
+  
+  @Override
+  public void close() throws IOException {
+    writer.close();
+  }
+}
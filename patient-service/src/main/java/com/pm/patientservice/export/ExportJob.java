@@ -0,0 +1,94 @@
+package com.pm.patientservice.export;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+public class ExportJob {
+  
+  public enum Status {
+    RUNNING, COMPLETED, FAILED
+  }
+  
+  private final UUID id;
+  private final ExportFormat format;
+  private final Path file;
+  private final Instant startedAt = Instant.now();
+  private volatile Status status = Status.RUNNING;
+  private volatile long totalRows = -1;
+  private volatile long rowsWritten;
+  private volatile Instant finishedAt;
+  private volatile String error;
+  
+  public ExportJob(ExportFormat format, Path file) {
+    this(UUID.randomUUID(), format, file);
+  }
+  
+  public ExportJob(UUID id, ExportFormat format, Path file) {
+    this.id = id;
+    this.format = format;
+    this.file = file;
+  }
+  
+  public void completed(long rows) {
+    this.rowsWritten = rows;
+    this.finishedAt = Instant.now();
+    this.status = Status.COMPLETED;
+  }
+  
+  public void failed(String error) {
+    this.error = error;
+    this.finishedAt = Instant.now();
+    this.status = Status.FAILED;
+  }
+  
+  public long getRowsPerSecond() {
+    long millis = Duration.between(startedAt, finishedAt == null ? Instant.now() : finishedAt).toMillis();
+    return millis == 0 ? 0 : rowsWritten * 1000 / millis;
+  }
+  
+  public UUID getId() {
+    return id;
+  }
+  
+  public ExportFormat getFormat() {
+    return format;
+  }
+  
+  public Path getFile() {
+    return file;
+  }
+  
+  public Instant getStartedAt() {
+    return startedAt;
+  }
+  
+  public Status getStatus() {
+    return status;
+  }
+  
+  public long getTotalRows() {
+    return totalRows;
+  }
+  
+  public void setTotalRows(long totalRows) {
+    this.totalRows = totalRows;
+  }
+  
+  public long getRowsWritten() {
+    return rowsWritten;
+  }
+  
+  public void setRowsWritten(long rowsWritten) {
+    this.rowsWritten = rowsWritten;
+  }
+  
+  public Instant getFinishedAt() {
+    return finishedAt;
+  }
+  
+  public String getError() {
+    return error;
+  }
+}
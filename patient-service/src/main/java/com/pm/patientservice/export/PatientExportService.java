@@ -0,0 +1,146 @@
+package com.pm.patientservice.export;
+
+import com.pm.patientservice.exception.ExportJobNotFoundException;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPOutputStream;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Streams the patient table through a forward-only cursor. The read-only transaction is required:
+ * the Postgres driver only honours the fetch size when auto-commit is off, otherwise it buffers the
+ * whole result set.
+ */
+@Service
+public class PatientExportService {
+
+  private static final Logger log = LoggerFactory.getLogger(PatientExportService.class);
+  private static final String EXPORT_QUERY =
+    "SELECT id, name, email, address, date_of_birth, registered_date FROM patient";
+  private static final int MAX_RETAINED_JOBS = 100;
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final int rowGroupSize;
+  private final long progressInterval;
+  private final Path directory;
+  private final Map<UUID, ExportJob> jobs = new ConcurrentHashMap<>();
+  private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+    Thread thread = new Thread(r, "patient-export");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  public PatientExportService(DataSource dataSource,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${patient.export.fetch-size:1000}") int fetchSize,
+                              @Value("${patient.export.row-group-size:65536}") int rowGroupSize,
+                              @Value("${patient.export.progress-interval:1000000}") long progressInterval,
+                              @Value("${patient.export.directory:${java.io.tmpdir}/patient-exports}") Path directory) {
+    this.jdbcTemplate = new JdbcTemplate(dataSource);
+    this.jdbcTemplate.setFetchSize(fetchSize);
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.transactionTemplate.setReadOnly(true);
+    this.rowGroupSize = rowGroupSize;
+    this.progressInterval = progressInterval;
+    this.directory = directory;
+  }
+
+  public ExportJob newJob(ExportFormat format, Path file) {
+    return register(new ExportJob(format, file));
+  }
+
+  private ExportJob register(ExportJob job) {
+    if (jobs.size() >= MAX_RETAINED_JOBS) {
+      jobs.values().removeIf(existing -> existing.getStatus() != ExportJob.Status.RUNNING);
+    }
+    jobs.put(job.getId(), job);
+    return job;
+  }
+
+  public ExportJob getJob(UUID id) {
+    ExportJob job = jobs.get(id);
+    if (job == null) {
+      throw new ExportJobNotFoundException("Export job not found with ID: " + id);
+    }
+    return job;
+  }
+
+  // Writes the export to a local file in the background; poll the job for progress
+  public ExportJob startFileExport(ExportFormat format, boolean gzip) throws IOException {
+    Files.createDirectories(directory);
+    // named after the job, so two exports started at the same moment never share a file
+    UUID id = UUID.randomUUID();
+    Path file = directory.resolve("patients-" + id + format.getExtension() + (gzip ? ".gz" : ""));
+    ExportJob job = register(new ExportJob(id, format, file));
+    executor.execute(() -> {
+      try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file), 64 * 1024)) {
+        export(job, gzip, out);
+      }
+      catch (IOException | RuntimeException e) {
+        // export() already marked the job failed for errors raised while writing
+        if (job.getStatus() == ExportJob.Status.RUNNING) {
+          job.failed(e.getMessage());
+        }
+      }
+    });
+    return job;
+  }
+
+  public void export(ExportJob job, boolean gzip, OutputStream out) throws IOException {
+    log.info("Starting {} patient export {}", job.getFormat(), job.getId());
+    try {
+      OutputStream target = gzip ? new GZIPOutputStream(out, 64 * 1024, true) : out;
+      long rows = transactionTemplate.execute(status -> {
+        job.setTotalRows(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM patient", Long.class));
+        try (PatientExportWriter writer = job.getFormat() == ExportFormat.CSV
+            ? new CsvPatientExportWriter(target)
+            : new ColumnarPatientExportWriter(target, rowGroupSize)) {
+          long[] count = {0};
+          jdbcTemplate.query(EXPORT_QUERY, rs -> {
+            try {
+              writer.write(rs);
+            }
+            catch (IOException e) {
+              throw new UncheckedIOException(e);
+            }
+            if ((++count[0] & 1023) == 0) {
+              job.setRowsWritten(count[0]);
+            }
+            if (count[0] % progressInterval == 0) {
+              log.info("Patient export {}: {}/{} rows, {} rows/s", job.getId(), count[0], job.getTotalRows(),
+                job.getRowsPerSecond());
+            }
+          });
+          return count[0];
+        }
+        catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      });
+      job.completed(rows);
+      log.info("Finished patient export {}: {} rows, {} rows/s", job.getId(), rows, job.getRowsPerSecond());
+    }
+    catch (RuntimeException e) {
+      log.error("Patient export {} failed: {}", job.getId(), e.getMessage());
+      job.failed(e.getMessage());
+      throw e;
+    }
+  }
+}
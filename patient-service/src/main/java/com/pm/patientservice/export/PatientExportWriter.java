@@ -0,0 +1,16 @@
+package com.pm.patientservice.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Writes the current row of a forward-only result set. Implementations hold at most a bounded
+ * buffer, never the whole export. Columns: id, name, email, address, date_of_birth, registered_date.
+ */
+public interface PatientExportWriter extends Closeable {
+  
+  void write(ResultSet rs) throws SQLException, IOException;
+  
+}
@@ -5,6 +5,9 @@ import billing.BillingResponse;
 import billing.BillingServiceGrpc;
 import io.grpc.ManagedChannel;
 import io.grpc.ManagedChannelBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.grpc.ObservationGrpcClientInterceptor;
+import io.micrometer.observation.ObservationRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -17,9 +20,16 @@ public class BillingServiceGrpcClient {
   private final BillingServiceGrpc.BillingServiceBlockingStub blockingStub;
   
   public BillingServiceGrpcClient(@Value("${billing.service.address:localhost}") String serverAddress,
-                                  @Value("${billing.service.grpc.port:9001}") int serverPort) {
+                                  @Value("${billing.service.grpc.port:9001}") int serverPort,
+                                  MeterRegistry meterRegistry,
+                                  ObservationRegistry observationRegistry) {
     log.info("Connecting to Billing Service GRPC service at {}:{}", serverAddress, serverPort);
-    ManagedChannel channel = ManagedChannelBuilder.forAddress(serverAddress, serverPort).usePlaintext().build();
+    ManagedChannel channel = ManagedChannelBuilder.forAddress(serverAddress, serverPort)
+                                                  .usePlaintext()
+                                                  // carries the caller's trace context in the call metadata
+                                                  .intercept(new GrpcClientMetricsInterceptor(meterRegistry),
+                                                             new ObservationGrpcClientInterceptor(observationRegistry))
+                                                  .build();
     blockingStub = BillingServiceGrpc.newBlockingStub(channel);
   }
   
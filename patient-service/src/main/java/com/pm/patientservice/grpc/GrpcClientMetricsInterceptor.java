@@ -0,0 +1,59 @@
+package com.pm.patientservice.grpc;
+
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.ForwardingClientCall.SimpleForwardingClientCall;
+import io.grpc.ForwardingClientCallListener.SimpleForwardingClientCallListener;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records {@code grpc.client.calls} (latency histogram per method and status code) for calls made on the
+ * channel, measured from the call's start until its status arrives. Comparing it with billing-service's
+ * {@code grpc.server.calls} separates network and queueing time from handler time.
+ */
+public class GrpcClientMetricsInterceptor implements ClientInterceptor {
+
+  private final MeterRegistry meterRegistry;
+
+  public GrpcClientMetricsInterceptor(MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+  }
+
+  @Override
+  public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(MethodDescriptor<ReqT, RespT> method,
+                                                             CallOptions callOptions, Channel next) {
+    String methodName = method.getFullMethodName();
+    return new SimpleForwardingClientCall<>(next.newCall(method, callOptions)) {
+      @Override
+      public void start(Listener<RespT> responseListener, Metadata headers) {
+        long startNanos = System.nanoTime();
+        super.start(new SimpleForwardingClientCallListener<>(responseListener) {
+          @Override
+          public void onClose(Status status, Metadata trailers) {
+            record(methodName, status.getCode(), System.nanoTime() - startNanos);
+            super.onClose(status, trailers);
+          }
+        }, headers);
+      }
+    };
+  }
+
+  private void record(String method, Status.Code code, long nanos) {
+    Timer.builder("grpc.client.calls")
+         .tag("method", method)
+         .tag("status", code.name())
+         .publishPercentileHistogram()
+         .minimumExpectedValue(Duration.ofMillis(1))
+         .maximumExpectedValue(Duration.ofSeconds(30))
+         .register(meterRegistry)
+         .record(nanos, TimeUnit.NANOSECONDS);
+  }
+}
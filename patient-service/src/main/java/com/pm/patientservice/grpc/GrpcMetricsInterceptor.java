@@ -0,0 +1,113 @@
+package com.pm.patientservice.grpc;
+
+import io.grpc.ForwardingServerCall.SimpleForwardingServerCall;
+import io.grpc.ForwardingServerCallListener.SimpleForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.devh.boot.grpc.server.interceptor.GrpcGlobalServerInterceptor;
+
+/**
+ * Records {@code grpc.server.calls} (latency histogram per method and status code) and
+ * {@code grpc.server.calls.active} (in-flight calls per method) for every service on the server.
+ */
+@GrpcGlobalServerInterceptor
+public class GrpcMetricsInterceptor implements ServerInterceptor {
+
+  private final MeterRegistry meterRegistry;
+  private final Map<String, MethodMeters> methods = new ConcurrentHashMap<>();
+
+  public GrpcMetricsInterceptor(MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+  }
+
+  @Override
+  public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+                                                               ServerCallHandler<ReqT, RespT> next) {
+    MethodMeters meters = methods.computeIfAbsent(call.getMethodDescriptor().getFullMethodName(), MethodMeters::new);
+    meters.active.incrementAndGet();
+    CallRecorder recorder = new CallRecorder(meters, System.nanoTime());
+
+    ServerCall<ReqT, RespT> monitoredCall = new SimpleForwardingServerCall<>(call) {
+      @Override
+      public void close(Status status, Metadata trailers) {
+        // recorded before the client can see the call complete
+        recorder.finish(status.getCode());
+        super.close(status, trailers);
+      }
+    };
+
+    ServerCall.Listener<ReqT> listener;
+    try {
+      listener = next.startCall(monitoredCall, headers);
+    }
+    catch (RuntimeException e) {
+      recorder.finish(Status.Code.UNKNOWN);
+      throw e;
+    }
+    return new SimpleForwardingServerCallListener<>(listener) {
+      @Override
+      public void onCancel() {
+        // the client went away before the call was closed
+        recorder.finish(Status.Code.CANCELLED);
+        super.onCancel();
+      }
+    };
+  }
+
+  // The meters of one method, registered once and looked up per call
+  private final class MethodMeters {
+
+    private final String method;
+    private final AtomicInteger active = new AtomicInteger();
+    private final Map<Status.Code, Timer> timers = new ConcurrentHashMap<>();
+
+    private MethodMeters(String method) {
+      this.method = method;
+      Gauge.builder("grpc.server.calls.active", active, AtomicInteger::get)
+           .tag("method", method)
+           .register(meterRegistry);
+    }
+
+    Timer timer(Status.Code code) {
+      return timers.computeIfAbsent(code, status -> Timer.builder("grpc.server.calls")
+                                                         .tag("method", method)
+                                                         .tag("status", status.name())
+                                                         .publishPercentileHistogram()
+                                                         .minimumExpectedValue(Duration.ofMillis(1))
+                                                         .maximumExpectedValue(Duration.ofSeconds(30))
+                                                         .register(meterRegistry));
+    }
+  }
+
+  private static final class CallRecorder {
+
+    private final MethodMeters meters;
+    private final long startNanos;
+    private final AtomicBoolean finished = new AtomicBoolean();
+
+    private CallRecorder(MethodMeters meters, long startNanos) {
+      this.meters = meters;
+      this.startNanos = startNanos;
+    }
+
+    void finish(Status.Code code) {
+      if (!finished.compareAndSet(false, true)) {
+        return;
+      }
+      meters.active.decrementAndGet();
+      meters.timer(code).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+  }
+}
@@ -0,0 +1,161 @@
+package com.pm.patientservice.grpc;
+
+import com.pm.patientservice.repository.PatientView;
+import com.pm.patientservice.service.PatientService;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import net.devh.boot.grpc.server.service.GrpcService;
+import org.springframework.beans.factory.annotation.Value;
+import patient.query.GetPatientRequest;
+import patient.query.GetPatientsRequest;
+import patient.query.GetPatientsResponse;
+import patient.query.ListPatientsRequest;
+import patient.query.Patient;
+import patient.query.PatientPage;
+import patient.query.PatientQueryServiceGrpc.PatientQueryServiceImplBase;
+
+/**
+ * Read API for other services inside the cluster. It reads the same sources as the REST endpoints (the read
+ * model when enabled, otherwise column projections of the patient table) but skips the gateway, JWT checks
+ * and JSON.
+ */
+@GrpcService
+public class PatientQueryGrpcService extends PatientQueryServiceImplBase {
+
+  // the smallest uuid in the database's unsigned order
+  private static final UUID FIRST = new UUID(0, 0);
+
+  private final PatientService patientService;
+  private final int defaultPageSize;
+  private final int maxPageSize;
+  private final int maxBatchIds;
+
+  public PatientQueryGrpcService(PatientService patientService,
+                                 @Value("${patient.grpc.default-page-size:500}") int defaultPageSize,
+                                 @Value("${patient.grpc.max-page-size:5000}") int maxPageSize,
+                                 @Value("${patient.grpc.max-batch-ids:1000}") int maxBatchIds) {
+    this.patientService = patientService;
+    this.defaultPageSize = defaultPageSize;
+    this.maxPageSize = maxPageSize;
+    this.maxBatchIds = maxBatchIds;
+  }
+
+  @Override
+  public void getPatient(GetPatientRequest request, StreamObserver<Patient> responseObserver) {
+    UUID id;
+    try {
+      id = UUID.fromString(request.getId());
+    }
+    catch (IllegalArgumentException e) {
+      responseObserver.onError(Status.INVALID_ARGUMENT.withDescription("id must be a UUID").asRuntimeException());
+      return;
+    }
+    patientService.findPatientView(id).ifPresentOrElse(
+      view -> {
+        responseObserver.onNext(toProto(view));
+        responseObserver.onCompleted();
+      },
+      () -> responseObserver.onError(Status.NOT_FOUND.withDescription("Patient not found with ID: " + id)
+                                                     .asRuntimeException()));
+  }
+
+  @Override
+  public void getPatients(GetPatientsRequest request, StreamObserver<GetPatientsResponse> responseObserver) {
+    if (request.getIdsCount() > maxBatchIds) {
+      responseObserver.onError(Status.INVALID_ARGUMENT.withDescription("At most " + maxBatchIds + " ids per call")
+                                                      .asRuntimeException());
+      return;
+    }
+    Set<UUID> ids = new LinkedHashSet<>();
+    try {
+      request.getIdsList().forEach(id -> ids.add(UUID.fromString(id)));
+    }
+    catch (IllegalArgumentException e) {
+      responseObserver.onError(Status.INVALID_ARGUMENT.withDescription("ids must be UUIDs").asRuntimeException());
+      return;
+    }
+    GetPatientsResponse.Builder response = GetPatientsResponse.newBuilder();
+    Set<UUID> found = new HashSet<>();
+    for (PatientView view : patientService.findPatientViews(ids)) {
+      response.addPatients(toProto(view));
+      found.add(view.id());
+    }
+    for (UUID id : ids) {
+      if (!found.contains(id)) {
+        response.addMissingIds(id.toString());
+      }
+    }
+    responseObserver.onNext(response.build());
+    responseObserver.onCompleted();
+  }
+
+  /**
+   * Sends pages only while the transport can take them (gRPC flow control), so a slow reader holds one page
+   * in memory rather than the whole table.
+   */
+  @Override
+  public void listPatients(ListPatientsRequest request, StreamObserver<PatientPage> responseObserver) {
+    UUID after;
+    try {
+      after = request.getPageToken().isEmpty() ? FIRST : UUID.fromString(request.getPageToken());
+    }
+    catch (IllegalArgumentException e) {
+      responseObserver.onError(Status.INVALID_ARGUMENT.withDescription("Invalid page token").asRuntimeException());
+      return;
+    }
+    int pageSize = request.getPageSize() <= 0 ? defaultPageSize : Math.min(request.getPageSize(), maxPageSize);
+    Iterator<List<PatientView>> pages = patientService.pagesAfter(after, pageSize);
+
+    ServerCallStreamObserver<PatientPage> call = (ServerCallStreamObserver<PatientPage>) responseObserver;
+    call.setOnReadyHandler(new Runnable() {
+      // the handler can fire again after the stream is completed
+      private boolean completed;
+
+      @Override
+      public void run() {
+        while (!completed && call.isReady() && !call.isCancelled()) {
+          if (!pages.hasNext()) {
+            completed = true;
+            call.onCompleted();
+            return;
+          }
+          List<PatientView> page = pages.next();
+          if (page.isEmpty()) {
+            // every patient of this page was deleted after the listing started
+            continue;
+          }
+          List<Patient> patients = new ArrayList<>(page.size());
+          page.forEach(view -> patients.add(toProto(view)));
+          call.onNext(PatientPage.newBuilder()
+                                 .addAllPatients(patients)
+                                 .setNextPageToken(page.get(page.size() - 1).id().toString())
+                                 .build());
+        }
+      }
+    });
+  }
+
+  private static Patient toProto(PatientView view) {
+    return Patient.newBuilder()
+                  .setId(view.id().toString())
+                  .setName(view.name())
+                  .setEmail(view.email())
+                  .setAddress(view.address())
+                  .setDateOfBirth(format(view.dateOfBirth()))
+                  .setRegisteredDate(format(view.registeredDate()))
+                  .build();
+  }
+
+  private static String format(LocalDate date) {
+    return date == null ? "" : date.toString();
+  }
+}
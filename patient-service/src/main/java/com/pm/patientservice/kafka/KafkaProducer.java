@@ -1,5 +1,6 @@
 package com.pm.patientservice.kafka;
 
+import com.pm.patientservice.id.TimeOrderedUuidGenerator;
 import com.pm.patientservice.model.Patient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -7,29 +8,51 @@ import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 import patient.events.PatientEvent;
 
+import java.util.UUID;
+
 @Service
 public class KafkaProducer {
-  
+
+  public static final String PATIENT_CREATED = "PATIENT_CREATED";
+  public static final String PATIENT_UPDATED = "PATIENT_UPDATED";
+  public static final String PATIENT_DELETED = "PATIENT_DELETED";
+
   private static final Logger log = LoggerFactory.getLogger(KafkaProducer.class);
   private final KafkaTemplate<String, byte[]> kafkaTemplate;
-  
+
   public KafkaProducer(KafkaTemplate<String, byte[]> kafkaTemplate) {
     this.kafkaTemplate = kafkaTemplate;
   }
-  
+
   public void sendEvent(Patient patient) {
+    sendEvent(patient, PATIENT_CREATED);
+  }
+
+  public void sendEvent(Patient patient, String eventType) {
     PatientEvent event = PatientEvent.newBuilder()
       .setPatientId(patient.getId().toString())
       .setName(patient.getName())
       .setEmail(patient.getEmail())
-      .setEventType("PATIENT_CREATED")
+      .setAddress(patient.getAddress())
+      .setDateOfBirth(patient.getDateOfBirth().toString())
+      .setRegisteredDate(patient.getRegisteredDate().toString())
+      .setEventType(eventType)
       .build();
-    
+    send(event);
+  }
+
+  public void sendDeletedEvent(UUID patientId) {
+    send(PatientEvent.newBuilder().setPatientId(patientId.toString()).setEventType(PATIENT_DELETED).build());
+  }
+
+  private void send(PatientEvent event) {
+    event = event.toBuilder().setEventId(TimeOrderedUuidGenerator.next().toString()).build();
     try {
-      kafkaTemplate.send("patient", event.toByteArray()); // convert the PatientEvent to byte array
-      log.info("Sent PATIENT_CREATED Event for Patient ID: {}", patient.getId());
+      // keyed by patient id so all events of one patient stay ordered on the same partition
+      kafkaTemplate.send("patient", event.getPatientId(), event.toByteArray()); // convert the PatientEvent to byte array
+      log.info("Sent {} Event for Patient ID: {}", event.getEventType(), event.getPatientId());
     } catch (Exception e) {
-      log.error("Error Sending PATIENT_CREATED Event: {}", e.getMessage());
+      log.error("Error Sending {} Event: {}", event.getEventType(), e.getMessage());
     }
   }
 }
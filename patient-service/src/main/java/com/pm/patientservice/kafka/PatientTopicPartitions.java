@@ -0,0 +1,117 @@
+package com.pm.patientservice.kafka;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.PartitionInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * The partitions of the "patient" topic, for listeners that read all of them without joining a consumer group:
+ * {@code @TopicPartition(topic = "patient", partitions = "#{@patientTopicPartitions.ids()}")}. Looked up
+ * once, when the first such listener is registered; partitions added later are picked up on the next restart.
+ * If the broker cannot be reached within {@code patient.kafka.partition-lookup-timeout}, startup carries on with
+ * the {@code patient.kafka.partitions} configured instead.
+ * <p>
+ * An assumed count is checked again from the health endpoint, at most every
+ * {@code patient.kafka.partition-recheck-interval}, until the broker answers. If the topic turns out to have
+ * partitions the listeners were not assigned, health reports OUT_OF_SERVICE, since those listeners never see
+ * the events on them, until a restart assigns them all.
+ */
+@Component
+public class PatientTopicPartitions implements HealthIndicator {
+
+  private static final Logger log = LoggerFactory.getLogger(PatientTopicPartitions.class);
+
+  private final ConsumerFactory<?, ?> consumerFactory;
+  private final Duration lookupTimeout;
+  private final int configuredPartitions;
+  private final long recheckIntervalNanos;
+  private String[] ids;
+  // ids came from configuration and the broker has not confirmed them yet
+  private boolean assumed;
+  private long lastCheckNanos;
+  // the topic's partitions once the broker answered with more than were assigned
+  private String[] missed;
+
+  public PatientTopicPartitions(ConsumerFactory<?, ?> consumerFactory,
+                                @Value("${patient.kafka.partition-lookup-timeout:5s}") Duration lookupTimeout,
+                                @Value("${patient.kafka.partitions:1}") int configuredPartitions,
+                                @Value("${patient.kafka.partition-recheck-interval:30s}") Duration recheckInterval) {
+    this.consumerFactory = consumerFactory;
+    this.lookupTimeout = lookupTimeout;
+    this.configuredPartitions = configuredPartitions;
+    this.recheckIntervalNanos = recheckInterval.toNanos();
+  }
+
+  public synchronized String[] ids() {
+    if (ids == null) {
+      ids = lookup();
+      if (ids == null) {
+        ids = IntStream.range(0, configuredPartitions)
+                       .mapToObj(String::valueOf)
+                       .toArray(String[]::new);
+        assumed = true;
+        lastCheckNanos = System.nanoTime();
+      }
+    }
+    return ids.clone();
+  }
+
+  @Override
+  public synchronized Health health() {
+    if (ids == null) {
+      // no listener reads the topic by assignment
+      return Health.up().build();
+    }
+    if (assumed && System.nanoTime() - lastCheckNanos >= recheckIntervalNanos) {
+      lastCheckNanos = System.nanoTime();
+      String[] actual = lookup();
+      if (actual != null) {
+        assumed = false;
+        if (!Arrays.asList(ids).containsAll(Arrays.asList(actual))) {
+          missed = actual;
+          log.error("Topic patient has partitions {} but the listeners were assigned only {}; restart to read them all",
+            Arrays.toString(actual), Arrays.toString(ids));
+        }
+      }
+    }
+    if (missed != null) {
+      return Health.outOfService()
+                   .withDetail("assigned", List.of(ids))
+                   .withDetail("partitions", List.of(missed))
+                   .build();
+    }
+    return Health.up()
+                 .withDetail("assigned", List.of(ids))
+                 .withDetail("assumed", assumed)
+                 .build();
+  }
+
+  // Null if the broker did not answer in time or the topic has no partitions yet
+  private String[] lookup() {
+    try (Consumer<?, ?> consumer = consumerFactory.createConsumer()) {
+      List<PartitionInfo> partitions = consumer.partitionsFor("patient", lookupTimeout);
+      if (!partitions.isEmpty()) {
+        return partitions.stream()
+                         .map(partition -> String.valueOf(partition.partition()))
+                         .toArray(String[]::new);
+      }
+      log.warn("Topic patient has no partitions yet, assuming {}", configuredPartitions);
+    }
+    catch (KafkaException e) {
+      log.warn("Could not look up the partitions of topic patient, assuming {}: {}", configuredPartitions,
+        e.getMessage());
+    }
+    return null;
+  }
+}
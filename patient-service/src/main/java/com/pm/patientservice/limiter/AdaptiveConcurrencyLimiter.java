@@ -0,0 +1,76 @@
+package com.pm.patientservice.limiter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class AdaptiveConcurrencyLimiter {
+
+  public enum Priority {
+    READ, WRITE
+  }
+
+  private final VegasLimit vegasLimit;
+  private final double readShare;
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final Counter readRejections;
+  private final Counter writeRejections;
+
+  public AdaptiveConcurrencyLimiter(MeterRegistry meterRegistry,
+                                    @Value("${patient.limiter.initial-limit:20}") int initialLimit,
+                                    @Value("${patient.limiter.min-limit:4}") int minLimit,
+                                    @Value("${patient.limiter.max-limit:200}") int maxLimit,
+                                    @Value("${patient.limiter.probe-interval:30}") int probeInterval,
+                                    @Value("${patient.limiter.read-share:0.8}") double readShare) {
+    this.vegasLimit = new VegasLimit(initialLimit, minLimit, maxLimit, probeInterval);
+    this.readShare = readShare;
+
+    Gauge.builder("patient.limiter.limit", vegasLimit, VegasLimit::getLimit)
+         .description("Current adaptive concurrency limit")
+         .register(meterRegistry);
+    Gauge.builder("patient.limiter.inflight", inFlight, AtomicInteger::get)
+         .description("Requests currently admitted by the limiter")
+         .register(meterRegistry);
+    this.readRejections = Counter.builder("patient.limiter.rejected")
+                                 .tag("priority", "read")
+                                 .register(meterRegistry);
+    this.writeRejections = Counter.builder("patient.limiter.rejected")
+                                  .tag("priority", "write")
+                                  .register(meterRegistry);
+  }
+
+  /**
+   * Admits the request if there is room under the current limit. Reads only get {@code readShare}
+   * of the limit so writes still get through when list/lookup traffic spikes.
+   *
+   * @return the in-flight count when admitted, or -1 when the request should be shed
+   */
+  public int tryAcquire(Priority priority) {
+    int allowed = priority == Priority.WRITE
+        ? vegasLimit.getLimit()
+        : Math.max(1, (int) (vegasLimit.getLimit() * readShare));
+    while (true) {
+      int current = inFlight.get();
+      if (current >= allowed) {
+        (priority == Priority.WRITE ? writeRejections : readRejections).increment();
+        return -1;
+      }
+      if (inFlight.compareAndSet(current, current + 1)) {
+        return current + 1;
+      }
+    }
+  }
+
+  public void release(long startNanos, int inFlightAtStart, boolean dropped) {
+    inFlight.decrementAndGet();
+    vegasLimit.onSample(System.nanoTime() - startNanos, inFlightAtStart, dropped);
+  }
+
+  public int getLimit() {
+    return vegasLimit.getLimit();
+  }
+}
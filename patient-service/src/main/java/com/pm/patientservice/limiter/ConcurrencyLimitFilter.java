@@ -0,0 +1,69 @@
+package com.pm.patientservice.limiter;
+
+import com.pm.patientservice.limiter.AdaptiveConcurrencyLimiter.Priority;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+// Sheds /patients requests with a 503 before they reach the controller (and the connection pool)
+@Component
+@ConditionalOnProperty(
+  name = "patient.limiter.enabled",
+  havingValue = "true",
+  matchIfMissing = true
+)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+  private static final Logger log = LoggerFactory.getLogger(ConcurrencyLimitFilter.class);
+  private final AdaptiveConcurrencyLimiter limiter;
+
+  public ConcurrencyLimitFilter(AdaptiveConcurrencyLimiter limiter) {
+    this.limiter = limiter;
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    String path = request.getRequestURI();
+    // exports hold their slot for minutes and would distort the latency samples
+    return !isUnder(path, "/patients") || isUnder(path, "/patients/export");
+  }
+
+  // the path itself or anything below it, but not /patientsX
+  private static boolean isUnder(String path, String prefix) {
+    return path.startsWith(prefix) && (path.length() == prefix.length() || path.charAt(prefix.length()) == '/');
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+    throws ServletException, IOException {
+    Priority priority = HttpMethod.GET.matches(request.getMethod()) ? Priority.READ : Priority.WRITE;
+    int inFlight = limiter.tryAcquire(priority);
+    if (inFlight < 0) {
+      log.debug("Rejected {} {} at concurrency limit {}", request.getMethod(), request.getRequestURI(),
+        limiter.getLimit());
+      response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+      response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+      return;
+    }
+
+    long start = System.nanoTime();
+    boolean dropped = true;
+    try {
+      filterChain.doFilter(request, response);
+      dropped = response.getStatus() >= 500;
+    }
+    finally {
+      limiter.release(start, inFlight, dropped);
+    }
+  }
+}
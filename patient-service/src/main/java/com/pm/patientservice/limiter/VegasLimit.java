@@ -0,0 +1,67 @@
+package com.pm.patientservice.limiter;
+
+/**
+ * TCP Vegas style concurrency limit. The smallest latency seen is treated as the "no load" latency,
+ * and the gap between it and the latest sample estimates how many requests are queued (in the
+ * connection pool, in Postgres...). Small queues grow the limit, large queues shrink it.
+ */
+public class VegasLimit {
+
+  private final int minLimit;
+  private final int maxLimit;
+  private final int probeInterval;
+
+  private volatile int limit;
+  private long rttNoLoadNanos;
+  private int samplesSinceProbe;
+
+  public VegasLimit(int initialLimit, int minLimit, int maxLimit, int probeInterval) {
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.probeInterval = probeInterval;
+    this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+  }
+
+  public int getLimit() {
+    return limit;
+  }
+
+  public synchronized long getRttNoLoadNanos() {
+    return rttNoLoadNanos;
+  }
+
+  public synchronized void onSample(long rttNanos, int inFlight, boolean dropped) {
+    // periodically forget the baseline so a permanently slower database is eventually accepted as "normal"
+    if (++samplesSinceProbe >= probeInterval * limit) {
+      samplesSinceProbe = 0;
+      rttNoLoadNanos = rttNanos;
+      return;
+    }
+    if (rttNoLoadNanos == 0 || rttNanos < rttNoLoadNanos) {
+      rttNoLoadNanos = rttNanos;
+      return;
+    }
+
+    int current = limit;
+    double log = Math.max(1, Math.log10(current));
+    double newLimit;
+    if (dropped) {
+      newLimit = current - log;
+    } else if (inFlight * 2 < current) {
+      // not enough traffic to tell whether a bigger limit would help
+      return;
+    } else {
+      int queue = (int) Math.ceil(current * (1 - (double) rttNoLoadNanos / rttNanos));
+      if (queue <= log) {
+        newLimit = current + 6 * log;
+      } else if (queue < 3 * log) {
+        newLimit = current + log;
+      } else if (queue > 6 * log) {
+        newLimit = current - log;
+      } else {
+        return;
+      }
+    }
+    limit = (int) Math.max(minLimit, Math.min(maxLimit, newLimit));
+  }
+}
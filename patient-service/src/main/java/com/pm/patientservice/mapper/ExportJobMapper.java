@@ -0,0 +1,19 @@
+package com.pm.patientservice.mapper;
+
+import com.pm.patientservice.dto.ExportJobResponseDTO;
+import com.pm.patientservice.export.ExportJob;
+
+public class ExportJobMapper {
+  public static ExportJobResponseDTO toDTO(ExportJob job) {
+    ExportJobResponseDTO jobDTO = new ExportJobResponseDTO();
+    jobDTO.setId(job.getId().toString());
+    jobDTO.setStatus(job.getStatus().name());
+    jobDTO.setFormat(job.getFormat().name());
+    jobDTO.setFile(job.getFile() == null ? null : job.getFile().toString());
+    jobDTO.setRowsWritten(job.getRowsWritten());
+    jobDTO.setTotalRows(job.getTotalRows());
+    jobDTO.setRowsPerSecond(job.getRowsPerSecond());
+    jobDTO.setError(job.getError());
+    return jobDTO;
+  }
+}
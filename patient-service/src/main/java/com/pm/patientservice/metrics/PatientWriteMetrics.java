@@ -0,0 +1,53 @@
+package com.pm.patientservice.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code patient.write.phase}: latency histogram of each step of a patient create or update, so a slow write
+ * can be pinned on the database, billing-service or Kafka. Timers are registered up front; recording one is a
+ * map lookup and two clock reads.
+ */
+@Component
+public class PatientWriteMetrics {
+
+  public enum Operation {
+    CREATE, UPDATE
+  }
+
+  public enum Phase {
+    FIND, EXISTS_CHECK, SAVE, BILLING, KAFKA
+  }
+
+  private final Map<Operation, Map<Phase, Timer>> timers = new EnumMap<>(Operation.class);
+
+  public PatientWriteMetrics(MeterRegistry meterRegistry) {
+    for (Operation operation : Operation.values()) {
+      Map<Phase, Timer> phases = new EnumMap<>(Phase.class);
+      for (Phase phase : Phase.values()) {
+        phases.put(phase, Timer.builder("patient.write.phase")
+                               .tag("operation", operation.name().toLowerCase())
+                               .tag("phase", phase.name().toLowerCase())
+                               .publishPercentileHistogram()
+                               .minimumExpectedValue(Duration.ofMillis(1))
+                               .maximumExpectedValue(Duration.ofSeconds(10))
+                               .register(meterRegistry));
+      }
+      timers.put(operation, phases);
+    }
+  }
+
+  // failed steps are recorded too: a timeout is exactly the latency worth seeing
+  public <T> T time(Operation operation, Phase phase, Supplier<T> step) {
+    return timers.get(operation).get(phase).record(step);
+  }
+
+  public void time(Operation operation, Phase phase, Runnable step) {
+    timers.get(operation).get(phase).record(step);
+  }
+}
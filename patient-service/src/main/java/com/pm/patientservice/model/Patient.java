@@ -1,8 +1,10 @@
 package com.pm.patientservice.model;
 
+import com.pm.patientservice.id.TimeOrderedUuidGenerator;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.UuidGenerator;
 
 import java.time.LocalDate;
 import java.util.UUID;
@@ -10,7 +12,7 @@ import java.util.UUID;
 @Entity
 public class Patient {
   @Id
-  @GeneratedValue(strategy = GenerationType.AUTO)
+  @UuidGenerator(algorithm = TimeOrderedUuidGenerator.class)
   private UUID id;
   
   @NotNull
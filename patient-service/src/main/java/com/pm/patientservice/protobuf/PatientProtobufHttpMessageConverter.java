@@ -0,0 +1,120 @@
+package com.pm.patientservice.protobuf;
+
+import com.google.protobuf.CodedOutputStream;
+import com.pm.patientservice.dto.PatientResponseDTO;
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import patient.api.PatientResponse;
+
+/**
+ * Writes {@link PatientResponseDTO}s as protobuf for clients that ask for {@code application/x-protobuf}.
+ * A collection goes out as length-delimited messages, each encoded straight into the response stream, so
+ * the client can decode while the body is still arriving and nothing holds the whole encoded list.
+ * Response bodies only; requests stay JSON.
+ */
+public class PatientProtobufHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+  public static final MediaType PROTOBUF = new MediaType("application", "x-protobuf");
+  public static final MediaType PROTOBUF_DELIMITED = new MediaType(PROTOBUF, Map.of("delimited", "true"));
+  private static final String MESSAGE_HEADER = "X-Protobuf-Message";
+
+  public PatientProtobufHttpMessageConverter() {
+    super(PROTOBUF);
+  }
+
+  @Override
+  protected boolean supports(Class<?> clazz) {
+    return PatientResponseDTO.class == clazz;
+  }
+
+  @Override
+  public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+    return canWrite(mediaType) && (supports(clazz) || isPatientCollection(type));
+  }
+
+  // negotiation asks by raw class first, before the generic canWrite sees the element type
+  @Override
+  public List<MediaType> getSupportedMediaTypes(Class<?> clazz) {
+    return supports(clazz) || Collection.class.isAssignableFrom(clazz) ? getSupportedMediaTypes() : List.of();
+  }
+
+  @Override
+  public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+    return false;
+  }
+
+  @Override
+  protected boolean canRead(MediaType mediaType) {
+    return false;
+  }
+
+  @Override
+  protected void addDefaultHeaders(HttpHeaders headers, Object body, MediaType contentType) throws IOException {
+    headers.set(MESSAGE_HEADER, PatientResponse.getDescriptor().getFullName());
+    super.addDefaultHeaders(headers, body, body instanceof Collection<?> ? PROTOBUF_DELIMITED : contentType);
+  }
+
+  @Override
+  protected void writeInternal(Object body, Type type, HttpOutputMessage outputMessage) throws IOException {
+    CodedOutputStream output = CodedOutputStream.newInstance(outputMessage.getBody());
+    if (body instanceof Collection<?> patients) {
+      for (Object patient : patients) {
+        PatientResponse message = toProto((PatientResponseDTO) patient);
+        output.writeUInt32NoTag(message.getSerializedSize());
+        message.writeTo(output);
+      }
+    }
+    else {
+      toProto((PatientResponseDTO) body).writeTo(output);
+    }
+    output.flush();
+  }
+
+  @Override
+  public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+    throw new HttpMessageNotReadableException("Protobuf request bodies are not supported", inputMessage);
+  }
+
+  @Override
+  protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+    throw new HttpMessageNotReadableException("Protobuf request bodies are not supported", inputMessage);
+  }
+
+  static PatientResponse toProto(PatientResponseDTO patient) {
+    PatientResponse.Builder message = PatientResponse.newBuilder();
+    // proto3 strings cannot be null; absent stays the empty default
+    if (patient.getId() != null) {
+      message.setId(patient.getId());
+    }
+    if (patient.getName() != null) {
+      message.setName(patient.getName());
+    }
+    if (patient.getEmail() != null) {
+      message.setEmail(patient.getEmail());
+    }
+    if (patient.getAddress() != null) {
+      message.setAddress(patient.getAddress());
+    }
+    if (patient.getDateOfBirth() != null) {
+      message.setDateOfBirth(patient.getDateOfBirth());
+    }
+    return message.build();
+  }
+
+  private static boolean isPatientCollection(Type type) {
+    return type instanceof ParameterizedType parameterized
+      && parameterized.getRawType() instanceof Class<?> raw
+      && Collection.class.isAssignableFrom(raw)
+      && parameterized.getActualTypeArguments()[0] == PatientResponseDTO.class;
+  }
+}
@@ -0,0 +1,16 @@
+package com.pm.patientservice.protobuf;
+
+import java.util.List;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class ProtobufWebConfig implements WebMvcConfigurer {
+
+  // added after Jackson, so JSON is still chosen for Accept: */* or no Accept header
+  @Override
+  public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+    converters.add(new PatientProtobufHttpMessageConverter());
+  }
+}
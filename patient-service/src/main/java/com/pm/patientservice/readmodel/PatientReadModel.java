@@ -0,0 +1,233 @@
+package com.pm.patientservice.readmodel;
+
+import com.pm.patientservice.dto.PatientResponseDTO;
+import com.pm.patientservice.kafka.KafkaProducer;
+import com.pm.patientservice.model.Patient;
+import com.pm.patientservice.repository.PatientView;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import patient.events.PatientEvent;
+
+/**
+ * Optional CQRS read side: every instance keeps all patients in memory, loaded once at startup and
+ * then kept current from the "patient" topic. Until the load finishes, reads keep going to the database.
+ * <p>
+ * Events that arrive during the load are queued and applied afterwards. Events carry the full
+ * patient state, so replaying one that the database snapshot already contains is harmless.
+ */
+@Component
+@ConditionalOnProperty(
+  name = "patient.read-model.enabled",
+  havingValue = "true"
+)
+public class PatientReadModel {
+
+  private static final Logger log = LoggerFactory.getLogger(PatientReadModel.class);
+  private static final String LOAD_QUERY =
+    "SELECT id, name, email, address, date_of_birth, registered_date FROM patient";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final PatientSnapshot snapshot;
+  private final Queue<PatientEvent> pendingEvents = new ArrayDeque<>();
+  private final Instant createdAt = Instant.now();
+  private volatile boolean ready;
+  private volatile Instant watermark;
+  private volatile long loadTimeMillis = -1;
+
+  public PatientReadModel(DataSource dataSource,
+                          PlatformTransactionManager transactionManager,
+                          MeterRegistry meterRegistry,
+                          @Value("${patient.read-model.fetch-size:1000}") int fetchSize,
+                          @Value("${patient.read-model.initial-capacity:1024}") int initialCapacity) {
+    this.jdbcTemplate = new JdbcTemplate(dataSource);
+    this.jdbcTemplate.setFetchSize(fetchSize);
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.transactionTemplate.setReadOnly(true);
+    this.snapshot = new PatientSnapshot(initialCapacity);
+
+    Gauge.builder("patient.read-model.size", this, model -> model.read(PatientSnapshot::size))
+         .register(meterRegistry);
+    Gauge.builder("patient.read-model.bytes-per-patient", this, PatientReadModel::bytesPerPatient)
+         .baseUnit("bytes")
+         .register(meterRegistry);
+    Gauge.builder("patient.read-model.load-time", this, model -> model.loadTimeMillis)
+         .baseUnit("milliseconds")
+         .register(meterRegistry);
+    Gauge.builder("patient.read-model.staleness", this,
+           model -> model.watermark == null ? -1 : Instant.now().toEpochMilli() - model.watermark.toEpochMilli())
+         .baseUnit("milliseconds")
+         .register(meterRegistry);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void load() {
+    long start = System.nanoTime();
+    Instant loadStartedAt = Instant.now();
+    transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(LOAD_QUERY, rs -> {
+      UUID id = rs.getObject(1, UUID.class);
+      String name = rs.getString(2);
+      String email = rs.getString(3);
+      String address = rs.getString(4);
+      LocalDate dateOfBirth = rs.getObject(5, LocalDate.class);
+      LocalDate registeredDate = rs.getObject(6, LocalDate.class);
+      write(s -> {
+        s.upsert(id, name, email, address, dateOfBirth, registeredDate);
+        return null;
+      });
+    }));
+
+    lock.writeLock().lock();
+    try {
+      int replayed = pendingEvents.size();
+      PatientEvent event;
+      while ((event = pendingEvents.poll()) != null) {
+        applyEvent(event);
+      }
+      watermark = watermark == null || watermark.isBefore(loadStartedAt) ? loadStartedAt : watermark;
+      ready = true;
+      loadTimeMillis = (System.nanoTime() - start) / 1_000_000;
+      log.info("Patient read model loaded {} patients in {} ms ({} queued events replayed, ~{} bytes/patient)",
+        snapshot.size(), loadTimeMillis, replayed, Math.round(bytesPerPatient()));
+    }
+    finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public void onEvent(PatientEvent event, Instant eventTime) {
+    lock.writeLock().lock();
+    try {
+      if (!ready) {
+        pendingEvents.add(event);
+        return;
+      }
+      applyEvent(event);
+      if (watermark == null || eventTime.isAfter(watermark)) {
+        watermark = eventTime;
+      }
+    }
+    finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  // Local writes are applied immediately, so this instance reads its own writes before the event comes back
+  public void onWrite(Patient patient) {
+    write(s -> {
+      s.upsert(patient.getId(), patient.getName(), patient.getEmail(), patient.getAddress(),
+        patient.getDateOfBirth(), patient.getRegisteredDate());
+      return null;
+    });
+  }
+
+  public void onDelete(UUID id) {
+    write(s -> s.remove(id));
+  }
+
+  public boolean isReady() {
+    return ready;
+  }
+
+  // The newest event (or the load start) reflected in the snapshot
+  public Instant getWatermark() {
+    return watermark;
+  }
+
+  public List<PatientResponseDTO> findAll() {
+    return read(PatientSnapshot::list);
+  }
+
+  public PatientResponseDTO findById(UUID id) {
+    return read(s -> s.get(id));
+  }
+
+  public List<PatientResponseDTO> search(String query, int limit) {
+    return read(s -> s.search(query, limit));
+  }
+
+  public PatientView findViewById(UUID id) {
+    return read(s -> s.view(id));
+  }
+
+  // Patients that no longer exist are left out
+  public List<PatientView> findViewsByIds(Collection<UUID> ids) {
+    return read(s -> {
+      List<PatientView> views = new ArrayList<>(ids.size());
+      for (UUID id : ids) {
+        PatientView view = s.view(id);
+        if (view != null) {
+          views.add(view);
+        }
+      }
+      return views;
+    });
+  }
+
+  // Sorted like the database's uuid order, so paging can switch between the two
+  public UUID[] idsAfter(UUID after) {
+    return read(s -> s.idsAfter(after));
+  }
+
+  private double bytesPerPatient() {
+    return read(s -> s.size() == 0 ? 0.0 : (double) s.estimatedBytes() / s.size());
+  }
+
+  private void applyEvent(PatientEvent event) {
+    UUID id = UUID.fromString(event.getPatientId());
+    if (KafkaProducer.PATIENT_DELETED.equals(event.getEventType())) {
+      snapshot.remove(id);
+      return;
+    }
+    snapshot.upsert(id, event.getName(), event.getEmail(), event.getAddress(),
+      event.getDateOfBirth().isEmpty() ? null : LocalDate.parse(event.getDateOfBirth()),
+      event.getRegisteredDate().isEmpty() ? null : LocalDate.parse(event.getRegisteredDate()));
+  }
+
+  private <T> T read(Function<PatientSnapshot, T> reader) {
+    lock.readLock().lock();
+    try {
+      return reader.apply(snapshot);
+    }
+    finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private <T> T write(Function<PatientSnapshot, T> writer) {
+    lock.writeLock().lock();
+    try {
+      return writer.apply(snapshot);
+    }
+    finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  Instant getCreatedAt() {
+    return createdAt;
+  }
+}
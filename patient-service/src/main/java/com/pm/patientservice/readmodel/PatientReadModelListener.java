@@ -0,0 +1,63 @@
+package com.pm.patientservice.readmodel;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import java.time.Instant;
+import java.util.Map;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.stereotype.Component;
+import patient.events.PatientEvent;
+
+// Every instance needs every event, so partitions are assigned directly instead of through group membership.
+// The group id only names the offsets the container commits, which are never read (startup seeks by time);
+// it is fixed so restarts do not leave a new group behind each time.
+@Component
+@ConditionalOnProperty(
+  name = "patient.read-model.enabled",
+  havingValue = "true"
+)
+public class PatientReadModelListener implements ConsumerSeekAware {
+
+  private static final Logger log = LoggerFactory.getLogger(PatientReadModelListener.class);
+  private final PatientReadModel readModel;
+  private final long replayMarginMillis;
+
+  public PatientReadModelListener(PatientReadModel readModel,
+                                  @Value("${patient.read-model.replay-margin-ms:30000}") long replayMarginMillis) {
+    this.readModel = readModel;
+    this.replayMarginMillis = replayMarginMillis;
+  }
+
+  @Override
+  public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+    // start a little before the instance came up, so nothing committed between the snapshot and this assignment is missed
+    callback.seekToTimestamp(assignments.keySet(), readModel.getCreatedAt().toEpochMilli() - replayMarginMillis);
+  }
+
+  @KafkaListener(
+    groupId = "patient-read-model",
+    topicPartitions = @org.springframework.kafka.annotation.TopicPartition(
+      topic = "patient",
+      partitions = "#{@patientTopicPartitions.ids()}"
+    ),
+    properties = {
+      "key.deserializer=org.apache.kafka.common.serialization.StringDeserializer",
+      "value.deserializer=org.apache.kafka.common.serialization.ByteArrayDeserializer",
+      "enable.auto.commit=false"
+    }
+  )
+  public void consumeEvent(ConsumerRecord<String, byte[]> record) {
+    try {
+      readModel.onEvent(PatientEvent.parseFrom(record.value()), Instant.ofEpochMilli(record.timestamp()));
+    }
+    catch (InvalidProtocolBufferException e) {
+      log.error("Error deserializing patient event: {}", e.getMessage());
+    }
+  }
+}
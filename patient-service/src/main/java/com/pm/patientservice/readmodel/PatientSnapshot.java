@@ -0,0 +1,291 @@
+package com.pm.patientservice.readmodel;
+
+import com.pm.patientservice.dto.PatientResponseDTO;
+import com.pm.patientservice.repository.PatientView;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Column-per-array store of every patient: two longs for the id, two ints (epoch days) for the dates
+ * and references to the strings, with one copy of each address shared by the patients at it. Rows are
+ * kept dense (a delete moves the last row into the hole) and looked up through an open-addressing int
+ * table instead of boxed map entries.
+ * <p>
+ * Not thread safe; {@link PatientReadModel} guards it with a read/write lock.
+ */
+class PatientSnapshot {
+
+  private static final int NO_DATE = Integer.MIN_VALUE;
+  // String header + array header (compressed oops); the characters are added per string
+  private static final int STRING_OVERHEAD = 40;
+
+  private long[] idHigh;
+  private long[] idLow;
+  private String[] names;
+  private String[] emails;
+  private String[] addresses;
+  private int[] birthDays;
+  private int[] registeredDays;
+  private int size;
+
+  // slot + 1, 0 marks an empty bucket
+  private int[] index;
+  // Addresses repeat (households, care homes); names are close to unique and kept as given. An address
+  // is dropped from here once no patient has it.
+  private final Map<String, SharedAddress> sharedAddresses = new HashMap<>();
+
+  PatientSnapshot(int initialCapacity) {
+    int capacity = Math.max(16, initialCapacity);
+    idHigh = new long[capacity];
+    idLow = new long[capacity];
+    names = new String[capacity];
+    emails = new String[capacity];
+    addresses = new String[capacity];
+    birthDays = new int[capacity];
+    registeredDays = new int[capacity];
+    index = new int[Integer.highestOneBit(capacity * 2 - 1) << 1];
+  }
+
+  int size() {
+    return size;
+  }
+
+  void upsert(UUID id, String name, String email, String address, LocalDate dateOfBirth, LocalDate registeredDate) {
+    int slot = find(id.getMostSignificantBits(), id.getLeastSignificantBits());
+    if (slot < 0) {
+      if (size == idHigh.length) {
+        grow();
+      }
+      slot = size++;
+      idHigh[slot] = id.getMostSignificantBits();
+      idLow[slot] = id.getLeastSignificantBits();
+      insertIndex(slot);
+    }
+    String previousAddress = addresses[slot];
+    names[slot] = name;
+    emails[slot] = email;
+    addresses[slot] = acquireAddress(address);
+    releaseAddress(previousAddress);
+    birthDays[slot] = dateOfBirth == null ? NO_DATE : (int) dateOfBirth.toEpochDay();
+    registeredDays[slot] = registeredDate == null ? NO_DATE : (int) registeredDate.toEpochDay();
+  }
+
+  boolean remove(UUID id) {
+    int bucket = findBucket(id.getMostSignificantBits(), id.getLeastSignificantBits());
+    if (bucket < 0) {
+      return false;
+    }
+    int slot = index[bucket] - 1;
+    removeBucket(bucket);
+    releaseAddress(addresses[slot]);
+    int last = --size;
+    if (slot != last) {
+      // keep the arrays dense: move the last row into the freed slot and repoint its bucket
+      index[findBucket(idHigh[last], idLow[last])] = slot + 1;
+      idHigh[slot] = idHigh[last];
+      idLow[slot] = idLow[last];
+      names[slot] = names[last];
+      emails[slot] = emails[last];
+      addresses[slot] = addresses[last];
+      birthDays[slot] = birthDays[last];
+      registeredDays[slot] = registeredDays[last];
+    }
+    names[last] = null;
+    emails[last] = null;
+    addresses[last] = null;
+    return true;
+  }
+
+  PatientResponseDTO get(UUID id) {
+    int slot = find(id.getMostSignificantBits(), id.getLeastSignificantBits());
+    return slot < 0 ? null : toDTO(slot);
+  }
+
+  PatientView view(UUID id) {
+    int slot = find(id.getMostSignificantBits(), id.getLeastSignificantBits());
+    if (slot < 0) {
+      return null;
+    }
+    return new PatientView(id, names[slot], emails[slot], addresses[slot], date(birthDays[slot]),
+      date(registeredDays[slot]));
+  }
+
+  // Ids after {@code after} in the database's uuid order (unsigned, most significant half first)
+  UUID[] idsAfter(UUID after) {
+    long afterHigh = after.getMostSignificantBits();
+    long afterLow = after.getLeastSignificantBits();
+    UUID[] ids = new UUID[size];
+    int count = 0;
+    for (int slot = 0; slot < size; slot++) {
+      if (compareUnsigned(idHigh[slot], idLow[slot], afterHigh, afterLow) > 0) {
+        ids[count++] = new UUID(idHigh[slot], idLow[slot]);
+      }
+    }
+    ids = Arrays.copyOf(ids, count);
+    Arrays.sort(ids, (a, b) -> compareUnsigned(a.getMostSignificantBits(), a.getLeastSignificantBits(),
+      b.getMostSignificantBits(), b.getLeastSignificantBits()));
+    return ids;
+  }
+
+  List<PatientResponseDTO> list() {
+    List<PatientResponseDTO> patients = new ArrayList<>(size);
+    for (int slot = 0; slot < size; slot++) {
+      patients.add(toDTO(slot));
+    }
+    return patients;
+  }
+
+  List<PatientResponseDTO> search(String query, int limit) {
+    String needle = query.toLowerCase(Locale.ROOT);
+    List<PatientResponseDTO> matches = new ArrayList<>();
+    for (int slot = 0; slot < size && matches.size() < limit; slot++) {
+      if (names[slot].toLowerCase(Locale.ROOT).contains(needle)
+        || emails[slot].toLowerCase(Locale.ROOT).contains(needle)) {
+        matches.add(toDTO(slot));
+      }
+    }
+    return matches;
+  }
+
+  long estimatedBytes() {
+    long bytes = (long) idHigh.length * (8 + 8 + 4 + 4 + 3 * 4) + (long) index.length * 4;
+    for (int slot = 0; slot < size; slot++) {
+      bytes += STRING_OVERHEAD + emails[slot].length();
+      if (names[slot] != null) {
+        bytes += STRING_OVERHEAD + names[slot].length();
+      }
+    }
+    for (String value : sharedAddresses.keySet()) {
+      // plus the HashMap node and the reference count
+      bytes += STRING_OVERHEAD + value.length() + 32 + 16;
+    }
+    return bytes;
+  }
+
+  private PatientResponseDTO toDTO(int slot) {
+    PatientResponseDTO patientDTO = new PatientResponseDTO();
+    patientDTO.setId(new UUID(idHigh[slot], idLow[slot]).toString());
+    patientDTO.setName(names[slot]);
+    patientDTO.setEmail(emails[slot]);
+    patientDTO.setAddress(addresses[slot]);
+    patientDTO.setDateOfBirth(birthDays[slot] == NO_DATE ? null : LocalDate.ofEpochDay(birthDays[slot]).toString());
+    return patientDTO;
+  }
+
+  private static LocalDate date(int epochDay) {
+    return epochDay == NO_DATE ? null : LocalDate.ofEpochDay(epochDay);
+  }
+
+  private static int compareUnsigned(long high, long low, long otherHigh, long otherLow) {
+    int byHigh = Long.compareUnsigned(high, otherHigh);
+    return byHigh != 0 ? byHigh : Long.compareUnsigned(low, otherLow);
+  }
+
+  int distinctAddresses() {
+    return sharedAddresses.size();
+  }
+
+  private String acquireAddress(String address) {
+    if (address == null) {
+      return null;
+    }
+    SharedAddress shared = sharedAddresses.computeIfAbsent(address, SharedAddress::new);
+    shared.references++;
+    return shared.value;
+  }
+
+  private void releaseAddress(String address) {
+    if (address == null) {
+      return;
+    }
+    SharedAddress shared = sharedAddresses.get(address);
+    if (shared != null && --shared.references == 0) {
+      sharedAddresses.remove(address);
+    }
+  }
+
+  private void grow() {
+    int capacity = idHigh.length + (idHigh.length >> 1);
+    idHigh = Arrays.copyOf(idHigh, capacity);
+    idLow = Arrays.copyOf(idLow, capacity);
+    names = Arrays.copyOf(names, capacity);
+    emails = Arrays.copyOf(emails, capacity);
+    addresses = Arrays.copyOf(addresses, capacity);
+    birthDays = Arrays.copyOf(birthDays, capacity);
+    registeredDays = Arrays.copyOf(registeredDays, capacity);
+    if (capacity * 2 > index.length) {
+      index = new int[index.length << 1];
+      for (int slot = 0; slot < size; slot++) {
+        insertIndex(slot);
+      }
+    }
+  }
+
+  private static int hash(long high, long low) {
+    long mixed = (high ^ low) * 0x9E3779B97F4A7C15L;
+    return (int) (mixed ^ (mixed >>> 32));
+  }
+
+  private int find(long high, long low) {
+    int bucket = findBucket(high, low);
+    return bucket < 0 ? -1 : index[bucket] - 1;
+  }
+
+  private int findBucket(long high, long low) {
+    int mask = index.length - 1;
+    for (int bucket = hash(high, low) & mask; ; bucket = (bucket + 1) & mask) {
+      int entry = index[bucket];
+      if (entry == 0) {
+        return -1;
+      }
+      if (idHigh[entry - 1] == high && idLow[entry - 1] == low) {
+        return bucket;
+      }
+    }
+  }
+
+  private void insertIndex(int slot) {
+    int mask = index.length - 1;
+    int bucket = hash(idHigh[slot], idLow[slot]) & mask;
+    while (index[bucket] != 0) {
+      bucket = (bucket + 1) & mask;
+    }
+    index[bucket] = slot + 1;
+  }
+
+  private static final class SharedAddress {
+
+    private final String value;
+    private int references;
+
+    private SharedAddress(String value) {
+      this.value = value;
+    }
+  }
+
+  // backward-shift deletion, so linear probing never needs tombstones
+  private void removeBucket(int hole) {
+    int mask = index.length - 1;
+    int bucket = hole;
+    while (true) {
+      bucket = (bucket + 1) & mask;
+      int entry = index[bucket];
+      if (entry == 0) {
+        break;
+      }
+      int home = hash(idHigh[entry - 1], idLow[entry - 1]) & mask;
+      boolean stays = hole <= bucket ? hole < home && home <= bucket : hole < home || home <= bucket;
+      if (!stays) {
+        index[hole] = entry;
+        hole = bucket;
+      }
+    }
+    index[hole] = 0;
+  }
+}
@@ -1,14 +1,37 @@
 package com.pm.patientservice.repository;
 
 import com.pm.patientservice.model.Patient;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface PatientRepository extends JpaRepository<Patient, UUID> {
   
+  // not read-only: uniqueness must be checked on the primary, never on a lagging replica. Only a SELECT runs, so
+  // the session is not marked as having written (see ReplicaRoutingDataSource)
+  @Transactional
   boolean existsByEmail(String email);
   
+  @Transactional(readOnly = true)
+  List<Patient> findByNameContainingIgnoreCaseOrEmailContainingIgnoreCase(String name, String email,
+                                                                         Pageable pageable);
+  
+  @Transactional(readOnly = true)
+  Optional<PatientView> findViewById(UUID id);
+  
+  @Transactional(readOnly = true)
+  List<PatientView> findViewsByIdIn(Collection<UUID> ids);
+  
+  // keyset page; ids are UUIDv7, so id order is roughly creation order
+  @Transactional(readOnly = true)
+  List<PatientView> findViewsByIdGreaterThanOrderByIdAsc(UUID after, Limit limit);
+  
 }
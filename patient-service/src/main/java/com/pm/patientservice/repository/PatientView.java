@@ -0,0 +1,13 @@
+package com.pm.patientservice.repository;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+// DTO projection: the query selects these columns into the constructor, no entity is hydrated or tracked
+public record PatientView(UUID id,
+                          String name,
+                          String email,
+                          String address,
+                          LocalDate dateOfBirth,
+                          LocalDate registeredDate) {
+}
@@ -2,17 +2,39 @@ package com.pm.patientservice.service;
 
 import com.pm.patientservice.dto.PatientRequestDTO;
 import com.pm.patientservice.dto.PatientResponseDTO;
+import com.pm.patientservice.emailfilter.KnownEmails;
 import com.pm.patientservice.exception.EmailAlreadyExistsException;
 import com.pm.patientservice.exception.PatientNotFoundException;
 import com.pm.patientservice.grpc.BillingServiceGrpcClient;
 import com.pm.patientservice.kafka.KafkaProducer;
 import com.pm.patientservice.mapper.PatientMapper;
+import com.pm.patientservice.metrics.PatientWriteMetrics;
+import com.pm.patientservice.metrics.PatientWriteMetrics.Operation;
+import com.pm.patientservice.metrics.PatientWriteMetrics.Phase;
 import com.pm.patientservice.model.Patient;
+import com.pm.patientservice.readmodel.PatientReadModel;
 import com.pm.patientservice.repository.PatientRepository;
+import com.pm.patientservice.repository.PatientView;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
 import java.util.UUID;
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.exception.ConstraintViolationException.ConstraintKind;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @Service
 public class PatientService {
@@ -20,76 +42,286 @@ public class PatientService {
   private final PatientRepository patientRepository;
   private final BillingServiceGrpcClient billingServiceGrpcClient;
   private final KafkaProducer kafkaProducer;
+  private final PatientWriteMetrics writeMetrics;
+  // only present when patient.read-model.enabled=true
+  private final PatientReadModel readModel;
+  // only present when patient.email-filter.enabled=true
+  private final KnownEmails knownEmails;
 
   public PatientService(
       PatientRepository patientRepository,
       BillingServiceGrpcClient billingServiceGrpcClient,
-      KafkaProducer kafkaProducer
+      KafkaProducer kafkaProducer,
+      PatientWriteMetrics writeMetrics,
+      ObjectProvider<PatientReadModel> readModel,
+      ObjectProvider<KnownEmails> knownEmails
   ) {
     this.patientRepository = patientRepository;
     this.billingServiceGrpcClient = billingServiceGrpcClient;
     this.kafkaProducer = kafkaProducer;
+    this.writeMetrics = writeMetrics;
+    this.readModel = readModel.getIfAvailable();
+    this.knownEmails = knownEmails.getIfAvailable();
   }
 
+  // Repository reads run in read-only transactions (routable to a replica); no transaction is opened
+  // here so the in-memory read model does not borrow a connection it never uses.
   public List<PatientResponseDTO> getPatients() {
+    if (isReadModelReady()) {
+      return readModel.findAll();
+    }
     List<Patient> patients = patientRepository.findAll();
     return patients.stream()
                    .map(PatientMapper::toDTO)
                    .toList();
   }
 
+  public PatientResponseDTO getPatient(UUID id) {
+    PatientResponseDTO patient = isReadModelReady()
+        ? readModel.findById(id)
+        : patientRepository.findById(id)
+                           .map(PatientMapper::toDTO)
+                           .orElse(null);
+    if (patient == null) {
+      throw new PatientNotFoundException("Patient not found with ID: " + id);
+    }
+    return patient;
+  }
+
+  public List<PatientResponseDTO> searchPatients(String query, int limit) {
+    if (isReadModelReady()) {
+      return readModel.search(query, limit);
+    }
+    return patientRepository.findByNameContainingIgnoreCaseOrEmailContainingIgnoreCase(
+                                query, query, PageRequest.of(0, limit))
+                            .stream()
+                            .map(PatientMapper::toDTO)
+                            .toList();
+  }
+
+  public Optional<PatientView> findPatientView(UUID id) {
+    if (isReadModelReady()) {
+      return Optional.ofNullable(readModel.findViewById(id));
+    }
+    return patientRepository.findViewById(id);
+  }
+
+  // Ids that do not exist are left out; the result is in no particular order
+  public List<PatientView> findPatientViews(Collection<UUID> ids) {
+    if (isReadModelReady()) {
+      return readModel.findViewsByIds(ids);
+    }
+    return patientRepository.findViewsByIdIn(ids);
+  }
+
+  // Pages of patients with ids after {@code after}, in id order. The read model's id list is taken once and
+  // each page looked up when it is reached; against the database every page is its own keyset query.
+  public Iterator<List<PatientView>> pagesAfter(UUID after, int pageSize) {
+    if (isReadModelReady()) {
+      List<UUID> ids = Arrays.asList(readModel.idsAfter(after));
+      return new Iterator<>() {
+        private int position;
+
+        @Override
+        public boolean hasNext() {
+          return position < ids.size();
+        }
+
+        @Override
+        public List<PatientView> next() {
+          if (!hasNext()) {
+            throw new NoSuchElementException();
+          }
+          int end = Math.min(position + pageSize, ids.size());
+          List<PatientView> page = readModel.findViewsByIds(ids.subList(position, end));
+          position = end;
+          return page;
+        }
+      };
+    }
+    return new Iterator<>() {
+      private UUID cursor = after;
+      private List<PatientView> page;
+      private boolean exhausted;
+
+      @Override
+      public boolean hasNext() {
+        if (page == null && !exhausted) {
+          List<PatientView> fetched = patientRepository.findViewsByIdGreaterThanOrderByIdAsc(cursor,
+              Limit.of(pageSize));
+          exhausted = fetched.size() < pageSize;
+          if (!fetched.isEmpty()) {
+            page = fetched;
+            cursor = fetched.get(fetched.size() - 1).id();
+          }
+        }
+        return page != null;
+      }
+
+      @Override
+      public List<PatientView> next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        List<PatientView> next = page;
+        page = null;
+        return next;
+      }
+    };
+  }
+
+  // Null when reads are served by the database
+  public Instant getReadModelWatermark() {
+    return isReadModelReady() ? readModel.getWatermark() : null;
+  }
+
+  private boolean isReadModelReady() {
+    return readModel != null && readModel.isReady();
+  }
+
+  // The unique constraint on email has the final say; this check only turns the common case into a clear
+  // error before anything is written, and is skipped when the email filter knows the email is new.
+  private boolean emailTaken(Operation operation, String email) {
+    if (knownEmails == null) {
+      return writeMetrics.time(operation, Phase.EXISTS_CHECK, () -> patientRepository.existsByEmail(email));
+    }
+    if (knownEmails.isDefinitelyNew(email)) {
+      return false;
+    }
+    boolean taken = writeMetrics.time(operation, Phase.EXISTS_CHECK, () -> patientRepository.existsByEmail(email));
+    knownEmails.checked(taken);
+    return taken;
+  }
+
+  private EmailAlreadyExistsException emailAlreadyExists(String email) {
+    return new EmailAlreadyExistsException("A patient with this email already exists: " + email);
+  }
+
+  // A duplicate that got past emailTaken, from a concurrent write or an email the filter had not heard of
+  private RuntimeException translate(DataIntegrityViolationException e, String email) {
+    boolean unique = e instanceof DuplicateKeyException
+        || e.getCause() instanceof ConstraintViolationException violation
+           && violation.getKind() == ConstraintKind.UNIQUE;
+    if (!unique) {
+      return e;
+    }
+    if (knownEmails != null) {
+      knownEmails.missed();
+      knownEmails.add(email);
+    }
+    return emailAlreadyExists(email);
+  }
+
+  private void onEmailWritten(String email) {
+    if (knownEmails != null) {
+      knownEmails.add(email);
+    }
+  }
+
   public PatientResponseDTO createPatient(PatientRequestDTO patientRequestDTO) {
 
-    if (patientRepository.existsByEmail(patientRequestDTO.getEmail())) {
-      throw new EmailAlreadyExistsException(
-          "A patient with this email already exists: "
-              + patientRequestDTO.getEmail());
+    if (emailTaken(Operation.CREATE, patientRequestDTO.getEmail())) {
+      throw emailAlreadyExists(patientRequestDTO.getEmail());
     }
 
-    Patient newPatient = patientRepository.save(PatientMapper.toModel(
-        patientRequestDTO));
+    Patient newPatient;
+    try {
+      newPatient = writeMetrics.time(Operation.CREATE, Phase.SAVE,
+          () -> patientRepository.save(PatientMapper.toModel(patientRequestDTO)));
+    }
+    catch (DataIntegrityViolationException e) {
+      throw translate(e, patientRequestDTO.getEmail());
+    }
+    onEmailWritten(newPatient.getEmail());
     // Call Billing Service to create a billing account for the new patient
-    billingServiceGrpcClient.createBillingAccount(
-        newPatient.getId()
-                  .toString(), newPatient.getName(),
-        newPatient.getEmail()
-    );
+    writeMetrics.time(Operation.CREATE, Phase.BILLING,
+        () -> billingServiceGrpcClient.createBillingAccount(
+            newPatient.getId()
+                      .toString(), newPatient.getName(),
+            newPatient.getEmail()
+        ));
 
-    kafkaProducer.sendEvent(newPatient);
+    writeMetrics.time(Operation.CREATE, Phase.KAFKA, () -> kafkaProducer.sendEvent(newPatient));
+    if (readModel != null) {
+      readModel.onWrite(newPatient);
+    }
 
     return PatientMapper.toDTO(newPatient);
   }
 
+  @Transactional
   public PatientResponseDTO updatePatient(
       UUID id,
       PatientRequestDTO patientRequestDTO
   ) {
-    Patient patient = patientRepository.findById(id)
-                                       .orElseThrow(
-                                           () -> new PatientNotFoundException(
-                                               "Patient not found with ID: "
-                                                   + id));
+    Patient patient = writeMetrics.time(Operation.UPDATE, Phase.FIND, () -> patientRepository.findById(id))
+                                  .orElseThrow(
+                                      () -> new PatientNotFoundException(
+                                          "Patient not found with ID: "
+                                              + id));
     // only update patient email if it has changed or/and if it is not already taken
-    if (!patient.getEmail()
-                .equals(patientRequestDTO.getEmail()) &&
-        patientRepository.existsByEmail(patientRequestDTO.getEmail())) {
-      throw new EmailAlreadyExistsException(
-          "A patient with this email already exists: "
-              + patientRequestDTO.getEmail());
+    boolean emailChanged = !patient.getEmail()
+                                   .equals(patientRequestDTO.getEmail());
+    if (emailChanged && emailTaken(Operation.UPDATE, patientRequestDTO.getEmail())) {
+      throw emailAlreadyExists(patientRequestDTO.getEmail());
     }
     patient.setName(patientRequestDTO.getName());
     patient.setEmail(patientRequestDTO.getEmail());
     patient.setAddress(patientRequestDTO.getAddress());
     patient.setDateOfBirth(LocalDate.parse(patientRequestDTO.getDateOfBirth()));
-    Patient updatedPatient = patientRepository.save(patient);
+    Patient updatedPatient;
+    if (emailChanged) {
+      // flushed here rather than on commit, so a unique violation surfaces while it can still be mapped
+      try {
+        updatedPatient = writeMetrics.time(Operation.UPDATE, Phase.SAVE,
+            () -> patientRepository.saveAndFlush(patient));
+      }
+      catch (DataIntegrityViolationException e) {
+        throw translate(e, patientRequestDTO.getEmail());
+      }
+      onEmailWritten(updatedPatient.getEmail());
+    }
+    else {
+      // the UPDATE statement itself is flushed on commit, after this method returns
+      updatedPatient = writeMetrics.time(Operation.UPDATE, Phase.SAVE, () -> patientRepository.save(patient));
+    }
+    afterCommit(() -> {
+      writeMetrics.time(Operation.UPDATE, Phase.KAFKA,
+          () -> kafkaProducer.sendEvent(updatedPatient, KafkaProducer.PATIENT_UPDATED));
+      if (readModel != null) {
+        readModel.onWrite(updatedPatient);
+      }
+    });
     return PatientMapper.toDTO(updatedPatient);
   }
 
+  @Transactional
   public void deletePatient(UUID id) {
     if (!patientRepository.existsById(id)) {
       throw new PatientNotFoundException("Patient not found with ID: " + id);
     }
     patientRepository.deleteById(id);
+    afterCommit(() -> {
+      kafkaProducer.sendDeletedEvent(id);
+      if (readModel != null) {
+        readModel.onDelete(id);
+      }
+    });
+  }
+
+  // The event and the read model must not get ahead of the database: a write that rolls back, or fails to
+  // commit, publishes nothing
+  private static void afterCommit(Runnable action) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      action.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        action.run();
+      }
+    });
   }
 
 }
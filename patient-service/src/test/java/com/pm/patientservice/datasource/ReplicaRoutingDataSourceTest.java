@@ -0,0 +1,108 @@
+package com.pm.patientservice.datasource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.util.List;
+import javax.sql.DataSource;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+class ReplicaRoutingDataSourceTest {
+
+  private ReadYourWritesTracker tracker;
+  private ReplicaRoutingDataSource routingDataSource;
+  private JdbcTemplate jdbcTemplate;
+  private TransactionTemplate readOnly;
+  private TransactionTemplate readWrite;
+
+  @BeforeEach
+  void setUp() {
+    tracker = new ReadYourWritesTracker(Duration.ofMinutes(1));
+    routingDataSource = new ReplicaRoutingDataSource(h2("primary"), List.of(h2("replica")), tracker,
+      Duration.ofMinutes(1));
+    routingDataSource.afterPropertiesSet();
+    DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+    jdbcTemplate = new JdbcTemplate(dataSource);
+    DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+    readWrite = new TransactionTemplate(transactionManager);
+    readOnly = new TransactionTemplate(transactionManager);
+    readOnly.setReadOnly(true);
+    new JdbcTemplate(h2("primary")).execute("CREATE TABLE IF NOT EXISTS note (text VARCHAR(20))");
+  }
+
+  @AfterEach
+  void tearDown() throws Exception {
+    tracker.clear();
+    routingDataSource.close();
+  }
+
+  @Test
+  void readOnlyTransactionsGoToReplica() {
+    assertEquals("REPLICA", readOnly.execute(status -> database()));
+    assertEquals("PRIMARY", readWrite.execute(status -> database()));
+  }
+
+  @Test
+  void sessionReadsFromPrimaryAfterItWrote() {
+    tracker.bind("session-1");
+    assertEquals("REPLICA", readOnly.execute(status -> database()));
+    readWrite.execute(status -> jdbcTemplate.update("INSERT INTO note VALUES ('written')"));
+    tracker.bind("session-1");
+    assertEquals("PRIMARY", readOnly.execute(status -> database()));
+    tracker.bind("session-2");
+    assertEquals("REPLICA", readOnly.execute(status -> database()));
+  }
+
+  @Test
+  void readWriteTransactionThatOnlyQueriedDoesNotPinTheSession() {
+    tracker.bind("session-1");
+    assertEquals("PRIMARY", readWrite.execute(status -> database()));
+    assertEquals("REPLICA", readOnly.execute(status -> database()));
+    tracker.bind("session-1");
+    assertEquals("REPLICA", readOnly.execute(status -> database()));
+  }
+
+  @Test
+  void rolledBackWriteDoesNotPinTheSession() {
+    tracker.bind("session-1");
+    readWrite.execute(status -> {
+      jdbcTemplate.update("INSERT INTO note VALUES ('rolled back')");
+      status.setRollbackOnly();
+      return null;
+    });
+    tracker.bind("session-1");
+    assertEquals("REPLICA", readOnly.execute(status -> database()));
+  }
+
+  @Test
+  void fallsBackToPrimaryWhenReplicaIsDown() throws Exception {
+    JdbcDataSource broken = new JdbcDataSource();
+    broken.setURL("jdbc:h2:mem:broken;IFEXISTS=TRUE");
+    routingDataSource.close();
+    routingDataSource = new ReplicaRoutingDataSource(h2("primary"), List.of(broken), tracker, Duration.ofMinutes(1));
+    routingDataSource.afterPropertiesSet();
+    DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+    jdbcTemplate = new JdbcTemplate(dataSource);
+    readOnly = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    readOnly.setReadOnly(true);
+
+    assertEquals("PRIMARY", readOnly.execute(status -> database()));
+  }
+
+  private String database() {
+    return jdbcTemplate.queryForObject("SELECT DATABASE()", String.class);
+  }
+
+  private static DataSource h2(String name) {
+    JdbcDataSource dataSource = new JdbcDataSource();
+    dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+    return dataSource;
+  }
+}
@@ -0,0 +1,80 @@
+package com.pm.patientservice.emailfilter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.pm.patientservice.dto.PatientRequestDTO;
+import com.pm.patientservice.exception.EmailAlreadyExistsException;
+import com.pm.patientservice.grpc.BillingServiceGrpcClient;
+import com.pm.patientservice.kafka.KafkaProducer;
+import com.pm.patientservice.model.Patient;
+import com.pm.patientservice.repository.PatientRepository;
+import com.pm.patientservice.service.PatientService;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.LocalDate;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+@SpringBootTest(properties = {
+  "grpc.server.port=-1",
+  "patient.email-filter.enabled=true",
+  "spring.kafka.listener.auto-startup=false"
+})
+class KnownEmailsTest {
+
+  @Autowired
+  private PatientService patientService;
+
+  @Autowired
+  private PatientRepository patientRepository;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @MockitoBean
+  private BillingServiceGrpcClient billingServiceGrpcClient;
+
+  @MockitoBean
+  private KafkaProducer kafkaProducer;
+
+  @Test
+  void skipsTheExistsQueryForNewEmailsAndFallsBackToTheConstraint() {
+    double skipped = count("skipped");
+    patientService.createPatient(request("fresh@example.com"));
+    assertEquals(skipped + 1, count("skipped"));
+
+    // written behind the filter's back, as another instance would before its event arrives
+    Patient other = new Patient();
+    other.setName("Other");
+    other.setEmail("unseen@example.com");
+    other.setAddress("1 Side St");
+    other.setDateOfBirth(LocalDate.of(1990, 1, 1));
+    other.setRegisteredDate(LocalDate.of(2024, 1, 1));
+    patientRepository.save(other);
+
+    assertThrows(EmailAlreadyExistsException.class, () -> patientService.createPatient(request("unseen@example.com")));
+    assertEquals(1, count("missed"));
+
+    // learnt from the failed insert, so the next attempt is caught by the query
+    double taken = count("taken");
+    assertThrows(EmailAlreadyExistsException.class, () -> patientService.createPatient(request("unseen@example.com")));
+    assertEquals(taken + 1, count("taken"));
+    assertEquals(1, count("missed"));
+  }
+
+  private double count(String outcome) {
+    return meterRegistry.get("patient.email-filter.checks").tag("outcome", outcome).counter().count();
+  }
+
+  private static PatientRequestDTO request(String email) {
+    PatientRequestDTO request = new PatientRequestDTO();
+    request.setName("Filter Test");
+    request.setEmail(email);
+    request.setAddress("1 Main St");
+    request.setDateOfBirth("1990-01-01");
+    request.setRegisteredDate("2024-01-01");
+    return request;
+  }
+}
@@ -0,0 +1,50 @@
+package com.pm.patientservice.emailfilter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class ScalableBloomFilterTest {
+
+  @Test
+  void neverMissesAnAddedString() {
+    ScalableBloomFilter filter = new ScalableBloomFilter(1000, 0.01);
+    for (int i = 0; i < 20_000; i++) {
+      filter.add("patient" + i + "@example.com");
+    }
+    for (int i = 0; i < 20_000; i++) {
+      assertTrue(filter.mightContain("patient" + i + "@example.com"));
+    }
+  }
+
+  @Test
+  void growsByStagesAndStaysUnderTheTargetRate() {
+    ScalableBloomFilter filter = new ScalableBloomFilter(1000, 0.01);
+    for (int i = 0; i < 50_000; i++) {
+      filter.add("patient" + i + "@example.com");
+    }
+    // 1000 + 2000 + ... + 32000 covers 63000
+    assertEquals(6, filter.stageCount());
+
+    int falsePositives = 0;
+    int probes = 100_000;
+    for (int i = 0; i < probes; i++) {
+      if (filter.mightContain("someone" + i + "@example.org")) {
+        falsePositives++;
+      }
+    }
+    double observed = (double) falsePositives / probes;
+    assertTrue(observed < filter.targetFalsePositiveRate(), "observed rate " + observed);
+    assertTrue(filter.expectedFalsePositiveRate() < filter.targetFalsePositiveRate());
+  }
+
+  @Test
+  void countsEachStringOnce() {
+    ScalableBloomFilter filter = new ScalableBloomFilter(16, 0.01);
+    filter.add("a@example.com");
+    filter.add("a@example.com");
+    filter.add("b@example.com");
+    assertEquals(2, filter.size());
+  }
+}
@@ -0,0 +1,144 @@
+package com.pm.patientservice.export;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.InflaterInputStream;
+import org.junit.jupiter.api.Test;
+
+class ColumnarPatientExportWriterTest {
+
+  @Test
+  void rowsReadBackAcrossRowGroups() throws Exception {
+    List<Object[]> rows = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      rows.add(new Object[] {
+        new UUID(i, 42 - i),
+        "Patient " + i + (i == 3 ? " Zoë, \"Jr\"" : ""),
+        i == 1 ? null : "patient" + i + "@example.com",
+        i == 2 ? null : i + " Main St\nSpringfield",
+        LocalDate.of(1980 + i, 1 + i, 10),
+        LocalDate.of(2024, 1, 1 + i)
+      });
+    }
+
+    // 5 rows in groups of 2: two full groups and a partial one flushed on close
+    byte[] exported = export(rows, 2);
+
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(exported));
+    byte[] magic = new byte[5];
+    in.readFully(magic);
+    assertEquals("PMCOL", new String(magic, StandardCharsets.US_ASCII));
+    assertEquals(1, in.readByte());
+    int columnCount = in.readShort();
+    String[] names = new String[columnCount];
+    byte[] types = new byte[columnCount];
+    for (int i = 0; i < columnCount; i++) {
+      names[i] = in.readUTF();
+      types[i] = in.readByte();
+    }
+    assertArrayEquals(new String[] {"id", "name", "email", "address", "date_of_birth", "registered_date"}, names);
+    assertArrayEquals(new byte[] {0, 1, 1, 1, 2, 2}, types);
+
+    List<Object[]> read = new ArrayList<>();
+    List<Integer> groupSizes = new ArrayList<>();
+    int rowCount;
+    while ((rowCount = in.readInt()) != 0) {
+      groupSizes.add(rowCount);
+      Object[][] group = new Object[rowCount][columnCount];
+      for (int column = 0; column < columnCount; column++) {
+        byte[] chunk = new byte[in.readInt()];
+        in.readFully(chunk);
+        DataInputStream values = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(chunk)));
+        for (int row = 0; row < rowCount; row++) {
+          group[row][column] = readValue(values, types[column]);
+        }
+        assertEquals(-1, values.read());
+      }
+      read.addAll(Arrays.asList(group));
+    }
+    assertEquals(5, in.readLong());
+    assertEquals(-1, in.read());
+
+    assertEquals(List.of(2, 2, 1), groupSizes);
+    assertEquals(rows.size(), read.size());
+    for (int i = 0; i < rows.size(); i++) {
+      assertArrayEquals(rows.get(i), read.get(i));
+    }
+  }
+
+  @Test
+  void emptyExportHasHeaderAndFooterOnly() throws Exception {
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(export(List.of(), 2)));
+    in.skipNBytes(5 + 1);
+    int columnCount = in.readShort();
+    for (int i = 0; i < columnCount; i++) {
+      in.readUTF();
+      in.readByte();
+    }
+    assertEquals(0, in.readInt());
+    assertEquals(0, in.readLong());
+    assertEquals(-1, in.read());
+  }
+
+  private static Object readValue(DataInputStream in, byte type) throws IOException {
+    switch (type) {
+      case 0:
+        return new UUID(in.readLong(), in.readLong());
+      case 1:
+        int length = in.readInt();
+        if (length == -1) {
+          return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+      default:
+        return LocalDate.ofEpochDay(in.readInt());
+    }
+  }
+
+  private static byte[] export(List<Object[]> rows, int rowGroupSize) throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:")) {
+      try (Statement statement = connection.createStatement()) {
+        statement.execute("CREATE TABLE patient (position INT, id UUID, name VARCHAR(255), email VARCHAR(255), "
+          + "address VARCHAR(255), date_of_birth DATE, registered_date DATE)");
+      }
+      try (PreparedStatement insert = connection.prepareStatement(
+        "INSERT INTO patient VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+        for (int i = 0; i < rows.size(); i++) {
+          insert.setInt(1, i);
+          for (int column = 0; column < 6; column++) {
+            insert.setObject(column + 2, rows.get(i)[column]);
+          }
+          insert.executeUpdate();
+        }
+      }
+      try (Statement statement = connection.createStatement();
+           ResultSet rs = statement.executeQuery("SELECT id, name, email, address, date_of_birth, "
+             + "registered_date FROM patient ORDER BY position");
+           ColumnarPatientExportWriter writer = new ColumnarPatientExportWriter(out, rowGroupSize)) {
+        while (rs.next()) {
+          writer.write(rs);
+        }
+      }
+    }
+    return out.toByteArray();
+  }
+}
@@ -0,0 +1,58 @@
+package com.pm.patientservice.export;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import org.junit.jupiter.api.Test;
+
+class CsvPatientExportWriterTest {
+
+  private static final String ID = "123e4567-e89b-12d3-a456-426614174000";
+
+  @Test
+  void quotesOnlyFieldsThatNeedIt() throws Exception {
+    assertEquals(header() + ID + ",John Doe,john@example.com,123 Main St,1985-06-15,2024-01-10\n",
+      export("John Doe", "john@example.com", "123 Main St"));
+  }
+
+  @Test
+  void quotesSeparatorsAndLineBreaksAndDoublesQuotes() throws Exception {
+    assertEquals(header() + ID + ",\"Doe, John\",john@example.com,\"Flat 2\nHigh St\",1985-06-15,2024-01-10\n",
+      export("Doe, John", "john@example.com", "Flat 2\nHigh St"));
+    assertEquals(header() + ID + ",\"John \"\"Jack\"\" Doe\",john@example.com,\"1 Main St\r\",1985-06-15,2024-01-10\n",
+      export("John \"Jack\" Doe", "john@example.com", "1 Main St\r"));
+  }
+
+  @Test
+  void writesNullAsAnEmptyField() throws Exception {
+    assertEquals(header() + ID + ",John Doe,,,1985-06-15,2024-01-10\n", export("John Doe", null, null));
+  }
+
+  private static String header() {
+    return "id,name,email,address,date_of_birth,registered_date\n";
+  }
+
+  private static String export(String name, String email, String address) throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:");
+         PreparedStatement statement = connection.prepareStatement(
+           "SELECT CAST(? AS UUID), ?, ?, ?, DATE '1985-06-15', DATE '2024-01-10'")) {
+      statement.setString(1, ID);
+      statement.setString(2, name);
+      statement.setString(3, email);
+      statement.setString(4, address);
+      try (ResultSet rs = statement.executeQuery();
+           CsvPatientExportWriter writer = new CsvPatientExportWriter(out)) {
+        while (rs.next()) {
+          writer.write(rs);
+        }
+      }
+    }
+    return out.toString(StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,133 @@
+package com.pm.patientservice.export;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@SpringBootTest(properties = {
+  "grpc.server.port=-1",
+  "spring.kafka.listener.auto-startup=false",
+  "patient.export.row-group-size=500",
+  "patient.export.directory=${java.io.tmpdir}/patient-export-test"
+})
+class PatientExportServiceTest {
+
+  private static final int PATIENTS = 3_000;
+
+  @Autowired
+  private PatientExportService patientExportService;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  private long total;
+
+  @BeforeEach
+  void setUp() {
+    List<Object[]> rows = new ArrayList<>(PATIENTS);
+    for (int i = 0; i < PATIENTS; i++) {
+      rows.add(new Object[] {UUID.randomUUID(), "Export " + i, "export-" + i + "@example.com", i + " Main St",
+        LocalDate.of(1990, 1, 1), LocalDate.of(2024, 1, 1)});
+    }
+    jdbcTemplate.batchUpdate("INSERT INTO patient (id, name, email, address, date_of_birth, registered_date) "
+      + "VALUES (?, ?, ?, ?, ?, ?)", rows);
+    total = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM patient", Long.class);
+  }
+
+  @AfterEach
+  void tearDown() {
+    jdbcTemplate.update("DELETE FROM patient WHERE email LIKE 'export-%'");
+  }
+
+  @Test
+  void reportsProgressWhileStreamingAndCompletes() throws Exception {
+    ExportJob job = patientExportService.newJob(ExportFormat.CSV, null);
+    List<Long> progress = new ArrayList<>();
+    ByteArrayOutputStream csv = new ByteArrayOutputStream();
+    OutputStream out = new OutputStream() {
+      @Override
+      public void write(int b) {
+        csv.write(b);
+      }
+
+      @Override
+      public void write(byte[] b, int off, int len) {
+        progress.add(job.getRowsWritten());
+        csv.write(b, off, len);
+      }
+    };
+
+    patientExportService.export(job, false, out);
+
+    assertEquals(ExportJob.Status.COMPLETED, job.getStatus());
+    assertEquals(total, job.getTotalRows());
+    assertEquals(total, job.getRowsWritten());
+    assertNotNull(job.getFinishedAt());
+    assertTrue(progress.stream().anyMatch(rows -> rows > 0 && rows < total), "no progress reported mid-export");
+    assertEquals(total + 1, csv.toString(StandardCharsets.UTF_8).lines().count());
+    assertEquals(job, patientExportService.getJob(job.getId()));
+  }
+
+  @Test
+  void fileExportRunsInTheBackground() throws Exception {
+    ExportJob job = patientExportService.startFileExport(ExportFormat.COLUMNAR, true);
+
+    long deadline = System.currentTimeMillis() + 30_000;
+    while (patientExportService.getJob(job.getId()).getStatus() == ExportJob.Status.RUNNING
+      && System.currentTimeMillis() < deadline) {
+      Thread.sleep(50);
+    }
+    assertEquals(ExportJob.Status.COMPLETED, job.getStatus(), job.getError());
+    assertEquals(total, job.getRowsWritten());
+    assertEquals("patients-" + job.getId() + ".pmcol.gz", job.getFile().getFileName().toString());
+
+    byte[] exported;
+    try (InputStream in = new GZIPInputStream(Files.newInputStream(job.getFile()))) {
+      exported = in.readAllBytes();
+    }
+    finally {
+      Files.deleteIfExists(job.getFile());
+    }
+    assertEquals("PMCOL", new String(exported, 0, 5, StandardCharsets.US_ASCII));
+    // the footer ends with the total row count
+    DataInputStream footer = new DataInputStream(new ByteArrayInputStream(exported, exported.length - 8, 8));
+    assertEquals(total, footer.readLong());
+  }
+
+  @Test
+  void marksTheJobFailedWhenWritingFails() {
+    ExportJob job = patientExportService.newJob(ExportFormat.CSV, null);
+    OutputStream broken = new OutputStream() {
+      @Override
+      public void write(int b) throws IOException {
+        throw new IOException("disk full");
+      }
+    };
+
+    assertThrows(UncheckedIOException.class, () -> patientExportService.export(job, false, broken));
+    assertEquals(ExportJob.Status.FAILED, job.getStatus());
+    assertTrue(job.getError().contains("disk full"), job.getError());
+  }
+}
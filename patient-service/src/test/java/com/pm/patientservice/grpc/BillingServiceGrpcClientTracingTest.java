@@ -0,0 +1,87 @@
+package com.pm.patientservice.grpc;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import billing.BillingRequest;
+import billing.BillingResponse;
+import billing.BillingServiceGrpc.BillingServiceImplBase;
+import io.grpc.Metadata;
+import io.grpc.Server;
+import io.grpc.ServerBuilder;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.ServerInterceptors;
+import io.grpc.stub.StreamObserver;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+@SpringBootTest(properties = {
+  "grpc.server.port=-1",
+  "management.tracing.sampling.probability=1.0"
+})
+@AutoConfigureObservability(metrics = false)
+class BillingServiceGrpcClientTracingTest {
+
+  private static final Metadata.Key<String> TRACEPARENT = Metadata.Key.of("traceparent", Metadata.ASCII_STRING_MARSHALLER);
+  private static final AtomicReference<String> received = new AtomicReference<>();
+  private static Server billing;
+
+  @Autowired
+  private BillingServiceGrpcClient client;
+
+  @Autowired
+  private Tracer tracer;
+
+  @DynamicPropertySource
+  static void billingServer(DynamicPropertyRegistry properties) throws IOException {
+    BillingServiceImplBase service = new BillingServiceImplBase() {
+      @Override
+      public void createBillingAccount(BillingRequest request, StreamObserver<BillingResponse> responseObserver) {
+        responseObserver.onNext(BillingResponse.newBuilder().setAccountId("account").setStatus("ACTIVE").build());
+        responseObserver.onCompleted();
+      }
+    };
+    ServerInterceptor capture = new ServerInterceptor() {
+      @Override
+      public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+                                                                   ServerCallHandler<ReqT, RespT> next) {
+        received.set(headers.get(TRACEPARENT));
+        return next.startCall(call, headers);
+      }
+    };
+    billing = ServerBuilder.forPort(0).addService(ServerInterceptors.intercept(service, capture)).build().start();
+    properties.add("billing.service.address", () -> "localhost");
+    properties.add("billing.service.grpc.port", billing::getPort);
+  }
+
+  @AfterAll
+  static void stopBilling() {
+    billing.shutdownNow();
+  }
+
+  @Test
+  void sendsTheCurrentTraceInCallMetadata() {
+    Span span = tracer.nextSpan().name("create patient").start();
+    try (Tracer.SpanInScope ignored = tracer.withSpan(span)) {
+      client.createBillingAccount("patient", "Jane Doe", "jane@example.com");
+    }
+    finally {
+      span.end();
+    }
+
+    String traceparent = received.get();
+    assertNotNull(traceparent);
+    assertTrue(traceparent.startsWith("00-" + span.context().traceId() + "-"), traceparent);
+  }
+}
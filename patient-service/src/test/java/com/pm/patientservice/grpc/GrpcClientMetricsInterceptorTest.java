@@ -0,0 +1,68 @@
+package com.pm.patientservice.grpc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import billing.BillingRequest;
+import billing.BillingResponse;
+import billing.BillingServiceGrpc;
+import billing.BillingServiceGrpc.BillingServiceImplBase;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class GrpcClientMetricsInterceptorTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private Server server;
+  private ManagedChannel channel;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    BillingServiceImplBase service = new BillingServiceImplBase() {
+      @Override
+      public void createBillingAccount(BillingRequest request, StreamObserver<BillingResponse> responseObserver) {
+        if (request.getEmail().isEmpty()) {
+          responseObserver.onError(Status.INVALID_ARGUMENT.asRuntimeException());
+          return;
+        }
+        responseObserver.onNext(BillingResponse.newBuilder().setAccountId("account").setStatus("ACTIVE").build());
+        responseObserver.onCompleted();
+      }
+    };
+    String name = InProcessServerBuilder.generateName();
+    server = InProcessServerBuilder.forName(name).addService(service).build().start();
+    channel = InProcessChannelBuilder.forName(name)
+                                     .intercept(new GrpcClientMetricsInterceptor(meterRegistry))
+                                     .build();
+  }
+
+  @AfterEach
+  void tearDown() {
+    channel.shutdownNow();
+    server.shutdownNow();
+  }
+
+  @Test
+  void recordsLatencyPerMethodAndStatus() {
+    BillingServiceGrpc.BillingServiceBlockingStub stub = BillingServiceGrpc.newBlockingStub(channel);
+    stub.createBillingAccount(BillingRequest.newBuilder().setEmail("a@example.com").build());
+    stub.createBillingAccount(BillingRequest.newBuilder().setEmail("b@example.com").build());
+    assertThrows(StatusRuntimeException.class, () -> stub.createBillingAccount(BillingRequest.getDefaultInstance()));
+
+    assertEquals(2, meterRegistry.get("grpc.client.calls")
+                                 .tags("method", "BillingService/CreateBillingAccount", "status", "OK")
+                                 .timer().count());
+    assertEquals(1, meterRegistry.get("grpc.client.calls")
+                                 .tags("method", "BillingService/CreateBillingAccount", "status", "INVALID_ARGUMENT")
+                                 .timer().count());
+  }
+}
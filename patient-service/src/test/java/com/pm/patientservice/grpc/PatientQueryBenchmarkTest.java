@@ -0,0 +1,146 @@
+package com.pm.patientservice.grpc;
+
+import com.pm.patientservice.id.TimeOrderedUuidGenerator;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import patient.query.GetPatientRequest;
+import patient.query.GetPatientsRequest;
+import patient.query.ListPatientsRequest;
+import patient.query.PatientQueryServiceGrpc;
+import patient.query.PatientQueryServiceGrpc.PatientQueryServiceBlockingStub;
+
+/**
+ * Same lookups over REST/JSON and gRPC/protobuf against one patient-service over loopback. The REST side
+ * calls the service directly, so the gateway hop and JWT check that other services would also pay are not
+ * included. For example:
+ * <pre>
+ * ./mvnw test -Dtest=PatientQueryBenchmarkTest -Dbench.patient-query.rows=100000
+ * </pre>
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "patient.limiter.enabled=false")
+@EnabledIfSystemProperty(named = "bench.patient-query.rows", matches = "\\d+")
+class PatientQueryBenchmarkTest {
+
+  private static final int LOOKUPS = 5_000;
+  private static final int BATCH = 100;
+
+  @LocalServerPort
+  private int httpPort;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  private static int grpcPort;
+
+  @DynamicPropertySource
+  static void grpcPort(DynamicPropertyRegistry properties) throws IOException {
+    try (ServerSocket socket = new ServerSocket(0)) {
+      grpcPort = socket.getLocalPort();
+    }
+    properties.add("grpc.server.port", () -> grpcPort);
+  }
+
+  @Test
+  void restVersusGrpc() throws Exception {
+    int rows = Integer.getInteger("bench.patient-query.rows");
+    List<UUID> ids = seed(rows);
+    HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    ManagedChannel channel = ManagedChannelBuilder.forAddress("localhost", grpcPort).usePlaintext().build();
+    PatientQueryServiceBlockingStub stub = PatientQueryServiceGrpc.newBlockingStub(channel);
+    try {
+      for (int round = 0; round < 2; round++) {
+        // the first round warms up both paths
+        long[] restNanos = new long[LOOKUPS];
+        long[] grpcNanos = new long[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+          UUID id = ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+          long start = System.nanoTime();
+          http.send(HttpRequest.newBuilder(URI.create("http://localhost:" + httpPort + "/patients/" + id)).build(),
+            HttpResponse.BodyHandlers.ofByteArray());
+          restNanos[i] = System.nanoTime() - start;
+          start = System.nanoTime();
+          stub.getPatient(GetPatientRequest.newBuilder().setId(id.toString()).build());
+          grpcNanos[i] = System.nanoTime() - start;
+        }
+        report("get by id, REST", restNanos);
+        report("get by id, gRPC", grpcNanos);
+
+        long[] batchNanos = new long[LOOKUPS / BATCH];
+        for (int i = 0; i < batchNanos.length; i++) {
+          GetPatientsRequest.Builder request = GetPatientsRequest.newBuilder();
+          for (int j = 0; j < BATCH; j++) {
+            request.addIds(ids.get(ThreadLocalRandom.current().nextInt(ids.size())).toString());
+          }
+          long start = System.nanoTime();
+          stub.getPatients(request.build());
+          batchNanos[i] = System.nanoTime() - start;
+        }
+        report("batch of " + BATCH + ", gRPC", batchNanos);
+
+        long start = System.nanoTime();
+        byte[] json = http.send(HttpRequest.newBuilder(URI.create("http://localhost:" + httpPort + "/patients")).build(),
+          HttpResponse.BodyHandlers.ofByteArray()).body();
+        long restListNanos = System.nanoTime() - start;
+        start = System.nanoTime();
+        long[] streamed = new long[2];
+        stub.listPatients(ListPatientsRequest.newBuilder().setPageSize(1000).build()).forEachRemaining(page -> {
+          streamed[0] += page.getPatientsCount();
+          streamed[1] += page.getSerializedSize();
+        });
+        long grpcListNanos = System.nanoTime() - start;
+        System.out.printf("list all, REST: %,d ms, %,d bytes%n", restListNanos / 1_000_000, json.length);
+        System.out.printf("list all, gRPC: %,d ms, %,d bytes, %,d patients%n", grpcListNanos / 1_000_000,
+          streamed[1], streamed[0]);
+      }
+    }
+    finally {
+      channel.shutdownNow();
+    }
+  }
+
+  private List<UUID> seed(int rows) {
+    List<UUID> ids = new ArrayList<>(rows);
+    List<Object[]> batch = new ArrayList<>();
+    for (int i = 0; i < rows; i++) {
+      UUID id = TimeOrderedUuidGenerator.next();
+      ids.add(id);
+      batch.add(new Object[] {id, "Patient " + i, "bench" + i + "@example.com", i + " Main St",
+        Date.valueOf(LocalDate.of(1980, 1, 1).plusDays(i % 10_000)), Date.valueOf(LocalDate.of(2024, 1, 10))});
+      if (batch.size() == 1000 || i == rows - 1) {
+        jdbcTemplate.batchUpdate("INSERT INTO patient (id, name, email, address, date_of_birth, registered_date) "
+          + "VALUES (?, ?, ?, ?, ?, ?)", batch);
+        batch.clear();
+      }
+    }
+    return ids;
+  }
+
+  private static void report(String label, long[] nanos) {
+    long[] sorted = nanos.clone();
+    Arrays.sort(sorted);
+    double seconds = Arrays.stream(nanos).sum() / 1e9;
+    System.out.printf("%s: %,.0f calls/s, p50 %.3f ms, p99 %.3f ms%n", label, nanos.length / seconds,
+      sorted[sorted.length / 2] / 1e6, sorted[sorted.length * 99 / 100] / 1e6);
+  }
+}
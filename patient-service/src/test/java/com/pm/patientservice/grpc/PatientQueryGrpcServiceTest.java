@@ -0,0 +1,117 @@
+package com.pm.patientservice.grpc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.pm.patientservice.model.Patient;
+import com.pm.patientservice.repository.PatientRepository;
+import io.grpc.ManagedChannel;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import patient.query.GetPatientRequest;
+import patient.query.GetPatientsRequest;
+import patient.query.GetPatientsResponse;
+import patient.query.ListPatientsRequest;
+import patient.query.PatientPage;
+import patient.query.PatientQueryServiceGrpc;
+import patient.query.PatientQueryServiceGrpc.PatientQueryServiceBlockingStub;
+
+@SpringBootTest(properties = {
+  "grpc.server.port=-1",
+  "grpc.server.in-process-name=patient-query-test"
+})
+class PatientQueryGrpcServiceTest {
+
+  @Autowired
+  private PatientRepository patientRepository;
+
+  private ManagedChannel channel;
+  private PatientQueryServiceBlockingStub stub;
+
+  @BeforeEach
+  void setUp() {
+    channel = InProcessChannelBuilder.forName("patient-query-test").build();
+    stub = PatientQueryServiceGrpc.newBlockingStub(channel);
+  }
+
+  @AfterEach
+  void tearDown() {
+    channel.shutdownNow();
+  }
+
+  @Test
+  void looksUpSingleAndBatchedIds() {
+    Patient saved = patientRepository.save(patient("lookup"));
+    UUID unknown = UUID.randomUUID();
+
+    patient.query.Patient found = stub.getPatient(GetPatientRequest.newBuilder().setId(saved.getId().toString()).build());
+    assertEquals("lookup@example.com", found.getEmail());
+    assertEquals("2024-01-10", found.getRegisteredDate());
+
+    StatusRuntimeException missing = assertThrows(StatusRuntimeException.class,
+      () -> stub.getPatient(GetPatientRequest.newBuilder().setId(unknown.toString()).build()));
+    assertEquals(Status.Code.NOT_FOUND, missing.getStatus().getCode());
+
+    GetPatientsResponse batch = stub.getPatients(GetPatientsRequest.newBuilder()
+                                                                   .addIds(saved.getId().toString())
+                                                                   .addIds(unknown.toString())
+                                                                   .build());
+    assertEquals(1, batch.getPatientsCount());
+    assertEquals(List.of(unknown.toString()), batch.getMissingIdsList());
+
+    StatusRuntimeException invalid = assertThrows(StatusRuntimeException.class,
+      () -> stub.getPatients(GetPatientsRequest.newBuilder().addIds("not-a-uuid").build()));
+    assertEquals(Status.Code.INVALID_ARGUMENT, invalid.getStatus().getCode());
+  }
+
+  @Test
+  void streamsEveryPatientInIdOrderAndResumesFromAToken() {
+    for (int i = 0; i < 20; i++) {
+      patientRepository.save(patient("stream" + i));
+    }
+    List<String> expected = patientRepository.findAll().stream()
+                                             .map(Patient::getId)
+                                             .sorted(Comparator.comparing(UUID::getMostSignificantBits, Long::compareUnsigned)
+                                                               .thenComparing(UUID::getLeastSignificantBits, Long::compareUnsigned))
+                                             .map(UUID::toString)
+                                             .toList();
+
+    List<String> streamed = new ArrayList<>();
+    List<PatientPage> pages = new ArrayList<>();
+    stub.listPatients(ListPatientsRequest.newBuilder().setPageSize(7).build()).forEachRemaining(page -> {
+      pages.add(page);
+      page.getPatientsList().forEach(p -> streamed.add(p.getId()));
+    });
+    assertEquals(expected, streamed);
+    assertEquals((expected.size() + 6) / 7, pages.size());
+
+    // resume after the second page
+    Iterator<PatientPage> resumed = stub.listPatients(ListPatientsRequest.newBuilder()
+                                                                         .setPageSize(7)
+                                                                         .setPageToken(pages.get(1).getNextPageToken())
+                                                                         .build());
+    assertEquals(expected.get(14), resumed.next().getPatients(0).getId());
+  }
+
+  private static Patient patient(String name) {
+    Patient patient = new Patient();
+    patient.setName(name);
+    patient.setEmail(name + "@example.com");
+    patient.setAddress("1 Main St");
+    patient.setDateOfBirth(LocalDate.of(1990, 1, 1));
+    patient.setRegisteredDate(LocalDate.of(2024, 1, 10));
+    return patient;
+  }
+}
@@ -0,0 +1,27 @@
+package com.pm.patientservice.id;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class TimeOrderedUuidGeneratorTest {
+
+  @Test
+  void generatesVersion7Ids() {
+    UUID id = TimeOrderedUuidGenerator.next();
+    assertEquals(7, id.version());
+    assertEquals(2, id.variant());
+  }
+
+  @Test
+  void idsAreMonotonicWithinTheSameMillisecond() {
+    UUID previous = TimeOrderedUuidGenerator.next();
+    for (int i = 0; i < 100_000; i++) {
+      UUID next = TimeOrderedUuidGenerator.next();
+      assertTrue(Long.compareUnsigned(next.getMostSignificantBits(), previous.getMostSignificantBits()) > 0);
+      previous = next;
+    }
+  }
+}
@@ -0,0 +1,82 @@
+package com.pm.patientservice.id;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+/**
+ * Compares insert throughput and primary key index size for random (v4) and time-ordered (v7) ids.
+ * Needs a scratch Postgres database, e.g.
+ * <pre>
+ * ./mvnw test -Dtest=UuidInsertBenchmarkTest -Dbench.jdbc.url=jdbc:postgresql://localhost:5432/bench \
+ *   -Dbench.jdbc.user=postgres -Dbench.jdbc.password=postgres -Dbench.rows=1000000,10000000,50000000
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "bench.jdbc.url", matches = ".+")
+class UuidInsertBenchmarkTest {
+
+  private static final int BATCH_SIZE = 1000;
+
+  @Test
+  void insertRateAndIndexSize() throws Exception {
+    long[] rowCounts = Arrays.stream(System.getProperty("bench.rows", "1000000").split(","))
+                             .mapToLong(Long::parseLong)
+                             .toArray();
+    try (Connection connection = DriverManager.getConnection(System.getProperty("bench.jdbc.url"),
+      System.getProperty("bench.jdbc.user", "postgres"), System.getProperty("bench.jdbc.password", "postgres"))) {
+      connection.setAutoCommit(false);
+      for (long rows : rowCounts) {
+        run(connection, "v4", rows, UUID::randomUUID);
+        run(connection, "v7", rows, TimeOrderedUuidGenerator::next);
+      }
+    }
+  }
+
+  private void run(Connection connection, String label, long rows, Supplier<UUID> ids) throws Exception {
+    String table = "uuid_bench_" + label;
+    try (Statement statement = connection.createStatement()) {
+      statement.execute("DROP TABLE IF EXISTS " + table);
+      statement.execute("CREATE TABLE " + table + " (id UUID PRIMARY KEY, email VARCHAR(255) NOT NULL)");
+    }
+    connection.commit();
+
+    long start = System.nanoTime();
+    long lastReport = start;
+    long lastRows = 0;
+    try (PreparedStatement insert = connection.prepareStatement("INSERT INTO " + table + " VALUES (?, ?)")) {
+      for (long i = 1; i <= rows; i++) {
+        insert.setObject(1, ids.get());
+        insert.setString(2, "bench" + i + "@example.com");
+        insert.addBatch();
+        if (i % BATCH_SIZE == 0 || i == rows) {
+          insert.executeBatch();
+          connection.commit();
+        }
+        if (i % 1_000_000 == 0) {
+          long now = System.nanoTime();
+          // the rate of the latest million shows the slowdown as the index outgrows shared_buffers
+          System.out.printf("%s %,d rows: %,.0f rows/s (last 1M)%n", label, i,
+            (i - lastRows) / ((now - lastReport) / 1e9));
+          lastReport = now;
+          lastRows = i;
+        }
+      }
+    }
+    double seconds = (System.nanoTime() - start) / 1e9;
+
+    try (Statement statement = connection.createStatement();
+         ResultSet rs = statement.executeQuery(
+           "SELECT pg_relation_size('" + table + "_pkey'), pg_relation_size('" + table + "')")) {
+      rs.next();
+      System.out.printf("%s %,d rows: %,.0f rows/s overall, pkey index %,d MB, heap %,d MB%n", label, rows,
+        rows / seconds, rs.getLong(1) >> 20, rs.getLong(2) >> 20);
+    }
+  }
+}
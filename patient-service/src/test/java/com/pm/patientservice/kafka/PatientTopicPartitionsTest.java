@@ -0,0 +1,80 @@
+package com.pm.patientservice.kafka;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.kafka.core.ConsumerFactory;
+
+class PatientTopicPartitionsTest {
+
+  @SuppressWarnings("unchecked")
+  private final Consumer<Object, Object> consumer = mock(Consumer.class);
+  @SuppressWarnings("unchecked")
+  private final ConsumerFactory<Object, Object> consumerFactory = mock(ConsumerFactory.class);
+
+  PatientTopicPartitionsTest() {
+    when(consumerFactory.createConsumer()).thenReturn(consumer);
+  }
+
+  @Test
+  void usesThePartitionsTheBrokerReports() {
+    when(consumer.partitionsFor(eq("patient"), any(Duration.class))).thenReturn(partitions(3));
+    PatientTopicPartitions topicPartitions = topicPartitions();
+
+    assertArrayEquals(new String[] {"0", "1", "2"}, topicPartitions.ids());
+    assertEquals(Status.UP, topicPartitions.health().getStatus());
+  }
+
+  @Test
+  void staysUpWhileTheAssumedPartitionsAreConfirmedOrUnknown() {
+    when(consumer.partitionsFor(eq("patient"), any(Duration.class)))
+      .thenThrow(new TimeoutException("no broker"))
+      .thenThrow(new TimeoutException("no broker"))
+      .thenReturn(partitions(1));
+    PatientTopicPartitions topicPartitions = topicPartitions();
+
+    assertArrayEquals(new String[] {"0"}, topicPartitions.ids());
+    Health brokerDown = topicPartitions.health();
+    assertEquals(Status.UP, brokerDown.getStatus());
+    assertEquals(true, brokerDown.getDetails().get("assumed"));
+    Health confirmed = topicPartitions.health();
+    assertEquals(Status.UP, confirmed.getStatus());
+    assertEquals(false, confirmed.getDetails().get("assumed"));
+  }
+
+  @Test
+  void goesOutOfServiceOnceTheBrokerReportsUnassignedPartitions() {
+    when(consumer.partitionsFor(eq("patient"), any(Duration.class)))
+      .thenThrow(new TimeoutException("no broker"))
+      .thenReturn(partitions(3));
+    PatientTopicPartitions topicPartitions = topicPartitions();
+
+    assertArrayEquals(new String[] {"0"}, topicPartitions.ids());
+    assertEquals(Status.OUT_OF_SERVICE, topicPartitions.health().getStatus());
+    // the listeners keep their assignment, so it stays out of service until a restart
+    assertEquals(Status.OUT_OF_SERVICE, topicPartitions.health().getStatus());
+  }
+
+  private PatientTopicPartitions topicPartitions() {
+    return new PatientTopicPartitions(consumerFactory, Duration.ofMillis(100), 1, Duration.ZERO);
+  }
+
+  private static List<PartitionInfo> partitions(int count) {
+    return IntStream.range(0, count)
+                    .mapToObj(partition -> new PartitionInfo("patient", partition, null, null, null))
+                    .toList();
+  }
+}
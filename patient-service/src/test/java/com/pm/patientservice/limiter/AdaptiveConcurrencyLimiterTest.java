@@ -0,0 +1,52 @@
+package com.pm.patientservice.limiter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.pm.patientservice.limiter.AdaptiveConcurrencyLimiter.Priority;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+class AdaptiveConcurrencyLimiterTest {
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+  @Test
+  void keepsPartOfTheLimitForWrites() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(registry, 10, 4, 200, 1000, 0.8);
+
+    for (int i = 1; i <= 8; i++) {
+      assertEquals(i, limiter.tryAcquire(Priority.READ));
+    }
+    assertEquals(-1, limiter.tryAcquire(Priority.READ));
+    assertEquals(9, limiter.tryAcquire(Priority.WRITE));
+    assertEquals(10, limiter.tryAcquire(Priority.WRITE));
+    assertEquals(-1, limiter.tryAcquire(Priority.WRITE));
+
+    assertEquals(1, registry.get("patient.limiter.rejected").tag("priority", "read").counter().count());
+    assertEquals(1, registry.get("patient.limiter.rejected").tag("priority", "write").counter().count());
+    assertEquals(10, registry.get("patient.limiter.inflight").gauge().value());
+  }
+
+  @Test
+  void releaseFreesTheSlot() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(registry, 4, 4, 200, 1000, 1.0);
+    for (int i = 0; i < 4; i++) {
+      limiter.tryAcquire(Priority.WRITE);
+    }
+    assertEquals(-1, limiter.tryAcquire(Priority.WRITE));
+
+    limiter.release(System.nanoTime() - 1_000_000, 4, false);
+
+    assertEquals(4, limiter.tryAcquire(Priority.WRITE));
+  }
+
+  @Test
+  void admitsAtLeastOneReadWhateverTheShare() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(registry, 4, 4, 200, 1000, 0.1);
+
+    assertEquals(1, limiter.tryAcquire(Priority.READ));
+    assertEquals(-1, limiter.tryAcquire(Priority.READ));
+    assertTrue(limiter.tryAcquire(Priority.WRITE) > 0);
+  }
+}
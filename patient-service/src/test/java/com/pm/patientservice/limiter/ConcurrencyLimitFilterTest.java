@@ -0,0 +1,68 @@
+package com.pm.patientservice.limiter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.pm.patientservice.limiter.AdaptiveConcurrencyLimiter.Priority;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class ConcurrencyLimitFilterTest {
+
+  private AdaptiveConcurrencyLimiter limiter;
+  private ConcurrencyLimitFilter filter;
+
+  @BeforeEach
+  void setUp() {
+    // limit 4, and every slot taken
+    limiter = new AdaptiveConcurrencyLimiter(new SimpleMeterRegistry(), 4, 4, 200, 1000, 1.0);
+    for (int i = 0; i < 4; i++) {
+      limiter.tryAcquire(Priority.WRITE);
+    }
+    filter = new ConcurrencyLimitFilter(limiter);
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"/patients", "/patients/", "/patients/0190f3a2-7c4e-7d8a-9f00-000000000001"})
+  void shedsPatientRequestsAtTheLimit(String path) throws Exception {
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    MockFilterChain chain = new MockFilterChain();
+
+    filter.doFilter(new MockHttpServletRequest("GET", path), response, chain);
+
+    assertEquals(503, response.getStatus());
+    assertEquals("1", response.getHeader(HttpHeaders.RETRY_AFTER));
+    assertNull(chain.getRequest(), "the request reached the controller");
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"/patientsX", "/patients-archive", "/patients/export/jobs", "/actuator/health"})
+  void leavesOtherPathsAlone(String path) throws Exception {
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    MockFilterChain chain = new MockFilterChain();
+
+    filter.doFilter(new MockHttpServletRequest("GET", path), response, chain);
+
+    assertEquals(200, response.getStatus());
+    assertNotNull(chain.getRequest());
+  }
+
+  @Test
+  void admittedRequestReleasesItsSlot() throws Exception {
+    limiter.release(System.nanoTime(), 4, false);
+    MockFilterChain chain = new MockFilterChain();
+
+    filter.doFilter(new MockHttpServletRequest("POST", "/patients"), new MockHttpServletResponse(), chain);
+
+    assertNotNull(chain.getRequest());
+    assertEquals(4, limiter.tryAcquire(Priority.WRITE));
+  }
+}
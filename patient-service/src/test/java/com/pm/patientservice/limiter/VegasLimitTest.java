@@ -0,0 +1,39 @@
+package com.pm.patientservice.limiter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class VegasLimitTest {
+
+  @Test
+  void growsWhileLatencyStaysAtBaseline() {
+    VegasLimit limit = new VegasLimit(20, 4, 200, 1000);
+    limit.onSample(1_000_000, 20, false);
+    for (int i = 0; i < 5; i++) {
+      limit.onSample(1_000_000, limit.getLimit(), false);
+    }
+    assertTrue(limit.getLimit() > 20);
+  }
+
+  @Test
+  void shrinksWhenRequestsQueue() {
+    VegasLimit limit = new VegasLimit(100, 4, 200, 1000);
+    limit.onSample(1_000_000, 100, false);
+    for (int i = 0; i < 20; i++) {
+      limit.onSample(10_000_000, limit.getLimit(), false);
+    }
+    assertTrue(limit.getLimit() < 100);
+  }
+
+  @Test
+  void neverDropsBelowMinimum() {
+    VegasLimit limit = new VegasLimit(5, 4, 200, 1000);
+    limit.onSample(1_000_000, 5, false);
+    for (int i = 0; i < 50; i++) {
+      limit.onSample(1_000_000, 5, true);
+    }
+    assertEquals(4, limit.getLimit());
+  }
+}
@@ -0,0 +1,142 @@
+package com.pm.patientservice.protobuf;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pm.patientservice.dto.PatientResponseDTO;
+import com.pm.patientservice.model.Patient;
+import com.pm.patientservice.repository.PatientRepository;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import org.springframework.test.web.servlet.MockMvc;
+import patient.api.PatientResponse;
+
+@SpringBootTest(properties = "grpc.server.port=-1")
+@AutoConfigureMockMvc
+class PatientProtobufHttpMessageConverterTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private PatientRepository patientRepository;
+
+  @Test
+  void jsonStaysTheDefault() throws Exception {
+    mockMvc.perform(get("/patients"))
+           .andExpect(status().isOk())
+           .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    mockMvc.perform(get("/patients").accept(MediaType.ALL))
+           .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+  }
+
+  @Test
+  void listsAreLengthDelimitedProtobuf() throws Exception {
+    patientRepository.save(patient("protobuf-one"));
+    patientRepository.save(patient("protobuf-two"));
+
+    byte[] body = mockMvc.perform(get("/patients").accept(PatientProtobufHttpMessageConverter.PROTOBUF))
+                         .andExpect(status().isOk())
+                         .andExpect(content().contentTypeCompatibleWith(PatientProtobufHttpMessageConverter.PROTOBUF_DELIMITED))
+                         .andExpect(header().string("X-Protobuf-Message", "PatientResponse"))
+                         .andReturn().getResponse().getContentAsByteArray();
+
+    List<PatientResponse> patients = new ArrayList<>();
+    ByteArrayInputStream input = new ByteArrayInputStream(body);
+    PatientResponse patient;
+    while ((patient = PatientResponse.parseDelimitedFrom(input)) != null) {
+      patients.add(patient);
+    }
+    assertEquals(patientRepository.count(), patients.size());
+
+    byte[] single = mockMvc.perform(get("/patients/" + patients.get(0).getId())
+                                      .accept(PatientProtobufHttpMessageConverter.PROTOBUF))
+                           .andExpect(status().isOk())
+                           .andReturn().getResponse().getContentAsByteArray();
+    assertEquals(patients.get(0), PatientResponse.parseFrom(single));
+  }
+
+  @Test
+  void errorsAreJsonEvenWhenProtobufWasRequested() throws Exception {
+    mockMvc.perform(get("/patients/" + UUID.randomUUID()).accept(PatientProtobufHttpMessageConverter.PROTOBUF))
+           .andExpect(status().isNotFound())
+           .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+           .andExpect(jsonPath("$.error").value("Patient not found"));
+  }
+
+  /**
+   * Payload size and serialization CPU for a 10k-patient list, JSON (the REST default) against protobuf.
+   * <pre>
+   * ./mvnw test -Dtest=PatientProtobufHttpMessageConverterTest -Dbench.protobuf=true
+   * </pre>
+   */
+  @Test
+  @EnabledIfSystemProperty(named = "bench.protobuf", matches = "true")
+  void payloadSizeAndSerializationCpu() throws IOException {
+    List<PatientResponseDTO> patients = new ArrayList<>();
+    for (int i = 0; i < 10_000; i++) {
+      PatientResponseDTO patient = new PatientResponseDTO();
+      patient.setId(UUID.randomUUID().toString());
+      patient.setName("Patient Number " + i);
+      patient.setEmail("patient" + i + "@example.com");
+      patient.setAddress(i + " Main Street, Springfield");
+      patient.setDateOfBirth("1985-06-15");
+      patients.add(patient);
+    }
+    ObjectMapper objectMapper = new ObjectMapper();
+    PatientProtobufHttpMessageConverter converter = new PatientProtobufHttpMessageConverter();
+    var listType = new ParameterizedTypeReference<List<PatientResponseDTO>>() { }.getType();
+    ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+    for (int round = 0; round < 3; round++) {
+      int iterations = 50;
+      long jsonBytes = 0;
+      long start = threads.getCurrentThreadCpuTime();
+      for (int i = 0; i < iterations; i++) {
+        jsonBytes = objectMapper.writeValueAsBytes(patients).length;
+      }
+      long jsonCpu = (threads.getCurrentThreadCpuTime() - start) / iterations;
+
+      long protobufBytes = 0;
+      start = threads.getCurrentThreadCpuTime();
+      for (int i = 0; i < iterations; i++) {
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        converter.write(patients, listType, PatientProtobufHttpMessageConverter.PROTOBUF, output);
+        protobufBytes = output.getBodyAsBytes().length;
+      }
+      long protobufCpu = (threads.getCurrentThreadCpuTime() - start) / iterations;
+
+      System.out.printf("10k patients: JSON %,d bytes in %.2f ms CPU, protobuf %,d bytes in %.2f ms CPU%n",
+                        jsonBytes, jsonCpu / 1e6, protobufBytes, protobufCpu / 1e6);
+    }
+  }
+
+  private static Patient patient(String name) {
+    Patient patient = new Patient();
+    patient.setName(name);
+    patient.setEmail(name + "@example.com");
+    patient.setAddress("1 Main St");
+    patient.setDateOfBirth(LocalDate.of(1990, 1, 1));
+    patient.setRegisteredDate(LocalDate.of(2024, 1, 10));
+    return patient;
+  }
+}
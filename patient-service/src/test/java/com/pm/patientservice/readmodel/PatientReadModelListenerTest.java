@@ -0,0 +1,74 @@
+package com.pm.patientservice.readmodel;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import com.pm.patientservice.kafka.KafkaProducer;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.ConsumerGroupListing;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import patient.events.PatientEvent;
+
+@SpringBootTest(properties = {
+  "grpc.server.port=-1",
+  "patient.read-model.enabled=true",
+  "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}"
+})
+@EmbeddedKafka(partitions = 2, topics = "patient")
+class PatientReadModelListenerTest {
+
+  @Autowired
+  private PatientReadModel readModel;
+
+  @Autowired
+  private KafkaTemplate<String, byte[]> kafkaTemplate;
+
+  @Autowired
+  private EmbeddedKafkaBroker broker;
+
+  @Test
+  void followsEveryPartitionUnderAFixedGroupId() throws Exception {
+    for (int i = 0; i < 4; i++) {
+      UUID id = UUID.randomUUID();
+      kafkaTemplate.send("patient", id.toString(), event(id).toByteArray()).get();
+      await(id);
+    }
+
+    try (AdminClient admin = AdminClient.create(
+        Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString()))) {
+      List<String> groups = admin.listConsumerGroups().all().get().stream().map(ConsumerGroupListing::groupId).toList();
+      assertEquals(List.of("patient-read-model"), groups);
+    }
+  }
+
+  private void await(UUID id) throws InterruptedException {
+    long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+    while (readModel.findById(id) == null && System.nanoTime() < deadline) {
+      Thread.sleep(50);
+    }
+    assertNotNull(readModel.findById(id), "event for " + id + " never reached the read model");
+  }
+
+  private static PatientEvent event(UUID id) {
+    return PatientEvent.newBuilder()
+                       .setPatientId(id.toString())
+                       .setEventId(UUID.randomUUID().toString())
+                       .setEventType(KafkaProducer.PATIENT_CREATED)
+                       .setName("Listener Test")
+                       .setEmail(id + "@example.com")
+                       .setAddress("1 Main St")
+                       .setDateOfBirth("1990-01-01")
+                       .setRegisteredDate("2024-01-10")
+                       .build();
+  }
+}
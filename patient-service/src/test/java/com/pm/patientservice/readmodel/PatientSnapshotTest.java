@@ -0,0 +1,97 @@
+package com.pm.patientservice.readmodel;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class PatientSnapshotTest {
+
+  private static final LocalDate BIRTH = LocalDate.of(1985, 6, 15);
+  private static final LocalDate REGISTERED = LocalDate.of(2024, 1, 10);
+
+  @Test
+  void survivesGrowthAndRandomDeletes() {
+    PatientSnapshot snapshot = new PatientSnapshot(16);
+    List<UUID> ids = new ArrayList<>();
+    for (int i = 0; i < 10_000; i++) {
+      UUID id = UUID.randomUUID();
+      ids.add(id);
+      snapshot.upsert(id, "Name " + (i % 100), i + "@example.com", "Main St", BIRTH, REGISTERED);
+    }
+    for (int i = 0; i < ids.size(); i += 3) {
+      snapshot.remove(ids.get(i));
+    }
+
+    for (int i = 0; i < ids.size(); i++) {
+      if (i % 3 == 0) {
+        assertNull(snapshot.get(ids.get(i)));
+      } else {
+        assertEquals(i + "@example.com", snapshot.get(ids.get(i)).getEmail());
+      }
+    }
+    assertEquals(ids.size() - (ids.size() + 2) / 3, snapshot.size());
+  }
+
+  @Test
+  void upsertReplacesAndSharesAddresses() {
+    PatientSnapshot snapshot = new PatientSnapshot(16);
+    UUID first = UUID.randomUUID();
+    UUID second = UUID.randomUUID();
+    snapshot.upsert(first, "John Doe", "john@example.com", new String("Main St"), BIRTH, REGISTERED);
+    snapshot.upsert(second, "Jane Doe", "jane@example.com", new String("Main St"), BIRTH, REGISTERED);
+    snapshot.upsert(first, "John Smith", "john@example.com", "Main St", BIRTH, REGISTERED);
+
+    assertEquals(2, snapshot.size());
+    assertEquals("John Smith", snapshot.get(first).getName());
+    assertSame(snapshot.get(first).getAddress(), snapshot.get(second).getAddress());
+    assertNotNull(snapshot.search("JANE", 10).get(0));
+  }
+
+  @Test
+  void dropsAddressesNoPatientHasAnyMore() {
+    PatientSnapshot snapshot = new PatientSnapshot(16);
+    List<UUID> ids = new ArrayList<>();
+    for (int i = 0; i < 1_000; i++) {
+      UUID id = UUID.randomUUID();
+      ids.add(id);
+      snapshot.upsert(id, "Name " + i, i + "@example.com", i % 10 + " Old St", BIRTH, REGISTERED);
+    }
+    assertEquals(10, snapshot.distinctAddresses());
+
+    // everyone moves, then half of them are deleted
+    for (int i = 0; i < ids.size(); i++) {
+      snapshot.upsert(ids.get(i), "Name " + i, i + "@example.com", i + " New St", BIRTH, REGISTERED);
+    }
+    assertEquals(1_000, snapshot.distinctAddresses());
+    for (int i = 0; i < ids.size(); i += 2) {
+      snapshot.remove(ids.get(i));
+    }
+
+    assertEquals(500, snapshot.distinctAddresses());
+    assertEquals("1 New St", snapshot.get(ids.get(1)).getAddress());
+  }
+
+  @Test
+  void idsAfterUseTheDatabasesUnsignedOrder() {
+    PatientSnapshot snapshot = new PatientSnapshot(16);
+    UUID low = new UUID(0x0000_0000_0000_0001L, 5);
+    UUID middle = new UUID(0x7fff_ffff_ffff_ffffL, 0);
+    UUID high = new UUID(0x8000_0000_0000_0000L, 0);
+    UUID highest = new UUID(-1L, -1L);
+    for (UUID id : List.of(highest, middle, low, high)) {
+      snapshot.upsert(id, "Name", id + "@example.com", "Main St", BIRTH, REGISTERED);
+    }
+
+    // UUID.compareTo is signed and would put the last two first
+    assertEquals(List.of(low, middle, high, highest), List.of(snapshot.idsAfter(new UUID(0, 0))));
+    assertEquals(List.of(high, highest), List.of(snapshot.idsAfter(middle)));
+    assertEquals(REGISTERED, snapshot.view(high).registeredDate());
+  }
+}
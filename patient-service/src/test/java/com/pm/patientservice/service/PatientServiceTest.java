@@ -0,0 +1,93 @@
+package com.pm.patientservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import com.pm.patientservice.dto.PatientRequestDTO;
+import com.pm.patientservice.grpc.BillingServiceGrpcClient;
+import com.pm.patientservice.kafka.KafkaProducer;
+import com.pm.patientservice.model.Patient;
+import com.pm.patientservice.repository.PatientRepository;
+import java.time.LocalDate;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest(properties = {
+  "grpc.server.port=-1",
+  "spring.kafka.listener.auto-startup=false"
+})
+class PatientServiceTest {
+
+  @Autowired
+  private PatientService patientService;
+
+  @Autowired
+  private PatientRepository patientRepository;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @MockitoBean
+  private BillingServiceGrpcClient billingServiceGrpcClient;
+
+  @MockitoBean
+  private KafkaProducer kafkaProducer;
+
+  @Test
+  void publishesAnUpdateOnlyOnceItCommits() {
+    Patient patient = patientRepository.save(patient("rollback-update"));
+
+    new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+      patientService.updatePatient(patient.getId(), request("Renamed", patient.getEmail()));
+      status.setRollbackOnly();
+    });
+    verify(kafkaProducer, never()).sendEvent(any(), any());
+    assertEquals("rollback-update", patientRepository.findById(patient.getId()).orElseThrow().getName());
+
+    patientService.updatePatient(patient.getId(), request("Renamed", patient.getEmail()));
+    verify(kafkaProducer).sendEvent(any(), eq(KafkaProducer.PATIENT_UPDATED));
+  }
+
+  @Test
+  void publishesADeleteOnlyOnceItCommits() {
+    UUID id = patientRepository.save(patient("rollback-delete")).getId();
+
+    new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+      patientService.deletePatient(id);
+      status.setRollbackOnly();
+    });
+    verify(kafkaProducer, never()).sendDeletedEvent(any());
+    assertTrue(patientRepository.existsById(id));
+
+    patientService.deletePatient(id);
+    verify(kafkaProducer).sendDeletedEvent(id);
+  }
+
+  private static Patient patient(String name) {
+    Patient patient = new Patient();
+    patient.setName(name);
+    patient.setEmail(name + "@example.com");
+    patient.setAddress("1 Main St");
+    patient.setDateOfBirth(LocalDate.of(1990, 1, 1));
+    patient.setRegisteredDate(LocalDate.of(2024, 1, 10));
+    return patient;
+  }
+
+  private static PatientRequestDTO request(String name, String email) {
+    PatientRequestDTO request = new PatientRequestDTO();
+    request.setName(name);
+    request.setEmail(email);
+    request.setAddress("1 Main St");
+    request.setDateOfBirth("1990-01-01");
+    return request;
+  }
+}